@@ -53,6 +53,74 @@ android {
     buildFeatures {
         buildConfig = true
     }
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+        }
+    }
+    // Exported schemas, read by MigrationTestHelper in the migration tests
+    sourceSets {
+        getByName("test") {
+            assets.srcDir("$projectDir/schemas")
+        }
+    }
+}
+
+// Points a Test task at the debug unit-test classes and classpath. Resolved only
+// when the task runs; the provider has no producer task, so reusing tasks depend on
+// the compiled test classes rather than on running the whole unit-test suite.
+fun Test.reuseDebugUnitTestBuild() {
+    val unitTest = project.provider { project.tasks.getByName<Test>("testDebugUnitTest") }
+    testClassesDirs = project.files(unitTest.map { it.testClassesDirs })
+    classpath = project.files(unitTest.map { it.classpath })
+}
+
+// Prepackaged seed database, opened with Room's createFromAsset on first install.
+// generateSeedDatabase runs the real seeders under Robolectric (SeedDatabaseGenerator)
+// and writes the .db into a generated assets directory that release builds merge;
+// debug builds seed at runtime instead. Run on its own with:
+//   ./gradlew :app:generateSeedDatabase
+abstract class GenerateSeedDatabase : Test() {
+    @get:OutputDirectory
+    abstract val assetsDir: DirectoryProperty
+}
+
+val generateSeedDatabase = tasks.register<GenerateSeedDatabase>("generateSeedDatabase") {
+    description = "Builds the prepackaged seed database asset by running the seeders."
+    group = "build"
+    // Reuses the debug unit-test build, so it never depends on the release assets it feeds
+    reuseDebugUnitTestBuild()
+    filter.includeTestsMatching("*SeedDatabaseGenerator")
+    val seedDb = assetsDir.file("database/loreta_pos.db")
+    jvmArgumentProviders.add(CommandLineArgumentProvider {
+        listOf("-DseedDb.output=" + seedDb.get().asFile.absolutePath)
+    })
+}
+
+// Before/after benchmarks (classes named *Benchmark) print host timings and take
+// far longer than the tests, so unit-test runs skip them. Run them with:
+//   ./gradlew :app:benchmarkUnitTest
+val benchmarkUnitTest = tasks.register<Test>("benchmarkUnitTest") {
+    description = "Runs the *Benchmark classes and prints their timings."
+    group = "verification"
+    reuseDebugUnitTestBuild()
+    filter.includeTestsMatching("*Benchmark")
+    testLogging.showStandardStreams = true
+    // Timings are the output; never skip a run as up to date
+    outputs.upToDateWhen { false }
+}
+
+tasks.withType<Test>().configureEach {
+    if (name != benchmarkUnitTest.name) {
+        filter.excludeTestsMatching("*Benchmark")
+    }
+}
+
+androidComponents {
+    onVariants(selector().withBuildType("release")) { variant ->
+        variant.sources.assets?.addGeneratedSourceDirectory(
+            generateSeedDatabase, GenerateSeedDatabase::assetsDir)
+    }
 }
 
 dependencies {
@@ -62,6 +130,8 @@ dependencies {
     implementation(libs.constraintlayout)
     implementation("androidx.cardview:cardview:1.0.0")
     implementation("androidx.swiperefreshlayout:swiperefreshlayout:1.1.0")
+    // Background inflation of menu tiles (MenuTilePool)
+    implementation("androidx.asynclayoutinflater:asynclayoutinflater:1.0.0")
 
     // Lifecycle
     implementation(libs.lifecycle.runtime)
@@ -84,6 +154,8 @@ dependencies {
 
     // Glide for image loading
     implementation("com.github.bumptech.glide:glide:4.16.0")
+    // Generates the glue for image.PosGlideModule (cache sizes, decode format)
+    annotationProcessor("com.github.bumptech.glide:compiler:4.16.0")
 
     // Firebase
     implementation(platform(libs.firebase.bom))
@@ -95,6 +167,10 @@ dependencies {
     coreLibraryDesugaring(libs.desugar.jdk)
 
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
+    testImplementation(libs.mockwebserver)
+    testImplementation(libs.room.testing)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
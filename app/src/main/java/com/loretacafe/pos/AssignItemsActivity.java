@@ -22,8 +22,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.data.util.LifecycleTasks;
+
 public class AssignItemsActivity extends AppCompatActivity {
 
+    // Loads are cancelled when this screen is destroyed
+    private final LifecycleTasks tasks = AppExecutors.get().tasksFor(this);
+
     private ImageButton btnBack;
     private EditText etSearch;
     private ImageView ivCategoryIcon;
@@ -129,7 +135,7 @@ public class AssignItemsActivity extends AppCompatActivity {
 
     private void loadItems() {
         // Load items from database (which includes items synced from MenuActivity)
-        new Thread(() -> {
+        tasks.read(() -> {
             try {
                 com.loretacafe.pos.data.local.AppDatabase database = 
                     com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
@@ -162,7 +168,7 @@ public class AssignItemsActivity extends AppCompatActivity {
                 loadHardcodedItems();
                 runOnUiThread(() -> updateItemsView());
             }
-        }).start();
+        });
     }
     
     private void loadHardcodedItems() {
@@ -289,52 +295,51 @@ public class AssignItemsActivity extends AppCompatActivity {
      * Save assigned items to database so they appear in Menu and Create Order screens
      */
     private void saveAssignedItemsToDatabase() {
-        new Thread(() -> {
-            try {
-                com.loretacafe.pos.data.local.AppDatabase database = 
-                    com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
-                com.loretacafe.pos.data.local.dao.ProductDao productDao = database.productDao();
-                
-                // Get existing products to avoid duplicates
-                List<com.loretacafe.pos.data.local.entity.ProductEntity> existingProducts = productDao.getAll();
-                java.util.Set<String> existingNames = new java.util.HashSet<>();
-                for (com.loretacafe.pos.data.local.entity.ProductEntity product : existingProducts) {
-                    existingNames.add(product.getName().toLowerCase());
-                }
-                
-                // Get selected items and save to database
-                List<com.loretacafe.pos.data.local.entity.ProductEntity> productsToSave = new ArrayList<>();
-                long productId = System.currentTimeMillis();
-                
-                for (MenuItem menuItem : allItems) {
-                    // Only save if item is selected and doesn't already exist
-                    if (selectedItemIds.contains(menuItem.getName()) && 
-                        !existingNames.contains(menuItem.getName().toLowerCase())) {
-                        
-                        com.loretacafe.pos.data.local.entity.ProductEntity product = 
-                            new com.loretacafe.pos.data.local.entity.ProductEntity();
-                        product.setId(productId++);
-                        product.setName(menuItem.getName());
-                        product.setCategory(category.getName()); // Use category name
-                        product.setSupplier("Default");
-                        product.setCost(java.math.BigDecimal.valueOf(menuItem.getPrice() * 0.3)); // 30% cost estimate
-                        product.setPrice(java.math.BigDecimal.valueOf(menuItem.getPrice()));
-                        product.setQuantity(menuItem.getAvailableQuantity());
-                        product.setStatus("IN_STOCK");
-                        product.setCreatedAt(java.time.OffsetDateTime.now());
-                        product.setUpdatedAt(java.time.OffsetDateTime.now());
-                        
-                        productsToSave.add(product);
-                    }
-                }
-                
-                if (!productsToSave.isEmpty()) {
-                    productDao.insertAll(productsToSave);
+        com.loretacafe.pos.data.local.DatabaseWriter.getInstance(this).execute(() -> {
+            com.loretacafe.pos.data.local.AppDatabase database = 
+                com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
+            com.loretacafe.pos.data.local.dao.ProductDao productDao = database.productDao();
+            
+            // Get existing products to avoid duplicates
+            List<com.loretacafe.pos.data.local.entity.ProductEntity> existingProducts = productDao.getAll();
+            java.util.Set<String> existingNames = new java.util.HashSet<>();
+            for (com.loretacafe.pos.data.local.entity.ProductEntity product : existingProducts) {
+                existingNames.add(product.getName().toLowerCase());
+            }
+            
+            // Get selected items and save to database
+            List<com.loretacafe.pos.data.local.entity.ProductEntity> productsToSave = new ArrayList<>();
+            long productId = System.currentTimeMillis();
+            
+            for (MenuItem menuItem : allItems) {
+                // Only save if item is selected and doesn't already exist
+                if (selectedItemIds.contains(menuItem.getName()) && 
+                    !existingNames.contains(menuItem.getName().toLowerCase())) {
+                    
+                    com.loretacafe.pos.data.local.entity.ProductEntity product = 
+                        new com.loretacafe.pos.data.local.entity.ProductEntity();
+                    product.setId(productId++);
+                    product.setName(menuItem.getName());
+                    product.setCategory(category.getName()); // Use category name
+                    product.setSupplier("Default");
+                    product.setCost(java.math.BigDecimal.valueOf(menuItem.getPrice() * 0.3)); // 30% cost estimate
+                    product.setPrice(java.math.BigDecimal.valueOf(menuItem.getPrice()));
+                    product.setQuantity(menuItem.getAvailableQuantity());
+                    product.setStatus("IN_STOCK");
+                    product.setCreatedAt(java.time.OffsetDateTime.now());
+                    product.setUpdatedAt(java.time.OffsetDateTime.now());
+                    
+                    productsToSave.add(product);
                 }
-            } catch (Exception e) {
-                android.util.Log.e("AssignItemsActivity", "Error saving assigned items to database", e);
             }
-        }).start();
+            
+            if (!productsToSave.isEmpty()) {
+                productDao.insertAll(productsToSave);
+            }
+        }).exceptionally(e -> {
+            android.util.Log.e("AssignItemsActivity", "Error saving assigned items to database", e);
+            return null;
+        });
     }
 
     @Override
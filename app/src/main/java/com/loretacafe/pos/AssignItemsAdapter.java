@@ -10,6 +10,8 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.loretacafe.pos.image.MenuImages;
+
 import java.util.List;
 import java.util.Set;
 
@@ -64,19 +66,7 @@ public class AssignItemsAdapter extends RecyclerView.Adapter<AssignItemsAdapter.
             tvItemCategory.setText(item.category());
 
             // Load item image
-            String imageName = item.getImageResourceName();
-            if (imageName != null && !imageName.isEmpty()) {
-                int resourceId = itemView.getContext().getResources().getIdentifier(
-                    imageName, "drawable", itemView.getContext().getPackageName()
-                );
-                if (resourceId != 0) {
-                    ivItemImage.setImageResource(resourceId);
-                } else {
-                    ivItemImage.setImageResource(R.drawable.ic_image_placeholder);
-                }
-            } else {
-                ivItemImage.setImageResource(R.drawable.ic_image_placeholder);
-            }
+            MenuImages.loadTile(ivItemImage, item.getImageResourceName());
 
             // Set checkbox state
             String itemId = item.getName(); // In real app, use actual item ID
@@ -2,6 +2,7 @@ package com.loretacafe.pos;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class CartItem implements Serializable {
@@ -16,6 +17,8 @@ public class CartItem implements Serializable {
     private double unitPrice;
     private double totalPrice;
     private List<String> selectedAddOns; // List of add-on names (e.g., "Extra Pearls", "Cheese Foam")
+    // Set once CartManager stores the line; copies start out editable again
+    private transient boolean frozen;
 
     public CartItem(long productId,
                     String productName,
@@ -34,6 +37,45 @@ public class CartItem implements Serializable {
         this.selectedAddOns = new ArrayList<>();
     }
 
+    /**
+     * Rebuild a line with a known id, e.g. when a draft order is recovered.
+     */
+    public CartItem(String id,
+                    long productId,
+                    String productName,
+                    String category,
+                    String selectedSize,
+                    int quantity,
+                    double unitPrice,
+                    List<String> selectedAddOns) {
+        this.id = id;
+        this.productId = productId;
+        this.productName = productName;
+        this.category = category;
+        this.selectedSize = selectedSize;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.totalPrice = unitPrice * quantity;
+        this.selectedAddOns = selectedAddOns != null ? new ArrayList<>(selectedAddOns) : new ArrayList<>();
+    }
+
+    /**
+     * Field-for-field copy with the same id; the add-on list is not shared and
+     * the copy is editable even if {@code source} is frozen.
+     */
+    public CartItem(CartItem source) {
+        this.id = source.id;
+        this.productId = source.productId;
+        this.productName = source.productName;
+        this.category = source.category;
+        this.selectedSize = source.selectedSize;
+        this.quantity = source.quantity;
+        this.unitPrice = source.unitPrice;
+        this.totalPrice = source.totalPrice;
+        this.selectedAddOns = source.selectedAddOns != null
+                ? new ArrayList<>(source.selectedAddOns) : new ArrayList<>();
+    }
+
     public String getId() {
         return id;
     }
@@ -55,6 +97,7 @@ public class CartItem implements Serializable {
     }
 
     public void setSelectedSize(String selectedSize) {
+        checkMutable();
         this.selectedSize = selectedSize;
     }
 
@@ -63,6 +106,7 @@ public class CartItem implements Serializable {
     }
 
     public void setQuantity(int quantity) {
+        checkMutable();
         this.quantity = quantity;
         recalculateTotal();
     }
@@ -72,6 +116,7 @@ public class CartItem implements Serializable {
     }
 
     public void setUnitPrice(double unitPrice) {
+        checkMutable();
         this.unitPrice = unitPrice;
         recalculateTotal();
     }
@@ -97,10 +142,12 @@ public class CartItem implements Serializable {
     }
 
     public void setSelectedAddOns(List<String> selectedAddOns) {
+        checkMutable();
         this.selectedAddOns = selectedAddOns != null ? selectedAddOns : new ArrayList<>();
     }
 
     public void addAddOn(String addOnName) {
+        checkMutable();
         if (this.selectedAddOns == null) {
             this.selectedAddOns = new ArrayList<>();
         }
@@ -110,6 +157,7 @@ public class CartItem implements Serializable {
     }
 
     public void removeAddOn(String addOnName) {
+        checkMutable();
         if (this.selectedAddOns != null) {
             this.selectedAddOns.remove(addOnName);
         }
@@ -118,5 +166,24 @@ public class CartItem implements Serializable {
     public boolean hasAddOn(String addOnName) {
         return selectedAddOns != null && selectedAddOns.contains(addOnName);
     }
+
+    /**
+     * Make this line read-only. CartManager freezes every line it stores, so the
+     * lines it hands out cannot drift from its merge index and totals; edit a
+     * copy made with {@link #CartItem(CartItem)} and pass it back instead.
+     */
+    CartItem freeze() {
+        if (!frozen) {
+            selectedAddOns = Collections.unmodifiableList(selectedAddOns);
+            frozen = true;
+        }
+        return this;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("Cart line " + id + " is read-only; edit a copy");
+        }
+    }
 }
 
@@ -1,86 +1,406 @@
 package com.loretacafe.pos;
 
-import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Singleton CartManager to manage cart state across activities
- * Provides LiveData for real-time cart count updates
+ * The cart of one ticket. Tickets, and so carts, are owned by
+ * {@link TicketManager}; get the one being rung up with
+ * {@link TicketManager#getActiveCart()}.
+ *
+ * Lines are indexed by id (insertion order kept) and by merge key, so lookups
+ * are O(1) and adding an identical line (same product, size, add-ons and unit
+ * price) bumps the existing quantity instead. Line count, unit count, total
+ * and units per product are maintained as lines change. Every mutation publishes an immutable
+ * {@link Snapshot}. Stored lines are frozen (see {@link CartItem#freeze()}): the
+ * lines handed out by snapshots, {@link #getItem} and {@link #addItem} are shared
+ * without copying and throw if modified; edit a copy and pass it to
+ * {@link #updateItem}. All methods are safe to call from any thread.
+ *
+ * <p>A {@link ChangeListener} sees every change as a small delta, in order;
+ * the draft-order journal uses it to make the cart survive a restart.
  */
 public class CartManager {
-    private static CartManager instance;
-    private final List<CartItem> cartItems = new ArrayList<>();
+
+    /**
+     * Called while the cart is locked, in the order the changes happen. Lines
+     * passed in are the manager's own frozen copies. Implementations must only hand the change
+     * off (e.g. queue a write); they must not block or call back into the cart.
+     */
+    public interface ChangeListener {
+        /** A line was added, or edited in place (it keeps its position). */
+        void onLinePut(CartItem line);
+
+        /** Only the quantity of a line changed, e.g. an identical line was merged into it. */
+        void onQuantityChanged(String lineId, int quantity);
+
+        void onLineRemoved(String lineId);
+
+        /** All lines were replaced at once; an empty list means the cart was cleared. */
+        void onCartReplaced(List<CartItem> lines);
+    }
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, CartItem> linesById = new LinkedHashMap<>();
+    private final Map<String, String> idsByMergeKey = new HashMap<>();
+    // Units per product id, for stock reserved by open tickets
+    private final Map<Long, Integer> unitsByProduct = new HashMap<>();
+    private int itemCount;
+    // Centavos, so a long cart doesn't accumulate floating-point drift
+    private long totalCentavos;
+    private long version;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private ChangeListener changeListener;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final MutableLiveData<Snapshot> cartLiveData = new MutableLiveData<>(Snapshot.EMPTY);
     private final MutableLiveData<Integer> cartCountLiveData = new MutableLiveData<>(0);
-    
-    private CartManager() {
-        // Private constructor for singleton
+
+    CartManager() {
+        // Created by TicketManager, one per ticket
     }
-    
-    public static synchronized CartManager getInstance() {
-        if (instance == null) {
-            instance = new CartManager();
+
+    /**
+     * Add a line, or merge it into an identical one.
+     *
+     * @return the stored line (a frozen copy of {@code item} or the merged line)
+     */
+    public CartItem addItem(CartItem item) {
+        CartItem stored;
+        synchronized (lock) {
+            CartItem line = new CartItem(item);
+            stored = addLocked(line);
+            notifyAddedLocked(line, stored);
+            publishLocked();
         }
-        return instance;
-    }
-    
-    public void addItem(CartItem item) {
-        cartItems.add(item);
-        updateCartCount();
+        dispatch();
+        return stored;
     }
-    
+
     public void removeItem(CartItem item) {
-        cartItems.remove(item);
-        updateCartCount();
+        if (item != null) {
+            removeItem(item.getId());
+        }
     }
-    
+
+    public void removeItem(String lineId) {
+        synchronized (lock) {
+            if (removeLocked(lineId) == null) {
+                return;
+            }
+            if (changeListener != null) {
+                changeListener.onLineRemoved(lineId);
+            }
+            publishLocked();
+        }
+        dispatch();
+    }
+
+    /**
+     * Replace the line with the same id. If the edit makes it identical to another
+     * line, the two are merged.
+     */
     public void updateItem(CartItem item) {
-        for (int i = 0; i < cartItems.size(); i++) {
-            if (cartItems.get(i).getId().equals(item.getId())) {
-                cartItems.set(i, item);
-                break;
+        synchronized (lock) {
+            CartItem current = linesById.get(item.getId());
+            if (current == null) {
+                return;
             }
+            CartItem updated = new CartItem(item);
+            if (mergeKey(current).equals(mergeKey(updated))) {
+                replaceLocked(current, updated);
+                if (changeListener != null) {
+                    changeListener.onLinePut(updated);
+                }
+            } else {
+                removeLocked(current.getId());
+                if (changeListener != null) {
+                    changeListener.onLineRemoved(current.getId());
+                }
+                notifyAddedLocked(updated, addLocked(updated));
+            }
+            publishLocked();
         }
-        updateCartCount();
+        dispatch();
     }
-    
-    public void clearCart() {
-        cartItems.clear();
-        updateCartCount();
+
+    /**
+     * Set a line's quantity; zero or less removes it.
+     */
+    public void setQuantity(String lineId, int quantity) {
+        synchronized (lock) {
+            CartItem current = linesById.get(lineId);
+            if (current == null || current.getQuantity() == quantity) {
+                return;
+            }
+            if (quantity <= 0) {
+                removeLocked(lineId);
+            } else {
+                CartItem updated = new CartItem(current);
+                updated.setQuantity(quantity);
+                replaceLocked(current, updated);
+            }
+            if (changeListener != null) {
+                if (quantity <= 0) {
+                    changeListener.onLineRemoved(lineId);
+                } else {
+                    changeListener.onQuantityChanged(lineId, quantity);
+                }
+            }
+            publishLocked();
+        }
+        dispatch();
     }
-    
-    public List<CartItem> getCartItems() {
-        return new ArrayList<>(cartItems);
+
+    public void clearCart() {
+        synchronized (lock) {
+            if (linesById.isEmpty()) {
+                return;
+            }
+            linesById.clear();
+            idsByMergeKey.clear();
+            unitsByProduct.clear();
+            itemCount = 0;
+            totalCentavos = 0;
+            if (changeListener != null) {
+                changeListener.onCartReplaced(Collections.emptyList());
+            }
+            publishLocked();
+        }
+        dispatch();
     }
-    
+
     public void setCartItems(List<CartItem> items) {
-        cartItems.clear();
-        if (items != null) {
-            cartItems.addAll(items);
+        synchronized (lock) {
+            linesById.clear();
+            idsByMergeKey.clear();
+            unitsByProduct.clear();
+            itemCount = 0;
+            totalCentavos = 0;
+            if (items != null) {
+                for (CartItem item : items) {
+                    if (item != null) {
+                        addLocked(new CartItem(item));
+                    }
+                }
+            }
+            if (changeListener != null) {
+                changeListener.onCartReplaced(new ArrayList<>(linesById.values()));
+            }
+            publishLocked();
+        }
+        dispatch();
+    }
+
+    public void setChangeListener(@Nullable ChangeListener listener) {
+        synchronized (lock) {
+            changeListener = listener;
         }
-        updateCartCount();
     }
-    
+
+    /**
+     * Units of {@code productId} across all lines, whatever their size.
+     */
+    public int getUnits(long productId) {
+        synchronized (lock) {
+            Integer units = unitsByProduct.get(productId);
+            return units != null ? units : 0;
+        }
+    }
+
+    /** The stored line, frozen; copy it to make changes. */
+    @Nullable
+    public CartItem getItem(String lineId) {
+        synchronized (lock) {
+            return linesById.get(lineId);
+        }
+    }
+
+    /**
+     * The current lines in the order they were added. The list and its lines are read-only.
+     */
+    public List<CartItem> getCartItems() {
+        return snapshot.getItems();
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Number of lines (not units) in the cart.
+     */
     public int getCartCount() {
-        return cartItems.size();
+        return snapshot.getLineCount();
     }
-    
+
+    public double getCartTotal() {
+        return snapshot.getTotal();
+    }
+
+    public LiveData<Snapshot> getCartLiveData() {
+        return cartLiveData;
+    }
+
     public LiveData<Integer> getCartCountLiveData() {
         return cartCountLiveData;
     }
-    
-    private void updateCartCount() {
-        cartCountLiveData.postValue(cartItems.size());
+
+    private CartItem addLocked(CartItem line) {
+        String key = mergeKey(line);
+        String existingId = idsByMergeKey.get(key);
+        if (existingId != null) {
+            CartItem existing = linesById.get(existingId);
+            CartItem merged = new CartItem(existing);
+            merged.setQuantity(existing.getQuantity() + line.getQuantity());
+            replaceLocked(existing, merged);
+            return merged;
+        }
+        linesById.put(line.getId(), line.freeze());
+        idsByMergeKey.put(key, line.getId());
+        addUnitsLocked(line.getProductId(), line.getQuantity());
+        itemCount += line.getQuantity();
+        totalCentavos += centavos(line.getTotalPrice());
+        return line;
     }
-    
-    public double getCartTotal() {
-        double total = 0.0;
-        for (CartItem item : cartItems) {
-            total += item.getTotalPrice();
+
+    /** Report {@code line} as added, or as a quantity bump if it was merged into {@code stored}. */
+    private void notifyAddedLocked(CartItem line, CartItem stored) {
+        if (changeListener == null) {
+            return;
+        }
+        if (stored == line) {
+            changeListener.onLinePut(stored);
+        } else {
+            changeListener.onQuantityChanged(stored.getId(), stored.getQuantity());
+        }
+    }
+
+    private CartItem removeLocked(String lineId) {
+        CartItem removed = linesById.remove(lineId);
+        if (removed != null) {
+            idsByMergeKey.remove(mergeKey(removed));
+            addUnitsLocked(removed.getProductId(), -removed.getQuantity());
+            itemCount -= removed.getQuantity();
+            totalCentavos -= centavos(removed.getTotalPrice());
+        }
+        return removed;
+    }
+
+    /** Swap a line for an edited copy with the same id and merge key, keeping its position. */
+    private void replaceLocked(CartItem current, CartItem updated) {
+        linesById.put(updated.getId(), updated.freeze());
+        addUnitsLocked(updated.getProductId(), updated.getQuantity() - current.getQuantity());
+        itemCount += updated.getQuantity() - current.getQuantity();
+        totalCentavos += centavos(updated.getTotalPrice()) - centavos(current.getTotalPrice());
+    }
+
+    private void addUnitsLocked(long productId, int delta) {
+        Integer units = unitsByProduct.get(productId);
+        int next = (units != null ? units : 0) + delta;
+        if (next > 0) {
+            unitsByProduct.put(productId, next);
+        } else {
+            unitsByProduct.remove(productId);
+        }
+    }
+
+    private void publishLocked() {
+        snapshot = new Snapshot(new ArrayList<>(linesById.values()), itemCount, totalCentavos, ++version);
+    }
+
+    /**
+     * Push the latest snapshot to LiveData. Called outside the lock so observers
+     * may mutate the cart.
+     */
+    private void dispatch() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            deliver();
+        } else {
+            // postValue could deliver an older snapshot after a newer setValue;
+            // reading the field at delivery time always shows the latest
+            mainHandler.post(this::deliver);
         }
-        return total;
     }
-}
 
+    private void deliver() {
+        Snapshot latest = snapshot;
+        if (cartLiveData.getValue() != latest) {
+            cartLiveData.setValue(latest);
+        }
+        Integer count = cartCountLiveData.getValue();
+        if (count == null || count != latest.getLineCount()) {
+            cartCountLiveData.setValue(latest.getLineCount());
+        }
+    }
+
+    private static String mergeKey(CartItem item) {
+        List<String> addOns = item.getSelectedAddOns() != null
+                ? new ArrayList<>(item.getSelectedAddOns()) : new ArrayList<>();
+        Collections.sort(addOns);
+        String size = item.getSelectedSize() != null ? item.getSelectedSize() : "";
+        return item.getProductId() + "|" + size + "|" + addOns + "|" + centavos(item.getUnitPrice());
+    }
+
+    private static long centavos(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Immutable view of the cart after one mutation.
+     */
+    public static final class Snapshot {
+        public static final Snapshot EMPTY = new Snapshot(Collections.emptyList(), 0, 0, 0);
+
+        private final List<CartItem> items;
+        private final int itemCount;
+        private final long totalCentavos;
+        private final long version;
+
+        private Snapshot(List<CartItem> items, int itemCount, long totalCentavos, long version) {
+            this.items = Collections.unmodifiableList(items);
+            this.itemCount = itemCount;
+            this.totalCentavos = totalCentavos;
+            this.version = version;
+        }
+
+        @NonNull
+        public List<CartItem> getItems() {
+            return items;
+        }
+
+        public boolean isEmpty() {
+            return items.isEmpty();
+        }
+
+        public int getLineCount() {
+            return items.size();
+        }
+
+        /** Total units across all lines. */
+        public int getItemCount() {
+            return itemCount;
+        }
+
+        public double getTotal() {
+            return totalCentavos / 100.0;
+        }
+
+        /** Increases with every mutation; handy for cheap change checks. */
+        public long getVersion() {
+            return version;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.Transformations;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -26,34 +27,48 @@ import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.textfield.TextInputEditText;
+import com.loretacafe.pos.data.local.model.MenuCatalog;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.data.util.LifecycleTasks;
+import com.loretacafe.pos.image.TilePreloader;
+import com.loretacafe.pos.perf.FrameHistogram;
+import com.loretacafe.pos.search.DebouncedSearch;
+import com.loretacafe.pos.search.SearchIndexes;
 import com.loretacafe.pos.ui.order.OrderViewModel;
 import com.loretacafe.pos.util.RecipeAvailabilityChecker;
 import com.loretacafe.pos.util.RealTimeAvailabilityManager;
 import androidx.lifecycle.Observer;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
+import java.util.Map;
 
 public class CreateOrderActivity extends AppCompatActivity {
 
+    // Loads are cancelled when this screen is destroyed
+    private final LifecycleTasks tasks = AppExecutors.get().tasksFor(this);
+
     private ImageButton btnBack, btnCart;
     private EditText etSearch;
-    private RecyclerView rvFavorites, rvMenuItems;
-    private ChipGroup chipGroupCategories;
-    private TextView tvCategoryLabel, tvFavoritesLabel, tvTotalOrder, tvCartBadge;
+    private RecyclerView rvFavorites, rvMenuItems, rvQuickPicks;
+    private ChipGroup chipGroupCategories, chipGroupTickets;
+    private TextView tvCategoryLabel, tvFavoritesLabel, tvQuickPicksLabel, tvTotalOrder, tvCartBadge;
     private androidx.cardview.widget.CardView totalOrderBar;
     private BottomNavigationView bottomNavigation;
     private com.google.android.material.button.MaterialButton btnAll;
 
     private MenuAdapter menuAdapter;
+    private DebouncedSearch<MenuItem> menuSearch;
     private FavoritesAdapter favoritesAdapter;
+    private QuickPicksAdapter quickPicksAdapter;
     private final List<MenuItem> allMenuItems = new ArrayList<>();
     private List<MenuItem> favoriteItems = new ArrayList<>();
-    private final List<CartItem> cartItems = new ArrayList<>();
+    private final TicketManager ticketManager = TicketManager.getInstance();
+    private final Map<String, Chip> ticketChips = new HashMap<>();
     private String currentCategory = "All";
+    private MenuCatalog menuCatalog = MenuCatalog.EMPTY;
     private OrderViewModel orderViewModel;
     private com.loretacafe.pos.util.RealTimeAvailabilityManager availabilityManager;
 
@@ -75,10 +90,17 @@ public class CreateOrderActivity extends AppCompatActivity {
         // (no extra direct DB load to avoid race conditions)
 
         setupRealTimeAvailability();
+        setupQuickPicks();
         setupCategories();
         setupListeners();
         setupBottomNavigation();
-        updateTotalOrder();
+        // Follows the active ticket: emits its cart straight away, then once per change from any thread
+        Transformations.switchMap(ticketManager.observeActiveTicket(), ticket -> ticket.getCart().getCartLiveData())
+                .observe(this, cart -> {
+                    updateTotalOrder();
+                    updateActiveTicketChip();
+                });
+        ticketManager.observeOpenTickets().observe(this, tickets -> renderTicketChips());
     }
     
     /**
@@ -87,13 +109,13 @@ public class CreateOrderActivity extends AppCompatActivity {
      * IMPORTANT:
      * - Runs on a background thread to avoid Room's "Cannot access database on the main thread" crash.
      * - We rely on the ViewModel's LiveData observer as the single source of truth.
-     * - If we detect that no menu items exist (ID < 10000), we seed them and then
-     *   optionally trigger a one-time manual load into the adapter.
+     * - If we detect that no menu items exist (ID < 10000), we seed them; the menu
+     *   catalogue re-emits once the seeded rows land.
      */
     private void ensureMenuItemsSeeded() {
         android.util.Log.d("CreateOrderActivity", "ensureMenuItemsSeeded() starting (async)");
 
-        new Thread(() -> {
+        AppExecutors.get().diskWrite().execute(() -> {
             try {
                 com.loretacafe.pos.data.local.AppDatabase database =
                         com.loretacafe.pos.data.local.AppDatabase.getInstance(getApplicationContext());
@@ -149,37 +171,10 @@ public class CreateOrderActivity extends AppCompatActivity {
                             false // run seeding synchronously inside this background thread
                     );
 
-                    // Verify seeding worked
-                    allProducts = productDao.getAll();
-                    final List<com.loretacafe.pos.data.local.entity.ProductEntity> menuItems = new java.util.ArrayList<>();
-                    for (com.loretacafe.pos.data.local.entity.ProductEntity product : allProducts) {
-                        if (product.getId() < 10000) {
-                            menuItems.add(product);
-                        }
-                    }
-
                     android.util.Log.d(
                             "CreateOrderActivity",
-                            "✓ After seeding: " + menuItems.size() + " menu items in database (should be 34)"
+                            "✓ Seeding finished, menu catalogue will pick the items up"
                     );
-
-                    // Optionally trigger a one-time manual load into the adapter
-                    if (!menuItems.isEmpty()) {
-                        final List<com.loretacafe.pos.data.local.entity.ProductEntity> menuItemsCopy =
-                                new java.util.ArrayList<>(menuItems);
-                        runOnUiThread(() -> {
-                            android.util.Log.d(
-                                    "CreateOrderActivity",
-                                    "Manually loading " + menuItemsCopy.size() + " menu items after seeding"
-                            );
-                            loadMenuItemsFromProducts(menuItemsCopy);
-                        });
-                    } else {
-                        android.util.Log.e(
-                                "CreateOrderActivity",
-                                "Still no menu items after seeding! Check MenuSeeder."
-                        );
-                    }
                 } else {
                     android.util.Log.d(
                             "CreateOrderActivity",
@@ -189,7 +184,7 @@ public class CreateOrderActivity extends AppCompatActivity {
             } catch (Exception e) {
                 android.util.Log.e("CreateOrderActivity", "Error ensuring menu items are seeded", e);
             }
-        }).start();
+        });
     }
 
     @Override
@@ -210,42 +205,38 @@ public class CreateOrderActivity extends AppCompatActivity {
                 com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
             com.loretacafe.pos.util.RecipeAvailabilityChecker checker = 
                 new com.loretacafe.pos.util.RecipeAvailabilityChecker(database);
+            // Redraws only the tiles whose availability changed
             checkAllItemsAvailability(allMenuItems, checker);
-            menuAdapter.notifyDataSetChanged(); // Force UI refresh
         }
         
         // Reload favorites when returning to this activity
         FavoritesManager favoritesManager = FavoritesManager.getInstance(this);
         if (allMenuItems != null && !allMenuItems.isEmpty()) {
-            favoritesManager.syncMenuItemsWithFavorites(allMenuItems);
+            List<MenuItem> changedFavorites = favoritesManager.syncMenuItemsWithFavorites(allMenuItems);
             favoriteItems.clear();
             favoriteItems.addAll(favoritesManager.getFavoriteMenuItems(allMenuItems));
             if (menuAdapter != null) {
-                menuAdapter.notifyDataSetChanged();
+                menuAdapter.notifyFavoriteChanged(changedFavorites);
             }
             if (favoritesAdapter != null) {
                 favoritesAdapter.updateFavorites(favoriteItems);
             }
+            // Pick up the order just checked out and any favorites changed elsewhere
+            updateQuickPicks();
         }
         updateFavoritesVisibility();
     }
 
-    @Override
-    protected void onNewIntent(Intent intent) {
-        super.onNewIntent(intent);
-        if (intent.getBooleanExtra("clearCart", false)) {
-            cartItems.clear();
-            updateTotalOrder();
-        }
-    }
-
     private void initializeViews() {
         btnBack = findViewById(R.id.btnBack);
         btnCart = findViewById(R.id.btnCart);
         etSearch = findViewById(R.id.etSearch);
         rvFavorites = findViewById(R.id.rvFavorites);
+        rvQuickPicks = findViewById(R.id.rvQuickPicks);
+        tvQuickPicksLabel = findViewById(R.id.tvQuickPicksLabel);
         rvMenuItems = findViewById(R.id.rvMenuItems);
         chipGroupCategories = findViewById(R.id.chipGroupCategories);
+        chipGroupTickets = findViewById(R.id.chipGroupTickets);
         tvCategoryLabel = findViewById(R.id.tvCategoryLabel);
         tvFavoritesLabel = findViewById(R.id.tvFavoritesLabel);
         tvTotalOrder = findViewById(R.id.tvTotalOrder);
@@ -294,146 +285,129 @@ public class CreateOrderActivity extends AppCompatActivity {
                 }
             }
             
-            menuAdapter.notifyItemChanged(position);
+            menuAdapter.notifyFavoriteChanged(java.util.Collections.singletonList(item));
             favoritesAdapter.updateFavorites(favoriteItems);
             updateFavoritesVisibility();
+            updateQuickPicks();
         });
         menuAdapter.setOnAddToCartClickListener((item, position) -> showAddToCartDialog(item));
         rvMenuItems.setAdapter(menuAdapter);
+        RecyclerView.RecycledViewPool tilePool = MenuTilePool.install(rvMenuItems, menuAdapter, spanCount);
+        FrameHistogram.attach(rvMenuItems, "order-menu");
+        // Two rows past the visible range
+        TilePreloader.attach(rvMenuItems, menuAdapter::imageNameAt, spanCount * 2);
+        menuSearch = new DebouncedSearch<>(this, results -> menuAdapter.showSearchResults(results));
 
         rvFavorites.setLayoutManager(new LinearLayoutManager(this, LinearLayoutManager.HORIZONTAL, false));
         favoritesAdapter = new FavoritesAdapter(favoriteItems);
         rvFavorites.setAdapter(favoritesAdapter);
+        MenuTilePool.share(tilePool, rvFavorites, FavoritesAdapter.VIEW_TYPE_FAVORITE);
+
+        if (rvQuickPicks != null) {
+            rvQuickPicks.setLayoutManager(new LinearLayoutManager(this, LinearLayoutManager.HORIZONTAL, false));
+            quickPicksAdapter = new QuickPicksAdapter(this::showAddToCartDialog);
+            rvQuickPicks.setAdapter(quickPicksAdapter);
+            MenuTilePool.share(tilePool, rvQuickPicks, QuickPicksAdapter.VIEW_TYPE_QUICK_PICK);
+        }
+    }
+
+    /**
+     * Counters live in memory, so this is instant. The first open after install
+     * seeds them from recent sales in the background and shows them again.
+     */
+    private void setupQuickPicks() {
+        QuickPicksManager quickPicksManager = QuickPicksManager.getInstance(this);
+        com.loretacafe.pos.data.local.AppDatabase database =
+                com.loretacafe.pos.data.local.AppDatabase.getInstance(getApplicationContext());
+        tasks.read(() -> {
+            quickPicksManager.seedFromHistoryIfNeeded(database);
+            tasks.main(this::updateQuickPicks);
+        });
+    }
+
+    private void updateQuickPicks() {
+        if (quickPicksAdapter == null || rvQuickPicks == null || tvQuickPicksLabel == null) {
+            return;
+        }
+        List<MenuItem> picks = QuickPicksManager.getInstance(this)
+                .getQuickPicks(allMenuItems, QuickPicksManager.DEFAULT_COUNT);
+        quickPicksAdapter.submitPicks(picks);
+        int visibility = picks.isEmpty() ? View.GONE : View.VISIBLE;
+        rvQuickPicks.setVisibility(visibility);
+        tvQuickPicksLabel.setVisibility(visibility);
     }
 
     private void setupViewModel() {
         orderViewModel = new ViewModelProvider(this).get(OrderViewModel.class);
         
-        orderViewModel.getProducts().observe(this, products -> {
-            android.util.Log.d("CreateOrderActivity", "Products observer triggered: " + (products != null ? products.size() : 0) + " products");
-            if (products != null && !products.isEmpty()) {
-                loadMenuItemsFromProducts(products);
-            } else {
-                android.util.Log.w("CreateOrderActivity", "No products loaded from ViewModel! Checking database directly...");
-                // CRITICAL: If no products from ViewModel, check database directly and seed if needed
-                new Thread(() -> {
-                    try {
-                        com.loretacafe.pos.data.local.AppDatabase database = 
-                            com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
-                        com.loretacafe.pos.data.local.dao.ProductDao productDao = database.productDao();
-                        
-                        // Check database directly
-                        List<com.loretacafe.pos.data.local.entity.ProductEntity> allProducts = productDao.getAll();
-                        android.util.Log.d("CreateOrderActivity", "Direct database query returned " + allProducts.size() + " products");
-                        
-                        if (allProducts.isEmpty()) {
-                            android.util.Log.w("CreateOrderActivity", "Database is empty, seeding menu items...");
-                            com.loretacafe.pos.data.local.MenuSeeder.seedIfNeeded(this, productDao, false); // Synchronous
-                            
-                            // Re-query after seeding
-                            allProducts = productDao.getAll();
-                            android.util.Log.d("CreateOrderActivity", "After seeding: " + allProducts.size() + " products");
-                        }
-                        
-                        // Filter menu items and update UI
-                        final List<com.loretacafe.pos.data.local.entity.ProductEntity> menuItems = new ArrayList<>();
-                        for (com.loretacafe.pos.data.local.entity.ProductEntity product : allProducts) {
-                            if (product.getId() < 10000) {
-                                menuItems.add(product);
-                            }
-                        }
-                        
-                        android.util.Log.d("CreateOrderActivity", "Found " + menuItems.size() + " menu items in database");
-                        
-                        // Update UI on main thread
-                        runOnUiThread(() -> {
-                            if (!menuItems.isEmpty()) {
-                                // Manually trigger the observer logic
-                                android.util.Log.d("CreateOrderActivity", "Manually loading " + menuItems.size() + " menu items");
-                                loadMenuItemsFromProducts(menuItems);
-                            } else {
-                                android.util.Log.e("CreateOrderActivity", "Still no menu items after seeding! Check MenuSeeder.");
-                            }
-                        });
-                    } catch (Exception e) {
-                        android.util.Log.e("CreateOrderActivity", "Error checking/seeding menu items", e);
+        ((PosApp) getApplication()).getRepositoryProvider()
+                .getMenuCatalogRepository()
+                .observe()
+                .observe(this, catalog -> {
+                    if (catalog == null || catalog.isEmpty()) {
+                        // ensureMenuItemsSeeded() is on it; the catalogue re-emits once rows exist
+                        android.util.Log.w("CreateOrderActivity", "Menu catalogue is empty, waiting for seeding");
+                        return;
                     }
-                }).start();
+                    applyMenuCatalog(catalog);
+                });
+
+        // Observe product refresh result so we can surface errors instead of showing a blank screen
+        orderViewModel.getProductRefreshResult().observe(this, result -> {
+            if (result == null) return;
+            switch (result.getStatus()) {
+                case SUCCESS:
+                    // Data will flow through the menu catalogue observer
+                    break;
+                case ERROR:
+                    String message = result.getMessage() != null
+                            ? result.getMessage()
+                            : "Failed to load products. Please check your connection.";
+                    Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+                    // If there are still no items, make it obvious
+                    if (allMenuItems.isEmpty()) {
+                        tvCategoryLabel.setText("No items available");
+                    }
+                    break;
+                case LOADING:
+                    // Optional: could show a subtle loading state here
+                    break;
+            }
+        });
+
+        orderViewModel.getSaleResult().observe(this, result -> {
+            if (result == null) return;
+            switch (result.getStatus()) {
+                case SUCCESS:
+                    Toast.makeText(this, "Sale synced", Toast.LENGTH_SHORT).show();
+                    break;
+                case ERROR:
+                    Toast.makeText(this, result.getMessage() != null ? result.getMessage() : "Failed to sync sale", Toast.LENGTH_LONG).show();
+                    break;
+                case LOADING:
+                    break;
             }
         });
     }
     
     /**
-     * Load menu items from ProductEntity list and update UI
-     * CRITICAL: Build local list first, then atomically replace allMenuItems to prevent race conditions
+     * Re-index the menu for search; ranking reads sales totals, hence the disk-read pool.
+     * The current query is re-run once the new index is in.
      */
-    private void loadMenuItemsFromProducts(List<com.loretacafe.pos.data.local.entity.ProductEntity> products) {
-        // Build a new list locally first to prevent race conditions
-        List<MenuItem> newMenuItems = new ArrayList<>();
-        
-        if (products != null && !products.isEmpty()) {
-            // Use a Set to track unique product IDs to prevent duplicates
-            Set<Long> seenProductIds = new HashSet<>();
-            int menuItemCount = 0;
-            for (com.loretacafe.pos.data.local.entity.ProductEntity product : products) {
-                // CRITICAL: Only show menu items (ID < 10000), skip raw materials (ID >= 10000)
-                if (product.getId() >= 10000) {
-                    continue; // Skip raw materials/ingredients
-                }
-                
-                // Skip if we've already seen this product ID
-                if (seenProductIds.contains(product.getId())) {
-                    android.util.Log.w("CreateOrderActivity", "Duplicate product detected: " + product.getName() + " (ID: " + product.getId() + ")");
-                    continue;
-                }
-                seenProductIds.add(product.getId());
-                menuItemCount++;
-                
-                double price = product.getPrice() != null ? product.getPrice().doubleValue() : 0.0;
-                String imageResourceName = product.getImageResourceName() != null ? product.getImageResourceName() : "";
-                
-                // Create MenuItem with image resource name
-                MenuItem item;
-                if (!imageResourceName.isEmpty()) {
-                    item = new MenuItem(
-                            product.getId(),
-                            product.getName(),
-                            price,
-                            product.getCategory(),
-                            (int) product.getQuantity(), // Cast double to int for MenuItem constructor
-                            imageResourceName
-                    );
-                } else {
-                    item = new MenuItem(
-                            product.getId(),
-                            product.getName(),
-                            price,
-                            product.getCategory(),
-                            (int) product.getQuantity() // Cast double to int for MenuItem constructor
-                    );
-                }
-                
-                // Load sizes from ProductEntity if available
-                if (product.getSizesJson() != null && !product.getSizesJson().isEmpty()) {
-                    try {
-                        com.google.gson.Gson gson = new com.google.gson.Gson();
-                        java.lang.reflect.Type type = new com.google.gson.reflect.TypeToken<List<Size>>(){}.getType();
-                        List<Size> sizes = gson.fromJson(product.getSizesJson(), type);
-                        if (sizes != null && !sizes.isEmpty()) {
-                            item.setSizes(sizes);
-                        }
-                    } catch (Exception e) {
-                        android.util.Log.e("CreateOrderActivity", "Error parsing sizes for " + product.getName(), e);
-                    }
-                }
-                
-                newMenuItems.add(item);
-            }
-            
-            android.util.Log.d("CreateOrderActivity", "Built " + menuItemCount + " menu items (filtered from " + products.size() + " total products)");
-        } else {
-            android.util.Log.w("CreateOrderActivity", "No products provided to loadMenuItemsFromProducts");
-        }
+    private void rebuildSearchIndex(List<MenuItem> items) {
+        com.loretacafe.pos.data.local.AppDatabase database =
+                com.loretacafe.pos.data.local.AppDatabase.getInstance(getApplicationContext());
+        menuSearch.rebuildIndex(AppExecutors.get().diskRead(), () -> SearchIndexes.forMenu(database, items));
+    }
+
+    /**
+     * Show a new menu catalogue snapshot. Sizes are already parsed and categories
+     * bucketed, so this only copies out fresh MenuItems for this screen.
+     */
+    private void applyMenuCatalog(MenuCatalog catalog) {
+        menuCatalog = catalog;
+        List<MenuItem> newMenuItems = catalog.newMenuItems();
+        android.util.Log.d("CreateOrderActivity", "Built " + newMenuItems.size() + " menu items from catalogue");
         
         // CRITICAL: Atomically replace allMenuItems with the new list to prevent race conditions
         allMenuItems.clear();
@@ -452,6 +426,8 @@ public class CreateOrderActivity extends AppCompatActivity {
         if (menuAdapter != null && !itemsToDisplay.isEmpty()) {
             menuAdapter.updateFullList(itemsToDisplay);
             android.util.Log.d("CreateOrderActivity", "✓ Updated menu adapter with " + itemsCount + " items");
+            rebuildSearchIndex(itemsToDisplay);
+            updateQuickPicks();
         } else if (menuAdapter != null) {
             android.util.Log.w("CreateOrderActivity", "Menu adapter exists but no items to display! (itemsCount = " + itemsCount + ")");
             menuAdapter.updateFullList(new ArrayList<>()); // Clear adapter
@@ -488,43 +464,6 @@ public class CreateOrderActivity extends AppCompatActivity {
         updateFavoritesVisibility();
         
         android.util.Log.d("CreateOrderActivity", "✓ Create Order screen setup complete: " + itemsCount + " items ready");
-
-        // Observe product refresh result so we can surface errors instead of showing a blank screen
-        orderViewModel.getProductRefreshResult().observe(this, result -> {
-            if (result == null) return;
-            switch (result.getStatus()) {
-                case SUCCESS:
-                    // Data will flow through getProducts() observer
-                    break;
-                case ERROR:
-                    String message = result.getMessage() != null
-                            ? result.getMessage()
-                            : "Failed to load products. Please check your connection.";
-                    Toast.makeText(this, message, Toast.LENGTH_LONG).show();
-                    // If there are still no items, make it obvious
-                    if (allMenuItems.isEmpty()) {
-                        tvCategoryLabel.setText("No items available");
-                    }
-                    break;
-                case LOADING:
-                    // Optional: could show a subtle loading state here
-                    break;
-            }
-        });
-
-        orderViewModel.getSaleResult().observe(this, result -> {
-            if (result == null) return;
-            switch (result.getStatus()) {
-                case SUCCESS:
-                    Toast.makeText(this, "Sale synced", Toast.LENGTH_SHORT).show();
-                    break;
-                case ERROR:
-                    Toast.makeText(this, result.getMessage() != null ? result.getMessage() : "Failed to sync sale", Toast.LENGTH_LONG).show();
-                    break;
-                case LOADING:
-                    break;
-            }
-        });
     }
     
     /**
@@ -539,43 +478,46 @@ public class CreateOrderActivity extends AppCompatActivity {
         // Observe availability changes and update menu items
         availabilityManager.getMenuItemAvailability().observe(this, availabilityMap -> {
             if (availabilityMap != null && menuAdapter != null) {
-                // Update availability for each menu item
+                // Update availability for each menu item; redraw only the ones that flipped
+                List<MenuItem> changed = new ArrayList<>();
                 for (MenuItem item : allMenuItems) {
                     Boolean isAvailable = availabilityMap.get(item.getProductId());
-                    if (isAvailable != null) {
+                    if (isAvailable != null && isAvailable != item.isAvailable()) {
                         item.setAvailable(isAvailable);
+                        changed.add(item);
                     }
                 }
-                menuAdapter.notifyDataSetChanged();
-                favoritesAdapter.notifyDataSetChanged();
+                menuAdapter.notifyAvailabilityChanged(changed);
             }
         });
         
         // Observe missing ingredients text
         availabilityManager.getMenuItemMissingIngredients().observe(this, missingMap -> {
             if (missingMap != null && menuAdapter != null) {
+                List<MenuItem> changed = new ArrayList<>();
                 for (MenuItem item : allMenuItems) {
                     String missingText = missingMap.get(item.getProductId());
-                    if (missingText != null) {
+                    if (missingText != null && !missingText.equals(item.getMissingIngredientsText())) {
                         item.setMissingIngredientsText(missingText);
+                        changed.add(item);
                     }
                 }
-                menuAdapter.notifyDataSetChanged();
-                favoritesAdapter.notifyDataSetChanged();
+                menuAdapter.notifyAvailabilityChanged(changed);
             }
         });
         
         // Observe low stock status
         availabilityManager.getMenuItemLowStock().observe(this, lowStockMap -> {
             if (lowStockMap != null && menuAdapter != null) {
+                List<MenuItem> changed = new ArrayList<>();
                 for (MenuItem item : allMenuItems) {
                     Boolean hasLowStock = lowStockMap.get(item.getProductId());
-                    if (hasLowStock != null) {
+                    if (hasLowStock != null && hasLowStock != item.hasLowStock()) {
                         item.setHasLowStock(hasLowStock);
+                        changed.add(item);
                     }
                 }
-                menuAdapter.notifyDataSetChanged();
-                favoritesAdapter.notifyDataSetChanged();
+                menuAdapter.notifyAvailabilityChanged(changed);
             }
         });
         
@@ -630,14 +572,16 @@ public class CreateOrderActivity extends AppCompatActivity {
         
         // CRITICAL: Mark all items as available by default FIRST
         // This ensures items show up immediately, then we update based on actual stock
+        List<MenuItem> defaulted = new ArrayList<>();
         for (MenuItem item : items) {
-            if (item != null) {
+            if (item != null && !item.isAvailable()) {
                 item.setAvailable(true); // Default to available
+                defaulted.add(item);
             }
         }
         // Update UI immediately so items show up
         if (menuAdapter != null) {
-            menuAdapter.notifyDataSetChanged();
+            menuAdapter.notifyAvailabilityChanged(defaulted);
         }
         
         if (checker == null) {
@@ -650,9 +594,11 @@ public class CreateOrderActivity extends AppCompatActivity {
         // Create a copy of the list to avoid ConcurrentModificationException
         final List<MenuItem> itemsCopy = new ArrayList<>(items);
         
-        new Thread(() -> {
+        tasks.read(() -> {
             int availableCount = 0;
             int unavailableCount = 0;
+            // Query off the main thread, but only touch the items on it
+            final java.util.Map<MenuItem, RecipeAvailabilityChecker.AvailabilityResult> results = new java.util.HashMap<>();
             
             // Use index-based iteration to avoid concurrent modification issues
             for (int i = 0; i < itemsCopy.size(); i++) {
@@ -666,11 +612,7 @@ public class CreateOrderActivity extends AppCompatActivity {
                     
                     RecipeAvailabilityChecker.AvailabilityResult result = 
                         checker.checkAvailability(item.getProductId(), defaultSize);
-                    
-                    // Update the item (this is safe since we're modifying the object, not the list)
-                    item.setAvailable(result.isAvailable());
-                    item.setHasLowStock(result.hasLowStock());
-                    item.setMissingIngredientsText(result.getMissingIngredientsText());
+                    results.put(item, result);
                     
                     if (result.isAvailable()) {
                         availableCount++;
@@ -683,15 +625,23 @@ public class CreateOrderActivity extends AppCompatActivity {
             android.util.Log.d("CreateOrderActivity", "Availability check complete: " + availableCount + " available, " + unavailableCount + " unavailable");
             
             // Update UI on main thread
-            runOnUiThread(() -> {
+            tasks.main(() -> {
+                List<MenuItem> changed = new ArrayList<>();
+                for (java.util.Map.Entry<MenuItem, RecipeAvailabilityChecker.AvailabilityResult> entry : results.entrySet()) {
+                    RecipeAvailabilityChecker.AvailabilityResult result = entry.getValue();
+                    if (entry.getKey().applyAvailability(result.isAvailable(), result.hasLowStock(),
+                            result.getMissingIngredientsText())) {
+                        changed.add(entry.getKey());
+                    }
+                }
                 if (menuAdapter != null) {
-                    menuAdapter.notifyDataSetChanged();
-                    android.util.Log.d("CreateOrderActivity", "Menu adapter notified of availability changes");
+                    menuAdapter.notifyAvailabilityChanged(changed);
+                    android.util.Log.d("CreateOrderActivity", "Menu adapter notified of " + changed.size() + " availability changes");
                 } else {
                     android.util.Log.e("CreateOrderActivity", "Menu adapter is null - cannot update UI!");
                 }
             });
-        }).start();
+        });
     }
 
     private int calculateGridSpanCount() {
@@ -717,14 +667,10 @@ public class CreateOrderActivity extends AppCompatActivity {
         tvCategoryLabel.setVisibility(View.VISIBLE);
         chipGroupCategories.removeAllViews();
         
-        // Get unique categories from all menu items
-        Set<String> categories = new HashSet<>();
+        // "All" first, then the catalogue's categories (already sorted)
+        List<String> categories = new ArrayList<>();
         categories.add("All");
-        for (MenuItem item : allMenuItems) {
-            if (item.category() != null && !item.category().isEmpty()) {
-                categories.add(item.category());
-            }
-        }
+        categories.addAll(menuCatalog.getCategories());
         
         // Create chips for each category
         for (String category : categories) {
@@ -764,9 +710,8 @@ public class CreateOrderActivity extends AppCompatActivity {
 
                 @Override
                 public void onTextChanged(CharSequence s, int start, int before, int count) {
-                    String query = s.toString();
-                    if (menuAdapter != null) {
-                        menuAdapter.filter(query);
+                    if (menuSearch != null) {
+                        menuSearch.setQuery(s.toString());
                     }
                 }
 
@@ -776,23 +721,11 @@ public class CreateOrderActivity extends AppCompatActivity {
         }
 
         if (btnCart != null) {
-            btnCart.setOnClickListener(v -> {
-                if (cartItems.isEmpty()) {
-                    Toast.makeText(this, "Cart is empty", Toast.LENGTH_SHORT).show();
-                    return;
-                }
-                navigateToOrderSummary();
-            });
+            btnCart.setOnClickListener(v -> navigateToOrderSummary(ticketManager.getActiveTicket()));
         }
 
         if (totalOrderBar != null) {
-            totalOrderBar.setOnClickListener(v -> {
-                if (cartItems.isEmpty()) {
-                    Toast.makeText(this, "Cart is empty", Toast.LENGTH_SHORT).show();
-                    return;
-                }
-                navigateToOrderSummary();
-            });
+            totalOrderBar.setOnClickListener(v -> navigateToOrderSummary(ticketManager.getActiveTicket()));
         }
 
         if (btnAll != null) {
@@ -805,23 +738,6 @@ public class CreateOrderActivity extends AppCompatActivity {
                 // Update button state (already selected by default)
             });
         }
-
-        if (etSearch != null && menuAdapter != null) {
-            etSearch.addTextChangedListener(new TextWatcher() {
-                @Override
-                public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-
-                @Override
-                public void onTextChanged(CharSequence s, int start, int before, int count) {
-                    if (menuAdapter != null) {
-                        menuAdapter.filter(s.toString());
-                    }
-                }
-
-                @Override
-                public void afterTextChanged(Editable s) {}
-            });
-        }
     }
 
     private void setupBottomNavigation() {
@@ -857,9 +773,13 @@ public class CreateOrderActivity extends AppCompatActivity {
         });
     }
 
-    private void navigateToOrderSummary() {
+    private void navigateToOrderSummary(Ticket ticket) {
+        if (ticket.getCart().getSnapshot().isEmpty()) {
+            Toast.makeText(this, "Cart is empty", Toast.LENGTH_SHORT).show();
+            return;
+        }
         Intent intent = new Intent(this, OrderSummaryActivity.class);
-        intent.putExtra("cartItems", new ArrayList<>(cartItems));
+        intent.putExtra(OrderSummaryActivity.EXTRA_TICKET_ID, ticket.getId());
         startActivityForResult(intent, 1001);
         overridePendingTransition(R.anim.slide_in_right, R.anim.slide_out_left);
     }
@@ -868,11 +788,110 @@ public class CreateOrderActivity extends AppCompatActivity {
     protected void onActivityResult(int requestCode, int resultCode, Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
         if (requestCode == 1001 && resultCode == RESULT_OK) {
-            cartItems.clear();
-            updateTotalOrder();
-            updateCartBadge();
-            Toast.makeText(this, "Order completed! Cart cleared.", Toast.LENGTH_SHORT).show();
+            // OrderSummaryActivity has closed the charged ticket
+            Toast.makeText(this, "Order completed!", Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    /**
+     * One chip per open ticket: tap to switch to it, long-press to charge, rename
+     * or discard it. The last chip starts a new order. Tickets are journaled by
+     * DraftOrderStore, so they survive a restart.
+     */
+    private void renderTicketChips() {
+        if (chipGroupTickets == null) {
+            return;
+        }
+        chipGroupTickets.removeAllViews();
+        ticketChips.clear();
+        Ticket active = ticketManager.getActiveTicket();
+        for (Ticket ticket : ticketManager.getOpenTickets()) {
+            Chip chip = new Chip(this);
+            chip.setText(ticketChipText(ticket));
+            chip.setCheckable(true);
+            chip.setChecked(ticket == active);
+            chip.setChipBackgroundColorResource(R.drawable.chip_background_selector);
+            chip.setTextColor(getResources().getColorStateList(R.color.chip_text_color));
+            chip.setOnClickListener(v -> ticketManager.switchTo(ticket.getId()));
+            chip.setOnLongClickListener(v -> {
+                showTicketActions(ticket);
+                return true;
+            });
+            chipGroupTickets.addView(chip);
+            ticketChips.put(ticket.getId(), chip);
+        }
+
+        Chip newTicket = new Chip(this);
+        newTicket.setText("+ New order");
+        newTicket.setCheckable(false);
+        newTicket.setOnClickListener(v -> ticketManager.newTicket());
+        chipGroupTickets.addView(newTicket);
+    }
+
+    /** Keep the active ticket's chip total in step with its cart. */
+    private void updateActiveTicketChip() {
+        Ticket active = ticketManager.getActiveTicket();
+        Chip chip = ticketChips.get(active.getId());
+        if (chip != null) {
+            chip.setText(ticketChipText(active));
+        }
+    }
+
+    private String ticketChipText(Ticket ticket) {
+        CartManager.Snapshot cart = ticket.getCart().getSnapshot();
+        if (cart.isEmpty()) {
+            return ticket.getDisplayName();
+        }
+        return String.format(Locale.getDefault(), "%s · ₱ %.2f", ticket.getDisplayName(), cart.getTotal());
+    }
+
+    private void showTicketActions(Ticket ticket) {
+        new AlertDialog.Builder(this)
+                .setTitle(ticket.getDisplayName())
+                .setItems(new String[]{"Charge", "Rename", "Discard"}, (dialog, which) -> {
+                    if (which == 0) {
+                        navigateToOrderSummary(ticket);
+                    } else if (which == 1) {
+                        showRenameTicketDialog(ticket);
+                    } else {
+                        showDiscardTicketDialog(ticket);
+                    }
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showRenameTicketDialog(Ticket ticket) {
+        EditText etLabel = new EditText(this);
+        etLabel.setHint("Customer name");
+        etLabel.setSingleLine(true);
+        if (ticket.getLabel() != null) {
+            etLabel.setText(ticket.getLabel());
+            etLabel.setSelection(ticket.getLabel().length());
         }
+        new AlertDialog.Builder(this)
+                .setTitle("Rename Order")
+                .setView(etLabel)
+                .setPositiveButton("Save", (dialog, which) ->
+                        ticketManager.rename(ticket.getId(), etLabel.getText().toString()))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showDiscardTicketDialog(Ticket ticket) {
+        if (ticket.getCart().getSnapshot().isEmpty()) {
+            ticketManager.close(ticket.getId());
+            return;
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Discard Order")
+                .setMessage("Discard " + ticket.getDisplayName() + " and everything in it?")
+                .setPositiveButton("Discard", (dialog, which) -> {
+                    ticketManager.close(ticket.getId());
+                    Toast.makeText(this, "Order discarded", Toast.LENGTH_SHORT).show();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
     }
 
     private void showAddToCartDialog(MenuItem menuItem) {
@@ -932,8 +951,11 @@ public class CreateOrderActivity extends AppCompatActivity {
             tvPrice.setText(String.format(Locale.getDefault(), "₱ %.2f", menuItem.getPrice()));
         }
         
+        // Stock already in open tickets, this one included, is spoken for
+        int remaining = Math.max(0,
+                menuItem.getAvailableQuantity() - ticketManager.getReservedUnits(menuItem.getProductId()));
         if (menuItem.getAvailableQuantity() > 0) {
-            tvStock.setText(getString(R.string.label_stock_available, menuItem.getAvailableQuantity()));
+            tvStock.setText(getString(R.string.label_stock_available, remaining));
         } else {
             tvStock.setText(R.string.label_stock_unlimited);
         }
@@ -961,8 +983,10 @@ public class CreateOrderActivity extends AppCompatActivity {
                 Toast.makeText(this, "Enter a valid quantity", Toast.LENGTH_SHORT).show();
                 return;
             }
-            if (menuItem.getAvailableQuantity() > 0 && quantity > menuItem.getAvailableQuantity()) {
-                Toast.makeText(this, "Only " + menuItem.getAvailableQuantity() + " in stock", Toast.LENGTH_SHORT).show();
+            if (menuItem.getAvailableQuantity() > 0 && quantity > remaining) {
+                Toast.makeText(this, remaining > 0
+                        ? "Only " + remaining + " left after open orders"
+                        : "All stock is in open orders", Toast.LENGTH_SHORT).show();
                 return;
             }
 
@@ -973,66 +997,31 @@ public class CreateOrderActivity extends AppCompatActivity {
     }
     
     /**
-     * Get product sizes from database or return default
+     * Get product sizes from the menu catalogue, or null for a single-size product
      */
     private List<Size> getProductSizes(MenuItem menuItem) {
-        try {
-            // Try to get sizes from ProductEntity
-            com.loretacafe.pos.data.local.AppDatabase db = 
-                com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
-            com.loretacafe.pos.data.local.entity.ProductEntity product = 
-                db.productDao().getById(menuItem.getProductId());
-            
-            if (product != null && product.getSizesJson() != null && !product.getSizesJson().isEmpty()) {
-                // Parse JSON to List<Size>
-                com.google.gson.Gson gson = new com.google.gson.Gson();
-                java.lang.reflect.Type type = new com.google.gson.reflect.TypeToken<List<Size>>(){}.getType();
-                List<Size> sizes = gson.fromJson(product.getSizesJson(), type);
-                // Only return if we have multiple sizes (variants)
-                if (sizes != null && sizes.size() > 1) {
-                    return sizes;
-                }
-            }
-        } catch (Exception e) {
-            android.util.Log.e("CreateOrderActivity", "Error loading product sizes", e);
-        }
-        
-        // Return null if no variants (single size product)
-        return null;
+        List<Size> sizes = menuCatalog.getSizes(menuItem.getProductId());
+        // Only return if we have multiple sizes (variants)
+        return sizes.size() > 1 ? sizes : null;
     }
 
     private void addOrUpdateCartItem(MenuItem menuItem, String selectedSize, double selectedPrice, int quantity) {
-        // Check if same product with same size already exists in cart
-        CartItem existing = null;
-        for (CartItem item : cartItems) {
-            if (item.getProductId() == menuItem.getProductId() && 
-                (selectedSize == null || selectedSize.equals(item.getSelectedSize()))) {
-                existing = item;
-                break;
-            }
-        }
-        if (existing != null) {
-            existing.setQuantity(existing.getQuantity() + quantity);
-        } else {
-            CartItem cartItem = new CartItem(
-                    menuItem.getProductId(),
-                    menuItem.getName(),
-                    menuItem.category(),
-                    selectedSize != null ? selectedSize : "",
-                    quantity,
-                    selectedPrice
-            );
-            cartItems.add(cartItem);
-        }
-        updateTotalOrder();
-        updateCartBadge();
+        // CartManager merges this into an existing line with the same product, size and add-ons
+        ticketManager.getActiveCart().addItem(new CartItem(
+                menuItem.getProductId(),
+                menuItem.getName(),
+                menuItem.category(),
+                selectedSize != null ? selectedSize : "",
+                quantity,
+                selectedPrice
+        ));
         String sizeText = selectedSize != null && !selectedSize.isEmpty() ? " (" + selectedSize + ")" : "";
         Toast.makeText(this, menuItem.getName() + sizeText + " added to cart!", Toast.LENGTH_SHORT).show();
     }
     
     private void updateCartBadge() {
         if (tvCartBadge != null) {
-            int count = cartItems.size();
+            int count = ticketManager.getActiveCart().getCartCount();
             if (count > 0) {
                 tvCartBadge.setVisibility(View.VISIBLE);
                 tvCartBadge.setText(String.valueOf(count));
@@ -1057,13 +1046,9 @@ public class CreateOrderActivity extends AppCompatActivity {
         }
         
         chipGroupCategories.removeAllViews();
-        Set<String> categories = new HashSet<>();
+        List<String> categories = new ArrayList<>();
         categories.add("All");
-        for (MenuItem item : allMenuItems) {
-            if (item != null && item.category() != null && !item.category().isEmpty()) {
-                categories.add(item.category());
-            }
-        }
+        categories.addAll(menuCatalog.getCategories());
 
         for (String category : categories) {
             try {
@@ -1144,12 +1129,8 @@ public class CreateOrderActivity extends AppCompatActivity {
             return;
         }
         
-        double total = 0.0;
-        for (CartItem item : cartItems) {
-            if (item != null) {
-                total += item.getTotalPrice();
-            }
-        }
+        // Running total of the active ticket, maintained by its cart as lines change
+        double total = ticketManager.getActiveCart().getCartTotal();
         
         // Update cart badge whenever total is updated
         updateCartBadge();
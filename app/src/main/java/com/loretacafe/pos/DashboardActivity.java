@@ -23,6 +23,9 @@ import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.navigation.NavigationView;
 import com.loretacafe.pos.data.firebase.FirebaseAuthRepository;
 import com.loretacafe.pos.data.session.SessionManager;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.perf.Perf;
+import com.loretacafe.pos.perf.PerfDebugDialog;
 import com.loretacafe.pos.security.PermissionManager;
 import com.loretacafe.pos.ui.transactions.TransactionsViewModel;
 
@@ -59,6 +62,7 @@ public class DashboardActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        Perf.traceFirstFrame(this);
         setContentView(R.layout.activity_dashboard);
 
         // Initialize role-based access control
@@ -106,6 +110,8 @@ public class DashboardActivity extends AppCompatActivity {
                     public void onAvailable(android.net.Network network) {
                         runOnUiThread(() -> {
                             android.util.Log.d("DashboardActivity", "Network available - starting backend discovery and sync");
+                            // New network: give the backend a fresh chance before discovery
+                            com.loretacafe.pos.data.remote.ApiClient.getCircuitBreaker().reset();
                             // Discover backend server
                             com.loretacafe.pos.data.remote.ApiConfig.startDiscovery(DashboardActivity.this);
                             
@@ -131,7 +137,7 @@ public class DashboardActivity extends AppCompatActivity {
      * Sync pending transactions to backend (unified account - ensures offline data syncs when online)
      */
     private void syncPendingTransactions() {
-        new Thread(() -> {
+        AppExecutors.get().network().execute(() -> {
             try {
                 com.loretacafe.pos.di.RepositoryProvider provider = 
                     ((com.loretacafe.pos.PosApp) getApplication()).getRepositoryProvider();
@@ -145,7 +151,7 @@ public class DashboardActivity extends AppCompatActivity {
             } catch (Exception e) {
                 android.util.Log.e("DashboardActivity", "Error syncing pending transactions", e);
             }
-        }).start();
+        });
     }
 
     private void initializeViews() {
@@ -270,6 +276,13 @@ public class DashboardActivity extends AppCompatActivity {
     private void setupClickListeners() {
         // Menu button click - Open right-side navigation drawer
         btnMenu.setOnClickListener(v -> drawerLayout.openDrawer(GravityCompat.END));
+        if (BuildConfig.DEBUG) {
+            // Debug builds: long-press the menu button to dump start-up spans and frame histograms
+            btnMenu.setOnLongClickListener(v -> {
+                PerfDebugDialog.show(this);
+                return true;
+            });
+        }
 
         // See all transactions click
         tvSeeAll.setOnClickListener(v -> {
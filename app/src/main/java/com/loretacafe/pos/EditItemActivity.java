@@ -28,6 +28,9 @@ import androidx.core.content.FileProvider;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.google.android.material.textfield.TextInputEditText;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.data.util.LifecycleTasks;
+import com.loretacafe.pos.image.MenuImages;
 import com.loretacafe.pos.security.PermissionManager;
 import com.loretacafe.pos.ui.inventory.InventoryViewModel;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
@@ -42,6 +45,9 @@ import java.util.UUID;
 
 public class EditItemActivity extends AppCompatActivity {
 
+    // Loads are cancelled when this screen is destroyed
+    private final LifecycleTasks tasks = AppExecutors.get().tasksFor(this);
+
     private ImageButton btnBack, btnRemoveSize, btnAddSize;
     private ImageView ivItemPhoto, ivSizeIcon;
     private Button btnChoosePhoto, btnTakePhoto, btnSave, btnAddIngredient, btnEditRecipe;
@@ -125,12 +131,7 @@ public class EditItemActivity extends AppCompatActivity {
                 // Load image if available
                 String imageResourceName = editingMenuItem.getImageResourceName();
                 if (imageResourceName != null && !imageResourceName.isEmpty()) {
-                    int resourceId = getResources().getIdentifier(
-                        imageResourceName, "drawable", getPackageName()
-                    );
-                    if (resourceId != 0) {
-                        ivItemPhoto.setImageResource(resourceId);
-                    }
+                    MenuImages.loadTile(ivItemPhoto, imageResourceName);
                 }
             } else {
                 // Fallback: try individual extras
@@ -159,12 +160,7 @@ public class EditItemActivity extends AppCompatActivity {
                 }
                 
                 if (itemImageResource != null && !itemImageResource.isEmpty()) {
-                    int resourceId = getResources().getIdentifier(
-                        itemImageResource, "drawable", getPackageName()
-                    );
-                    if (resourceId != 0) {
-                        ivItemPhoto.setImageResource(resourceId);
-                    }
+                    MenuImages.loadTile(ivItemPhoto, itemImageResource);
                 }
             }
         }
@@ -506,11 +502,12 @@ public class EditItemActivity extends AppCompatActivity {
         if (resultCode == RESULT_OK) {
             if (requestCode == REQUEST_IMAGE_PICK && data != null) {
                 selectedImageUri = data.getData();
-                ivItemPhoto.setImageURI(selectedImageUri);
+                // Decoded at view size off the main thread, not at camera resolution
+                MenuImages.loadPreview(ivItemPhoto, selectedImageUri);
             } else if (requestCode == REQUEST_IMAGE_CAPTURE) {
                 if (currentPhotoPath != null) {
                     selectedImageUri = Uri.fromFile(new File(currentPhotoPath));
-                    ivItemPhoto.setImageURI(selectedImageUri);
+                    MenuImages.loadPreview(ivItemPhoto, selectedImageUri);
                 } else if (data != null && data.getExtras() != null) {
                     Bitmap imageBitmap = (Bitmap) data.getExtras().get("data");
                     ivItemPhoto.setImageBitmap(imageBitmap);
@@ -581,6 +578,7 @@ public class EditItemActivity extends AppCompatActivity {
             
             // Save sizes JSON to database after update
             saveSizesToProduct(editingMenuItem.getProductId(), sizesJson);
+            saveImageToProduct(editingMenuItem.getProductId());
         } else {
             // Create new product
             inventoryViewModel.createProduct(
@@ -600,6 +598,7 @@ public class EditItemActivity extends AppCompatActivity {
                     if (result.getData() instanceof ProductEntity) {
                         ProductEntity newProduct = (ProductEntity) result.getData();
                         saveSizesToProduct(newProduct.getId(), sizesJson);
+                        saveImageToProduct(newProduct.getId());
                         // Remove observer after first success
                         inventoryViewModel.getOperationResult().removeObserver(observer[0]);
                     }
@@ -626,7 +625,7 @@ public class EditItemActivity extends AppCompatActivity {
      * Load sizes from product in database
      */
     private void loadSizesFromProduct(long productId) {
-        new Thread(() -> {
+        tasks.read(() -> {
             try {
                 com.loretacafe.pos.data.local.AppDatabase db = 
                     com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
@@ -651,29 +650,63 @@ public class EditItemActivity extends AppCompatActivity {
             } catch (Exception e) {
                 android.util.Log.e("EditItemActivity", "Error loading sizes from product", e);
             }
-        }).start();
+        });
     }
     
     /**
      * Save sizes JSON to product in database
      */
     private void saveSizesToProduct(long productId, String sizesJson) {
-        new Thread(() -> {
-            try {
-                com.loretacafe.pos.data.local.AppDatabase db = 
-                    com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
-                com.loretacafe.pos.data.local.entity.ProductEntity product = 
-                    db.productDao().getById(productId);
-                if (product != null) {
-                    product.setSizesJson(sizesJson);
-                    product.setUpdatedAt(java.time.OffsetDateTime.now());
-                    db.productDao().update(product);
-                    android.util.Log.d("EditItemActivity", "Sizes saved for product: " + productId);
-                }
-            } catch (Exception e) {
-                android.util.Log.e("EditItemActivity", "Error saving sizes to product", e);
+        com.loretacafe.pos.data.local.AppDatabase db = 
+            com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
+        com.loretacafe.pos.data.local.DatabaseWriter.getInstance(this).execute(() -> {
+            com.loretacafe.pos.data.local.entity.ProductEntity product = 
+                db.productDao().getById(productId);
+            if (product != null) {
+                product.setSizesJson(sizesJson);
+                product.setUpdatedAt(java.time.OffsetDateTime.now());
+                db.productDao().update(product);
+                android.util.Log.d("EditItemActivity", "Sizes saved for product: " + productId);
             }
-        }).start();
+        }).exceptionally(e -> {
+            android.util.Log.e("EditItemActivity", "Error saving sizes to product", e);
+            return null;
+        });
+    }
+
+    /**
+     * Shrink the picked or captured photo to tile size once, store it, and point the
+     * product at it. Runs after this screen has closed, so it isn't tied to its lifecycle.
+     * The replaced photo is deleted only once the new path has committed.
+     */
+    private void saveImageToProduct(long productId) {
+        if (selectedImageUri == null) {
+            return;
+        }
+        final Uri source = selectedImageUri;
+        final android.content.Context appContext = getApplicationContext();
+        // Decoding is CPU work; keep it off the database write thread
+        AppExecutors.get().compute().execute(() -> {
+            String path = MenuImages.storeUploadedImage(appContext, source, productId);
+            if (path == null) {
+                return;
+            }
+            com.loretacafe.pos.data.local.AppDatabase db =
+                com.loretacafe.pos.data.local.AppDatabase.getInstance(appContext);
+            com.loretacafe.pos.data.local.DatabaseWriter.getInstance(appContext).submit(() ->
+                    db.productDao().updateImage(productId, path, OffsetDateTime.now())
+            ).whenCompleteAsync((updated, e) -> {
+                if (e != null) {
+                    android.util.Log.e("EditItemActivity", "Error saving image for product", e);
+                    MenuImages.deleteReplacedUploads(appContext, productId, db.productDao().getImageName(productId));
+                } else if (updated == 0) {
+                    // Product was deleted meanwhile; nothing points at any of its uploads
+                    MenuImages.deleteReplacedUploads(appContext, productId, null);
+                } else {
+                    MenuImages.deleteReplacedUploads(appContext, productId, path);
+                }
+            }, AppExecutors.get().diskRead());
+        });
     }
 
     @Override
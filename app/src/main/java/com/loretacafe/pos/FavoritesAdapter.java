@@ -7,16 +7,26 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.loretacafe.pos.image.MenuImages;
+
+import java.util.ArrayList;
 import java.util.List;
 
 public class FavoritesAdapter extends RecyclerView.Adapter<FavoritesAdapter.FavoriteViewHolder> {
 
-    private List<MenuItem> favoriteItems;
+    /** Distinct from the menu grid's tiles, whose recycled view pool this strip shares. */
+    static final int VIEW_TYPE_FAVORITE = R.layout.item_favorite;
+
+    private final AsyncListDiffer<MenuItem> differ = new AsyncListDiffer<>(
+            new AdapterListUpdateCallback(this), MenuItemDiffCallback.config());
 
     public FavoritesAdapter(List<MenuItem> favoriteItems) {
-        this.favoriteItems = favoriteItems;
+        setHasStableIds(true);
+        differ.submitList(new ArrayList<>(favoriteItems));
     }
 
     @NonNull
@@ -26,21 +36,42 @@ public class FavoritesAdapter extends RecyclerView.Adapter<FavoritesAdapter.Favo
         return new FavoriteViewHolder(view);
     }
 
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE_FAVORITE;
+    }
+
     @Override
     public void onBindViewHolder(@NonNull FavoriteViewHolder holder, int position) {
-        MenuItem item = favoriteItems.get(position);
+        MenuItem item = differ.getCurrentList().get(position);
         holder.bind(item);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull FavoriteViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty()) {
+            // Favorite tiles show neither stock badges nor an outline heart
+            return;
+        }
+        onBindViewHolder(holder, position);
+    }
+
     @Override
     public int getItemCount() {
-        return favoriteItems.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return MenuItemDiffCallback.stableId(differ.getCurrentList().get(position));
     }
 
+    /**
+     * Diff against the current favorites off the main thread. The list is copied,
+     * so callers may keep mutating theirs.
+     */
     public void updateFavorites(List<MenuItem> newFavorites) {
-        favoriteItems.clear();
-        favoriteItems.addAll(newFavorites);
-        notifyDataSetChanged();
+        differ.submitList(new ArrayList<>(newFavorites));
     }
 
     class FavoriteViewHolder extends RecyclerView.ViewHolder {
@@ -62,20 +93,8 @@ public class FavoritesAdapter extends RecyclerView.Adapter<FavoritesAdapter.Favo
             // Always show filled heart for favorites
             ivFavoriteHeart.setImageResource(R.drawable.ic_heart_filled);
 
-            // Load actual image
-            String imageName = item.getImageResourceName();
-            if (imageName != null && !imageName.isEmpty()) {
-                int resourceId = itemView.getContext().getResources().getIdentifier(
-                    imageName, "drawable", itemView.getContext().getPackageName()
-                );
-                if (resourceId != 0) {
-                    ivFavoriteItem.setImageResource(resourceId);
-                } else {
-                    ivFavoriteItem.setImageResource(R.drawable.ic_image_placeholder);
-                }
-            } else {
-                ivFavoriteItem.setImageResource(R.drawable.ic_image_placeholder);
-            }
+            // Same tile size as the menu grid, so both share cache entries
+            MenuImages.loadTile(ivFavoriteItem, item.getImageResourceName());
         }
     }
 }
\ No newline at end of file
@@ -90,14 +90,22 @@ public class FavoritesManager {
      * Sync menu items with saved favorites
      * Only items that were explicitly marked as favorite by the user will be set as favorite.
      * Items default to not favorite (isFavorite = false) unless they're in the saved favorites list.
+     *
+     * @return the items whose favorite flag changed, so only their tiles need redrawing
      */
-    public void syncMenuItemsWithFavorites(List<MenuItem> menuItems) {
+    public List<MenuItem> syncMenuItemsWithFavorites(List<MenuItem> menuItems) {
         Set<String> favoriteNames = getFavoriteNames();
+        List<MenuItem> changed = new ArrayList<>();
         for (MenuItem item : menuItems) {
             // Only set as favorite if explicitly saved in SharedPreferences
             // This ensures items are not automatically favorited
-            item.setFavorite(favoriteNames.contains(item.getName()));
+            boolean favorite = favoriteNames.contains(item.getName());
+            if (item.isFavorite() != favorite) {
+                item.setFavorite(favorite);
+                changed.add(item);
+            }
         }
+        return changed;
     }
     
     /**
@@ -15,8 +15,10 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import com.loretacafe.pos.data.util.AppExecutors;
 import com.loretacafe.pos.security.PermissionManager;
 
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -26,13 +28,14 @@ import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.textfield.TextInputEditText;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
 import com.loretacafe.pos.data.util.ApiResult;
+import com.loretacafe.pos.search.DebouncedSearch;
+import com.loretacafe.pos.search.SearchIndexes;
 import com.loretacafe.pos.ui.inventory.InventoryViewModel;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 
 public class InventoryActivity extends AppCompatActivity {
 
@@ -46,13 +49,14 @@ public class InventoryActivity extends AppCompatActivity {
     private InventoryAdapter adapter;
     private final List<ProductEntity> allProducts = new ArrayList<>();
     private final List<ProductEntity> filteredProducts = new ArrayList<>();
+    private DebouncedSearch<ProductEntity> productSearch;
     private String currentSort = "Newest Added";
     
     @Override
     protected void onResume() {
         super.onResume();
         // CRITICAL: Ensure raw materials are seeded FIRST before any other operations
-        new Thread(() -> {
+        AppExecutors.get().diskWrite().execute(() -> {
             try {
                 com.loretacafe.pos.data.local.AppDatabase database = 
                     com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
@@ -96,7 +100,7 @@ public class InventoryActivity extends AppCompatActivity {
             } catch (Exception e) {
                 android.util.Log.e("InventoryActivity", "Error seeding/cleaning database", e);
             }
-        }).start();
+        });
         
         // Ensure sort is applied when returning to this screen
         applySort();
@@ -147,6 +151,7 @@ public class InventoryActivity extends AppCompatActivity {
             }
         });
         rvInventory.setAdapter(adapter);
+        productSearch = new DebouncedSearch<>(this, this::showFilteredProducts);
     }
 
     private void setupListeners() {
@@ -235,7 +240,7 @@ public class InventoryActivity extends AppCompatActivity {
                 // If we have fewer than 61 ingredients, force reseed
                 if (allProducts.size() < 61) {
                     android.util.Log.w("InventoryActivity", "Only " + allProducts.size() + " ingredients found, forcing reseed...");
-                    new Thread(() -> {
+                    AppExecutors.get().diskWrite().execute(() -> {
                         try {
                             com.loretacafe.pos.data.local.AppDatabase database = 
                                 com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
@@ -258,9 +263,11 @@ public class InventoryActivity extends AppCompatActivity {
                         } catch (Exception e) {
                             android.util.Log.e("InventoryActivity", "Error force reseeding", e);
                         }
-                    }).start();
+                    });
                 }
             }
+            List<ProductEntity> snapshot = new ArrayList<>(allProducts);
+            productSearch.rebuildIndex(AppExecutors.get().compute(), () -> SearchIndexes.forProducts(snapshot));
             filterItems(etSearch.getText() != null ? etSearch.getText().toString() : "");
         });
         viewModel.getOperationResult().observe(this, this::handleOperationResult);
@@ -295,23 +302,15 @@ public class InventoryActivity extends AppCompatActivity {
     }
 
     private void filterItems(String query) {
+        productSearch.setQuery(query);
+    }
+
+    /**
+     * Show search matches (null: every product) in the current sort order.
+     */
+    private void showFilteredProducts(@Nullable List<ProductEntity> matches) {
         filteredProducts.clear();
-        if (query == null || query.isEmpty()) {
-            filteredProducts.addAll(allProducts);
-        } else {
-            String lowerQuery = query.toLowerCase(Locale.getDefault());
-            for (ProductEntity product : allProducts) {
-                String name = product.getName() != null ? product.getName() : "";
-                String category = product.getCategory() != null ? product.getCategory() : "";
-                String supplier = product.getSupplier() != null ? product.getSupplier() : "";
-
-                if (name.toLowerCase(Locale.getDefault()).contains(lowerQuery) ||
-                        category.toLowerCase(Locale.getDefault()).contains(lowerQuery) ||
-                        supplier.toLowerCase(Locale.getDefault()).contains(lowerQuery)) {
-                    filteredProducts.add(product);
-                }
-            }
-        }
+        filteredProducts.addAll(matches != null ? matches : allProducts);
 
         applySort();
         adapter.updateItems(filteredProducts);
@@ -8,19 +8,47 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.InventoryViewHolder> {
 
+    private static final DiffUtil.ItemCallback<ProductEntity> DIFF_CALLBACK = new DiffUtil.ItemCallback<ProductEntity>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ProductEntity oldItem, @NonNull ProductEntity newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ProductEntity oldItem, @NonNull ProductEntity newItem) {
+            // Everything bind() shows. Room hands out new instances per emission, and
+            // the edit dialog writes to the database rather than the bound instance.
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && oldItem.getQuantity() == newItem.getQuantity()
+                    && Objects.equals(oldItem.getCategory(), newItem.getCategory())
+                    && compareMoney(oldItem.getCost(), newItem.getCost())
+                    && Objects.equals(oldItem.getStatus(), newItem.getStatus());
+        }
+    };
+
     private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("en", "PH"));
-    private List<ProductEntity> items;
+    private final AsyncListDiffer<ProductEntity> differ = new AsyncListDiffer<>(
+            new AdapterListUpdateCallback(this),
+            new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                    .setBackgroundThreadExecutor(AppExecutors.get().compute())
+                    .build());
     private final OnItemClickListener listener;
 
     public interface OnItemClickListener {
@@ -29,8 +57,9 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.Inve
     }
 
     public InventoryAdapter(List<ProductEntity> items, OnItemClickListener listener) {
-        this.items = items != null ? items : new ArrayList<>();
         this.listener = listener;
+        setHasStableIds(true);
+        updateItems(items);
     }
 
     @NonNull
@@ -43,17 +72,29 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.Inve
 
     @Override
     public void onBindViewHolder(@NonNull InventoryViewHolder holder, int position) {
-        holder.bind(items.get(position), listener, currencyFormat);
+        holder.bind(differ.getCurrentList().get(position), listener, currencyFormat);
     }
 
     @Override
     public int getItemCount() {
-        return items.size();
+        return differ.getCurrentList().size();
     }
 
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
+    }
+
+    /**
+     * Diff against the shown list off the main thread. The list is copied, so the
+     * caller may keep filtering and sorting its own.
+     */
     public void updateItems(List<ProductEntity> newItems) {
-        this.items = newItems != null ? newItems : new ArrayList<>();
-        notifyDataSetChanged();
+        differ.submitList(newItems != null ? new ArrayList<>(newItems) : new ArrayList<>());
+    }
+
+    private static boolean compareMoney(java.math.BigDecimal a, java.math.BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
     }
 
     static class InventoryViewHolder extends RecyclerView.ViewHolder {
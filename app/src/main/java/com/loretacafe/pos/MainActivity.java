@@ -28,9 +28,15 @@ import com.bumptech.glide.Glide;
 import com.loretacafe.pos.data.firebase.FirebaseAuthRepository;
 import com.loretacafe.pos.data.local.entity.UserEntity;
 import com.loretacafe.pos.data.util.ApiResult;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.data.util.LifecycleTasks;
+import com.loretacafe.pos.perf.Perf;
 
 public class MainActivity extends AppCompatActivity {
 
+    // Loads are cancelled when this screen is destroyed
+    private final LifecycleTasks tasks = AppExecutors.get().tasksFor(this);
+
     private com.google.android.material.textfield.TextInputEditText etUsername;
     private com.google.android.material.textfield.TextInputEditText etPassword;
     private androidx.appcompat.widget.AppCompatButton btnContinue;
@@ -60,6 +66,7 @@ public class MainActivity extends AppCompatActivity {
             android.util.Log.e("MainActivity", "Firebase not available, will use local auth", e);
         }
 
+        Perf.traceFirstFrame(this);
         setContentView(R.layout.activity_main);
 
         // Initialize Firebase Auth Repository
@@ -75,9 +82,8 @@ public class MainActivity extends AppCompatActivity {
         localAuthService = new com.loretacafe.pos.data.local.service.LocalAuthService(this);
         localAuthService.createDefaultAdmin();
         
-        // Initialize Repository Provider for backend API login
-        repositoryProvider = new com.loretacafe.pos.di.RepositoryProvider(this);
-        authRepository = repositoryProvider.getAuthRepository();
+        // Shared provider; the auth repository (and Retrofit) is built on the first login attempt
+        repositoryProvider = ((PosApp) getApplication()).getRepositoryProvider();
 
         // Initialize views
         initializeViews();
@@ -241,11 +247,23 @@ public class MainActivity extends AppCompatActivity {
         android.util.Log.d("MainActivity", "performLogin called with email: " + username);
         // Disable button to prevent multiple clicks
         setLoading(true);
-        
-        // Try Backend API login first (to get JWT token for authenticated endpoints)
-        // Then fallback to Firebase, then Local Auth
-        android.util.Log.d("MainActivity", "Trying Backend API login first");
-        performBackendApiLogin(username, password);
+
+        // Local login needs the default admin and seed data, which the start-up
+        // pipeline may still be writing on a fresh install; wait for it first
+        LiveData<Boolean> startupReady = ((PosApp) getApplication()).observeStartupReady();
+        startupReady.observe(this, new Observer<Boolean>() {
+            @Override
+            public void onChanged(Boolean ready) {
+                if (!Boolean.TRUE.equals(ready)) {
+                    return;
+                }
+                startupReady.removeObserver(this);
+                // Try Backend API login first (to get JWT token for authenticated endpoints)
+                // Then fallback to Firebase, then Local Auth
+                android.util.Log.d("MainActivity", "Trying Backend API login first");
+                performBackendApiLogin(username, password);
+            }
+        });
     }
     
     /**
@@ -253,13 +271,7 @@ public class MainActivity extends AppCompatActivity {
      */
     private void performBackendApiLogin(String email, String password) {
         if (authRepository == null) {
-            android.util.Log.w("MainActivity", "AuthRepository not available, falling back to Firebase");
-        if (firebaseAuthRepository != null) {
-                performFirebaseLogin(email, password);
-        } else {
-                performLocalLogin(email, password);
-            }
-            return;
+            authRepository = repositoryProvider.getAuthRepository();
         }
         
         LiveData<ApiResult<com.loretacafe.pos.data.remote.dto.AuthResponseDto>> loginLiveData = 
@@ -292,9 +304,7 @@ public class MainActivity extends AppCompatActivity {
                         user.setName(authResponse.getName());
                         user.setRole(authResponse.getRole());
                         
-                        // Clear Retrofit instance to ensure it's rebuilt with new token
-                        com.loretacafe.pos.data.remote.ApiClient.clearInstance();
-                        android.util.Log.d("MainActivity", "Cleared Retrofit instance to use new token");
+                        // No Retrofit rebuild needed: AuthInterceptor reads the new token per request
                         
                         setLoading(false);
                         Toast.makeText(MainActivity.this, "Welcome " + user.getName() + " (" + user.getRole() + ")", 
@@ -387,7 +397,7 @@ public class MainActivity extends AppCompatActivity {
      * Login using Local SQLite Authentication (fallback)
      */
     private void performLocalLogin(String username, String password) {
-        new Thread(() -> {
+        tasks.read(() -> {
             try {
                 com.loretacafe.pos.data.local.entity.UserEntity user = 
                     localAuthService.authenticate(username, password);
@@ -419,7 +429,7 @@ public class MainActivity extends AppCompatActivity {
                     Toast.makeText(MainActivity.this, "Login error: " + e.getMessage(), Toast.LENGTH_LONG).show();
                 });
             }
-        }).start();
+        });
     }
 
     private void handleForgotPassword() {
@@ -25,8 +25,19 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.loretacafe.pos.data.local.model.MenuCatalog;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.data.util.LifecycleTasks;
+import com.loretacafe.pos.image.TilePreloader;
+import com.loretacafe.pos.perf.FrameHistogram;
+import com.loretacafe.pos.search.DebouncedSearch;
+import com.loretacafe.pos.search.SearchIndexes;
+
 public class MenuActivity extends AppCompatActivity {
 
+    // Loads are cancelled when this screen is destroyed
+    private final LifecycleTasks tasks = AppExecutors.get().tasksFor(this);
+
     private ImageButton btnBack, btnMenuOptions;
     private EditText etSearch;
     private RecyclerView rvFavorites, rvMenuItems;
@@ -34,9 +45,11 @@ public class MenuActivity extends AppCompatActivity {
     private TextView tvCategoryLabel, tvFavoritesLabel;
     private BottomNavigationView bottomNavigation;
     private SwipeRefreshLayout swipeRefreshLayout;
+    private int headerOffset; // 0 while the header above the grid is fully shown
     private com.google.android.material.floatingactionbutton.FloatingActionButton fabAddItem;
 
     private MenuAdapter menuAdapter;
+    private DebouncedSearch<MenuItem> menuSearch;
     private FavoritesAdapter favoritesAdapter;
     private List<MenuItem> allMenuItems;
     private List<MenuItem> favoriteItems;
@@ -55,6 +68,7 @@ public class MenuActivity extends AppCompatActivity {
         setupCategories();
         setupListeners();
         setupBottomNavigation();
+        observeMenuCatalog();
     }
     
     @Override
@@ -62,10 +76,10 @@ public class MenuActivity extends AppCompatActivity {
         super.onResume();
         // Reload favorites when returning to this activity
         FavoritesManager favoritesManager = FavoritesManager.getInstance(this);
-        favoritesManager.syncMenuItemsWithFavorites(allMenuItems);
+        List<MenuItem> changedFavorites = favoritesManager.syncMenuItemsWithFavorites(allMenuItems);
         favoriteItems = favoritesManager.getFavoriteMenuItems(allMenuItems);
         if (menuAdapter != null) {
-            menuAdapter.notifyDataSetChanged();
+            menuAdapter.notifyFavoriteChanged(changedFavorites);
         }
         if (favoritesAdapter != null) {
             favoritesAdapter.updateFavorites(favoriteItems);
@@ -210,101 +224,103 @@ public class MenuActivity extends AppCompatActivity {
      * IMPORTANT: Menu items are NOT shown in Inventory - only in Create Order
      */
     private void syncMenuItemsToDatabase() {
-        new Thread(() -> {
-            try {
-                com.loretacafe.pos.data.local.AppDatabase database = 
-                    com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
-                com.loretacafe.pos.data.local.dao.ProductDao productDao = database.productDao();
-                
-                // First, clean any existing menu items that might have wrong IDs
-                // This ensures menu items don't interfere with ingredients
-                List<com.loretacafe.pos.data.local.entity.ProductEntity> allProducts = productDao.getAll();
-                java.util.Set<String> validIngredientCategories = new java.util.HashSet<>();
-                validIngredientCategories.add("POWDER");
-                validIngredientCategories.add("SYRUP");
-                validIngredientCategories.add("SHAKERS / TOPPINGS / JAMS");
-                validIngredientCategories.add("MILK");
-                validIngredientCategories.add("COFFEE BEANS");
-                
-                // Delete any menu items that have ingredient-like categories or wrong IDs
-                for (com.loretacafe.pos.data.local.entity.ProductEntity product : allProducts) {
-                    String category = product.getCategory();
-                    boolean isIngredient = (category != null && validIngredientCategories.contains(category)) || 
-                                          product.getId() >= 10000;
-                    // If it's not an ingredient but has ID >= 10000, or has ingredient category but wrong ID, delete it
-                    if (!isIngredient && product.getId() >= 10000) {
-                        productDao.delete(product.getId());
-                        android.util.Log.d("MenuActivity", "Deleted menu item with wrong ID: " + product.getName());
-                    }
+        // The catalogue observer may replace allMenuItems while this runs
+        final List<MenuItem> builtInItems = new ArrayList<>(allMenuItems);
+        // Queued with the other writes so it cannot interleave with a checkout
+        com.loretacafe.pos.data.local.DatabaseWriter.getInstance(this).execute(() -> {
+            com.loretacafe.pos.data.local.AppDatabase database = 
+                com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
+            com.loretacafe.pos.data.local.dao.ProductDao productDao = database.productDao();
+            
+            // First, clean any existing menu items that might have wrong IDs
+            // This ensures menu items don't interfere with ingredients
+            List<com.loretacafe.pos.data.local.entity.ProductEntity> allProducts = productDao.getAll();
+            java.util.Set<String> validIngredientCategories = new java.util.HashSet<>();
+            validIngredientCategories.add("POWDER");
+            validIngredientCategories.add("SYRUP");
+            validIngredientCategories.add("SHAKERS / TOPPINGS / JAMS");
+            validIngredientCategories.add("MILK");
+            validIngredientCategories.add("COFFEE BEANS");
+            
+            // Delete any menu items that have ingredient-like categories or wrong IDs
+            for (com.loretacafe.pos.data.local.entity.ProductEntity product : allProducts) {
+                String category = product.getCategory();
+                boolean isIngredient = (category != null && validIngredientCategories.contains(category)) || 
+                                      product.getId() >= 10000;
+                // If it's not an ingredient but has ID >= 10000, or has ingredient category but wrong ID, delete it
+                if (!isIngredient && product.getId() >= 10000) {
+                    productDao.delete(product.getId());
+                    android.util.Log.d("MenuActivity", "Deleted menu item with wrong ID: " + product.getName());
                 }
-                
-                // Get existing menu items (ID < 10000) to avoid duplicates
-                java.util.Set<String> existingNames = new java.util.HashSet<>();
-                for (com.loretacafe.pos.data.local.entity.ProductEntity product : allProducts) {
-                    // Only track menu items (ID < 10000), ignore ingredients
-                    if (product.getId() < 10000) {
-                        existingNames.add(product.getName().toLowerCase());
-                    }
+            }
+            
+            // Get existing menu items (ID < 10000) to avoid duplicates
+            java.util.Set<String> existingNames = new java.util.HashSet<>();
+            for (com.loretacafe.pos.data.local.entity.ProductEntity product : allProducts) {
+                // Only track menu items (ID < 10000), ignore ingredients
+                if (product.getId() < 10000) {
+                    existingNames.add(product.getName().toLowerCase());
                 }
-                
-                // Convert MenuItems to ProductEntities and save to database
-                List<com.loretacafe.pos.data.local.entity.ProductEntity> productsToSave = new ArrayList<>();
-                // Use IDs in range 1-9999 for menu items (ingredients use 10000+)
-                long productId = 1; // Start from 1 for menu items
-                
-                for (MenuItem menuItem : allMenuItems) {
-                    // Check if product already exists by name (using existingNames Set for efficiency)
-                    if (existingNames.contains(menuItem.getName().toLowerCase())) {
-                        // Find the existing product to update image if needed
-                        com.loretacafe.pos.data.local.entity.ProductEntity existingProduct = null;
-                        for (com.loretacafe.pos.data.local.entity.ProductEntity existing : allProducts) {
-                            if (existing.getName().equalsIgnoreCase(menuItem.getName()) && existing.getId() < 10000) {
-                                existingProduct = existing;
-                                break;
-                            }
-                        }
-                        
-                        if (existingProduct != null) {
-                            // Update existing product with image resource name if missing
-                            if (existingProduct.getImageResourceName() == null || existingProduct.getImageResourceName().isEmpty()) {
-                                existingProduct.setImageResourceName(menuItem.getImageResourceName());
-                                existingProduct.setUpdatedAt(java.time.OffsetDateTime.now());
-                                productDao.update(existingProduct);
-                            }
+            }
+            
+            // Convert MenuItems to ProductEntities and save to database
+            List<com.loretacafe.pos.data.local.entity.ProductEntity> productsToSave = new ArrayList<>();
+            // Use IDs in range 1-9999 for menu items (ingredients use 10000+)
+            long productId = 1; // Start from 1 for menu items
+            
+            for (MenuItem menuItem : builtInItems) {
+                // Check if product already exists by name (using existingNames Set for efficiency)
+                if (existingNames.contains(menuItem.getName().toLowerCase())) {
+                    // Find the existing product to update image if needed
+                    com.loretacafe.pos.data.local.entity.ProductEntity existingProduct = null;
+                    for (com.loretacafe.pos.data.local.entity.ProductEntity existing : allProducts) {
+                        if (existing.getName().equalsIgnoreCase(menuItem.getName()) && existing.getId() < 10000) {
+                            existingProduct = existing;
+                            break;
                         }
-                        continue;
                     }
                     
-                    // Create new product (menu item, not ingredient)
-                    // Use ID range 1-9999 for menu items (ingredients use 10000+)
-                    com.loretacafe.pos.data.local.entity.ProductEntity product = 
-                        new com.loretacafe.pos.data.local.entity.ProductEntity();
-                    // Ensure menu items use IDs < 10000 to avoid conflicts with ingredients
-                    if (productId >= 10000) {
-                        productId = 1; // Reset if we somehow exceed range
+                    if (existingProduct != null) {
+                        // Update existing product with image resource name if missing
+                        if (existingProduct.getImageResourceName() == null || existingProduct.getImageResourceName().isEmpty()) {
+                            existingProduct.setImageResourceName(menuItem.getImageResourceName());
+                            existingProduct.setUpdatedAt(java.time.OffsetDateTime.now());
+                            productDao.update(existingProduct);
+                        }
                     }
-                    product.setId(productId++);
-                    product.setName(menuItem.getName());
-                    product.setCategory(menuItem.category() != null ? menuItem.category() : "Uncategorized");
-                    product.setSupplier("Default");
-                    product.setCost(java.math.BigDecimal.valueOf(menuItem.getPrice() * 0.3)); // 30% cost estimate
-                    product.setPrice(java.math.BigDecimal.valueOf(menuItem.getPrice()));
-                    product.setQuantity(menuItem.getAvailableQuantity());
-                    product.setStatus("IN_STOCK");
-                    product.setImageResourceName(menuItem.getImageResourceName()); // Save image resource name
-                    product.setCreatedAt(java.time.OffsetDateTime.now());
-                    product.setUpdatedAt(java.time.OffsetDateTime.now());
-                    
-                    productsToSave.add(product);
+                    continue;
                 }
                 
-                if (!productsToSave.isEmpty()) {
-                    productDao.insertAll(productsToSave);
+                // Create new product (menu item, not ingredient)
+                // Use ID range 1-9999 for menu items (ingredients use 10000+)
+                com.loretacafe.pos.data.local.entity.ProductEntity product = 
+                    new com.loretacafe.pos.data.local.entity.ProductEntity();
+                // Ensure menu items use IDs < 10000 to avoid conflicts with ingredients
+                if (productId >= 10000) {
+                    productId = 1; // Reset if we somehow exceed range
                 }
-            } catch (Exception e) {
-                android.util.Log.e("MenuActivity", "Error syncing menu items to database", e);
+                product.setId(productId++);
+                product.setName(menuItem.getName());
+                product.setCategory(menuItem.category() != null ? menuItem.category() : "Uncategorized");
+                product.setSupplier("Default");
+                product.setCost(java.math.BigDecimal.valueOf(menuItem.getPrice() * 0.3)); // 30% cost estimate
+                product.setPrice(java.math.BigDecimal.valueOf(menuItem.getPrice()));
+                product.setQuantity(menuItem.getAvailableQuantity());
+                product.setStatus("IN_STOCK");
+                product.setImageResourceName(menuItem.getImageResourceName()); // Save image resource name
+                product.setCreatedAt(java.time.OffsetDateTime.now());
+                product.setUpdatedAt(java.time.OffsetDateTime.now());
+                
+                productsToSave.add(product);
+            }
+            
+            if (!productsToSave.isEmpty()) {
+                productDao.insertAll(productsToSave);
             }
-        }).start();
+        }).exceptionally(e -> {
+            android.util.Log.e("MenuActivity", "Error syncing menu items to database", e);
+            return null;
+        });
     }
 
     private void setupAdapters() {
@@ -312,8 +328,8 @@ public class MenuActivity extends AppCompatActivity {
         int spanCount = calculateGridSpanCount();
         rvMenuItems.setLayoutManager(new GridLayoutManager(this, spanCount));
         
-        // Calculate and set RecyclerView height for proper scrolling in NestedScrollView
-        menuAdapter = new MenuAdapter(allMenuItems, (item, position) -> {
+        // The adapter filters its own copy; allMenuItems stays the full list
+        menuAdapter = new MenuAdapter(new ArrayList<>(allMenuItems), (item, position) -> {
             // Toggle favorite status
             FavoritesManager favoritesManager = FavoritesManager.getInstance(this);
             
@@ -333,7 +349,7 @@ public class MenuActivity extends AppCompatActivity {
                 Toast.makeText(this, item.getName() + " added to favorites ❤️", Toast.LENGTH_SHORT).show();
             }
 
-            menuAdapter.notifyItemChanged(position);
+            menuAdapter.notifyFavoriteChanged(java.util.Collections.singletonList(item));
             // Update favorites adapter and visibility immediately
             favoritesAdapter.updateFavorites(favoriteItems);
             updateFavoritesVisibility();
@@ -358,23 +374,73 @@ public class MenuActivity extends AppCompatActivity {
             overridePendingTransition(R.anim.slide_in_right, R.anim.slide_out_left);
         });
         
-        // Set up availability checker for real-time ingredient stock checking
-        com.loretacafe.pos.data.local.AppDatabase database = 
-            com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
-        com.loretacafe.pos.util.RecipeAvailabilityChecker availabilityChecker = 
-            new com.loretacafe.pos.util.RecipeAvailabilityChecker(database);
-        menuAdapter.setAvailabilityChecker(availabilityChecker);
+        // Badges follow the recipe-based availability computed in checkAllItemsAvailability
+        menuAdapter.setRecipeAvailability(true);
 
         rvMenuItems.setAdapter(menuAdapter);
+        RecyclerView.RecycledViewPool tilePool = MenuTilePool.install(rvMenuItems, menuAdapter, spanCount);
+        FrameHistogram.attach(rvMenuItems, "menu");
+        // Two rows past the visible range
+        TilePreloader.attach(rvMenuItems, menuAdapter::imageNameAt, spanCount * 2);
+        menuSearch = new DebouncedSearch<>(this, results -> menuAdapter.showSearchResults(results));
+        rebuildSearchIndex();
 
         // Setup Favorites RecyclerView
         rvFavorites.setLayoutManager(new LinearLayoutManager(this, LinearLayoutManager.HORIZONTAL, false));
         favoritesAdapter = new FavoritesAdapter(favoriteItems);
         rvFavorites.setAdapter(favoritesAdapter);
+        MenuTilePool.share(tilePool, rvFavorites, FavoritesAdapter.VIEW_TYPE_FAVORITE);
 
         updateFavoritesVisibility();
     }
 
+    /**
+     * Replace the built-in list with the shared menu catalogue once it has rows,
+     * so this screen shows real product ids, prices and sizes.
+     */
+    private void observeMenuCatalog() {
+        ((PosApp) getApplication()).getRepositoryProvider()
+                .getMenuCatalogRepository()
+                .observe()
+                .observe(this, this::applyMenuCatalog);
+    }
+
+    /**
+     * Re-index allMenuItems for search; ranking reads sales totals, hence the disk-read pool.
+     */
+    private void rebuildSearchIndex() {
+        com.loretacafe.pos.data.local.AppDatabase database =
+            com.loretacafe.pos.data.local.AppDatabase.getInstance(getApplicationContext());
+        List<MenuItem> items = new ArrayList<>(allMenuItems);
+        menuSearch.rebuildIndex(AppExecutors.get().diskRead(), () -> SearchIndexes.forMenu(database, items));
+    }
+
+    private void applyMenuCatalog(MenuCatalog catalog) {
+        if (catalog == null || catalog.isEmpty()) {
+            return;
+        }
+        allMenuItems.clear();
+        allMenuItems.addAll(catalog.newMenuItems());
+
+        FavoritesManager favoritesManager = FavoritesManager.getInstance(this);
+        favoritesManager.syncMenuItemsWithFavorites(allMenuItems);
+        favoriteItems = favoritesManager.getFavoriteMenuItems(allMenuItems);
+
+        menuAdapter.updateFullList(allMenuItems);
+        // Keep whatever the user was looking at; a search re-runs once the new index is in
+        rebuildSearchIndex();
+        if (menuSearch.getQuery().isEmpty() && !"All".equals(currentCategory)) {
+            menuAdapter.filterByCategory(currentCategory);
+        }
+        favoritesAdapter.updateFavorites(favoriteItems);
+        updateFavoritesVisibility();
+
+        com.loretacafe.pos.data.local.AppDatabase database =
+            com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
+        checkAllItemsAvailability(allMenuItems, new com.loretacafe.pos.util.RecipeAvailabilityChecker(database));
+        android.util.Log.d("MenuActivity", "📋 Showing " + allMenuItems.size() + " items from menu catalogue");
+    }
+
     /**
      * Calculate the number of columns for grid layout based on screen width
      * Phones: 2 columns
@@ -412,43 +478,46 @@ public class MenuActivity extends AppCompatActivity {
         // Observe availability changes and update menu items
         availabilityManager.getMenuItemAvailability().observe(this, availabilityMap -> {
             if (availabilityMap != null && menuAdapter != null) {
-                // Update availability for each menu item
+                // Update availability for each menu item; redraw only the ones that flipped
+                List<MenuItem> changed = new ArrayList<>();
                 for (MenuItem item : allMenuItems) {
                     Boolean isAvailable = availabilityMap.get(item.getProductId());
-                    if (isAvailable != null) {
+                    if (isAvailable != null && isAvailable != item.isAvailable()) {
                         item.setAvailable(isAvailable);
+                        changed.add(item);
                     }
                 }
-                menuAdapter.notifyDataSetChanged();
-                favoritesAdapter.notifyDataSetChanged();
+                menuAdapter.notifyAvailabilityChanged(changed);
             }
         });
         
         // Observe missing ingredients text
         availabilityManager.getMenuItemMissingIngredients().observe(this, missingMap -> {
             if (missingMap != null && menuAdapter != null) {
+                List<MenuItem> changed = new ArrayList<>();
                 for (MenuItem item : allMenuItems) {
                     String missingText = missingMap.get(item.getProductId());
-                    if (missingText != null) {
+                    if (missingText != null && !missingText.equals(item.getMissingIngredientsText())) {
                         item.setMissingIngredientsText(missingText);
+                        changed.add(item);
                     }
                 }
-                menuAdapter.notifyDataSetChanged();
-                favoritesAdapter.notifyDataSetChanged();
+                menuAdapter.notifyAvailabilityChanged(changed);
             }
         });
         
         // Observe low stock status
         availabilityManager.getMenuItemLowStock().observe(this, lowStockMap -> {
             if (lowStockMap != null && menuAdapter != null) {
+                List<MenuItem> changed = new ArrayList<>();
                 for (MenuItem item : allMenuItems) {
                     Boolean hasLowStock = lowStockMap.get(item.getProductId());
-                    if (hasLowStock != null) {
+                    if (hasLowStock != null && hasLowStock != item.hasLowStock()) {
                         item.setHasLowStock(hasLowStock);
+                        changed.add(item);
                     }
                 }
-                menuAdapter.notifyDataSetChanged();
-                favoritesAdapter.notifyDataSetChanged();
+                menuAdapter.notifyAvailabilityChanged(changed);
             }
         });
         
@@ -493,8 +562,10 @@ public class MenuActivity extends AppCompatActivity {
         // Create a copy of the list to avoid ConcurrentModificationException
         final List<MenuItem> itemsCopy = new ArrayList<>(items);
         
-        new Thread(() -> {
-            // Use index-based iteration to avoid concurrent modification issues
+        tasks.read(() -> {
+            // Query off the main thread, but only touch the items on it
+            final java.util.Map<MenuItem, com.loretacafe.pos.util.RecipeAvailabilityChecker.AvailabilityResult> results =
+                new java.util.HashMap<>();
             for (int i = 0; i < itemsCopy.size(); i++) {
                 MenuItem item = itemsCopy.get(i);
                 if (item != null && item.getProductId() > 0) {
@@ -504,26 +575,26 @@ public class MenuActivity extends AppCompatActivity {
                         defaultSize = item.getSizes().get(0).getName();
                     }
                     
-                    com.loretacafe.pos.util.RecipeAvailabilityChecker.AvailabilityResult result = 
-                        checker.checkAvailability(item.getProductId(), defaultSize);
-                    
-                    // Update the item (this is safe since we're modifying the object, not the list)
-                    item.setAvailable(result.isAvailable());
-                    item.setHasLowStock(result.hasLowStock());
-                    item.setMissingIngredientsText(result.getMissingIngredientsText());
+                    results.put(item, checker.checkAvailability(item.getProductId(), defaultSize));
                 }
             }
             
             // Update UI on main thread
-            runOnUiThread(() -> {
-                if (menuAdapter != null) {
-                    menuAdapter.notifyDataSetChanged();
+            tasks.main(() -> {
+                List<MenuItem> changed = new ArrayList<>();
+                for (java.util.Map.Entry<MenuItem, com.loretacafe.pos.util.RecipeAvailabilityChecker.AvailabilityResult> entry
+                        : results.entrySet()) {
+                    com.loretacafe.pos.util.RecipeAvailabilityChecker.AvailabilityResult result = entry.getValue();
+                    if (entry.getKey().applyAvailability(result.isAvailable(), result.hasLowStock(),
+                            result.getMissingIngredientsText())) {
+                        changed.add(entry.getKey());
+                    }
                 }
-                if (favoritesAdapter != null) {
-                    favoritesAdapter.notifyDataSetChanged();
+                if (menuAdapter != null) {
+                    menuAdapter.notifyAvailabilityChanged(changed);
                 }
             });
-        }).start();
+        });
     }
     
     @Override
@@ -585,7 +656,7 @@ public class MenuActivity extends AppCompatActivity {
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                menuAdapter.filter(s.toString());
+                menuSearch.setQuery(s.toString());
             }
 
             @Override
@@ -599,6 +670,13 @@ public class MenuActivity extends AppCompatActivity {
                 refreshMenuItems();
             });
             swipeRefreshLayout.setColorSchemeResources(R.color.colorPrimary);
+
+            // The direct child is a CoordinatorLayout, which never reports being
+            // scrolled; only pull to refresh with the header expanded and the grid at the top
+            com.google.android.material.appbar.AppBarLayout appBar = findViewById(R.id.appBarMenu);
+            appBar.addOnOffsetChangedListener((layout, verticalOffset) -> headerOffset = verticalOffset);
+            swipeRefreshLayout.setOnChildScrollUpCallback((parent, child) ->
+                    headerOffset != 0 || rvMenuItems.canScrollVertically(-1));
         }
 
         // FAB Add Item - navigate to Edit Item screen to create new item
@@ -679,9 +757,11 @@ public class MenuActivity extends AppCompatActivity {
      * Refresh menu items and favorites
      */
     private void refreshMenuItems() {
-        // Simulate refresh - in a real app, this would reload from database
-        // For now, just update the adapters and stop refreshing
-        menuAdapter.notifyDataSetChanged();
+        // Item data comes from the menu catalogue; a refresh re-checks ingredient
+        // stock, which redraws only the tiles whose availability changed
+        com.loretacafe.pos.data.local.AppDatabase database =
+            com.loretacafe.pos.data.local.AppDatabase.getInstance(this);
+        checkAllItemsAvailability(allMenuItems, new com.loretacafe.pos.util.RecipeAvailabilityChecker(database));
         favoritesAdapter.updateFavorites(favoriteItems);
         updateFavoritesVisibility();
         
@@ -9,24 +9,34 @@ import android.widget.RelativeLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.loretacafe.pos.data.local.AppDatabase;
-import com.loretacafe.pos.util.RecipeAvailabilityChecker;
+import com.loretacafe.pos.image.MenuImages;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder> {
 
-    private List<MenuItem> menuItems;
-    private List<MenuItem> menuItemsFull; // For search functionality
+    /** Every tile uses the same layout; its id doubles as the view type for pool sizing. */
+    static final int VIEW_TYPE_TILE = R.layout.item_menu;
+
+    private final AsyncListDiffer<MenuItem> differ = new AsyncListDiffer<>(
+            new AdapterListUpdateCallback(this), MenuItemDiffCallback.config());
+    private final List<MenuItem> menuItemsFull; // For search functionality
     private OnFavoriteClickListener favoriteClickListener;
     private OnItemClickListener itemClickListener;
     private OnAddToCartClickListener addToCartClickListener;
-    private RecipeAvailabilityChecker availabilityChecker;
+    private boolean recipeAvailability;
+    // Tiles inflated off the main thread by MenuTilePool, used before inflating new ones
+    private final ArrayDeque<View> preinflatedTiles = new ArrayDeque<>();
 
     public interface OnFavoriteClickListener {
         void onFavoriteClick(MenuItem item, int position);
@@ -41,13 +51,19 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
     }
 
     public MenuAdapter(List<MenuItem> menuItems, OnFavoriteClickListener listener) {
-        this.menuItems = menuItems;
         this.menuItemsFull = new ArrayList<>(menuItems);
         this.favoriteClickListener = listener;
+        setHasStableIds(true);
+        differ.submitList(new ArrayList<>(menuItems));
     }
     
-    public void setAvailabilityChecker(RecipeAvailabilityChecker checker) {
-        this.availabilityChecker = checker;
+    /**
+     * When enabled, badges use the availability flags the screen computes off the
+     * main thread (see {@link MenuItem#applyAvailability}); otherwise they are
+     * derived from the item's stock quantity.
+     */
+    public void setRecipeAvailability(boolean enabled) {
+        this.recipeAvailability = enabled;
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
@@ -61,53 +77,93 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
     @NonNull
     @Override
     public MenuViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_menu, parent, false);
+        View view = preinflatedTiles.poll();
+        if (view == null) {
+            view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_menu, parent, false);
+        }
         return new MenuViewHolder(view);
     }
 
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE_TILE;
+    }
+
+    /**
+     * Hand over a tile inflated ahead of time; the next holder is created from it.
+     * Main thread only.
+     */
+    void addPreinflatedTile(@NonNull View tile) {
+        preinflatedTiles.add(tile);
+    }
+
     @Override
     public void onBindViewHolder(@NonNull MenuViewHolder holder, int position) {
-        MenuItem item = menuItems.get(position);
+        MenuItem item = differ.getCurrentList().get(position);
         holder.bind(item);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull MenuViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        MenuItem item = differ.getCurrentList().get(position);
+        for (Object payload : payloads) {
+            if (payload == MenuItemDiffCallback.PAYLOAD_AVAILABILITY) {
+                holder.bindAvailability(item);
+            } else if (payload == MenuItemDiffCallback.PAYLOAD_FAVORITE) {
+                holder.bindFavorite(item);
+            } else {
+                holder.bind(item);
+                return;
+            }
+        }
+    }
+
     @Override
     public int getItemCount() {
-        return menuItems.size();
+        return differ.getCurrentList().size();
     }
 
-    public void filter(String query) {
-        menuItems.clear();
-        if (query.isEmpty()) {
-            menuItems.addAll(menuItemsFull);
-        } else {
-            String lowerCaseQuery = query.toLowerCase().trim();
-            for (MenuItem item : menuItemsFull) {
-                if (item.getName().toLowerCase().contains(lowerCaseQuery)) {
-                    menuItems.add(item);
-                }
-            }
-        }
-        notifyDataSetChanged();
+    @Override
+    public long getItemId(int position) {
+        return MenuItemDiffCallback.stableId(differ.getCurrentList().get(position));
+    }
+
+    /**
+     * Image name of the tile at {@code position}, for {@link com.loretacafe.pos.image.TilePreloader}.
+     */
+    public String imageNameAt(int position) {
+        List<MenuItem> items = differ.getCurrentList();
+        return position >= 0 && position < items.size() ? items.get(position).getImageResourceName() : null;
+    }
+
+    /**
+     * Show search matches in the given order, or the full list when {@code results}
+     * is null (blank query). Matching itself happens in the screen's search index.
+     */
+    public void showSearchResults(@Nullable List<MenuItem> results) {
+        differ.submitList(results != null ? new ArrayList<>(results) : new ArrayList<>(menuItemsFull));
     }
 
     public void filterByCategory(String category) {
-        menuItems.clear();
+        List<MenuItem> filtered = new ArrayList<>();
         if (category.equals("All")) {
-            menuItems.addAll(menuItemsFull);
+            filtered.addAll(menuItemsFull);
         } else {
             for (MenuItem item : menuItemsFull) {
-                if (item.category().equals(category)) {
-                    menuItems.add(item);
+                if (category.equals(item.category())) {
+                    filtered.add(item);
                 }
             }
         }
-        notifyDataSetChanged();
+        differ.submitList(filtered);
     }
 
     public void updateFullList(List<MenuItem> newList) {
         menuItemsFull.clear();
-        menuItems.clear();
         
         // Use a Set to track unique product IDs to prevent duplicates
         Set<Long> seenProductIds = new HashSet<>();
@@ -116,18 +172,48 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
         if (newList != null) {
             for (MenuItem item : newList) {
                 // Skip if we've already seen this product ID
-                if (seenProductIds.contains(item.getProductId())) {
+                if (seenProductIds.contains(MenuItemDiffCallback.stableId(item))) {
                     android.util.Log.w("MenuAdapter", "Duplicate item detected: " + item.getName() + " (ID: " + item.getProductId() + ")");
                     continue;
                 }
-                seenProductIds.add(item.getProductId());
+                seenProductIds.add(MenuItemDiffCallback.stableId(item));
                 uniqueItems.add(item);
             }
         }
         
         menuItemsFull.addAll(uniqueItems);
-        menuItems.addAll(uniqueItems);
-        notifyDataSetChanged();
+        differ.submitList(uniqueItems);
+    }
+
+    /**
+     * Redraw the stock badge of these items (their flags were updated in place).
+     * Tiles not in the list are left alone.
+     */
+    public void notifyAvailabilityChanged(Collection<MenuItem> changedItems) {
+        notifyItemsChanged(changedItems, MenuItemDiffCallback.PAYLOAD_AVAILABILITY);
+    }
+
+    /**
+     * Redraw the heart icon of these items (their favorite flag was updated in place).
+     */
+    public void notifyFavoriteChanged(Collection<MenuItem> changedItems) {
+        notifyItemsChanged(changedItems, MenuItemDiffCallback.PAYLOAD_FAVORITE);
+    }
+
+    private void notifyItemsChanged(Collection<MenuItem> changedItems, Object payload) {
+        if (changedItems.isEmpty()) {
+            return;
+        }
+        Set<Long> changedIds = new HashSet<>();
+        for (MenuItem item : changedItems) {
+            changedIds.add(MenuItemDiffCallback.stableId(item));
+        }
+        List<MenuItem> current = differ.getCurrentList();
+        for (int i = 0; i < current.size(); i++) {
+            if (changedIds.contains(MenuItemDiffCallback.stableId(current.get(i)))) {
+                notifyItemChanged(i, payload);
+            }
+        }
     }
 
     class MenuViewHolder extends RecyclerView.ViewHolder {
@@ -157,36 +243,16 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
             tvItemName.setText(item.getName());
             tvItemPrice.setText(item.getFormattedPrice());
             
-            // Check recipe-based availability (real-time ingredient stock check)
-            boolean isAvailable = true;
-            boolean hasLowStock = false;
-            String missingIngredients = null;
-            
-            if (availabilityChecker != null && item.getProductId() > 0) {
-                // Check availability for default/smallest size
-                String defaultSize = "Regular";
-                if (item.getSizes() != null && !item.getSizes().isEmpty()) {
-                    // Use the first size (usually smallest) as default
-                    defaultSize = item.getSizes().get(0).getName();
-                }
-                
-                RecipeAvailabilityChecker.AvailabilityResult result = 
-                    availabilityChecker.checkAvailability(item.getProductId(), defaultSize);
-                
-                isAvailable = result.isAvailable();
-                hasLowStock = result.hasLowStock();
-                missingIngredients = result.getMissingIngredientsText();
-                
-                // Update MenuItem with availability info
-                item.setAvailable(isAvailable);
-                item.setHasLowStock(hasLowStock);
-                item.setMissingIngredientsText(missingIngredients);
+            // Recipe-based availability is computed off the main thread by the screen
+            // and arrives as an availability payload; bind only reads the flags
+            boolean hasLowStock;
+            if (recipeAvailability && item.getProductId() > 0) {
+                hasLowStock = item.hasLowStock();
             } else {
                 // Fallback: use quantity-based check if no recipe checker available
                 int quantity = item.getAvailableQuantity();
-                isAvailable = quantity > 0;
                 hasLowStock = quantity > 0 && quantity <= 10;
-                item.setAvailable(isAvailable);
+                item.setAvailable(quantity > 0);
                 item.setHasLowStock(hasLowStock);
             }
             
@@ -198,20 +264,8 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
             // Hide "Out of Stock" badge - only show "Low Stock" warning if needed
             updateStockBadges(item, false, hasLowStock, item.getAvailableQuantity());
 
-            // Load actual image
-            String imageName = item.getImageResourceName();
-            if (imageName != null && !imageName.isEmpty()) {
-                int resourceId = itemView.getContext().getResources().getIdentifier(
-                    imageName, "drawable", itemView.getContext().getPackageName()
-                );
-                if (resourceId != 0) {
-                    ivMenuItem.setImageResource(resourceId);
-                } else {
-                    ivMenuItem.setImageResource(R.drawable.ic_image_placeholder);
-                }
-            } else {
-                ivMenuItem.setImageResource(R.drawable.ic_image_placeholder);
-            }
+            // Tile-sized and cached; see MenuImages
+            MenuImages.loadTile(ivMenuItem, item.getImageResourceName());
 
             // Show/hide NEW badge
             if (item.isNew()) {
@@ -220,20 +274,15 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
                 tvNewBadge.setVisibility(View.GONE);
             }
 
-            // Set favorite heart icon at bottom right
-            // Only show filled heart if item was explicitly marked as favorite by user
-            // Items default to not favorite (isFavorite = false)
-            if (item.isFavorite()) {
-                ivHeartIcon.setImageResource(R.drawable.ic_heart_filled);
-            } else {
-                ivHeartIcon.setImageResource(R.drawable.ic_heart_outline);
-            }
+            bindFavorite(item);
 
             // Heart icon click - toggle favorite
+            // Listeners look the item up at click time: a partial rebind may have
+            // swapped in a new instance without re-running bind()
             ivHeartIcon.setOnClickListener(v -> {
                 int position = getBindingAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && favoriteClickListener != null) {
-                    favoriteClickListener.onFavoriteClick(item, position);
+                    favoriteClickListener.onFavoriteClick(differ.getCurrentList().get(position), position);
                 }
             });
 
@@ -244,18 +293,38 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
             itemView.setOnClickListener(v -> {
                 int position = getBindingAdapterPosition();
                 if (position != RecyclerView.NO_POSITION) {
+                    MenuItem clicked = differ.getCurrentList().get(position);
                     if (itemClickListener != null) {
                         // MenuActivity: navigate to Edit Item screen
-                        itemClickListener.onItemClick(item, position);
+                        itemClickListener.onItemClick(clicked, position);
                     } else if (addToCartClickListener != null) {
                         // CreateOrderActivity: add to cart instantly
                         // Works even if item is marked as "Out of Stock"
-                        addToCartClickListener.onAddToCartClick(item, position);
+                        addToCartClickListener.onAddToCartClick(clicked, position);
                     }
                 }
             });
         }
         
+        /**
+         * Partial rebind for {@link MenuItemDiffCallback#PAYLOAD_AVAILABILITY}: the flags
+         * were already computed off the main thread, so only the badge is redrawn.
+         */
+        void bindAvailability(MenuItem item) {
+            updateStockBadges(item, false, item.hasLowStock(), item.getAvailableQuantity());
+        }
+
+        void bindFavorite(MenuItem item) {
+            // Set favorite heart icon at bottom right
+            // Only show filled heart if item was explicitly marked as favorite by user
+            // Items default to not favorite (isFavorite = false)
+            if (item.isFavorite()) {
+                ivHeartIcon.setImageResource(R.drawable.ic_heart_filled);
+            } else {
+                ivHeartIcon.setImageResource(R.drawable.ic_heart_outline);
+            }
+        }
+        
         private void updateStockBadges(MenuItem item, boolean isOutOfStock, boolean isLowStock, int quantity) {
             // Get the RelativeLayout container
             ViewGroup parent = (ViewGroup) itemView;
@@ -265,25 +334,13 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
             }
             
             if (relativeLayout == null) return;
-            
-            // Remove existing badges if any
-            if (tvStockBadge != null && tvStockBadge.getParent() != null) {
-                relativeLayout.removeView(tvStockBadge);
-            }
-            if (tvOutOfStock != null && tvOutOfStock.getParent() != null) {
-                relativeLayout.removeView(tvOutOfStock);
-            }
-            
+
+            // Badges are added once per tile and then only shown or hidden, so a
+            // rebind doesn't relayout the tile
             if (isOutOfStock) {
                 // Show "Unavailable" or "Out of Stock" label
                 if (tvOutOfStock == null) {
-                    tvOutOfStock = new TextView(itemView.getContext());
-                    tvOutOfStock.setId(View.generateViewId());
-                    tvOutOfStock.setText("Unavailable");
-                    tvOutOfStock.setTextSize(10);
-                    tvOutOfStock.setTextColor(0xFFFFFFFF);
-                    tvOutOfStock.setBackgroundColor(0xFF757575); // Grey background for unavailable
-                    tvOutOfStock.setPadding(8, 4, 8, 4);
+                    tvOutOfStock = createBadge(relativeLayout, 0xFF757575); // Grey background for unavailable
                 }
                 // Update text if we have missing ingredients info
                 if (item.getMissingIngredientsText() != null && !item.getMissingIngredientsText().isEmpty()) {
@@ -291,49 +348,37 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
                 } else {
                     tvOutOfStock.setText("Out of Stock");
                 }
-                android.widget.RelativeLayout.LayoutParams layoutParams = 
-                    new android.widget.RelativeLayout.LayoutParams(
-                        android.view.ViewGroup.LayoutParams.WRAP_CONTENT,
-                        android.view.ViewGroup.LayoutParams.WRAP_CONTENT
-                    );
-                layoutParams.addRule(android.widget.RelativeLayout.ALIGN_PARENT_TOP);
-                layoutParams.addRule(android.widget.RelativeLayout.ALIGN_PARENT_START);
-                layoutParams.setMargins(8, 8, 0, 0);
-                relativeLayout.addView(tvOutOfStock, layoutParams);
                 tvOutOfStock.setVisibility(View.VISIBLE);
-            } else {
-                if (tvOutOfStock != null) {
-                    tvOutOfStock.setVisibility(View.GONE);
-                }
+            } else if (tvOutOfStock != null) {
+                tvOutOfStock.setVisibility(View.GONE);
             }
             
             if (isLowStock && !isOutOfStock) {
                 // Show low stock badge (yellow/orange)
                 if (tvStockBadge == null) {
-                    tvStockBadge = new TextView(itemView.getContext());
-                    tvStockBadge.setId(View.generateViewId());
+                    tvStockBadge = createBadge(relativeLayout, 0xFFFFC107); // Yellow/amber background
                     tvStockBadge.setText("Low Stock");
-                    tvStockBadge.setTextSize(10);
-                    tvStockBadge.setTextColor(0xFFFFFFFF);
-                    tvStockBadge.setBackgroundColor(0xFFFFC107); // Yellow/amber background
-                    tvStockBadge.setPadding(8, 4, 8, 4);
                 }
-                tvStockBadge.setText("Low Stock");
-                android.widget.RelativeLayout.LayoutParams layoutParams = 
-                    new android.widget.RelativeLayout.LayoutParams(
-                        android.view.ViewGroup.LayoutParams.WRAP_CONTENT,
-                        android.view.ViewGroup.LayoutParams.WRAP_CONTENT
-                    );
-                layoutParams.addRule(android.widget.RelativeLayout.ALIGN_PARENT_TOP);
-                layoutParams.addRule(android.widget.RelativeLayout.ALIGN_PARENT_START);
-                layoutParams.setMargins(8, 8, 0, 0);
-                relativeLayout.addView(tvStockBadge, layoutParams);
                 tvStockBadge.setVisibility(View.VISIBLE);
-            } else {
-                if (tvStockBadge != null) {
-                    tvStockBadge.setVisibility(View.GONE);
-                }
+            } else if (tvStockBadge != null) {
+                tvStockBadge.setVisibility(View.GONE);
             }
         }
+
+        private TextView createBadge(ViewGroup relativeLayout, int backgroundColor) {
+            TextView badge = new TextView(itemView.getContext());
+            badge.setId(View.generateViewId());
+            badge.setTextSize(10);
+            badge.setTextColor(0xFFFFFFFF);
+            badge.setBackgroundColor(backgroundColor);
+            badge.setPadding(8, 4, 8, 4);
+            RelativeLayout.LayoutParams layoutParams = new RelativeLayout.LayoutParams(
+                    ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+            layoutParams.addRule(RelativeLayout.ALIGN_PARENT_TOP);
+            layoutParams.addRule(RelativeLayout.ALIGN_PARENT_START);
+            layoutParams.setMargins(8, 8, 0, 0);
+            relativeLayout.addView(badge, layoutParams);
+            return badge;
+        }
     }
 }
\ No newline at end of file
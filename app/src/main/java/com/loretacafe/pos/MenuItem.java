@@ -19,6 +19,7 @@ public class MenuItem implements Serializable {
     private boolean isAvailable; // Real-time availability based on ingredient stock
     private String missingIngredientsText; // Comma-separated list of missing ingredients
     private boolean hasLowStock; // True if any ingredient is low stock
+    private String formattedPrice; // Price label, kept current so tile binds don't format
 
     public MenuItem(long productId, String name, double price, String category, int availableQuantity) {
         this.productId = productId;
@@ -30,6 +31,7 @@ public class MenuItem implements Serializable {
         this.isNew = false;
         this.size = "";
         this.imageResourceName = "";
+        updateFormattedPrice();
     }
 
     public MenuItem(long productId, String name, double price, String category, int availableQuantity, boolean isNew) {
@@ -49,7 +51,7 @@ public class MenuItem implements Serializable {
 
     public MenuItem(long productId, String name, String size, String category, int availableQuantity) {
         this(productId, name, 0, category, availableQuantity);
-        this.size = size;
+        setSize(size);
         this.imageResourceName = "hotcoffee";
     }
 
@@ -92,6 +94,7 @@ public class MenuItem implements Serializable {
 
     public void setPrice(double price) {
         this.price = price;
+        updateFormattedPrice();
     }
 
     public String category() {
@@ -128,13 +131,19 @@ public class MenuItem implements Serializable {
 
     public void setSize(String size) {
         this.size = size;
+        updateFormattedPrice();
     }
 
     public String getFormattedPrice() {
+        return formattedPrice;
+    }
+
+    private void updateFormattedPrice() {
         if (size != null && !size.isEmpty()) {
-            return size;
+            formattedPrice = size;
+        } else {
+            formattedPrice = "₱ " + String.format("%.2f", price);
         }
-        return "₱ " + String.format("%.2f", price);
     }
 
     public String getImageResourceName() {
@@ -176,4 +185,19 @@ public class MenuItem implements Serializable {
     public void setHasLowStock(boolean hasLowStock) {
         this.hasLowStock = hasLowStock;
     }
+
+    /**
+     * Set all availability flags at once.
+     *
+     * @return true if any of them changed, i.e. the tile's badge needs redrawing
+     */
+    public boolean applyAvailability(boolean available, boolean lowStock, String missingIngredientsText) {
+        boolean changed = isAvailable != available
+                || hasLowStock != lowStock
+                || !java.util.Objects.equals(this.missingIngredientsText, missingIngredientsText);
+        isAvailable = available;
+        hasLowStock = lowStock;
+        this.missingIngredientsText = missingIngredientsText;
+        return changed;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.loretacafe.pos;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.loretacafe.pos.data.util.AppExecutors;
+
+import java.util.Objects;
+
+/**
+ * Diffing rules for menu tiles, shared by {@link MenuAdapter} and {@link FavoritesAdapter}.
+ *
+ * <p>Screens mutate MenuItems in place (favorite and availability flags), so a
+ * diff between two lists holding the same instance can't see those changes.
+ * Screens report them with the payloads below instead; the diff only catches
+ * changes between different instances, e.g. after a new menu catalogue.
+ */
+final class MenuItemDiffCallback extends DiffUtil.ItemCallback<MenuItem> {
+
+    /** Stock badge only (available / low stock / missing ingredients). */
+    static final Object PAYLOAD_AVAILABILITY = "availability";
+    /** Heart icon only. */
+    static final Object PAYLOAD_FAVORITE = "favorite";
+
+    static final MenuItemDiffCallback INSTANCE = new MenuItemDiffCallback();
+
+    private MenuItemDiffCallback() {
+    }
+
+    static AsyncDifferConfig<MenuItem> config() {
+        return new AsyncDifferConfig.Builder<>(INSTANCE)
+                .setBackgroundThreadExecutor(AppExecutors.get().compute())
+                .build();
+    }
+
+    /**
+     * Product id for database-backed items. The built-in menu list has no ids
+     * (-1) and repeats names across categories, so those are keyed by name and
+     * category, mapped into negative ids that can't clash with real ones.
+     */
+    static long stableId(MenuItem item) {
+        if (item.getProductId() > 0) {
+            return item.getProductId();
+        }
+        long hash = (item.getName() + "|" + item.category()).hashCode() & 0xFFFFFFFFL;
+        return -(hash + 1);
+    }
+
+    @Override
+    public boolean areItemsTheSame(@NonNull MenuItem oldItem, @NonNull MenuItem newItem) {
+        return stableId(oldItem) == stableId(newItem);
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull MenuItem oldItem, @NonNull MenuItem newItem) {
+        return oldItem == newItem
+                || (sameTile(oldItem, newItem)
+                && oldItem.isFavorite() == newItem.isFavorite()
+                && sameAvailability(oldItem, newItem));
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull MenuItem oldItem, @NonNull MenuItem newItem) {
+        if (!sameTile(oldItem, newItem)) {
+            return null;
+        }
+        boolean favoriteChanged = oldItem.isFavorite() != newItem.isFavorite();
+        boolean availabilityChanged = !sameAvailability(oldItem, newItem);
+        if (favoriteChanged && availabilityChanged) {
+            // Both parts change; a full bind is as cheap
+            return null;
+        }
+        return favoriteChanged ? PAYLOAD_FAVORITE : PAYLOAD_AVAILABILITY;
+    }
+
+    private static boolean sameTile(MenuItem a, MenuItem b) {
+        return Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getFormattedPrice(), b.getFormattedPrice())
+                && Objects.equals(a.category(), b.category())
+                && Objects.equals(a.getImageResourceName(), b.getImageResourceName())
+                && a.isNew() == b.isNew()
+                && a.getAvailableQuantity() == b.getAvailableQuantity();
+    }
+
+    private static boolean sameAvailability(MenuItem a, MenuItem b) {
+        return a.isAvailable() == b.isAvailable()
+                && a.hasLowStock() == b.hasLowStock()
+                && Objects.equals(a.getMissingIngredientsText(), b.getMissingIngredientsText());
+    }
+}
@@ -0,0 +1,83 @@
+package com.loretacafe.pos;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Recycling setup for a screen's menu grid.
+ *
+ * <p>The grid gets its own pool sized for a few rows of tiles (the default keeps
+ * five holders per type, less than two rows on a tablet), a two-row view cache
+ * and item prefetch, so the next row is created and bound in the idle time
+ * between frames. Once the first frame is up, a few rows of tiles are inflated
+ * on a background thread and handed to the adapter, so the first fling doesn't
+ * inflate on the main thread either.
+ *
+ * <p>The screen's favorites and quick-pick strips share the grid's pool through
+ * {@link #share}, so the screen keeps one pool however many lists it shows. Every
+ * adapter returns a view type of its own, so a holder only ever goes back to the
+ * adapter that created it. The pool belongs to one screen: holders keep their
+ * activity's context, so a pool shared across activities would leak the first one.
+ */
+final class MenuTilePool {
+    private static final String TAG = "MenuTilePool";
+
+    private static final int POOL_ROWS = 4;
+    private static final int CACHE_ROWS = 2;
+    private static final int PREINFLATE_ROWS = 3;
+    /** A strip shows about five tiles; keep a screenful of each. */
+    private static final int STRIP_POOL_SIZE = 6;
+
+    private MenuTilePool() {
+    }
+
+    /**
+     * Call on the main thread after the grid's layout manager and adapter are set.
+     *
+     * @return the grid's pool, for {@link #share} with the screen's strips
+     */
+    static RecyclerView.RecycledViewPool install(@NonNull RecyclerView grid, @NonNull MenuAdapter adapter,
+                                                 int spanCount) {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.setMaxRecycledViews(MenuAdapter.VIEW_TYPE_TILE, spanCount * POOL_ROWS);
+        grid.setRecycledViewPool(pool);
+        grid.setItemViewCacheSize(spanCount * CACHE_ROWS);
+        // Tile changes never resize the grid itself
+        grid.setHasFixedSize(true);
+        if (grid.getLayoutManager() != null) {
+            grid.getLayoutManager().setItemPrefetchEnabled(true);
+        }
+
+        // post() runs once the grid is attached, i.e. during the first traversal;
+        // the idle handler then waits until that frame is done
+        grid.post(() -> Looper.myQueue().addIdleHandler(() -> {
+            if (grid.isAttachedToWindow()) {
+                preinflate(grid, adapter, spanCount * PREINFLATE_ROWS);
+            }
+            return false;
+        }));
+        return pool;
+    }
+
+    /**
+     * Let a strip on the same screen recycle through the grid's pool. {@code viewType}
+     * must be the only type the strip's adapter returns and must differ from the
+     * grid's and every other sharer's.
+     */
+    static void share(@NonNull RecyclerView.RecycledViewPool pool, @NonNull RecyclerView strip, int viewType) {
+        pool.setMaxRecycledViews(viewType, STRIP_POOL_SIZE);
+        strip.setRecycledViewPool(pool);
+    }
+
+    private static void preinflate(RecyclerView grid, MenuAdapter adapter, int count) {
+        AsyncLayoutInflater inflater = new AsyncLayoutInflater(grid.getContext());
+        for (int i = 0; i < count; i++) {
+            inflater.inflate(R.layout.item_menu, grid,
+                    (view, resId, parent) -> adapter.addPreinflatedTile(view));
+        }
+        android.util.Log.d(TAG, "Pre-inflating " + count + " menu tiles");
+    }
+}
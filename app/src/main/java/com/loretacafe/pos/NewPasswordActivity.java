@@ -14,6 +14,7 @@ import com.google.android.material.textfield.TextInputEditText;
 import com.loretacafe.pos.data.firebase.FirebaseAuthRepository;
 import com.loretacafe.pos.data.local.entity.UserEntity;
 import com.loretacafe.pos.data.util.ApiResult;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 public class NewPasswordActivity extends AppCompatActivity {
 
@@ -118,7 +119,7 @@ public class NewPasswordActivity extends AppCompatActivity {
         setLoading(true);
         
         // Update password in background thread
-        new Thread(() -> {
+        AppExecutors.get().network().execute(() -> {
             try {
                 // Update password in BOTH databases
                 boolean localSuccess = false;
@@ -220,7 +221,7 @@ public class NewPasswordActivity extends AppCompatActivity {
                     Toast.makeText(NewPasswordActivity.this, "Error: " + e.getMessage(), Toast.LENGTH_LONG).show();
                 });
             }
-        }).start();
+        });
     }
 
     private void navigateToLogin() {
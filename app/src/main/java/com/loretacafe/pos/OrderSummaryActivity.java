@@ -22,15 +22,18 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
+import com.loretacafe.pos.data.util.AppExecutors;
 import com.loretacafe.pos.printer.PrinterHelper;
 
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
 public class OrderSummaryActivity extends AppCompatActivity {
 
+    /** Id of the {@link Ticket} to charge. */
+    public static final String EXTRA_TICKET_ID = "ticketId";
+
     private TextInputEditText etCustomerName;
     private EditText etCashReceived;
     private TextView tvCashReceivedDisplay;
@@ -42,7 +45,9 @@ public class OrderSummaryActivity extends AppCompatActivity {
     private androidx.cardview.widget.CardView cashReceivedCard, cardChange;
 
     private OrderItemAdapter adapter;
+    private Ticket ticket;
     private List<CartItem> cartItems;
+    private double total;
     private Order currentOrder;
     private boolean paymentProcessed = false;
     
@@ -59,26 +64,21 @@ public class OrderSummaryActivity extends AppCompatActivity {
         printerHelper = new PrinterHelper(this);
         handler = new Handler(Looper.getMainLooper());
 
-        // Get cart items from intent
-        try {
-            Serializable serializable = getIntent().getSerializableExtra("cartItems");
-            if (serializable instanceof ArrayList<?>) {
-                ArrayList<?> rawList = (ArrayList<?>) serializable;
-                cartItems = new ArrayList<>();
-                for (Object obj : rawList) {
-                    if (obj instanceof CartItem) {
-                        cartItems.add((CartItem) obj);
-                    }
-                }
-            } else {
-                cartItems = new ArrayList<>();
-            }
-        } catch (Exception e) {
-            android.util.Log.e("OrderSummaryActivity", "Error loading cart items", e);
-            cartItems = new ArrayList<>();
+        // Charge the ticket the order screen picked, which need not be the active one
+        ticket = TicketManager.getInstance().getTicket(getIntent().getStringExtra(EXTRA_TICKET_ID));
+        if (ticket == null) {
+            Toast.makeText(this, "This order is no longer open", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
         }
+        CartManager.Snapshot cart = ticket.getCart().getSnapshot();
+        cartItems = new ArrayList<>(cart.getItems());
+        total = cart.getTotal();
 
         initializeViews();
+        if (ticket.getLabel() != null) {
+            etCustomerName.setText(ticket.getLabel());
+        }
         setupRecyclerView();
         setupViewModel();
         setupListeners();
@@ -180,10 +180,9 @@ public class OrderSummaryActivity extends AppCompatActivity {
         btnNewSale.setOnClickListener(v -> {
             // Set result to indicate order was completed
             setResult(RESULT_OK);
-            // Navigate to Create Order with fresh cart
+            // Back to Create Order; the charged ticket is already closed
             Intent intent = new Intent(this, CreateOrderActivity.class);
             intent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
-            intent.putExtra("clearCart", true);
             startActivity(intent);
             finish();
         });
@@ -244,10 +243,7 @@ public class OrderSummaryActivity extends AppCompatActivity {
     }
 
     private double calculateTotal() {
-        double total = 0.0;
-        for (CartItem item : cartItems) {
-            total += item.getTotalPrice();
-        }
+        // The ticket's running total, kept by its cart
         return total;
     }
 
@@ -289,56 +285,51 @@ public class OrderSummaryActivity extends AppCompatActivity {
             }
         }
 
-        // Process order in background thread
+        // Queue the order on the database writer; the UI updates once it has committed
         setLoading(true);
         final String finalCustomerName = customerName;
         final String finalPaymentMethod = paymentMethod;
 
-        new Thread(() -> {
-            try {
-                // Create order using OrderService
-                com.loretacafe.pos.data.local.service.OrderService orderService =
-                    new com.loretacafe.pos.data.local.service.OrderService(OrderSummaryActivity.this);
-
-                final String orderNumber = orderService.processOrder(finalCustomerName, cartItems, finalPaymentMethod);
-
-                runOnUiThread(() -> {
-                    setLoading(false);
-                    if (orderNumber != null) {
-                        // Create order object for display
-                        Order newOrder = new Order(finalCustomerName, cartItems, finalPaymentMethod);
-                        newOrder.setOrderId(orderNumber);
-                        currentOrder = newOrder;
-
-                        if (rbCash.isChecked()) {
-                            try {
-                                double cashReceived = Double.parseDouble(etCashReceived.getText().toString());
-                                currentOrder.setCashReceived(cashReceived);
-                                currentOrder.calculateChange();
-                            } catch (NumberFormatException e) {
-                                // Should not happen due to validation above
-                            }
-                        } else {
-                            // For card, cash received equals total
-                            currentOrder.setCashReceived(calculateTotal());
-                        }
+        com.loretacafe.pos.data.local.service.OrderService orderService =
+            new com.loretacafe.pos.data.local.service.OrderService(OrderSummaryActivity.this);
 
-                        // Show success state
-                        showPaymentSuccess();
+        // The ticket's draft is deleted with the sale, not after it
+        orderService.submitOrder(finalCustomerName, cartItems, finalPaymentMethod, ticket.getId())
+            .whenComplete((orderNumber, error) -> runOnUiThread(() -> {
+                setLoading(false);
+                if (error != null) {
+                    android.util.Log.e("OrderSummaryActivity", "Error processing order", error);
+                    Toast.makeText(OrderSummaryActivity.this, "Failed to process order", Toast.LENGTH_LONG).show();
+                    return;
+                }
 
-                        Toast.makeText(OrderSummaryActivity.this, "Payment processed successfully! Order " + orderNumber, Toast.LENGTH_SHORT).show();
-                    } else {
-                        Toast.makeText(OrderSummaryActivity.this, "Failed to process order", Toast.LENGTH_LONG).show();
+                // Create order object for display
+                Order newOrder = new Order(finalCustomerName, cartItems, finalPaymentMethod);
+                newOrder.setOrderId(orderNumber);
+                currentOrder = newOrder;
+
+                if (rbCash.isChecked()) {
+                    try {
+                        double cashReceived = Double.parseDouble(etCashReceived.getText().toString());
+                        currentOrder.setCashReceived(cashReceived);
+                        currentOrder.calculateChange();
+                    } catch (NumberFormatException e) {
+                        // Should not happen due to validation above
                     }
-                });
-            } catch (Exception e) {
-                android.util.Log.e("OrderSummaryActivity", "Error processing order", e);
-                runOnUiThread(() -> {
-                    setLoading(false);
-                    Toast.makeText(OrderSummaryActivity.this, "Error processing order: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                });
-            }
-        }).start();
+                } else {
+                    // For card, cash received equals total
+                    currentOrder.setCashReceived(calculateTotal());
+                }
+
+                // Paid: its draft is already gone, so this only drops the ticket from the
+                // till; other open tickets stay as they are
+                TicketManager.getInstance().close(ticket.getId());
+
+                // Show success state
+                showPaymentSuccess();
+
+                Toast.makeText(OrderSummaryActivity.this, "Payment processed successfully! Order " + orderNumber, Toast.LENGTH_SHORT).show();
+            }));
     }
 
     private void showPaymentSuccess() {
@@ -385,7 +376,7 @@ public class OrderSummaryActivity extends AppCompatActivity {
         }
         
         // Try to connect and print in background
-        new Thread(() -> {
+        AppExecutors.get().printer().execute(() -> {
             try {
                 boolean connected = printerHelper.isConnected();
                 
@@ -427,7 +418,7 @@ public class OrderSummaryActivity extends AppCompatActivity {
                     showPrinterDialog("Error printing receipt: " + e.getMessage(), true);
                 });
             }
-        }).start();
+        });
     }
     
     private void showPrinterDialog(String message, boolean showRetry) {
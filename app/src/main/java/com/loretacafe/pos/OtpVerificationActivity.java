@@ -14,6 +14,8 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.loretacafe.pos.data.util.AppExecutors;
+
 public class OtpVerificationActivity extends AppCompatActivity {
 
     private ImageButton btnBack;
@@ -143,7 +145,7 @@ public class OtpVerificationActivity extends AppCompatActivity {
 
         // Verify code in background thread
         setLoading(true);
-        new Thread(() -> {
+        AppExecutors.get().diskWrite().execute(() -> {
             try {
                 com.loretacafe.pos.data.local.service.PasswordResetService resetService = 
                     new com.loretacafe.pos.data.local.service.PasswordResetService(OtpVerificationActivity.this);
@@ -196,7 +198,7 @@ public class OtpVerificationActivity extends AppCompatActivity {
                     builder.show();
                 });
             }
-        }).start();
+        });
     }
 
     private void handleResendCode() {
@@ -207,7 +209,7 @@ public class OtpVerificationActivity extends AppCompatActivity {
         setLoading(true);
         
         // Resend code in background thread
-        new Thread(() -> {
+        AppExecutors.get().network().execute(() -> {
             try {
                 com.loretacafe.pos.data.local.service.PasswordResetService resetService = 
                     new com.loretacafe.pos.data.local.service.PasswordResetService(OtpVerificationActivity.this);
@@ -239,7 +241,7 @@ public class OtpVerificationActivity extends AppCompatActivity {
                     Toast.makeText(OtpVerificationActivity.this, "Error: " + e.getMessage(), Toast.LENGTH_LONG).show();
                 });
             }
-        }).start();
+        });
     }
     
     private void startResendTimer() {
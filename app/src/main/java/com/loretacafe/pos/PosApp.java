@@ -2,12 +2,17 @@ package com.loretacafe.pos;
 
 import android.app.Application;
 
+import androidx.lifecycle.LiveData;
 import androidx.work.ExistingPeriodicWorkPolicy;
 import androidx.work.PeriodicWorkRequest;
 import androidx.work.WorkManager;
 
 import com.google.firebase.FirebaseApp;
 import com.loretacafe.pos.di.RepositoryProvider;
+import com.loretacafe.pos.draft.DraftOrderStore;
+import com.loretacafe.pos.perf.Perf;
+import com.loretacafe.pos.perf.Span;
+import com.loretacafe.pos.startup.StartupPipeline;
 import com.loretacafe.pos.sync.SyncWorker;
 
 import java.util.concurrent.TimeUnit;
@@ -16,18 +21,92 @@ public class PosApp extends Application {
 
     private static final String SYNC_WORK_NAME = "pending_sync_worker";
 
+    private static final String STAGE_DB_OPEN = "db-open";
+    private static final String STAGE_CLEAN = "seed-clean";
+    private static final String STAGE_SEED_RAW_MATERIALS = "seed-raw-materials";
+    private static final String STAGE_SEED_MENU = "seed-menu";
+    private static final String STAGE_SEED_RECIPES = "seed-recipes";
+    private static final String STAGE_DEFAULT_ADMIN = "default-admin";
+    private static final String STAGE_RECOVER_DRAFTS = "recover-drafts";
+    private static final String STAGE_CANCEL_SYNC = "cancel-sync";
+    private static final String STAGE_DISCOVERY = "backend-discovery";
+    private static final String STAGE_DAILY_RESET = "daily-reset";
+
     private RepositoryProvider repositoryProvider;
+    private StartupPipeline startupPipeline;
 
     @Override
     public void onCreate() {
         super.onCreate();
+        Span onCreateSpan = Perf.start("PosApp.onCreate");
+        
+        // Only cheap object construction happens on the main thread; everything
+        // touching disk or network runs as a staged pipeline on a background thread
+        repositoryProvider = new RepositoryProvider(this);
+        // Firestore settings only apply before its first use, and screens and repositories
+        // use it straight away; applying them does no I/O, so this stays on the main thread
+        configureFirebase();
+        // Start journaling the tickets before any screen can change them
+        DraftOrderStore draftOrderStore = DraftOrderStore.getInstance(this);
         
-        // Initialize Firebase with offline persistence
+        startupPipeline = new StartupPipeline()
+                // Open (and create/migrate) the database before anything queries it
+                .stage(STAGE_DB_OPEN, () ->
+                        repositoryProvider.getDatabase().getOpenHelper().getWritableDatabase())
+                // CRITICAL: Force clean database FIRST to remove all non-ingredients
+                // so Inventory only shows the 61 ingredients (seeded menu items are kept).
+                // Like the seeders, it is skipped while its fingerprint is current
+                .stage(STAGE_CLEAN, () -> com.loretacafe.pos.data.local.RawMaterialsSeeder.forceCleanDatabaseIfNeeded(
+                        this,
+                        repositoryProvider.getDatabase().productDao()
+                ), STAGE_DB_OPEN)
+                // Seed raw materials master list. Each seeder hashes its seed set and
+                // only writes (in one transaction) when the set changed
+                .stage(STAGE_SEED_RAW_MATERIALS, () -> com.loretacafe.pos.data.local.RawMaterialsSeeder.seedIfNeeded(
+                        this,
+                        repositoryProvider.getDatabase().productDao(),
+                        false
+                ), STAGE_CLEAN)
+                // Seed menu items before recipes so recipes can reference them.
+                // This ensures Create Order screen works even if MenuActivity is never opened
+                .stage(STAGE_SEED_MENU, () -> com.loretacafe.pos.data.local.MenuSeeder.seedIfNeeded(
+                        this,
+                        repositoryProvider.getDatabase().productDao(),
+                        false
+                ), STAGE_CLEAN)
+                // Seed exact recipes for all menu items on first install
+                .stage(STAGE_SEED_RECIPES, () -> com.loretacafe.pos.data.local.RecipeSeeder.seedIfNeeded(
+                        this,
+                        repositoryProvider.getDatabase().productDao(),
+                        repositoryProvider.getDatabase().recipeDao(),
+                        false
+                ), STAGE_SEED_RAW_MATERIALS, STAGE_SEED_MENU)
+                // Reopen the tickets that were still open when the app was killed
+                .stage(STAGE_RECOVER_DRAFTS, draftOrderStore::recover, STAGE_DB_OPEN)
+                // Ensure temp@loreta.com account always exists
+                .stage(STAGE_DEFAULT_ADMIN, this::createDefaultAdminUser, STAGE_DB_OPEN)
+                // Nothing below is needed to draw the first screen
+                // Disable sync worker for offline mode
+                .deferredStage(STAGE_CANCEL_SYNC, this::cancelSyncWork)
+                // Start automatic backend discovery
+                .deferredStage(STAGE_DISCOVERY, () ->
+                        com.loretacafe.pos.data.remote.ApiConfig.startDiscovery(this))
+                // Schedule daily reset at 3:00 AM
+                .deferredStage(STAGE_DAILY_RESET, () ->
+                        com.loretacafe.pos.util.DailyResetService.scheduleDailyReset(this));
+        startupPipeline.readyWhen(STAGE_SEED_RECIPES, STAGE_DEFAULT_ADMIN);
+        startupPipeline.start();
+        onCreateSpan.end();
+    }
+    
+    /**
+     * Initialize Firebase and configure Firestore offline persistence.
+     * This prevents connection warnings when device is offline
+     */
+    private void configureFirebase() {
         try {
             FirebaseApp.initializeApp(this);
             
-            // Configure Firestore to use offline persistence
-            // This prevents connection warnings when device is offline
             try {
                 com.google.firebase.firestore.FirebaseFirestore firestore = 
                     com.google.firebase.firestore.FirebaseFirestore.getInstance();
@@ -46,53 +125,6 @@ public class PosApp extends Application {
         } catch (Exception e) {
             android.util.Log.e("PosApp", "Firebase initialization failed", e);
         }
-        
-        repositoryProvider = new RepositoryProvider(this);
-        
-        // CRITICAL: Force clean database FIRST (synchronously) to remove all non-ingredients
-        // This must happen before any other operations to ensure Inventory only shows 61 ingredients
-        android.util.Log.d("PosApp", "Cleaning database to keep only 61 ingredients...");
-        com.loretacafe.pos.data.local.RawMaterialsSeeder.forceCleanDatabase(
-                repositoryProvider.getDatabase().productDao()
-        );
-
-        // Seed raw materials master list on first install
-        // Note: We no longer seed the old sample inventory (Espresso, Oreo Cheesecake).
-        // Inventory should follow the new formatted raw materials master list.
-        com.loretacafe.pos.data.local.RawMaterialsSeeder.seedIfNeeded(
-                this,
-                repositoryProvider.getDatabase().productDao()
-        );
-        
-        // CRITICAL: Seed menu items FIRST (before recipes) so recipes can reference them
-        // This ensures Create Order screen works even if MenuActivity is never opened
-        // Run synchronously to ensure menu items are available immediately
-        com.loretacafe.pos.data.local.MenuSeeder.seedIfNeeded(
-                this,
-                repositoryProvider.getDatabase().productDao(),
-                false // Synchronous - ensures menu items are ready before app starts
-        );
-        
-        // Seed exact recipes for all menu items on first install
-        com.loretacafe.pos.data.local.RecipeSeeder.seedIfNeeded(
-                this,
-                repositoryProvider.getDatabase().productDao(),
-                repositoryProvider.getDatabase().recipeDao()
-        );
-        
-        // Create default admin user on app start
-        createDefaultAdminUser();
-        
-        // Disable sync worker for offline mode
-        // Cancel any existing sync work
-        cancelSyncWork();
-        // scheduleSyncWork();
-        
-        // Start automatic backend discovery on app start
-        com.loretacafe.pos.data.remote.ApiConfig.startDiscovery(this);
-        
-        // Schedule daily reset at 3:00 AM
-        com.loretacafe.pos.util.DailyResetService.scheduleDailyReset(this);
     }
     
     /**
@@ -100,17 +132,15 @@ public class PosApp extends Application {
      * Ensures temp@loreta.com account always exists
      */
     private void createDefaultAdminUser() {
-        new Thread(() -> {
-            try {
-                android.util.Log.d("PosApp", "Creating default admin user...");
-                com.loretacafe.pos.data.local.service.LocalAuthService authService = 
-                    new com.loretacafe.pos.data.local.service.LocalAuthService(this);
-                authService.createDefaultAdmin();
-                android.util.Log.d("PosApp", "Default admin user initialization complete");
-            } catch (Exception e) {
-                android.util.Log.e("PosApp", "Error creating default admin user", e);
-            }
-        }).start();
+        try {
+            android.util.Log.d("PosApp", "Creating default admin user...");
+            com.loretacafe.pos.data.local.service.LocalAuthService authService = 
+                new com.loretacafe.pos.data.local.service.LocalAuthService(this);
+            authService.createDefaultAdmin();
+            android.util.Log.d("PosApp", "Default admin user initialization complete");
+        } catch (Exception e) {
+            android.util.Log.e("PosApp", "Error creating default admin user", e);
+        }
     }
     
     private void cancelSyncWork() {
@@ -126,6 +156,14 @@ public class PosApp extends Application {
         return repositoryProvider;
     }
 
+    /**
+     * Emits true once the database is open, all seed data is in place and the
+     * default admin exists. The login screen waits for it before signing in.
+     */
+    public LiveData<Boolean> observeStartupReady() {
+        return startupPipeline.observeReady();
+    }
+
     private void scheduleSyncWork() {
         PeriodicWorkRequest syncRequest = new PeriodicWorkRequest.Builder(
                 SyncWorker.class,
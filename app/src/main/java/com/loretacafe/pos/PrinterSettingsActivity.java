@@ -27,6 +27,8 @@ import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.data.util.LifecycleTasks;
 import com.loretacafe.pos.printer.PrinterHelper;
 import com.loretacafe.pos.printer.PrinterListAdapter;
 import com.loretacafe.pos.security.PermissionManager;
@@ -35,6 +37,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class PrinterSettingsActivity extends AppCompatActivity {
+
+    // Loads are cancelled when this screen is destroyed
+    private final LifecycleTasks tasks = AppExecutors.get().tasksFor(this);
     
     private static final int REQUEST_BLUETOOTH_PERMISSIONS = 100;
     private static final int REQUEST_ENABLE_BT = 101;
@@ -239,7 +244,7 @@ public class PrinterSettingsActivity extends AppCompatActivity {
         progressBar.setVisibility(View.VISIBLE);
         btnSelectPrinter.setEnabled(false);
         
-        new Thread(() -> {
+        tasks.printer(() -> {
             try {
                 // Get paired devices
                 List<BluetoothDevice> devices = printerHelper.getPairedPrinters();
@@ -263,7 +268,7 @@ public class PrinterSettingsActivity extends AppCompatActivity {
                     requestBluetoothPermissions();
                 });
             }
-        }).start();
+        });
     }
     
     private void showPrinterListDialog(List<BluetoothDevice> devices) {
@@ -314,7 +319,7 @@ public class PrinterSettingsActivity extends AppCompatActivity {
         btnSelectPrinter.setEnabled(false);
         tvPrinterStatus.setText("Connecting...");
         
-        new Thread(() -> {
+        AppExecutors.get().printer().execute(() -> {
             try {
                 String deviceName = device.getName();
                 String macAddress = device.getAddress();
@@ -343,7 +348,7 @@ public class PrinterSettingsActivity extends AppCompatActivity {
                     requestBluetoothPermissions();
                 });
             }
-        }).start();
+        });
     }
     
     private void testPrint() {
@@ -355,7 +360,7 @@ public class PrinterSettingsActivity extends AppCompatActivity {
         progressBar.setVisibility(View.VISIBLE);
         btnTestPrint.setEnabled(false);
         
-        new Thread(() -> {
+        AppExecutors.get().printer().execute(() -> {
             boolean success = printerHelper.printTestReceipt();
             
             handler.post(() -> {
@@ -370,7 +375,7 @@ public class PrinterSettingsActivity extends AppCompatActivity {
                     updatePrinterStatus();
                 }
             });
-        }).start();
+        });
     }
     
     @Override
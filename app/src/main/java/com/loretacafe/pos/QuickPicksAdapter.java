@@ -0,0 +1,108 @@
+package com.loretacafe.pos;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.loretacafe.pos.image.MenuImages;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Top-seller strip on the order screen. Uses the favorite tile layout with the
+ * name shown and no heart; tapping a tile goes straight to add-to-cart.
+ */
+public class QuickPicksAdapter extends RecyclerView.Adapter<QuickPicksAdapter.QuickPickViewHolder> {
+
+    /**
+     * Shares the menu grid's recycled view pool. The layout is the favorites strip's
+     * but the holder class isn't, so it needs a view type of its own.
+     */
+    static final int VIEW_TYPE_QUICK_PICK = R.id.view_type_quick_pick;
+
+    private final AsyncListDiffer<MenuItem> differ = new AsyncListDiffer<>(
+            new AdapterListUpdateCallback(this), MenuItemDiffCallback.config());
+    private final OnItemClickListener listener;
+
+    public interface OnItemClickListener {
+        void onItemClick(MenuItem item);
+    }
+
+    public QuickPicksAdapter(OnItemClickListener listener) {
+        this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @NonNull
+    @Override
+    public QuickPickViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_favorite, parent, false);
+        QuickPickViewHolder holder = new QuickPickViewHolder(view);
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION && listener != null) {
+                listener.onItemClick(differ.getCurrentList().get(position));
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE_QUICK_PICK;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull QuickPickViewHolder holder, int position) {
+        holder.bind(differ.getCurrentList().get(position));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull QuickPickViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty()) {
+            // Quick-pick tiles show neither stock badges nor a heart
+            return;
+        }
+        onBindViewHolder(holder, position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return MenuItemDiffCallback.stableId(differ.getCurrentList().get(position));
+    }
+
+    public void submitPicks(List<MenuItem> picks) {
+        differ.submitList(new ArrayList<>(picks));
+    }
+
+    static class QuickPickViewHolder extends RecyclerView.ViewHolder {
+        final ImageView ivItem;
+        final TextView tvName;
+
+        QuickPickViewHolder(@NonNull View itemView) {
+            super(itemView);
+            ivItem = itemView.findViewById(R.id.ivFavoriteItem);
+            tvName = itemView.findViewById(R.id.tvFavoriteItemName);
+            itemView.findViewById(R.id.ivFavoriteHeart).setVisibility(View.GONE);
+            tvName.setVisibility(View.VISIBLE);
+        }
+
+        void bind(MenuItem item) {
+            tvName.setText(item.getName());
+            MenuImages.loadTile(ivItem, item.getImageResourceName());
+        }
+    }
+}
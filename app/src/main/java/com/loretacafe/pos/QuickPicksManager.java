@@ -0,0 +1,217 @@
+package com.loretacafe.pos;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.model.ProductSalesCount;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ranks menu products by recent sales for the order screen's quick picks.
+ *
+ * Keeps one exponentially decayed counter per product (half-life
+ * {@link #HALF_LIFE_MS}), bumped by every completed checkout and persisted to
+ * SharedPreferences as a single "id:score" string, so ranking never queries
+ * sale history. Ties and empty slots are filled with the user's favorites.
+ */
+public class QuickPicksManager {
+    private static final String TAG = "QuickPicksManager";
+    private static final String PREFS_NAME = "quick_picks_prefs";
+    private static final String KEY_SCORES = "scores";
+    private static final String KEY_REFERENCE_TIME = "reference_time";
+    private static final String KEY_SEEDED = "seeded_from_history";
+
+    /** A sale counts half as much after a week. */
+    public static final long HALF_LIFE_MS = 7L * 24 * 60 * 60 * 1000;
+    public static final int DEFAULT_COUNT = 8;
+    /** Counters that have decayed below this are dropped on the next save. */
+    private static final double MIN_SCORE = 0.01;
+
+    private static QuickPicksManager instance;
+    private final SharedPreferences sharedPreferences;
+    private final Context appContext;
+
+    // Scores are as of referenceTime; a uniform decay doesn't change the ranking,
+    // so they are only decayed when a new sale is added.
+    private final Map<Long, Double> scores = new HashMap<>();
+    private long referenceTime;
+
+    private QuickPicksManager(Context context) {
+        appContext = context.getApplicationContext();
+        sharedPreferences = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        referenceTime = sharedPreferences.getLong(KEY_REFERENCE_TIME, System.currentTimeMillis());
+        parseScores(sharedPreferences.getString(KEY_SCORES, ""));
+    }
+
+    public static synchronized QuickPicksManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new QuickPicksManager(context);
+        }
+        return instance;
+    }
+
+    @VisibleForTesting
+    static synchronized void resetInstance() {
+        instance = null;
+    }
+
+    /**
+     * Count a completed checkout. Safe to call from any thread.
+     */
+    public void recordSale(List<CartItem> cartItems) {
+        if (cartItems == null || cartItems.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            decayTo(System.currentTimeMillis());
+            for (CartItem item : cartItems) {
+                if (item == null || item.getProductId() <= 0 || item.getQuantity() <= 0) {
+                    continue;
+                }
+                Double score = scores.get(item.getProductId());
+                scores.put(item.getProductId(), (score != null ? score : 0.0) + item.getQuantity());
+            }
+            save();
+        }
+        Log.d(TAG, "Recorded sale of " + cartItems.size() + " line(s)");
+    }
+
+    /**
+     * First run only: start the counters from the last two half-lives of sales
+     * instead of from zero. Later checkouts keep them current through {@link #recordSale}.
+     */
+    @WorkerThread
+    public void seedFromHistoryIfNeeded(AppDatabase database) {
+        if (sharedPreferences.getBoolean(KEY_SEEDED, false)) {
+            return;
+        }
+        List<ProductSalesCount> counts;
+        try {
+            counts = database.saleItemDao().getUnitsSoldByProductSince(
+                    System.currentTimeMillis() - 2 * HALF_LIFE_MS);
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading sales history for quick picks", e);
+            return;
+        }
+        synchronized (this) {
+            decayTo(System.currentTimeMillis());
+            for (ProductSalesCount count : counts) {
+                if (count.unitsSold > 0 && !scores.containsKey(count.productId)) {
+                    scores.put(count.productId, (double) count.unitsSold);
+                }
+            }
+            save();
+            sharedPreferences.edit().putBoolean(KEY_SEEDED, true).apply();
+        }
+        Log.d(TAG, "Seeded quick picks from " + counts.size() + " products");
+    }
+
+    /**
+     * Up to {@code limit} items from {@code menuItems}, best sellers first. Favorites
+     * win ties and fill the remaining slots, so a new install still shows something.
+     */
+    public List<MenuItem> getQuickPicks(List<MenuItem> menuItems, int limit) {
+        Map<Long, Double> snapshot;
+        synchronized (this) {
+            snapshot = new HashMap<>(scores);
+        }
+        Set<String> favoriteNames = FavoritesManager.getInstance(appContext).getFavoriteNames();
+
+        List<MenuItem> sold = new ArrayList<>();
+        List<MenuItem> favorites = new ArrayList<>();
+        for (MenuItem item : menuItems) {
+            if (snapshot.containsKey(item.getProductId())) {
+                sold.add(item);
+            } else if (favoriteNames.contains(item.getName())) {
+                favorites.add(item);
+            }
+        }
+        Collections.sort(sold, (a, b) -> {
+            int byScore = Double.compare(snapshot.get(b.getProductId()), snapshot.get(a.getProductId()));
+            if (byScore != 0) {
+                return byScore;
+            }
+            return Boolean.compare(favoriteNames.contains(b.getName()), favoriteNames.contains(a.getName()));
+        });
+
+        List<MenuItem> picks = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        for (List<MenuItem> source : Arrays.asList(sold, favorites)) {
+            for (MenuItem item : source) {
+                if (picks.size() >= limit) {
+                    return picks;
+                }
+                // The menu has one row per product; guard anyway, tiles need unique ids
+                if (seen.add(item.getProductId())) {
+                    picks.add(item);
+                }
+            }
+        }
+        return picks;
+    }
+
+    private void decayTo(long now) {
+        if (now <= referenceTime) {
+            return;
+        }
+        double factor = Math.pow(0.5, (double) (now - referenceTime) / HALF_LIFE_MS);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            entry.setValue(entry.getValue() * factor);
+        }
+        referenceTime = now;
+    }
+
+    private void save() {
+        StringBuilder encoded = new StringBuilder();
+        Iterator<Map.Entry<Long, Double>> iterator = scores.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Double> entry = iterator.next();
+            if (entry.getValue() < MIN_SCORE) {
+                iterator.remove();
+                continue;
+            }
+            if (encoded.length() > 0) {
+                encoded.append(',');
+            }
+            encoded.append(entry.getKey()).append(':')
+                    .append(String.format(Locale.US, "%.3f", entry.getValue()));
+        }
+        sharedPreferences.edit()
+                .putString(KEY_SCORES, encoded.toString())
+                .putLong(KEY_REFERENCE_TIME, referenceTime)
+                .apply();
+    }
+
+    private void parseScores(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        for (String pair : encoded.split(",")) {
+            int colon = pair.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            try {
+                scores.put(Long.parseLong(pair.substring(0, colon)),
+                        Double.parseDouble(pair.substring(colon + 1)));
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "Skipping malformed quick-pick entry: " + pair);
+            }
+        }
+    }
+}
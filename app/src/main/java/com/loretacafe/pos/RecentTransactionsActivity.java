@@ -17,6 +17,7 @@ import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.loretacafe.pos.perf.FrameHistogram;
 import com.loretacafe.pos.ui.transactions.TransactionsViewModel;
 import java.time.LocalDate;
 
@@ -76,6 +77,7 @@ public class RecentTransactionsActivity extends AppCompatActivity
         adapter = new TransactionAdapter(this);
         rvTransactions.setLayoutManager(new LinearLayoutManager(this));
         rvTransactions.setAdapter(adapter);
+        FrameHistogram.attach(rvTransactions, "transactions");
     }
 
     private void setupListeners() {
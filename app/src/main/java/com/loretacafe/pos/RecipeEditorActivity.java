@@ -21,10 +21,13 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
 import com.loretacafe.pos.data.local.dao.ProductDao;
 import com.loretacafe.pos.data.local.dao.RecipeDao;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
 import com.loretacafe.pos.data.local.entity.RecipeEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.data.util.LifecycleTasks;
 import com.loretacafe.pos.security.PermissionManager;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
@@ -40,6 +43,9 @@ import java.util.Locale;
  */
 public class RecipeEditorActivity extends AppCompatActivity {
 
+    // Loads are cancelled when this screen is destroyed
+    private final LifecycleTasks tasks = AppExecutors.get().tasksFor(this);
+
     private ImageButton btnBack;
     private Button btnSaveRecipe, btnAddIngredient, btnAddAddOn;
     private TextView tvItemName;
@@ -111,7 +117,7 @@ public class RecipeEditorActivity extends AppCompatActivity {
     }
 
     private void loadRawMaterials() {
-        new Thread(() -> {
+        tasks.read(() -> {
             try {
                 List<ProductEntity> allProducts = productDao.getAll();
                 rawMaterials = new ArrayList<>();
@@ -137,14 +143,14 @@ public class RecipeEditorActivity extends AppCompatActivity {
             } catch (Exception e) {
                 android.util.Log.e("RecipeEditor", "Error loading raw materials", e);
             }
-        }).start();
+        });
     }
 
     /**
      * Load available recipe variants for this product
      */
     private void loadAvailableRecipeVariants() {
-        new Thread(() -> {
+        tasks.read(() -> {
             try {
                 List<RecipeEntity> recipes = recipeDao.getByProductId(productId);
                 availableRecipeVariants = new ArrayList<>();
@@ -179,7 +185,7 @@ public class RecipeEditorActivity extends AppCompatActivity {
                     setupRecipeVariantSpinner();
                 });
             }
-        }).start();
+        });
     }
     
     /**
@@ -231,7 +237,7 @@ public class RecipeEditorActivity extends AppCompatActivity {
     }
     
     private void loadRecipe() {
-        new Thread(() -> {
+        tasks.read(() -> {
             try {
                 List<RecipeEntity> recipes = recipeDao.getByProductId(productId);
                 
@@ -280,7 +286,7 @@ public class RecipeEditorActivity extends AppCompatActivity {
                     updateUI();
                 });
             }
-        }).start();
+        });
     }
 
     private void setupRecyclerViews() {
@@ -540,58 +546,54 @@ public class RecipeEditorActivity extends AppCompatActivity {
     }
 
     private void saveRecipe() {
-        new Thread(() -> {
-            try {
-                // Ensure current recipe has the correct name
-                if (currentRecipe != null) {
-                    currentRecipe.setRecipeName(currentRecipeName);
-                }
-                
-                // Convert recipe to JSON
-                String recipeJson = gson.toJson(currentRecipe);
+        DatabaseWriter.getInstance(this).execute(() -> {
+            // Ensure current recipe has the correct name
+            if (currentRecipe != null) {
+                currentRecipe.setRecipeName(currentRecipeName);
+            }
+            
+            // Convert recipe to JSON
+            String recipeJson = gson.toJson(currentRecipe);
 
-                // Check if recipe exists for this product and recipe name
-                List<RecipeEntity> existing = recipeDao.getByProductId(productId);
-                RecipeEntity recipeEntity = null;
-                
-                // Find recipe with matching name
-                if (existing != null && !existing.isEmpty()) {
-                    for (RecipeEntity r : existing) {
-                        if (currentRecipeName.equals(r.getRecipeName())) {
-                            recipeEntity = r;
-                            break;
-                        }
+            // Check if recipe exists for this product and recipe name
+            List<RecipeEntity> existing = recipeDao.getByProductId(productId);
+            RecipeEntity recipeEntity = null;
+            
+            // Find recipe with matching name
+            if (existing != null && !existing.isEmpty()) {
+                for (RecipeEntity r : existing) {
+                    if (currentRecipeName.equals(r.getRecipeName())) {
+                        recipeEntity = r;
+                        break;
                     }
                 }
+            }
 
-                if (recipeEntity != null) {
-                    // Update existing recipe for this variant
-                    recipeEntity.setRecipeJson(recipeJson);
-                    recipeEntity.setUpdatedAt(OffsetDateTime.now());
-                    recipeDao.update(recipeEntity);
-                } else {
-                    // Create new recipe for this variant
-                    recipeEntity = new RecipeEntity();
-                    recipeEntity.setProductId(productId);
-                    recipeEntity.setRecipeName(currentRecipeName);
-                    recipeEntity.setRecipeJson(recipeJson);
-                    recipeEntity.setCreatedAt(OffsetDateTime.now());
-                    recipeEntity.setUpdatedAt(OffsetDateTime.now());
-                    recipeDao.insert(recipeEntity);
-                }
-
-                runOnUiThread(() -> {
-                    Toast.makeText(this, "Recipe saved successfully (" + currentRecipeName + ")", Toast.LENGTH_SHORT).show();
-                    // Don't finish - allow editing other variants
-                    // finish();
-                });
-            } catch (Exception e) {
-                android.util.Log.e("RecipeEditor", "Error saving recipe", e);
-                runOnUiThread(() -> {
-                    Toast.makeText(this, "Error saving recipe: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                });
+            if (recipeEntity != null) {
+                // Update existing recipe for this variant
+                recipeEntity.setRecipeJson(recipeJson);
+                recipeEntity.setUpdatedAt(OffsetDateTime.now());
+                recipeDao.update(recipeEntity);
+            } else {
+                // Create new recipe for this variant
+                recipeEntity = new RecipeEntity();
+                recipeEntity.setProductId(productId);
+                recipeEntity.setRecipeName(currentRecipeName);
+                recipeEntity.setRecipeJson(recipeJson);
+                recipeEntity.setCreatedAt(OffsetDateTime.now());
+                recipeEntity.setUpdatedAt(OffsetDateTime.now());
+                recipeDao.insert(recipeEntity);
+            }
+        }).whenComplete((ignored, error) -> runOnUiThread(() -> {
+            if (error != null) {
+                android.util.Log.e("RecipeEditor", "Error saving recipe", error);
+                Toast.makeText(this, "Error saving recipe: " + error.getMessage(), Toast.LENGTH_LONG).show();
+            } else {
+                Toast.makeText(this, "Recipe saved successfully (" + currentRecipeName + ")", Toast.LENGTH_SHORT).show();
+                // Don't finish - allow editing other variants
+                // finish();
             }
-        }).start();
+        }));
     }
 }
 
@@ -13,6 +13,7 @@ import androidx.lifecycle.Observer;
 import com.google.android.material.textfield.TextInputEditText;
 import com.loretacafe.pos.data.firebase.FirebaseAuthRepository;
 import com.loretacafe.pos.data.util.ApiResult;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 public class ResetPasswordActivity extends AppCompatActivity {
 
@@ -104,7 +105,7 @@ public class ResetPasswordActivity extends AppCompatActivity {
         android.util.Log.d("ResetPasswordActivity", "Using OTP password reset for: " + email);
         
         // Use background thread for database operations
-        new Thread(() -> {
+        AppExecutors.get().network().execute(() -> {
             try {
                 com.loretacafe.pos.data.local.service.PasswordResetService resetService = 
                     new com.loretacafe.pos.data.local.service.PasswordResetService(ResetPasswordActivity.this);
@@ -306,7 +307,7 @@ public class ResetPasswordActivity extends AppCompatActivity {
                         Toast.LENGTH_LONG).show();
                 });
             }
-        }).start();
+        });
     }
 
     private void setLoading(boolean loading) {
@@ -23,6 +23,8 @@ import com.google.android.material.textfield.TextInputEditText;
 import com.loretacafe.pos.data.local.AppDatabase;
 import com.loretacafe.pos.data.local.dao.SaleDao;
 import com.loretacafe.pos.data.local.entity.SaleEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.data.util.LifecycleTasks;
 import com.loretacafe.pos.security.PermissionManager;
 import com.loretacafe.pos.ui.chart.SalesBarChartView;
 
@@ -37,6 +39,9 @@ import java.util.Locale;
 
 public class SalesReportActivity extends AppCompatActivity {
 
+    // Loads are cancelled when this screen is destroyed
+    private final LifecycleTasks tasks = AppExecutors.get().tasksFor(this);
+
     private ImageButton btnBack, btnPrint, btnCalendar, btnFilter;
     private MaterialButton btnViewBy;
     private SalesBarChartView barChartView;
@@ -247,7 +252,7 @@ public class SalesReportActivity extends AppCompatActivity {
     }
 
     private void loadChartData() {
-        new Thread(() -> {
+        tasks.read(() -> {
             try {
                 List<SalesBarChartView.BarData> data = new ArrayList<>();
                 
@@ -288,7 +293,7 @@ public class SalesReportActivity extends AppCompatActivity {
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }).start();
+        });
     }
     
     /**
@@ -324,7 +329,7 @@ public class SalesReportActivity extends AppCompatActivity {
     }
 
     private void loadSelectedDateData() {
-        new Thread(() -> {
+        tasks.read(() -> {
             try {
                 double totalSales = getSalesForDate(selectedDate);
                 double estimatedProfit = getEstimatedProfitForDate(selectedDate);
@@ -344,7 +349,7 @@ public class SalesReportActivity extends AppCompatActivity {
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }).start();
+        });
     }
 
     private double getSalesForDate(LocalDate date) {
@@ -518,7 +523,7 @@ public class SalesReportActivity extends AppCompatActivity {
         
         Toast.makeText(this, "Preparing sales report...", Toast.LENGTH_SHORT).show();
         
-        new Thread(() -> {
+        AppExecutors.get().network().execute(() -> {
             try {
                 // Gather report data
                 double totalSales = getSalesForDate(selectedDate);
@@ -698,6 +703,6 @@ public class SalesReportActivity extends AppCompatActivity {
                     android.util.Log.e("SalesReport", "Error preparing email report", e);
                 });
             }
-        }).start();
+        });
     }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.loretacafe.pos.adapter.ShiftHistoryAdapter;
 import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
 import com.loretacafe.pos.data.local.dao.SaleDao;
 import com.loretacafe.pos.data.local.dao.ShiftDao;
 import com.loretacafe.pos.data.local.dao.UserDao;
@@ -23,6 +24,8 @@ import com.loretacafe.pos.data.local.entity.SaleEntity;
 import com.loretacafe.pos.data.local.entity.ShiftEntity;
 import com.loretacafe.pos.data.local.entity.UserEntity;
 import com.loretacafe.pos.data.session.SessionManager;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.data.util.LifecycleTasks;
 import com.loretacafe.pos.security.PermissionManager;
 
 import java.time.Duration;
@@ -37,6 +40,9 @@ import java.util.Locale;
  * Tracks work hours and shift history
  */
 public class ShiftManagementActivity extends AppCompatActivity {
+
+    // Loads are cancelled when this screen is destroyed
+    private final LifecycleTasks tasks = AppExecutors.get().tasksFor(this);
     
     private TextView tvCurrentStatus;
     private TextView tvClockInTime;
@@ -117,7 +123,7 @@ public class ShiftManagementActivity extends AppCompatActivity {
     }
     
     private void loadCurrentShift() {
-        new Thread(() -> {
+        tasks.read(() -> {
             long userId = sessionManager.getUserId();
             ShiftEntity activeShift = shiftDao.getActiveShiftByUser(userId);
             
@@ -125,11 +131,11 @@ public class ShiftManagementActivity extends AppCompatActivity {
                 currentShift = activeShift;
                 updateShiftUI();
             });
-        }).start();
+        });
     }
     
     private void loadShiftHistory() {
-        new Thread(() -> {
+        tasks.read(() -> {
             long userId = sessionManager.getUserId();
             List<ShiftEntity> shifts = shiftDao.getShiftsByUser(userId);
             
@@ -141,16 +147,16 @@ public class ShiftManagementActivity extends AppCompatActivity {
                         shiftHistory.add(shift);
                     }
                 }
-                adapter.notifyDataSetChanged();
+                adapter.submitShifts(shiftHistory);
             });
-        }).start();
+        });
     }
     
     /**
      * Load all cashiers' completed shifts (Admin view)
      */
     private void loadAllCashiersShifts() {
-        new Thread(() -> {
+        tasks.read(() -> {
             // Get all completed shifts (clocked out)
             List<ShiftEntity> allShifts = shiftDao.getAllShifts();
             List<ShiftEntity> completedShifts = new ArrayList<>();
@@ -175,9 +181,9 @@ public class ShiftManagementActivity extends AppCompatActivity {
             handler.post(() -> {
                 shiftHistory.clear();
                 shiftHistory.addAll(completedShifts);
-                adapter.notifyDataSetChanged();
+                adapter.submitShifts(shiftHistory);
             });
-        }).start();
+        });
     }
     
     /**
@@ -244,51 +250,46 @@ public class ShiftManagementActivity extends AppCompatActivity {
     }
     
     private void clockIn() {
-        new Thread(() -> {
-            try {
-                long userId = sessionManager.getUserId();
-                
-                // Check if already clocked in
-                int activeCount = shiftDao.getActiveShiftCount(userId);
-                if (activeCount > 0) {
-                    handler.post(() -> 
-                        Toast.makeText(this, "You are already clocked in", Toast.LENGTH_SHORT).show()
-                    );
-                    return;
-                }
-                
-                // Create new shift
-                ShiftEntity shift = new ShiftEntity();
-                shift.setUserId(userId);
-                
-                // Fetch user name from database
-                UserEntity user = userDao.getUserById(userId);
-                if (user != null) {
-                    shift.setUserName(user.getName() != null ? user.getName() : user.getEmail());
-                    shift.setUserEmail(user.getEmail());
-                } else {
-                    shift.setUserName("User #" + userId);
-                    shift.setUserEmail("");
-                }
-                
-                shift.setClockInTime(OffsetDateTime.now());
-                shift.setCreatedAt(OffsetDateTime.now());
-                
-                long shiftId = shiftDao.insert(shift);
-                shift.setId(shiftId);
-                
-                handler.post(() -> {
-                    currentShift = shift;
-                    updateShiftUI();
-                    Toast.makeText(this, "✅ Clocked in successfully!", Toast.LENGTH_SHORT).show();
-                });
-                
-            } catch (Exception e) {
-                handler.post(() -> 
-                    Toast.makeText(this, "❌ Error clocking in: " + e.getMessage(), Toast.LENGTH_LONG).show()
-                );
+        long userId = sessionManager.getUserId();
+        // Resolves to the new shift, or null if the user is already clocked in
+        DatabaseWriter.getInstance(this).submit(() -> {
+            // Check if already clocked in
+            int activeCount = shiftDao.getActiveShiftCount(userId);
+            if (activeCount > 0) {
+                return null;
+            }
+            
+            // Create new shift
+            ShiftEntity shift = new ShiftEntity();
+            shift.setUserId(userId);
+            
+            // Fetch user name from database
+            UserEntity user = userDao.getUserById(userId);
+            if (user != null) {
+                shift.setUserName(user.getName() != null ? user.getName() : user.getEmail());
+                shift.setUserEmail(user.getEmail());
+            } else {
+                shift.setUserName("User #" + userId);
+                shift.setUserEmail("");
             }
-        }).start();
+            
+            shift.setClockInTime(OffsetDateTime.now());
+            shift.setCreatedAt(OffsetDateTime.now());
+            
+            long shiftId = shiftDao.insert(shift);
+            shift.setId(shiftId);
+            return shift;
+        }).whenComplete((shift, error) -> handler.post(() -> {
+            if (error != null) {
+                Toast.makeText(this, "❌ Error clocking in: " + error.getMessage(), Toast.LENGTH_LONG).show();
+            } else if (shift == null) {
+                Toast.makeText(this, "You are already clocked in", Toast.LENGTH_SHORT).show();
+            } else {
+                currentShift = shift;
+                updateShiftUI();
+                Toast.makeText(this, "✅ Clocked in successfully!", Toast.LENGTH_SHORT).show();
+            }
+        }));
     }
     
     private void clockOut() {
@@ -297,56 +298,56 @@ public class ShiftManagementActivity extends AppCompatActivity {
             return;
         }
         
-        new Thread(() -> {
-            try {
-                // Update shift with clock out time
-                currentShift.setClockOutTime(OffsetDateTime.now());
-                
-                // Calculate duration in minutes
-                Duration duration = Duration.between(currentShift.getClockInTime(), currentShift.getClockOutTime());
-                currentShift.setDurationMinutes((int) duration.toMinutes());
-                
-                // Calculate and save total sales for this shift
-                double shiftSales = calculateShiftSales(currentShift);
-                // Store sales in notes field for easy retrieval
-                currentShift.setNotes(String.format(Locale.getDefault(), "%.2f", shiftSales));
-                
-                // Update user name if not set
-                if (currentShift.getUserName() == null || currentShift.getUserName().isEmpty() || 
-                    currentShift.getUserName().startsWith("User #")) {
-                    UserEntity user = userDao.getUserById(currentShift.getUserId());
-                    if (user != null) {
-                        currentShift.setUserName(user.getName() != null ? user.getName() : user.getEmail());
-                    }
+        ShiftEntity shift = currentShift;
+        // Resolves to the sales total recorded for the shift
+        DatabaseWriter.getInstance(this).submit(() -> {
+            // Update shift with clock out time
+            shift.setClockOutTime(OffsetDateTime.now());
+            
+            // Calculate duration in minutes
+            Duration duration = Duration.between(shift.getClockInTime(), shift.getClockOutTime());
+            shift.setDurationMinutes((int) duration.toMinutes());
+            
+            // Calculate and save total sales for this shift
+            double shiftSales = calculateShiftSales(shift);
+            // Store sales in notes field for easy retrieval
+            shift.setNotes(String.format(Locale.getDefault(), "%.2f", shiftSales));
+            
+            // Update user name if not set
+            if (shift.getUserName() == null || shift.getUserName().isEmpty() || 
+                shift.getUserName().startsWith("User #")) {
+                UserEntity user = userDao.getUserById(shift.getUserId());
+                if (user != null) {
+                    shift.setUserName(user.getName() != null ? user.getName() : user.getEmail());
                 }
-                
-                shiftDao.update(currentShift);
-                
-                handler.post(() -> {
-                    long hours = duration.toHours();
-                    long minutes = duration.toMinutes() % 60;
-                    
-                    Toast.makeText(this, 
-                        String.format(Locale.getDefault(), 
-                            "✅ Clocked out! Shift: %dh %dm | Sales: ₱ %,.2f", 
-                            hours, minutes, shiftSales), 
-                        Toast.LENGTH_LONG).show();
-                    
-                    currentShift = null;
-                    updateShiftUI();
-                    if (isAdminView) {
-                        loadAllCashiersShifts();
-                    } else {
-                        loadShiftHistory();
-                    }
-                });
-                
-            } catch (Exception e) {
-                handler.post(() -> 
-                    Toast.makeText(this, "❌ Error clocking out: " + e.getMessage(), Toast.LENGTH_LONG).show()
-                );
             }
-        }).start();
+            
+            shiftDao.update(shift);
+            return shiftSales;
+        }).whenComplete((shiftSales, error) -> handler.post(() -> {
+            if (error != null) {
+                Toast.makeText(this, "❌ Error clocking out: " + error.getMessage(), Toast.LENGTH_LONG).show();
+                return;
+            }
+            
+            Duration duration = Duration.between(shift.getClockInTime(), shift.getClockOutTime());
+            long hours = duration.toHours();
+            long minutes = duration.toMinutes() % 60;
+            
+            Toast.makeText(this, 
+                String.format(Locale.getDefault(), 
+                    "✅ Clocked out! Shift: %dh %dm | Sales: ₱ %,.2f", 
+                    hours, minutes, shiftSales), 
+                Toast.LENGTH_LONG).show();
+            
+            currentShift = null;
+            updateShiftUI();
+            if (isAdminView) {
+                loadAllCashiersShifts();
+            } else {
+                loadShiftHistory();
+            }
+        }));
     }
     
     @Override
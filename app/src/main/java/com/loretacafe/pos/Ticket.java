@@ -0,0 +1,61 @@
+package com.loretacafe.pos;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * One open order at the till, with its own cart. Owned by {@link TicketManager};
+ * the id doubles as the id of the order's draft in the draft journal.
+ */
+public final class Ticket {
+
+    private final String id;
+    private final long openedAt;
+    private final CartManager cart = new CartManager();
+    // Set on the main thread, read by the draft journal on its writer thread
+    private volatile String label;
+
+    Ticket(@NonNull String id, long openedAt, @Nullable String label) {
+        this.id = id;
+        this.openedAt = openedAt;
+        this.label = label;
+    }
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    /** Epoch millis. */
+    public long getOpenedAt() {
+        return openedAt;
+    }
+
+    @NonNull
+    public CartManager getCart() {
+        return cart;
+    }
+
+    /** The name the cashier gave the ticket, usually the customer's; null if none. */
+    @Nullable
+    public String getLabel() {
+        return label;
+    }
+
+    void setLabel(@Nullable String label) {
+        this.label = label;
+    }
+
+    /** The label, or "Order" and the time it was opened. */
+    @NonNull
+    public String getDisplayName() {
+        if (label != null && !label.isEmpty()) {
+            return label;
+        }
+        return "Order " + new SimpleDateFormat("hh:mm a", Locale.getDefault()).format(new Date(openedAt));
+    }
+}
@@ -0,0 +1,260 @@
+package com.loretacafe.pos;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The orders open at the till, each a {@link Ticket} with its own cart, so one
+ * cashier can take the next order while another rings up payment for an
+ * earlier one.
+ *
+ * <p>One ticket is active: it is the one the order screen adds to. Switching
+ * away from an empty, unnamed ticket drops it, so starting and abandoning
+ * orders doesn't pile up blank tickets. There is always an active ticket.
+ *
+ * <p>Opening, switching, naming and closing tickets are main-thread calls; the
+ * carts themselves can be changed from any thread.
+ */
+public final class TicketManager {
+
+    /**
+     * Sees every change to the set of tickets, on the main thread. The draft
+     * journal uses it to follow each ticket's cart.
+     */
+    public interface Listener {
+        void onTicketOpened(Ticket ticket);
+
+        void onTicketLabelled(Ticket ticket);
+
+        void onTicketActivated(Ticket ticket);
+
+        /** The ticket was checked out, discarded or dropped while empty. */
+        void onTicketClosed(Ticket ticket);
+    }
+
+    private static volatile TicketManager instance;
+
+    private final LinkedHashMap<String, Ticket> tickets = new LinkedHashMap<>();
+    private final MutableLiveData<Ticket> activeLiveData = new MutableLiveData<>();
+    private final MutableLiveData<List<Ticket>> openLiveData = new MutableLiveData<>();
+    private Ticket active;
+    private Listener listener;
+
+    private TicketManager() {
+        active = new Ticket(newTicketId(), System.currentTimeMillis(), null);
+        tickets.put(active.getId(), active);
+        activeLiveData.setValue(active);
+        openLiveData.setValue(new ArrayList<>(tickets.values()));
+    }
+
+    @MainThread
+    public static TicketManager getInstance() {
+        if (instance == null) {
+            synchronized (TicketManager.class) {
+                if (instance == null) {
+                    instance = new TicketManager();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /** Forget the open tickets, as a process restart would. */
+    @VisibleForTesting
+    public static void resetInstance() {
+        instance = null;
+    }
+
+    /**
+     * Set the listener; it is told about the tickets already open straight away.
+     */
+    @MainThread
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+        if (listener != null) {
+            for (Ticket ticket : tickets.values()) {
+                listener.onTicketOpened(ticket);
+            }
+        }
+    }
+
+    @MainThread
+    @NonNull
+    public Ticket getActiveTicket() {
+        return active;
+    }
+
+    /** The cart of the active ticket. */
+    @MainThread
+    @NonNull
+    public CartManager getActiveCart() {
+        return active.getCart();
+    }
+
+    @MainThread
+    @Nullable
+    public Ticket getTicket(@Nullable String ticketId) {
+        return ticketId != null ? tickets.get(ticketId) : null;
+    }
+
+    /** Open tickets, oldest first. */
+    @MainThread
+    public List<Ticket> getOpenTickets() {
+        return new ArrayList<>(tickets.values());
+    }
+
+    public LiveData<Ticket> observeActiveTicket() {
+        return activeLiveData;
+    }
+
+    /** Emits whenever a ticket is opened, closed or renamed; not on cart changes. */
+    public LiveData<List<Ticket>> observeOpenTickets() {
+        return openLiveData;
+    }
+
+    /**
+     * Make an empty ticket active, reusing one if there is one, and return it.
+     */
+    @MainThread
+    @NonNull
+    public Ticket newTicket() {
+        if (active.getCart().getSnapshot().isEmpty()) {
+            return active;
+        }
+        Ticket ticket = emptyTicket();
+        activate(ticket);
+        return ticket;
+    }
+
+    @MainThread
+    public boolean switchTo(@NonNull String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            return false;
+        }
+        activate(ticket);
+        return true;
+    }
+
+    /** Name a ticket, e.g. after the customer; blank clears the name. */
+    @MainThread
+    public void rename(@NonNull String ticketId, @Nullable String label) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            return;
+        }
+        ticket.setLabel(label != null && !label.trim().isEmpty() ? label.trim() : null);
+        if (listener != null) {
+            listener.onTicketLabelled(ticket);
+        }
+        publishOpen();
+    }
+
+    /**
+     * Close a ticket after checkout or when it is discarded. If it was the
+     * active one, an empty ticket takes its place.
+     */
+    @MainThread
+    public void close(@NonNull String ticketId) {
+        Ticket ticket = tickets.remove(ticketId);
+        if (ticket == null) {
+            return;
+        }
+        if (listener != null) {
+            listener.onTicketClosed(ticket);
+        }
+        if (ticket == active) {
+            activate(emptyTicket());
+        }
+        publishOpen();
+    }
+
+    /**
+     * Bring back a ticket from the draft journal. It becomes the active one if
+     * {@code makeActive} is set and the active ticket is still empty.
+     */
+    @MainThread
+    @NonNull
+    public Ticket restore(@NonNull String ticketId, @Nullable String label, long openedAt,
+                          @NonNull List<CartItem> lines, boolean makeActive) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            ticket = open(ticketId, openedAt, label);
+            ticket.getCart().setCartItems(lines);
+        }
+        if (makeActive && active.getCart().getSnapshot().isEmpty()) {
+            activate(ticket);
+        }
+        publishOpen();
+        return ticket;
+    }
+
+    /**
+     * Units of a product in all open tickets, i.e. stock already promised to
+     * orders that haven't been charged yet.
+     */
+    @MainThread
+    public int getReservedUnits(long productId) {
+        int units = 0;
+        for (Ticket ticket : tickets.values()) {
+            units += ticket.getCart().getUnits(productId);
+        }
+        return units;
+    }
+
+    /** An open ticket with nothing in it, opening one if needed. */
+    private Ticket emptyTicket() {
+        for (Ticket ticket : tickets.values()) {
+            if (ticket.getCart().getSnapshot().isEmpty()) {
+                return ticket;
+            }
+        }
+        return open(newTicketId(), System.currentTimeMillis(), null);
+    }
+
+    private Ticket open(String ticketId, long openedAt, @Nullable String label) {
+        Ticket ticket = new Ticket(ticketId, openedAt, label);
+        tickets.put(ticketId, ticket);
+        if (listener != null) {
+            listener.onTicketOpened(ticket);
+        }
+        return ticket;
+    }
+
+    private void activate(Ticket ticket) {
+        if (ticket == active) {
+            return;
+        }
+        Ticket previous = active;
+        active = ticket;
+        if (tickets.containsKey(previous.getId()) && previous.getLabel() == null
+                && previous.getCart().getSnapshot().isEmpty()) {
+            tickets.remove(previous.getId());
+            if (listener != null) {
+                listener.onTicketClosed(previous);
+            }
+        }
+        if (listener != null) {
+            listener.onTicketActivated(ticket);
+        }
+        activeLiveData.setValue(ticket);
+        publishOpen();
+    }
+
+    private void publishOpen() {
+        openLiveData.setValue(new ArrayList<>(tickets.values()));
+    }
+
+    private static String newTicketId() {
+        return UUID.randomUUID().toString();
+    }
+}
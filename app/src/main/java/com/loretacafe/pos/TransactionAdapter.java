@@ -6,12 +6,19 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.loretacafe.pos.data.util.AppExecutors;
+
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Adapter for displaying transactions in RecyclerView with section headers
@@ -21,8 +28,35 @@ public class TransactionAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
     private static final int VIEW_TYPE_HEADER = 0;
     private static final int VIEW_TYPE_ITEM = 1;
     private static final int VIEW_TYPE_FOOTER = 2;
+    private static final String FOOTER = "END_OF_HISTORY";
+
+    private static final DiffUtil.ItemCallback<Object> DIFF_CALLBACK = new DiffUtil.ItemCallback<Object>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Object oldItem, @NonNull Object newItem) {
+            return stableId(oldItem) == stableId(newItem);
+        }
 
-    private List<Object> items; // Mix of String (headers) and Transaction objects
+        @Override
+        public boolean areContentsTheSame(@NonNull Object oldItem, @NonNull Object newItem) {
+            if (oldItem instanceof Transaction && newItem instanceof Transaction) {
+                Transaction a = (Transaction) oldItem;
+                Transaction b = (Transaction) newItem;
+                return Objects.equals(a.getCustomerName(), b.getCustomerName())
+                        && Objects.equals(a.getFormattedAmount(), b.getFormattedAmount())
+                        && Objects.equals(a.getDateTime(), b.getDateTime())
+                        && Objects.equals(a.getPaymentMethod(), b.getPaymentMethod());
+            }
+            // Headers and the footer are their own content
+            return oldItem.equals(newItem);
+        }
+    };
+
+    // Mix of String (headers) and Transaction objects; diffed off the main thread
+    private final AsyncListDiffer<Object> differ = new AsyncListDiffer<>(
+            new AdapterListUpdateCallback(this),
+            new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                    .setBackgroundThreadExecutor(AppExecutors.get().compute())
+                    .build());
     private OnTransactionClickListener listener;
 
     public interface OnTransactionClickListener {
@@ -30,18 +64,30 @@ public class TransactionAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
     }
 
     public TransactionAdapter(OnTransactionClickListener listener) {
-        this.items = new ArrayList<>();
         this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    /**
+     * Headers are keyed by their title, transactions by order id. The two use
+     * separate halves of the id space so a header can't collide with an order.
+     */
+    private static long stableId(Object item) {
+        if (item instanceof Transaction) {
+            String orderId = ((Transaction) item).getOrderId();
+            return orderId != null ? orderId.hashCode() & 0xFFFFFFFFL : 0;
+        }
+        return (1L << 32) | (item.hashCode() & 0xFFFFFFFFL);
     }
 
     /**
      * Set transactions and group them by section
      */
     public void setTransactions(List<Transaction> transactions) {
-        items.clear();
+        List<Object> items = new ArrayList<>();
 
         if (transactions == null || transactions.isEmpty()) {
-            notifyDataSetChanged();
+            differ.submitList(items);
             return;
         }
 
@@ -62,17 +108,23 @@ public class TransactionAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
         }
 
         // Add "End of history" footer
-        items.add("END_OF_HISTORY");
+        items.add(FOOTER);
 
-        notifyDataSetChanged();
+        // Only rows whose content changed are rebound
+        differ.submitList(items);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableId(differ.getCurrentList().get(position));
     }
 
     @Override
     public int getItemViewType(int position) {
-        Object item = items.get(position);
+        Object item = differ.getCurrentList().get(position);
         if (item instanceof String) {
             String str = (String) item;
-            if (str.equals("END_OF_HISTORY")) {
+            if (str.equals(FOOTER)) {
                 return VIEW_TYPE_FOOTER;
             }
             return VIEW_TYPE_HEADER;
@@ -94,18 +146,27 @@ public class TransactionAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
         } else {
             View view = LayoutInflater.from(parent.getContext())
                     .inflate(R.layout.item_transaction, parent, false);
-            return new TransactionViewHolder(view);
+            TransactionViewHolder holder = new TransactionViewHolder(view);
+            // Resolved at click time: an unchanged row keeps its holder but may now
+            // stand for a newer Transaction instance
+            view.setOnClickListener(v -> {
+                int position = holder.getBindingAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && listener != null) {
+                    listener.onTransactionClick((Transaction) differ.getCurrentList().get(position));
+                }
+            });
+            return holder;
         }
     }
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
         if (holder instanceof HeaderViewHolder) {
-            String header = (String) items.get(position);
+            String header = (String) differ.getCurrentList().get(position);
             ((HeaderViewHolder) holder).bind(header);
         } else if (holder instanceof TransactionViewHolder) {
-            Transaction transaction = (Transaction) items.get(position);
-            ((TransactionViewHolder) holder).bind(transaction, listener);
+            Transaction transaction = (Transaction) differ.getCurrentList().get(position);
+            ((TransactionViewHolder) holder).bind(transaction);
         } else if (holder instanceof FooterViewHolder) {
             ((FooterViewHolder) holder).bind();
         }
@@ -113,7 +174,7 @@ public class TransactionAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
 
     @Override
     public int getItemCount() {
-        return items.size();
+        return differ.getCurrentList().size();
     }
 
     // ViewHolder for section headers
@@ -164,18 +225,11 @@ public class TransactionAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
             tvPaymentMethod = itemView.findViewById(R.id.tvPaymentMethod);
         }
 
-        void bind(Transaction transaction, OnTransactionClickListener listener) {
+        void bind(Transaction transaction) {
             tvCustomerName.setText(transaction.getCustomerName());
             tvAmount.setText(transaction.getFormattedAmount());
             tvDateTime.setText(transaction.getDateTime());
             tvPaymentMethod.setText(transaction.getPaymentMethod());
-
-            // Set click listener
-            itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onTransactionClick(transaction);
-                }
-            });
         }
     }
 }
\ No newline at end of file
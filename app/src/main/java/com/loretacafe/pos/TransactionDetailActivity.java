@@ -14,13 +14,17 @@ import androidx.appcompat.app.AppCompatActivity;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
 import com.loretacafe.pos.data.local.dao.IngredientDeductionDao;
 import com.loretacafe.pos.data.local.dao.ProductDao;
 import com.loretacafe.pos.data.local.dao.SaleDao;
 import com.loretacafe.pos.data.local.dao.SaleItemDao;
 import com.loretacafe.pos.data.local.entity.IngredientDeductionEntity;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.local.entity.SaleEntity;
 import com.loretacafe.pos.data.local.entity.SaleItemEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.data.util.LifecycleTasks;
 import com.loretacafe.pos.security.PermissionManager;
 
 import java.util.List;
@@ -31,6 +35,9 @@ import java.util.Locale;
  */
 public class TransactionDetailActivity extends AppCompatActivity {
 
+    // Loads are cancelled when this screen is destroyed
+    private final LifecycleTasks tasks = AppExecutors.get().tasksFor(this);
+
     private TextView tvOrderNumber;
     private TextView tvCustomerName;
     private TextView tvDateTime;
@@ -137,89 +144,80 @@ public class TransactionDetailActivity extends AppCompatActivity {
             return;
         }
         
-        new Thread(() -> {
-            try {
-                SaleDao saleDao = database.saleDao();
-                SaleItemDao saleItemDao = database.saleItemDao();
-                ProductDao productDao = database.productDao();
-                
-                // Find sale by order number
-                long saleId = extractSaleIdFromOrderNumber(transaction.getOrderId());
-                
-                if (saleId <= 0) {
-                    runOnUiThread(() -> 
-                        Toast.makeText(this, "Cannot find order in database", Toast.LENGTH_LONG).show()
-                    );
-                    return;
-                }
-                
-                // Get sale items to refund stock
-                List<SaleItemEntity> saleItems = saleItemDao.getItemsBySaleId(saleId);
-                
-                // Refund stock quantities
-                for (SaleItemEntity item : saleItems) {
-                    ProductEntity product = productDao.getById(item.getProductId());
-                    if (product != null) {
-                        double newQuantity = product.getQuantity() + item.getQuantity();
-                        product.setQuantity(newQuantity);
-                        productDao.update(product);
-                        android.util.Log.d("TransactionDetail", 
-                            "Refunded " + item.getQuantity() + " units of " + product.getName());
-                    }
-                }
-                
-                // Note: Room DAO doesn't support delete for entities without @Delete
-                // Instead, delete by ID
-                saleItemDao.deleteBySaleId(saleId);
-                
-                // Delete sale
-                com.loretacafe.pos.data.local.entity.SaleEntity sale = saleDao.getSaleById(saleId);
-                if (sale != null) {
-                    saleDao.deleteSale(sale.getId());
+        // Returns an error message, or null once the order is gone
+        DatabaseWriter.getInstance(this).submit(() -> {
+            SaleDao saleDao = database.saleDao();
+            SaleItemDao saleItemDao = database.saleItemDao();
+            ProductDao productDao = database.productDao();
+            
+            // Find sale by order number
+            SaleEntity sale = findSale(saleDao, transaction.getOrderId());
+            
+            if (sale == null) {
+                return "Cannot find order in database";
+            }
+            long saleId = sale.getId();
+            
+            // Get sale items to refund stock
+            List<SaleItemEntity> saleItems = saleItemDao.getItemsBySaleId(saleId);
+            
+            // Refund stock quantities
+            for (SaleItemEntity item : saleItems) {
+                ProductEntity product = productDao.getById(item.getProductId());
+                if (product != null) {
+                    double newQuantity = product.getQuantity() + item.getQuantity();
+                    product.setQuantity(newQuantity);
+                    productDao.update(product);
+                    android.util.Log.d("TransactionDetail", 
+                        "Refunded " + item.getQuantity() + " units of " + product.getName());
                 }
+            }
+            
+            // Note: Room DAO doesn't support delete for entities without @Delete
+            // Instead, delete by ID
+            saleItemDao.deleteBySaleId(saleId);
+            
+            // Delete sale
+            saleDao.deleteSale(saleId);
+            return null;
+        }).whenComplete((failure, error) -> runOnUiThread(() -> {
+            if (error != null) {
+                android.util.Log.e("TransactionDetail", "Error deleting order", error);
+                Toast.makeText(this, 
+                    "❌ Error deleting order: " + error.getMessage(), 
+                    Toast.LENGTH_LONG).show();
+            } else if (failure != null) {
+                Toast.makeText(this, failure, Toast.LENGTH_LONG).show();
+            } else {
+                Toast.makeText(this, 
+                    "✅ Order deleted and stock refunded", 
+                    Toast.LENGTH_SHORT).show();
                 
-                runOnUiThread(() -> {
-                    Toast.makeText(this, 
-                        "✅ Order deleted and stock refunded", 
-                        Toast.LENGTH_SHORT).show();
-                    
-                    // Go back to transactions list
-                    finish();
-                });
-                
-            } catch (Exception e) {
-                android.util.Log.e("TransactionDetail", "Error deleting order", e);
-                runOnUiThread(() -> 
-                    Toast.makeText(this, 
-                        "❌ Error deleting order: " + e.getMessage(), 
-                        Toast.LENGTH_LONG).show()
-                );
+                // Go back to transactions list
+                finish();
             }
-        }).start();
+        }));
     }
     
-    private long extractSaleIdFromOrderNumber(String orderNumber) {
-        try {
-            // Order numbers are now in format "2025001" (YYYYNNNN)
-            // We need to find the sale by order number, not by ID
-            SaleDao saleDao = database.saleDao();
-            List<com.loretacafe.pos.data.local.model.SaleWithItems> allSales = saleDao.getAllSalesWithItems();
-            for (com.loretacafe.pos.data.local.model.SaleWithItems saleWithItems : allSales) {
-                if (saleWithItems.sale != null && 
-                    saleWithItems.sale.getOrderNumber() != null && 
-                    saleWithItems.sale.getOrderNumber().equals(orderNumber)) {
-                    return saleWithItems.sale.getId();
-                }
-            }
-            // Fallback: try to extract numeric ID if order number format is different
-            String numeric = orderNumber.replaceAll("[^0-9]", "");
-            if (!numeric.isEmpty()) {
-                return Long.parseLong(numeric);
+    /**
+     * Looks the sale up by its order number, one row by key, so the writer's
+     * transaction never loads the whole sales history.
+     */
+    private static SaleEntity findSale(SaleDao saleDao, String orderNumber) {
+        SaleEntity sale = saleDao.getSaleByOrderNumber(orderNumber);
+        if (sale != null) {
+            return sale;
+        }
+        // Fallback: try to extract numeric ID if order number format is different
+        String numeric = orderNumber.replaceAll("[^0-9]", "");
+        if (!numeric.isEmpty()) {
+            try {
+                return saleDao.getSaleById(Long.parseLong(numeric));
+            } catch (NumberFormatException e) {
+                android.util.Log.e("TransactionDetail", "Error extracting sale ID", e);
             }
-        } catch (Exception e) {
-            android.util.Log.e("TransactionDetail", "Error extracting sale ID", e);
         }
-        return -1;
+        return null;
     }
     
     /**
@@ -252,103 +250,90 @@ public class TransactionDetailActivity extends AppCompatActivity {
             return;
         }
         
-        new Thread(() -> {
-            try {
-                SaleDao saleDao = database.saleDao();
-                SaleItemDao saleItemDao = database.saleItemDao();
-                ProductDao productDao = database.productDao();
-                
-                // Find sale by order number
-                long saleId = extractSaleIdFromOrderNumber(transaction.getOrderId());
-                
-                if (saleId <= 0) {
-                    runOnUiThread(() -> 
-                        Toast.makeText(this, "Cannot find order in database", Toast.LENGTH_LONG).show()
-                    );
-                    return;
-                }
-                
-                // Get original sale
-                com.loretacafe.pos.data.local.entity.SaleEntity originalSale = saleDao.getSaleById(saleId);
-                if (originalSale == null) {
-                    runOnUiThread(() -> 
-                        Toast.makeText(this, "Order not found", Toast.LENGTH_LONG).show()
-                    );
-                    return;
-                }
-                
-                // Get sale items to refund stock
-                List<SaleItemEntity> saleItems = saleItemDao.getItemsBySaleId(saleId);
-                
-                // Create negative/refund transaction
-                com.loretacafe.pos.data.local.entity.SaleEntity refundSale = new com.loretacafe.pos.data.local.entity.SaleEntity();
-                refundSale.setCashierId(originalSale.getCashierId());
-                refundSale.setSaleDate(java.time.OffsetDateTime.now());
-                // Negative amount for refund
-                refundSale.setTotalAmount(originalSale.getTotalAmount().negate());
-                refundSale.setCustomerName("REFUND: " + originalSale.getCustomerName());
-                // Generate refund order number
-                int currentYear = java.time.Year.now().getValue();
-                Integer maxRefundNum = saleDao.getMaxOrderNumberForYear(currentYear);
-                int nextRefundNum = (maxRefundNum != null ? maxRefundNum : 0) + 1;
-                refundSale.setOrderNumber(String.format("%d%03d", currentYear, nextRefundNum));
-                refundSale.setPaymentMethod(originalSale.getPaymentMethod());
-                
-                long refundSaleId = saleDao.insert(refundSale);
+        // Returns an error message, or null once the refund is recorded
+        DatabaseWriter.getInstance(this).submit(() -> {
+            SaleDao saleDao = database.saleDao();
+            SaleItemDao saleItemDao = database.saleItemDao();
+            ProductDao productDao = database.productDao();
+            
+            // Find sale by order number
+            SaleEntity originalSale = findSale(saleDao, transaction.getOrderId());
+            if (originalSale == null) {
+                return "Cannot find order in database";
+            }
+            
+            // Get sale items to refund stock
+            List<SaleItemEntity> saleItems = saleItemDao.getItemsBySaleId(originalSale.getId());
+            
+            // Create negative/refund transaction
+            SaleEntity refundSale = new SaleEntity();
+            refundSale.setCashierId(originalSale.getCashierId());
+            refundSale.setSaleDate(java.time.OffsetDateTime.now());
+            // Negative amount for refund
+            refundSale.setTotalAmount(originalSale.getTotalAmount().negate());
+            refundSale.setCustomerName("REFUND: " + originalSale.getCustomerName());
+            // Generate refund order number
+            int currentYear = java.time.Year.now().getValue();
+            Integer maxRefundNum = saleDao.getMaxOrderNumberForYear(currentYear);
+            int nextRefundNum = (maxRefundNum != null ? maxRefundNum : 0) + 1;
+            refundSale.setOrderNumber(String.format("%d%03d", currentYear, nextRefundNum));
+            refundSale.setPaymentMethod(originalSale.getPaymentMethod());
+            
+            long refundSaleId = saleDao.insert(refundSale);
+            
+            // Create negative sale items and restore stock
+            for (SaleItemEntity originalItem : saleItems) {
+                // Create refund sale item (negative quantity)
+                SaleItemEntity refundItem = new SaleItemEntity();
+                refundItem.setSaleId(refundSaleId);
+                refundItem.setProductId(originalItem.getProductId());
+                refundItem.setQuantity(-originalItem.getQuantity()); // Negative quantity
+                refundItem.setPrice(originalItem.getPrice());
+                refundItem.setSubtotal(originalItem.getSubtotal().negate()); // Negative subtotal
+                refundItem.setSize(originalItem.getSize());
+                refundItem.setProductName(originalItem.getProductName());
+                saleItemDao.insert(refundItem);
                 
-                // Create negative sale items and restore stock
-                for (SaleItemEntity originalItem : saleItems) {
-                    // Create refund sale item (negative quantity)
-                    SaleItemEntity refundItem = new SaleItemEntity();
-                    refundItem.setSaleId(refundSaleId);
-                    refundItem.setProductId(originalItem.getProductId());
-                    refundItem.setQuantity(-originalItem.getQuantity()); // Negative quantity
-                    refundItem.setPrice(originalItem.getPrice());
-                    refundItem.setSubtotal(originalItem.getSubtotal().negate()); // Negative subtotal
-                    refundItem.setSize(originalItem.getSize());
-                    refundItem.setProductName(originalItem.getProductName());
-                    saleItemDao.insert(refundItem);
-                    
-                    // Restore stock
-                    ProductEntity product = productDao.getById(originalItem.getProductId());
-                    if (product != null) {
-                        double newQuantity = product.getQuantity() + originalItem.getQuantity();
-                        product.setQuantity(newQuantity);
-                        // Update status based on new quantity
-                        if (newQuantity <= 0) {
-                            product.setStatus("OUT_OF_STOCK");
-                        } else if (newQuantity <= 10) {
-                            product.setStatus("LOW_STOCK");
-                        } else {
-                            product.setStatus("IN_STOCK");
-                        }
-                        product.setUpdatedAt(java.time.OffsetDateTime.now());
-                        productDao.update(product);
-                        android.util.Log.d("TransactionDetail", 
-                            "Refunded " + originalItem.getQuantity() + " units of " + product.getName());
+                // Restore stock
+                ProductEntity product = productDao.getById(originalItem.getProductId());
+                if (product != null) {
+                    double newQuantity = product.getQuantity() + originalItem.getQuantity();
+                    product.setQuantity(newQuantity);
+                    // Update status based on new quantity
+                    if (newQuantity <= 0) {
+                        product.setStatus("OUT_OF_STOCK");
+                    } else if (newQuantity <= 10) {
+                        product.setStatus("LOW_STOCK");
+                    } else {
+                        product.setStatus("IN_STOCK");
                     }
+                    product.setUpdatedAt(java.time.OffsetDateTime.now());
+                    productDao.update(product);
+                    android.util.Log.d("TransactionDetail", 
+                        "Refunded " + originalItem.getQuantity() + " units of " + product.getName());
                 }
+            }
+            return null;
+        }).whenComplete((failure, error) -> runOnUiThread(() -> {
+            if (error != null) {
+                android.util.Log.e("TransactionDetail", "Error refunding order", error);
+                Toast.makeText(this, 
+                    "❌ Error refunding order: " + error.getMessage(), 
+                    Toast.LENGTH_LONG).show();
+            } else if (failure != null) {
+                Toast.makeText(this, failure, Toast.LENGTH_LONG).show();
+            } else {
+                Toast.makeText(this, 
+                    "✅ Order refunded and stock restored", 
+                    Toast.LENGTH_SHORT).show();
                 
-                runOnUiThread(() -> {
-                    Toast.makeText(this, 
-                        "✅ Order refunded and stock restored", 
-                        Toast.LENGTH_SHORT).show();
-                    
-                    // Go back to transactions list
-                    finish();
-                });
-                
-            } catch (Exception e) {
-                android.util.Log.e("TransactionDetail", "Error refunding order", e);
-                runOnUiThread(() -> 
-                    Toast.makeText(this, 
-                        "❌ Error refunding order: " + e.getMessage(), 
-                        Toast.LENGTH_LONG).show()
-                );
+                // Go back to transactions list
+                finish();
             }
-        }).start();
+        }));
     }
 
+
     private void setupBottomNavigation() {
         bottomNavigation.setSelectedItemId(R.id.nav_history);
 
@@ -467,15 +452,15 @@ public class TransactionDetailActivity extends AppCompatActivity {
             return;
         }
 
-        new Thread(() -> {
+        tasks.read(() -> {
             try {
-                long saleId = extractSaleIdFromOrderNumber(transaction.getOrderId());
-                if (saleId <= 0) {
+                SaleEntity sale = findSale(database.saleDao(), transaction.getOrderId());
+                if (sale == null) {
                     return; // Sale not found
                 }
 
                 IngredientDeductionDao deductionDao = database.ingredientDeductionDao();
-                List<IngredientDeductionEntity> deductions = deductionDao.getBySaleId(saleId);
+                List<IngredientDeductionEntity> deductions = deductionDao.getBySaleId(sale.getId());
 
                 if (deductions == null || deductions.isEmpty()) {
                     return; // No deductions recorded (maybe no recipe was used)
@@ -561,7 +546,7 @@ public class TransactionDetailActivity extends AppCompatActivity {
             } catch (Exception e) {
                 android.util.Log.e("TransactionDetail", "Error loading ingredient deductions", e);
             }
-        }).start();
+        });
     }
 
     @Override
@@ -19,8 +19,11 @@ import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.textfield.TextInputEditText;
 import com.loretacafe.pos.adapter.UserListAdapter;
 import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
 import com.loretacafe.pos.data.local.dao.UserDao;
 import com.loretacafe.pos.data.local.entity.UserEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.data.util.LifecycleTasks;
 import com.loretacafe.pos.security.PermissionManager;
 
 import java.time.OffsetDateTime;
@@ -32,6 +35,9 @@ import java.util.List;
  * Allows creation and deletion of staff users
  */
 public class UserManagementActivity extends AppCompatActivity {
+
+    // Loads are cancelled when this screen is destroyed
+    private final LifecycleTasks tasks = AppExecutors.get().tasksFor(this);
     
     private RecyclerView rvUsers;
     private FloatingActionButton fabAddUser;
@@ -84,7 +90,7 @@ public class UserManagementActivity extends AppCompatActivity {
     }
     
     private void loadUsers() {
-        new Thread(() -> {
+        tasks.read(() -> {
             List<UserEntity> allUsers = userDao.getAll();
             
             // Filter to only show cashier accounts (exclude admin accounts)
@@ -114,7 +120,7 @@ public class UserManagementActivity extends AppCompatActivity {
                     rvUsers.setVisibility(View.VISIBLE);
                 }
             });
-        }).start();
+        });
     }
     
     private void showCreateCashierDialog() {
@@ -168,45 +174,41 @@ public class UserManagementActivity extends AppCompatActivity {
     }
     
     private void createCashierAccount(String name, String email, String password) {
-        new Thread(() -> {
-            try {
-                // Check if email already exists
-                UserEntity existing = userDao.getUserByEmail(email);
-                if (existing != null) {
-                    handler.post(() -> 
-                        Toast.makeText(this, "Email already exists", Toast.LENGTH_LONG).show()
-                    );
-                    return;
-                }
-                
-                // Create new cashier account
-                // Ensure role is set to CASHIER (not ADMIN)
-                UserEntity newUser = new UserEntity();
-                newUser.setId(System.currentTimeMillis());
-                newUser.setName(name);
-                newUser.setEmail(email);
-                newUser.setRole("CASHIER"); // Only cashier accounts can be created
-                newUser.setActive(true); // New accounts are active by default
-                
-                // Hash password using the same SHA-256 method as LocalAuthService
-                String hashedPassword = com.loretacafe.pos.data.local.service.LocalAuthService.hashPassword(password);
-                newUser.setPassword(hashedPassword);
-                newUser.setCreatedAt(OffsetDateTime.now());
-                newUser.setUpdatedAt(OffsetDateTime.now());
-                
-                userDao.insert(newUser);
-                
-                handler.post(() -> {
-                    Toast.makeText(this, "✅ Cashier account created: " + name, Toast.LENGTH_SHORT).show();
-                    loadUsers(); // Refresh list
-                });
-                
-            } catch (Exception e) {
-                handler.post(() -> 
-                    Toast.makeText(this, "❌ Error creating account: " + e.getMessage(), Toast.LENGTH_LONG).show()
-                );
+        // Resolves to false when the email is already taken
+        DatabaseWriter.getInstance(this).submit(() -> {
+            // Check if email already exists
+            UserEntity existing = userDao.getUserByEmail(email);
+            if (existing != null) {
+                return false;
+            }
+            
+            // Create new cashier account
+            // Ensure role is set to CASHIER (not ADMIN)
+            UserEntity newUser = new UserEntity();
+            newUser.setId(System.currentTimeMillis());
+            newUser.setName(name);
+            newUser.setEmail(email);
+            newUser.setRole("CASHIER"); // Only cashier accounts can be created
+            newUser.setActive(true); // New accounts are active by default
+            
+            // Hash password using the same SHA-256 method as LocalAuthService
+            String hashedPassword = com.loretacafe.pos.data.local.service.LocalAuthService.hashPassword(password);
+            newUser.setPassword(hashedPassword);
+            newUser.setCreatedAt(OffsetDateTime.now());
+            newUser.setUpdatedAt(OffsetDateTime.now());
+            
+            userDao.insert(newUser);
+            return true;
+        }).whenComplete((created, error) -> handler.post(() -> {
+            if (error != null) {
+                Toast.makeText(this, "❌ Error creating account: " + error.getMessage(), Toast.LENGTH_LONG).show();
+            } else if (!created) {
+                Toast.makeText(this, "Email already exists", Toast.LENGTH_LONG).show();
+            } else {
+                Toast.makeText(this, "✅ Cashier account created: " + name, Toast.LENGTH_SHORT).show();
+                loadUsers(); // Refresh list
             }
-        }).start();
+        }));
     }
     
     private void onUserClick(UserEntity user) {
@@ -271,44 +273,33 @@ public class UserManagementActivity extends AppCompatActivity {
     }
     
     private void toggleUserActiveStatus(UserEntity user, boolean isActive) {
-        new Thread(() -> {
-            try {
-                user.setActive(isActive);
-                user.setUpdatedAt(OffsetDateTime.now());
-                userDao.updateActiveStatus(user.getId(), isActive, OffsetDateTime.now());
-                
-                handler.post(() -> {
-                    String message = isActive 
-                        ? "✅ Account activated: " + user.getName()
-                        : "✅ Account deactivated: " + user.getName();
-                    Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
-                    loadUsers(); // Refresh list
-                });
-                
-            } catch (Exception e) {
-                handler.post(() -> 
-                    Toast.makeText(this, "❌ Error updating account: " + e.getMessage(), Toast.LENGTH_LONG).show()
-                );
+        DatabaseWriter.getInstance(this).execute(() ->
+                userDao.updateActiveStatus(user.getId(), isActive, OffsetDateTime.now())
+        ).whenComplete((ignored, error) -> handler.post(() -> {
+            if (error != null) {
+                Toast.makeText(this, "❌ Error updating account: " + error.getMessage(), Toast.LENGTH_LONG).show();
+                return;
             }
-        }).start();
+            user.setActive(isActive);
+            user.setUpdatedAt(OffsetDateTime.now());
+            String message = isActive 
+                ? "✅ Account activated: " + user.getName()
+                : "✅ Account deactivated: " + user.getName();
+            Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+            loadUsers(); // Refresh list
+        }));
     }
     
     private void deleteUser(UserEntity user) {
-        new Thread(() -> {
-            try {
-                userDao.deleteUser(user.getId());
-                
-                handler.post(() -> {
-                    Toast.makeText(this, "✅ Account deleted: " + user.getName(), Toast.LENGTH_SHORT).show();
-                    loadUsers(); // Refresh list
-                });
-                
-            } catch (Exception e) {
-                handler.post(() -> 
-                    Toast.makeText(this, "❌ Error deleting account: " + e.getMessage(), Toast.LENGTH_LONG).show()
-                );
-            }
-        }).start();
+        DatabaseWriter.getInstance(this).execute(() -> userDao.deleteUser(user.getId()))
+                .whenComplete((ignored, error) -> handler.post(() -> {
+                    if (error != null) {
+                        Toast.makeText(this, "❌ Error deleting account: " + error.getMessage(), Toast.LENGTH_LONG).show();
+                    } else {
+                        Toast.makeText(this, "✅ Account deleted: " + user.getName(), Toast.LENGTH_SHORT).show();
+                        loadUsers(); // Refresh list
+                    }
+                }));
     }
     
     @Override
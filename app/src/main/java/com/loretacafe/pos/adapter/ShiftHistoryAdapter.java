@@ -6,6 +6,10 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.loretacafe.pos.R;
@@ -13,20 +17,52 @@ import com.loretacafe.pos.data.local.AppDatabase;
 import com.loretacafe.pos.data.local.dao.SaleDao;
 import com.loretacafe.pos.data.local.entity.SaleEntity;
 import com.loretacafe.pos.data.local.entity.ShiftEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class ShiftHistoryAdapter extends RecyclerView.Adapter<ShiftHistoryAdapter.ViewHolder> {
     
-    private final List<ShiftEntity> shifts;
+    private static final DiffUtil.ItemCallback<ShiftEntity> DIFF_CALLBACK = new DiffUtil.ItemCallback<ShiftEntity>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ShiftEntity oldItem, @NonNull ShiftEntity newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+        
+        @Override
+        public boolean areContentsTheSame(@NonNull ShiftEntity oldItem, @NonNull ShiftEntity newItem) {
+            return Objects.equals(oldItem.getUserName(), newItem.getUserName())
+                && oldItem.getUserId() == newItem.getUserId()
+                && Objects.equals(oldItem.getClockInTime(), newItem.getClockInTime())
+                && Objects.equals(oldItem.getClockOutTime(), newItem.getClockOutTime())
+                && Objects.equals(oldItem.getDurationMinutes(), newItem.getDurationMinutes());
+        }
+    };
+    
+    private final AsyncListDiffer<ShiftEntity> differ = new AsyncListDiffer<>(
+        new AdapterListUpdateCallback(this),
+        new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+            .setBackgroundThreadExecutor(AppExecutors.get().compute())
+            .build());
     private final SaleDao saleDao;
     private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm", Locale.getDefault());
     
     public ShiftHistoryAdapter(List<ShiftEntity> shifts, AppDatabase database) {
-        this.shifts = shifts;
         this.saleDao = database != null ? database.saleDao() : null;
+        setHasStableIds(true);
+        submitShifts(shifts);
+    }
+    
+    /**
+     * Show a new shift list. Diffed off the main thread, so rows that didn't change
+     * keep their views and don't re-query their sales.
+     */
+    public void submitShifts(List<ShiftEntity> shifts) {
+        differ.submitList(shifts != null ? new ArrayList<>(shifts) : new ArrayList<>());
     }
     
     @NonNull
@@ -39,7 +75,7 @@ public class ShiftHistoryAdapter extends RecyclerView.Adapter<ShiftHistoryAdapte
     
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        ShiftEntity shift = shifts.get(position);
+        ShiftEntity shift = differ.getCurrentList().get(position);
         
         // Cashier name
         String cashierName = shift.getUserName() != null && !shift.getUserName().isEmpty() 
@@ -72,7 +108,7 @@ public class ShiftHistoryAdapter extends RecyclerView.Adapter<ShiftHistoryAdapte
         }
         
         // Calculate sales in background thread
-        new Thread(() -> {
+        AppExecutors.get().diskRead().execute(() -> {
             try {
                 // Get all sales by this cashier between clock in and clock out
                 List<SaleEntity> sales = saleDao.getSalesByDateRange(
@@ -91,21 +127,30 @@ public class ShiftHistoryAdapter extends RecyclerView.Adapter<ShiftHistoryAdapte
                 // Store in final variable for lambda
                 final double finalTotal = total;
                 
-                // Update UI on main thread
+                // Update UI on main thread, unless the holder was recycled for another shift meanwhile
                 holder.itemView.post(() -> {
-                    holder.tvSales.setText(String.format(Locale.getDefault(), "₱ %,.2f sales", finalTotal));
+                    if (holder.getItemId() == shift.getId()) {
+                        holder.tvSales.setText(String.format(Locale.getDefault(), "₱ %,.2f sales", finalTotal));
+                    }
                 });
             } catch (Exception e) {
                 holder.itemView.post(() -> {
-                    holder.tvSales.setText("₱ 0.00 sales");
+                    if (holder.getItemId() == shift.getId()) {
+                        holder.tvSales.setText("₱ 0.00 sales");
+                    }
                 });
             }
-        }).start();
+        });
     }
     
     @Override
     public int getItemCount() {
-        return shifts.size();
+        return differ.getCurrentList().size();
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
     }
     
     static class ViewHolder extends RecyclerView.ViewHolder {
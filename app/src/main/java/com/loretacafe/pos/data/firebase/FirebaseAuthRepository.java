@@ -16,12 +16,12 @@ import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QuerySnapshot;
 import com.loretacafe.pos.data.local.entity.UserEntity;
 import com.loretacafe.pos.data.util.ApiResult;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Firebase Authentication Repository
@@ -39,7 +39,8 @@ public class FirebaseAuthRepository {
     public FirebaseAuthRepository() {
         this.firebaseAuth = FirebaseAuth.getInstance();
         this.firestore = FirebaseFirestore.getInstance();
-        this.executorService = Executors.newSingleThreadExecutor();
+        // Completion callbacks persist results to Room, so they run on the writer thread
+        this.executorService = AppExecutors.get().diskWrite();
     }
 
     /**
@@ -13,6 +13,7 @@ import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
 import com.loretacafe.pos.data.util.ApiResult;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -21,7 +22,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Firebase Product Repository
@@ -38,7 +38,8 @@ public class FirebaseProductRepository {
 
     public FirebaseProductRepository() {
         this.firestore = FirebaseFirestore.getInstance();
-        this.executorService = Executors.newSingleThreadExecutor();
+        // Completion callbacks persist results to Room, so they run on the writer thread
+        this.executorService = AppExecutors.get().diskWrite();
     }
 
     /**
@@ -14,6 +14,7 @@ import com.google.firebase.firestore.QuerySnapshot;
 import com.loretacafe.pos.data.local.entity.SaleEntity;
 import com.loretacafe.pos.data.local.entity.SaleItemEntity;
 import com.loretacafe.pos.data.util.ApiResult;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -22,7 +23,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Firebase Sales Repository
@@ -40,7 +40,8 @@ public class FirebaseSalesRepository {
 
     public FirebaseSalesRepository() {
         this.firestore = FirebaseFirestore.getInstance();
-        this.executorService = Executors.newSingleThreadExecutor();
+        // Completion callbacks persist results to Room, so they run on the writer thread
+        this.executorService = AppExecutors.get().diskWrite();
     }
 
     /**
@@ -2,14 +2,17 @@ package com.loretacafe.pos.data.local;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.loretacafe.pos.data.local.converter.RoomConverters;
 import com.loretacafe.pos.data.local.dao.CategoryDao;
+import com.loretacafe.pos.data.local.dao.DraftOrderDao;
 import com.loretacafe.pos.data.local.dao.IngredientDao;
 import com.loretacafe.pos.data.local.dao.IngredientDeductionDao;
 import com.loretacafe.pos.data.local.dao.PendingSyncDao;
@@ -22,6 +25,7 @@ import com.loretacafe.pos.data.local.dao.ShiftDao;
 import com.loretacafe.pos.data.local.dao.UserDao;
 import com.loretacafe.pos.data.local.dao.VerificationCodeDao;
 import com.loretacafe.pos.data.local.entity.CategoryEntity;
+import com.loretacafe.pos.data.local.entity.DraftOrderRecordEntity;
 import com.loretacafe.pos.data.local.entity.IngredientEntity;
 import com.loretacafe.pos.data.local.entity.IngredientDeductionEntity;
 import com.loretacafe.pos.data.local.entity.PendingSyncEntity;
@@ -33,6 +37,11 @@ import com.loretacafe.pos.data.local.entity.SaleItemEntity;
 import com.loretacafe.pos.data.local.entity.ShiftEntity;
 import com.loretacafe.pos.data.local.entity.UserEntity;
 import com.loretacafe.pos.data.local.entity.VerificationCodeEntity;
+import com.loretacafe.pos.data.remote.HttpValidatorStore;
+import com.loretacafe.pos.data.util.AppExecutors;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @Database(
         entities = {
@@ -47,17 +56,26 @@ import com.loretacafe.pos.data.local.entity.VerificationCodeEntity;
                 CategoryEntity.class,
                 ShiftEntity.class,
                 RecipeEntity.class,
-                IngredientDeductionEntity.class
+                IngredientDeductionEntity.class,
+                DraftOrderRecordEntity.class
         },
-        version = 9,
+        version = 12,
         exportSchema = true
 )
 @TypeConverters(RoomConverters.class)
 public abstract class AppDatabase extends RoomDatabase {
 
     private static final String DB_NAME = "loreta_pos.db";
+    private static final String PREPACKAGED_DB_ASSET = "database/" + DB_NAME;
     private static volatile AppDatabase INSTANCE;
 
+    // Storage profile for the POS workload: many short checkout writes while the
+    // dashboard reads. WAL lets readers run alongside the single writer.
+    private static final int WAL_AUTOCHECKPOINT_PAGES = 2000; // ~8 MB of WAL before a checkpoint
+    @VisibleForTesting
+    static final int PAGE_CACHE_KIB = 8 * 1024; // 8 MB page cache
+    private static final long MMAP_SIZE_BYTES = 64L * 1024 * 1024;
+
     public abstract UserDao userDao();
 
     public abstract ProductDao productDao();
@@ -82,23 +100,95 @@ public abstract class AppDatabase extends RoomDatabase {
 
     public abstract IngredientDeductionDao ingredientDeductionDao();
 
+    public abstract DraftOrderDao draftOrderDao();
+
     public static AppDatabase getInstance(Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(
-                                    context.getApplicationContext(),
+                    Context appContext = context.getApplicationContext();
+                    RoomDatabase.Builder<AppDatabase> builder = Room.databaseBuilder(
+                                    appContext,
                                     AppDatabase.class,
                                     DB_NAME
                             )
-                            .fallbackToDestructiveMigration() // Automatically drops and recreates tables on version mismatch
-                            .build();
+                            // Upgrades keep existing data; only versions without a
+                            // migration path (and downgrades) recreate the database
+                            .addMigrations(DatabaseMigrations.ALL)
+                            .fallbackToDestructiveMigrationFrom(DatabaseMigrations.DESTRUCTIVE_FROM)
+                            .fallbackToDestructiveMigrationOnDowngrade()
+                            .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                            // Room's async queries share the app's read pool, and its own
+                            // transactions queue on the single write thread DatabaseWriter uses
+                            .setQueryExecutor(AppExecutors.get().diskRead())
+                            .setTransactionExecutor(AppExecutors.get().diskWrite())
+                            .addCallback(new RoomDatabase.Callback() {
+                                @Override
+                                public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                                    applyPragmaProfile(db);
+                                }
+
+                                @Override
+                                public void onDestructiveMigration(@NonNull SupportSQLiteDatabase db) {
+                                    // Tables are empty again, so the seed hashes and the
+                                    // catalogue's sync marker no longer apply
+                                    SeedState.clear(appContext);
+                                    new HttpValidatorStore(appContext).clearAll();
+                                }
+                            });
+                    if (hasPrepackagedDatabase(appContext)) {
+                        // First install: copy the build-time seeded database instead of seeding row by row
+                        builder.createFromAsset(PREPACKAGED_DB_ASSET, new RoomDatabase.PrepackagedDatabaseCallback() {
+                            @Override
+                            public void onOpenPrepackagedDatabase(@NonNull SupportSQLiteDatabase db) {
+                                SeedState.adoptPrepackagedManifest(appContext, db);
+                            }
+                        });
+                    }
+                    INSTANCE = builder.build();
                 }
             }
         }
         return INSTANCE;
     }
 
+    /**
+     * Pragmas for the primary connection, the one onOpen receives. Android runs
+     * every transaction on it, so it does all the commits and checkpoints and
+     * also every read inside a checkout (stock, recipes, order numbers):
+     * synchronous=NORMAL drops the fsync from each commit (WAL stays consistent;
+     * only the last commits can be lost on power loss), wal_autocheckpoint spaces
+     * out checkpoints, and the page cache, mmap and in-memory temp store serve
+     * those transaction reads and their sorts. The framework opens the extra read
+     * connections without a hook, so plain reads outside a transaction keep
+     * SQLite's defaults. PRAGMAs that return a row must go through query() on Android.
+     */
+    @VisibleForTesting
+    static void applyPragmaProfile(SupportSQLiteDatabase db) {
+        try {
+            db.execSQL("PRAGMA synchronous = NORMAL");
+            db.execSQL("PRAGMA cache_size = -" + PAGE_CACHE_KIB);
+            db.query("PRAGMA wal_autocheckpoint = " + WAL_AUTOCHECKPOINT_PAGES).close();
+            db.query("PRAGMA mmap_size = " + MMAP_SIZE_BYTES).close();
+            db.execSQL("PRAGMA temp_store = MEMORY");
+        } catch (Exception e) {
+            // Tuning only; the database works with SQLite's defaults
+            android.util.Log.w("AppDatabase", "Could not apply pragma profile", e);
+        }
+    }
+
+    /**
+     * Release builds get the asset from the generateSeedDatabase Gradle task; debug
+     * builds don't have it and fall back to runtime seeding.
+     */
+    private static boolean hasPrepackagedDatabase(Context context) {
+        try (InputStream ignored = context.getAssets().open(PREPACKAGED_DB_ASSET)) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     @VisibleForTesting
     public static void resetInstance() {
         INSTANCE = null;
@@ -0,0 +1,349 @@
+package com.loretacafe.pos.data.local;
+
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.loretacafe.pos.data.local.converter.UnitCostConverters;
+import com.loretacafe.pos.perf.Perf;
+import com.loretacafe.pos.perf.Span;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Schema migrations for {@link AppDatabase}. Every version bump needs an entry
+ * here (and the exported schema in app/schemas) so upgrades keep the shop's
+ * sales history instead of recreating the database.
+ *
+ * Schema 7 was never exported, so a version 7 database cannot be migrated and is
+ * still recreated; versions 6 and 8 are upgraded in place.
+ */
+public final class DatabaseMigrations {
+
+    private static final String TAG = "DatabaseMigrations";
+
+    /** Versions without a migration path; only these may be recreated on upgrade. */
+    static final int[] DESTRUCTIVE_FROM = {1, 2, 3, 4, 5, 7};
+
+    private static final int CENTAVO_SCALE = 2;
+    /** Money columns that hold unit costs rather than amounts (see UnitCostConverters). */
+    private static final List<String> UNIT_COST_COLUMNS = Arrays.asList("cost", "cost_per_unit");
+
+    private DatabaseMigrations() {
+    }
+
+    /**
+     * 6 → 8: adds recipes and ingredient_deductions, and products.quantity
+     * becomes REAL (fractional stock for raw materials). SQLite cannot change a
+     * column type, so products is rebuilt; foreign keys are not enforced while
+     * migrations run, so sale_items referencing products are left untouched.
+     */
+    public static final Migration MIGRATION_6_8 = new TimedMigration(6, 8) {
+        @Override
+        protected void migrateTimed(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `products_new` (`product_id` INTEGER NOT NULL, "
+                    + "`name` TEXT NOT NULL, `category` TEXT NOT NULL, `supplier` TEXT NOT NULL, "
+                    + "`cost` TEXT NOT NULL, `price` TEXT NOT NULL, `quantity` REAL NOT NULL, "
+                    + "`status` TEXT NOT NULL, `created_at` TEXT, `updated_at` TEXT, "
+                    + "`image_resource_name` TEXT, `sizes_json` TEXT, PRIMARY KEY(`product_id`))");
+            db.execSQL("INSERT INTO `products_new` (`product_id`, `name`, `category`, `supplier`, `cost`, "
+                    + "`price`, `quantity`, `status`, `created_at`, `updated_at`, `image_resource_name`, `sizes_json`) "
+                    + "SELECT `product_id`, `name`, `category`, `supplier`, `cost`, `price`, "
+                    + "CAST(`quantity` AS REAL), `status`, `created_at`, `updated_at`, `image_resource_name`, `sizes_json` "
+                    + "FROM `products`");
+            db.execSQL("DROP TABLE `products`");
+            db.execSQL("ALTER TABLE `products_new` RENAME TO `products`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_products_name` ON `products` (`name`)");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `recipes` (`recipe_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`product_id` INTEGER NOT NULL, `recipe_name` TEXT, `recipe_json` TEXT, "
+                    + "`created_at` TEXT, `updated_at` TEXT)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_recipes_product_id` ON `recipes` (`product_id`)");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `ingredient_deductions` (`deduction_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`sale_id` INTEGER NOT NULL, `sale_item_id` INTEGER NOT NULL, `raw_material_id` INTEGER NOT NULL, "
+                    + "`raw_material_name` TEXT, `quantity_deducted` REAL NOT NULL, `unit` TEXT, `menu_item_name` TEXT, "
+                    + "`size_variant` TEXT, `add_ons` TEXT, `deducted_at` TEXT, "
+                    + "FOREIGN KEY(`sale_id`) REFERENCES `sales`(`sale_id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`raw_material_id`) REFERENCES `products`(`product_id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_ingredient_deductions_sale_id` ON `ingredient_deductions` (`sale_id`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_ingredient_deductions_raw_material_id` ON `ingredient_deductions` (`raw_material_id`)");
+        }
+    };
+
+    /**
+     * 8 → 9: the version was bumped without a schema change (identical exported
+     * schemas), so there is nothing to rewrite.
+     */
+    public static final Migration MIGRATION_8_9 = new TimedMigration(8, 9) {
+        @Override
+        protected void migrateTimed(@NonNull SupportSQLiteDatabase db) {
+            // No-op
+        }
+    };
+
+    /**
+     * 9 → 10: timestamps become epoch milliseconds and money becomes integer
+     * centavos (see RoomConverters). As first shipped this also rounded unit costs
+     * to the centavo; databases that are still at 9 now take {@link #MIGRATION_9_12}
+     * instead, and {@link #MIGRATION_11_12} rescales the ones that already took this step.
+     */
+    public static final Migration MIGRATION_9_10 = new TimedMigration(9, 10) {
+        @Override
+        protected void migrateTimed(@NonNull SupportSQLiteDatabase db) {
+            rebuildFrom9(db, CENTAVO_SCALE);
+        }
+    };
+
+    /**
+     * 10 → 11: adds the draft-order journal (draft_order_records). No existing
+     * table changes.
+     */
+    public static final Migration MIGRATION_10_11 = new TimedMigration(10, 11) {
+        @Override
+        protected void migrateTimed(@NonNull SupportSQLiteDatabase db) {
+            createDraftOrderRecords(db);
+        }
+    };
+
+    /**
+     * 11 → 12: unit costs (products.cost, ingredients.cost_per_unit) move from
+     * centavos to millionths of a peso (see UnitCostConverters), so per-gram costs
+     * keep their precision. Costs already rounded by {@link #MIGRATION_9_10} cannot
+     * be recovered; they are only rescaled. No column type changes.
+     */
+    public static final Migration MIGRATION_11_12 = new TimedMigration(11, 12) {
+        @Override
+        protected void migrateTimed(@NonNull SupportSQLiteDatabase db) {
+            long factor = scaleFactor(UnitCostConverters.UNIT_COST_SCALE - CENTAVO_SCALE);
+            db.execSQL("UPDATE `products` SET `cost` = `cost` * " + factor);
+            db.execSQL("UPDATE `ingredients` SET `cost_per_unit` = `cost_per_unit` * " + factor);
+        }
+    };
+
+    /**
+     * 9 → 12 in one step, converting unit costs from their decimal strings
+     * straight to millionths of a peso. Room picks the longest available step, so
+     * a version 9 database never goes through the centavo rounding of
+     * {@link #MIGRATION_9_10}.
+     */
+    public static final Migration MIGRATION_9_12 = new TimedMigration(9, 12) {
+        @Override
+        protected void migrateTimed(@NonNull SupportSQLiteDatabase db) {
+            rebuildFrom9(db, UnitCostConverters.UNIT_COST_SCALE);
+            createDraftOrderRecords(db);
+        }
+    };
+
+    public static final Migration[] ALL = {
+            MIGRATION_6_8,
+            MIGRATION_8_9,
+            MIGRATION_9_10,
+            MIGRATION_10_11,
+            MIGRATION_11_12,
+            MIGRATION_9_12
+    };
+
+    /**
+     * Rebuilds every version 9 table with timestamps as epoch millis and money as
+     * integers: amounts in centavos and unit costs at {@code unitCostScale} decimal
+     * places. Every table has such a column; the ISO-8601 strings are converted
+     * with julianday(), which honours their UTC offset. sales also gains an index
+     * on sale_date for range queries.
+     */
+    private static void rebuildFrom9(SupportSQLiteDatabase db, int unitCostScale) {
+        rebuild(db, unitCostScale, "users",
+                "CREATE TABLE `users_new` (`user_id` INTEGER NOT NULL, `name` TEXT NOT NULL, "
+                    + "`email` TEXT NOT NULL, `role` TEXT NOT NULL, `password` TEXT NOT NULL, `created_at` INTEGER, "
+                    + "`updated_at` INTEGER, `is_active` INTEGER NOT NULL DEFAULT 1, PRIMARY KEY(`user_id`))",
+                new String[]{"user_id", "name", "email", "role", "password", "created_at", "updated_at", "is_active"},
+                new String[]{"created_at", "updated_at"},
+                new String[]{});
+        rebuild(db, unitCostScale, "products",
+                "CREATE TABLE `products_new` (`product_id` INTEGER NOT NULL, `name` TEXT NOT NULL, "
+                    + "`category` TEXT NOT NULL, `supplier` TEXT NOT NULL, `cost` INTEGER NOT NULL, "
+                    + "`price` INTEGER NOT NULL, `quantity` REAL NOT NULL, `status` TEXT NOT NULL, "
+                    + "`created_at` INTEGER, `updated_at` INTEGER, `image_resource_name` TEXT, `sizes_json` TEXT, "
+                    + "PRIMARY KEY(`product_id`))",
+                new String[]{"product_id", "name", "category", "supplier", "cost", "price", "quantity", "status", "created_at", "updated_at", "image_resource_name", "sizes_json"},
+                new String[]{"created_at", "updated_at"},
+                new String[]{"cost", "price"},
+                "CREATE INDEX IF NOT EXISTS `index_products_name` ON `products` (`name`)");
+        rebuild(db, unitCostScale, "sales",
+                "CREATE TABLE `sales_new` (`sale_id` INTEGER NOT NULL, `cashier_id` INTEGER NOT NULL, "
+                    + "`sale_date` INTEGER, `total_amount` INTEGER, `customer_name` TEXT, `order_number` TEXT, "
+                    + "`payment_method` TEXT, PRIMARY KEY(`sale_id`), "
+                    + "FOREIGN KEY(`cashier_id`) REFERENCES `users`(`user_id`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+                new String[]{"sale_id", "cashier_id", "sale_date", "total_amount", "customer_name", "order_number", "payment_method"},
+                new String[]{"sale_date"},
+                new String[]{"total_amount"},
+                "CREATE INDEX IF NOT EXISTS `index_sales_cashier_id` ON `sales` (`cashier_id`)",
+                "CREATE INDEX IF NOT EXISTS `index_sales_sale_date` ON `sales` (`sale_date`)");
+        rebuild(db, unitCostScale, "sale_items",
+                "CREATE TABLE `sale_items_new` (`sale_item_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`sale_id` INTEGER NOT NULL, `product_id` INTEGER NOT NULL, `quantity` INTEGER NOT NULL, "
+                    + "`price` INTEGER, `subtotal` INTEGER, `size` TEXT, `product_name` TEXT, "
+                    + "FOREIGN KEY(`sale_id`) REFERENCES `sales`(`sale_id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`product_id`) REFERENCES `products`(`product_id`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+                new String[]{"sale_item_id", "sale_id", "product_id", "quantity", "price", "subtotal", "size", "product_name"},
+                new String[]{},
+                new String[]{"price", "subtotal"},
+                "CREATE INDEX IF NOT EXISTS `index_sale_items_sale_id` ON `sale_items` (`sale_id`)",
+                "CREATE INDEX IF NOT EXISTS `index_sale_items_product_id` ON `sale_items` (`product_id`)");
+        rebuild(db, unitCostScale, "reports",
+                "CREATE TABLE `reports_new` (`report_id` INTEGER NOT NULL, `type` TEXT NOT NULL, "
+                    + "`start_date` INTEGER, `end_date` INTEGER, `total_sales` INTEGER, "
+                    + "`total_orders` INTEGER NOT NULL, `total_items` INTEGER NOT NULL, `created_by` INTEGER, "
+                    + "`created_at` INTEGER, PRIMARY KEY(`report_id`), "
+                    + "FOREIGN KEY(`created_by`) REFERENCES `users`(`user_id`) ON UPDATE NO ACTION ON DELETE SET NULL )",
+                new String[]{"report_id", "type", "start_date", "end_date", "total_sales", "total_orders", "total_items", "created_by", "created_at"},
+                new String[]{"start_date", "end_date", "created_at"},
+                new String[]{"total_sales"},
+                "CREATE INDEX IF NOT EXISTS `index_reports_created_by` ON `reports` (`created_by`)",
+                "CREATE INDEX IF NOT EXISTS `index_reports_type` ON `reports` (`type`)");
+        rebuild(db, unitCostScale, "pending_sync",
+                "CREATE TABLE `pending_sync_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `type` TEXT, "
+                    + "`entity_id` INTEGER, `payload` TEXT, `retry_count` INTEGER NOT NULL, `created_at` INTEGER)",
+                new String[]{"id", "type", "entity_id", "payload", "retry_count", "created_at"},
+                new String[]{"created_at"},
+                new String[]{});
+        rebuild(db, unitCostScale, "verification_codes",
+                "CREATE TABLE `verification_codes_new` (`code_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`email` TEXT NOT NULL, `code` TEXT NOT NULL, `created_at` INTEGER, `expires_at` INTEGER, "
+                    + "`used` INTEGER NOT NULL)",
+                new String[]{"code_id", "email", "code", "created_at", "expires_at", "used"},
+                new String[]{"created_at", "expires_at"},
+                new String[]{},
+                "CREATE INDEX IF NOT EXISTS `index_verification_codes_email` ON `verification_codes` (`email`)");
+        rebuild(db, unitCostScale, "ingredients",
+                "CREATE TABLE `ingredients_new` (`ingredient_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT NOT NULL, `quantity` REAL NOT NULL, `unit` TEXT NOT NULL, "
+                    + "`cost_per_unit` INTEGER NOT NULL, `status` TEXT NOT NULL, `low_stock_threshold` REAL NOT NULL, "
+                    + "`created_at` INTEGER, `updated_at` INTEGER)",
+                new String[]{"ingredient_id", "name", "quantity", "unit", "cost_per_unit", "status", "low_stock_threshold", "created_at", "updated_at"},
+                new String[]{"created_at", "updated_at"},
+                new String[]{"cost_per_unit"},
+                "CREATE INDEX IF NOT EXISTS `index_ingredients_name` ON `ingredients` (`name`)");
+        rebuild(db, unitCostScale, "categories",
+                "CREATE TABLE `categories_new` (`category_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT NOT NULL, `icon_name` TEXT, `item_count` INTEGER NOT NULL, `created_at` INTEGER, "
+                    + "`updated_at` INTEGER)",
+                new String[]{"category_id", "name", "icon_name", "item_count", "created_at", "updated_at"},
+                new String[]{"created_at", "updated_at"},
+                new String[]{},
+                "CREATE INDEX IF NOT EXISTS `index_categories_name` ON `categories` (`name`)");
+        rebuild(db, unitCostScale, "shifts",
+                "CREATE TABLE `shifts_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`user_id` INTEGER NOT NULL, `user_name` TEXT, `user_email` TEXT, "
+                    + "`clock_in_time` INTEGER NOT NULL, `clock_out_time` INTEGER, `duration_minutes` INTEGER, "
+                    + "`notes` TEXT, `created_at` INTEGER NOT NULL, "
+                    + "FOREIGN KEY(`user_id`) REFERENCES `users`(`user_id`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+                new String[]{"id", "user_id", "user_name", "user_email", "clock_in_time", "clock_out_time", "duration_minutes", "notes", "created_at"},
+                new String[]{"clock_in_time", "clock_out_time", "created_at"},
+                new String[]{},
+                "CREATE INDEX IF NOT EXISTS `index_shifts_user_id` ON `shifts` (`user_id`)",
+                "CREATE INDEX IF NOT EXISTS `index_shifts_clock_in_time` ON `shifts` (`clock_in_time`)");
+        rebuild(db, unitCostScale, "recipes",
+                "CREATE TABLE `recipes_new` (`recipe_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`product_id` INTEGER NOT NULL, `recipe_name` TEXT, `recipe_json` TEXT, `created_at` INTEGER, "
+                    + "`updated_at` INTEGER)",
+                new String[]{"recipe_id", "product_id", "recipe_name", "recipe_json", "created_at", "updated_at"},
+                new String[]{"created_at", "updated_at"},
+                new String[]{},
+                "CREATE INDEX IF NOT EXISTS `index_recipes_product_id` ON `recipes` (`product_id`)");
+        rebuild(db, unitCostScale, "ingredient_deductions",
+                "CREATE TABLE `ingredient_deductions_new` (`deduction_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`sale_id` INTEGER NOT NULL, `sale_item_id` INTEGER NOT NULL, "
+                    + "`raw_material_id` INTEGER NOT NULL, `raw_material_name` TEXT, "
+                    + "`quantity_deducted` REAL NOT NULL, `unit` TEXT, `menu_item_name` TEXT, `size_variant` TEXT, "
+                    + "`add_ons` TEXT, `deducted_at` INTEGER, "
+                    + "FOREIGN KEY(`sale_id`) REFERENCES `sales`(`sale_id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`raw_material_id`) REFERENCES `products`(`product_id`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+                new String[]{"deduction_id", "sale_id", "sale_item_id", "raw_material_id", "raw_material_name", "quantity_deducted", "unit", "menu_item_name", "size_variant", "add_ons", "deducted_at"},
+                new String[]{"deducted_at"},
+                new String[]{},
+                "CREATE INDEX IF NOT EXISTS `index_ingredient_deductions_sale_id` ON `ingredient_deductions` (`sale_id`)",
+                "CREATE INDEX IF NOT EXISTS `index_ingredient_deductions_raw_material_id` ON `ingredient_deductions` (`raw_material_id`)");
+    }
+
+    private static long scaleFactor(int decimalPlaces) {
+        long factor = 1;
+        for (int i = 0; i < decimalPlaces; i++) {
+            factor *= 10;
+        }
+        return factor;
+    }
+
+    private static void createDraftOrderRecords(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS `draft_order_records` (`record_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`draft_id` TEXT NOT NULL, `op` INTEGER NOT NULL, `line_id` TEXT, `payload` TEXT, "
+                + "`created_at` INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_draft_order_records_draft_id` ON `draft_order_records` (`draft_id`)");
+    }
+
+    /**
+     * Copy a table into its new definition (named {@code <table>_new}), converting
+     * ISO-8601 timestamp columns to epoch millis and decimal-string money columns to
+     * centavos (unit cost columns to {@code unitCostScale} places), then swap it in
+     * and recreate its indices.
+     */
+    private static void rebuild(SupportSQLiteDatabase db, int unitCostScale, String table, String createNewSql, String[] columns,
+                                String[] dateColumns, String[] moneyColumns, String... indexSql) {
+        List<String> dates = Arrays.asList(dateColumns);
+        List<String> money = Arrays.asList(moneyColumns);
+        StringBuilder select = new StringBuilder();
+        for (String column : columns) {
+            if (select.length() > 0) select.append(", ");
+            String quoted = "`" + column + "`";
+            if (dates.contains(column)) {
+                String millis = "CAST(ROUND((julianday(" + quoted + ") - 2440587.5) * 86400000) AS INTEGER)";
+                // A NOT NULL timestamp that does not parse falls back to the migration time
+                select.append(createNewSql.contains(quoted + " INTEGER NOT NULL")
+                        ? "COALESCE(" + millis + ", CAST(strftime('%s', 'now') AS INTEGER) * 1000)"
+                        : millis);
+            } else if (money.contains(column)) {
+                int scale = UNIT_COST_COLUMNS.contains(column) ? unitCostScale : CENTAVO_SCALE;
+                // Null amounts already read back as zero
+                select.append("COALESCE(CAST(ROUND(CAST(").append(quoted).append(" AS REAL) * ")
+                        .append(scaleFactor(scale)).append(") AS INTEGER), 0)");
+            } else {
+                select.append(quoted);
+            }
+        }
+        String columnList = "`" + TextUtils.join("`, `", columns) + "`";
+
+        db.execSQL(createNewSql);
+        db.execSQL("INSERT INTO `" + table + "_new` (" + columnList + ") SELECT " + select + " FROM `" + table + "`");
+        db.execSQL("DROP TABLE `" + table + "`");
+        db.execSQL("ALTER TABLE `" + table + "_new` RENAME TO `" + table + "`");
+        for (String index : indexSql) {
+            db.execSQL(index);
+        }
+    }
+
+    /**
+     * Logs how long each step took, so slow upgrades on large shop databases show up in logcat.
+     */
+    abstract static class TimedMigration extends Migration {
+
+        TimedMigration(int startVersion, int endVersion) {
+            super(startVersion, endVersion);
+        }
+
+        @Override
+        public final void migrate(@NonNull SupportSQLiteDatabase db) {
+            long start = System.nanoTime();
+            try (Span ignored = Perf.start("migration " + startVersion + "->" + endVersion)) {
+                migrateTimed(db);
+            }
+            Log.i(TAG, "Migrated " + startVersion + " → " + endVersion + " in "
+                    + (System.nanoTime() - start) / 1_000_000L + " ms");
+        }
+
+        protected abstract void migrateTimed(@NonNull SupportSQLiteDatabase db);
+    }
+}
@@ -0,0 +1,219 @@
+package com.loretacafe.pos.data.local;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.loretacafe.pos.data.util.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single owner of database mutations. Writes are queued and executed on the
+ * {@link AppExecutors#diskWrite()} thread; writes that arrive within
+ * {@link #GROUP_WINDOW_MS} of each other are committed together in one
+ * transaction, so a rush of checkouts pays for one commit instead of one each.
+ *
+ * <p>Rules for a write:
+ * <ul>
+ *   <li>Touch only the database. If any write in a group fails, the group is
+ *   rolled back and every write is re-run in its own transaction, so the
+ *   failure only affects its own caller.</li>
+ *   <li>Never block on another write's future - the writer thread would wait on itself.</li>
+ *   <li>Dependent stages run on the writer thread; hop to the UI with
+ *   {@code runOnUiThread} or {@link AppExecutors#mainThread()}.</li>
+ * </ul>
+ */
+public final class DatabaseWriter {
+
+    private static final String TAG = "DatabaseWriter";
+    private static final int MAX_BATCH = 32;
+    private static final long GROUP_WINDOW_MS = 4;
+    private static final int STATS_LOG_EVERY = 100;
+
+    private static volatile DatabaseWriter instance;
+
+    private final AppDatabase database;
+    private final Executor writerThread;
+    private final LinkedBlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong replayedBatches = new AtomicLong();
+    private final AtomicLong commitNanos = new AtomicLong();
+
+    /**
+     * Use {@link #getInstance(Context)}; tests pass their own database and thread.
+     */
+    @VisibleForTesting
+    public DatabaseWriter(AppDatabase database, Executor writerThread) {
+        this.database = database;
+        this.writerThread = writerThread;
+    }
+
+    public static DatabaseWriter getInstance(Context context) {
+        if (instance == null) {
+            synchronized (DatabaseWriter.class) {
+                if (instance == null) {
+                    instance = new DatabaseWriter(AppDatabase.getInstance(context), AppExecutors.get().diskWrite());
+                }
+            }
+        }
+        return instance;
+    }
+
+    @VisibleForTesting
+    public static void resetInstance() {
+        instance = null;
+    }
+
+    /**
+     * Queue a write. The future completes with its result once the transaction holding it
+     * has committed, or exceptionally if the write (or its commit) failed.
+     */
+    public <T> CompletableFuture<T> submit(@NonNull Callable<T> write) {
+        PendingWrite<T> pending = new PendingWrite<>(write);
+        queue.add(pending);
+        scheduleDrain();
+        return pending.future;
+    }
+
+    public CompletableFuture<Void> execute(@NonNull Runnable write) {
+        return submit(() -> {
+            write.run();
+            return null;
+        });
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            writerThread.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            List<PendingWrite<?>> batch = collectBatch();
+            if (!batch.isEmpty()) {
+                commit(batch);
+            }
+        } finally {
+            drainScheduled.set(false);
+            // A write queued after the last poll but before the flag was cleared needs its own drain
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private List<PendingWrite<?>> collectBatch() {
+        List<PendingWrite<?>> batch = new ArrayList<>(MAX_BATCH);
+        queue.drainTo(batch, MAX_BATCH);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(GROUP_WINDOW_MS);
+        while (batch.size() < MAX_BATCH) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingWrite<?> next;
+            try {
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, MAX_BATCH - batch.size());
+        }
+        return batch;
+    }
+
+    private void commit(List<PendingWrite<?>> batch) {
+        long start = System.nanoTime();
+        Object[] results = new Object[batch.size()];
+        try {
+            database.runInTransaction(() -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    results[i] = batch.get(i).write.call();
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+            } else {
+                Log.w(TAG, "Group of " + batch.size() + " writes rolled back, re-running one by one", e);
+                replayedBatches.incrementAndGet();
+                replayIndividually(batch);
+            }
+            record(batch.size(), start);
+            return;
+        }
+        record(batch.size(), start);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).completeWith(results[i]);
+        }
+    }
+
+    private void replayIndividually(List<PendingWrite<?>> batch) {
+        for (PendingWrite<?> pending : batch) {
+            try {
+                Object result = database.runInTransaction(pending.write);
+                pending.completeWith(result);
+            } catch (Exception e) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void record(int size, long startNanos) {
+        writes.addAndGet(size);
+        commitNanos.addAndGet(System.nanoTime() - startNanos);
+        long done = batches.incrementAndGet();
+        if (done % STATS_LOG_EVERY == 0) {
+            Log.d(TAG, "📊 " + stats());
+        }
+    }
+
+    /**
+     * Throughput summary: writes per commit is the group-commit gain.
+     */
+    public String stats() {
+        long done = batches.get();
+        long total = writes.get();
+        return "writes=" + total
+                + ", commits=" + done
+                + ", writes/commit=" + (done == 0 ? 0 : String.format(java.util.Locale.US, "%.2f", (double) total / done))
+                + ", avg commit=" + (done == 0 ? 0 : commitNanos.get() / done / 1_000_000L) + "ms"
+                + ", replayed=" + replayedBatches.get()
+                + ", queued=" + queue.size();
+    }
+
+    private static final class PendingWrite<T> {
+        final Callable<T> write;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        PendingWrite(Callable<T> write) {
+            this.write = write;
+        }
+
+        @SuppressWarnings("unchecked")
+        void completeWith(Object result) {
+            future.complete((T) result);
+        }
+    }
+}
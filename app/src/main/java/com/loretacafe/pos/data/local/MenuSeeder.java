@@ -1,18 +1,22 @@
 package com.loretacafe.pos.data.local;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.util.Log;
 
 import com.loretacafe.pos.MenuItem;
 import com.loretacafe.pos.data.local.dao.ProductDao;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.perf.Perf;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -22,86 +26,66 @@ import java.util.Set;
 public class MenuSeeder {
     
     private static final String TAG = "MenuSeeder";
-    private static final String PREF_NAME = "loreta_pos_prefs";
-    private static final String KEY_MENU_ITEMS_SEEDED = "menu_items_seeded";
     
     /**
-     * Seed menu items if not already seeded
+     * Seed menu items when the menu changed since the last run
+     * The menu is hashed; on a mismatch only the changed items are upserted and
+     * items no longer on the menu deleted, all in one transaction.
      * @param context Application context
      * @param productDao Product DAO for database operations
      * @param async If true, runs in background thread. If false, runs synchronously.
      */
     public static void seedIfNeeded(Context context, ProductDao productDao, boolean async) {
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        boolean alreadySeeded = prefs.getBoolean(KEY_MENU_ITEMS_SEEDED, false);
+        List<ProductEntity> seedProducts = createMenuProducts();
+        String contentHash = SeedState.contentHash(canonicalRows(seedProducts));
         
-        // EMERGENCY FIX: Always re-seed to ensure exact 34 items are present
-        // Clear old menu items first, then seed fresh
-        Log.d(TAG, "EMERGENCY OFFLINE FIX: Seeding exact 34 Loreta's Café menu items...");
+        if (SeedState.isCurrent(context, SeedState.MENU, contentHash)) {
+            Log.d(TAG, "Menu items are current, skipping");
+            return;
+        }
+        
+        Log.d(TAG, "Syncing exact " + seedProducts.size() + " Loreta's Café menu items...");
         
-        Runnable seedTask = () -> {
+        Runnable seedTask = Perf.wrap("MenuSeeder.seed", () -> {
             try {
-                // STEP 1: Clear ALL old menu items (ID < 10000) to ensure clean slate
-                List<ProductEntity> allProducts = productDao.getAll();
-                int deletedCount = 0;
-                for (ProductEntity product : allProducts) {
-                    if (product.getId() < 10000) { // Menu items have ID < 10000
-                        productDao.delete(product.getId());
-                        deletedCount++;
-                    }
-                }
-                Log.d(TAG, "Cleared " + deletedCount + " old menu items from database");
+                long start = System.currentTimeMillis();
                 
-                // STEP 2: Create exact 34 menu items list
-                List<MenuItem> menuItems = createMenuItemsList();
-                List<ProductEntity> productsToSave = new ArrayList<>();
-                
-                // STEP 3: Use IDs in range 1-9999 for menu items (ingredients use 10000+)
-                long productId = 1;
-                
-                for (MenuItem menuItem : menuItems) {
-                    // Create ProductEntity for menu item
-                    ProductEntity product = new ProductEntity();
-                    product.setId(productId++);
-                    product.setName(menuItem.getName());
-                    product.setCategory(menuItem.category() != null ? menuItem.category() : "Uncategorized");
-                    product.setSupplier("Default");
-                    product.setCost(BigDecimal.valueOf(menuItem.getPrice() * 0.3)); // 30% cost estimate
-                    product.setPrice(BigDecimal.valueOf(menuItem.getPrice()));
-                    product.setQuantity(menuItem.getAvailableQuantity());
-                    product.setStatus("IN_STOCK"); // All items IN STOCK
-                    product.setImageResourceName(menuItem.getImageResourceName());
-                    product.setCreatedAt(OffsetDateTime.now());
-                    product.setUpdatedAt(OffsetDateTime.now());
-                    
-                    productsToSave.add(product);
-                    
-                    // Reset if we exceed range (shouldn't happen, but safety check)
-                    if (productId >= 10000) {
-                        productId = 1;
+                // Menu items have ID < 10000 (ingredients use 10000+)
+                Map<Long, ProductEntity> existingMenu = new HashMap<>();
+                for (ProductEntity product : productDao.getAll()) {
+                    if (product.getId() < 10000) {
+                        existingMenu.put(product.getId(), product);
                     }
                 }
                 
-                // STEP 4: Insert all 34 items
-                if (!productsToSave.isEmpty()) {
-                    productDao.insertAll(productsToSave);
-                    Log.d(TAG, "✓ Seeded " + productsToSave.size() + " menu items to database (100% OFFLINE)");
-                    Log.d(TAG, "✓ All items are IN STOCK and ready to sell");
-                } else {
-                    Log.e(TAG, "ERROR: No menu items to seed!");
+                List<ProductEntity> upserts = new ArrayList<>();
+                for (ProductEntity seed : seedProducts) {
+                    ProductEntity existing = existingMenu.remove(seed.getId());
+                    if (existing == null) {
+                        upserts.add(seed);
+                    } else if (!sameMenuFields(seed, existing)) {
+                        // Keep stock, status and creation time of the existing row
+                        seed.setQuantity(existing.getQuantity());
+                        seed.setStatus(existing.getStatus());
+                        seed.setCreatedAt(existing.getCreatedAt());
+                        upserts.add(seed);
+                    }
                 }
+                // Whatever is left is no longer on the menu
+                List<Long> deleteIds = new ArrayList<>(existingMenu.keySet());
                 
-                // Mark as seeded
-                prefs.edit().putBoolean(KEY_MENU_ITEMS_SEEDED, true).apply();
-                Log.d(TAG, "✓ Menu items seeding complete - Create Order ready!");
+                productDao.applySeedDiff(upserts, deleteIds);
+                SeedState.markCurrent(context, SeedState.MENU, contentHash);
+                Log.d(TAG, "✓ Menu items synced: " + upserts.size() + " upserted, " + deleteIds.size()
+                        + " removed (" + (System.currentTimeMillis() - start) + " ms, 100% OFFLINE)");
                 
             } catch (Exception e) {
                 Log.e(TAG, "ERROR seeding menu items", e);
             }
-        };
+        });
         
         if (async) {
-            new Thread(seedTask).start();
+            AppExecutors.get().diskWrite().execute(seedTask);
         } else {
             seedTask.run(); // Run synchronously
         }
@@ -114,6 +98,65 @@ public class MenuSeeder {
         seedIfNeeded(context, productDao, true); // Default to async
     }
     
+    /**
+     * IDs owned by the menu seed set (1..n, in menu order)
+     */
+    static Set<Long> seededIds() {
+        Set<Long> ids = new HashSet<>();
+        int count = createMenuItemsList().size();
+        for (long id = 1; id <= count; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+    
+    /**
+     * Build the menu as product rows. IDs are in range 1-9999 (ingredients use 10000+)
+     */
+    private static List<ProductEntity> createMenuProducts() {
+        List<MenuItem> menuItems = createMenuItemsList();
+        List<ProductEntity> products = new ArrayList<>(menuItems.size());
+        OffsetDateTime now = OffsetDateTime.now();
+        long productId = 1;
+        
+        for (MenuItem menuItem : menuItems) {
+            ProductEntity product = new ProductEntity();
+            product.setId(productId++);
+            product.setName(menuItem.getName());
+            product.setCategory(menuItem.category() != null ? menuItem.category() : "Uncategorized");
+            product.setSupplier("Default");
+            product.setCost(BigDecimal.valueOf(menuItem.getPrice() * 0.3)); // 30% cost estimate
+            product.setPrice(BigDecimal.valueOf(menuItem.getPrice()));
+            product.setQuantity(menuItem.getAvailableQuantity());
+            product.setStatus("IN_STOCK"); // All items IN STOCK
+            product.setImageResourceName(menuItem.getImageResourceName());
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            products.add(product);
+        }
+        return products;
+    }
+    
+    /**
+     * Seed-owned fields of each item, in menu order, for the content hash
+     */
+    private static List<String> canonicalRows(List<ProductEntity> products) {
+        List<String> rows = new ArrayList<>(products.size());
+        for (ProductEntity product : products) {
+            rows.add(product.getId() + "|" + product.getName() + "|" + product.getCategory()
+                    + "|" + product.getPrice().toPlainString() + "|" + product.getImageResourceName());
+        }
+        return rows;
+    }
+    
+    private static boolean sameMenuFields(ProductEntity seed, ProductEntity existing) {
+        return Objects.equals(seed.getName(), existing.getName())
+                && Objects.equals(seed.getCategory(), existing.getCategory())
+                && Objects.equals(seed.getImageResourceName(), existing.getImageResourceName())
+                && existing.getPrice() != null && seed.getPrice().compareTo(existing.getPrice()) == 0
+                && existing.getCost() != null && seed.getCost().compareTo(existing.getCost()) == 0;
+    }
+    
     /**
      * Create the exact Loreta's Café official menu (34 items) - DEC 2025
      * 100% OFFLINE - NO FIREBASE NEEDED
@@ -3,6 +3,8 @@ package com.loretacafe.pos.data.local;
 import android.content.SharedPreferences;
 import com.loretacafe.pos.data.local.dao.ProductDao;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.perf.Perf;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -18,144 +20,95 @@ public class RawMaterialsSeeder {
     private static final String PREFS_NAME = "loreta_pos_prefs";
     private static final String KEY_RAW_MATERIALS_SEEDED = "raw_materials_seeded";
     
+    private static final java.util.Set<String> INGREDIENT_CATEGORIES = new java.util.HashSet<>(java.util.Arrays.asList(
+            "POWDER", "SYRUP", "SHAKERS / TOPPINGS / JAMS", "MILK", "COFFEE BEANS"));
+    
     /**
-     * Seed raw materials if not already seeded
-     * ALWAYS cleans the database to remove all non-ingredient items, keeping only the 61 raw materials
+     * Seed raw materials if the master list changed since the last run
      */
     public static void seedIfNeeded(android.content.Context context, ProductDao productDao) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, android.content.Context.MODE_PRIVATE);
-        boolean alreadySeeded = prefs.getBoolean(KEY_RAW_MATERIALS_SEEDED, false);
+        seedIfNeeded(context, productDao, true); // Default to async
+    }
+    
+    /**
+     * Seed raw materials when the master list changed since the last run.
+     * The list is hashed; on a mismatch the missing rows are inserted and
+     * renamed/recategorised rows fixed in a single transaction. Existing stock
+     * and cost (maintained by the admin) are never overwritten.
+     * @param async If true, runs in background thread. If false, runs synchronously.
+     */
+    public static void seedIfNeeded(android.content.Context context, ProductDao productDao, boolean async) {
+        List<ProductEntity> rawMaterials = createRawMaterialsList();
+        String contentHash = SeedState.contentHash(canonicalRows(rawMaterials));
         
-        android.util.Log.d("RawMaterialsSeeder", "Cleaning database to keep only 61 ingredients...");
+        if (SeedState.isCurrent(context, SeedState.RAW_MATERIALS, contentHash)) {
+            android.util.Log.d("RawMaterialsSeeder", "Raw materials are current, skipping");
+            return;
+        }
         
-        // ALWAYS clean non-ingredient items from database (every app start)
-        // This ensures Inventory only shows the 61 raw materials
-        new Thread(() -> {
+        Runnable seedTask = Perf.wrap("RawMaterialsSeeder.seed", () -> {
             try {
-                // Get all products
-                List<ProductEntity> allProducts = productDao.getAll();
-                android.util.Log.d("RawMaterialsSeeder", "Found " + allProducts.size() + " products in database");
-                
-                // Define valid ingredient categories
-                java.util.Set<String> validCategories = new java.util.HashSet<>();
-                validCategories.add("POWDER");
-                validCategories.add("SYRUP");
-                validCategories.add("SHAKERS / TOPPINGS / JAMS");
-                validCategories.add("MILK");
-                validCategories.add("COFFEE BEANS");
+                long start = System.currentTimeMillis();
                 
-                // Delete all products that are NOT ingredients
-                int deletedCount = 0;
-                for (ProductEntity product : allProducts) {
-                    String category = product.getCategory();
-                    // Keep only items with ingredient categories OR ID >= 10000 (raw materials range)
-                    boolean isIngredient = (category != null && validCategories.contains(category)) || 
-                                          product.getId() >= 10000; // Raw materials use IDs >= 10000
-                    
-                    if (!isIngredient) {
-                        try {
-                            productDao.delete(product.getId());
-                            deletedCount++;
-                            android.util.Log.d("RawMaterialsSeeder", "Deleted non-ingredient: " + product.getName() + " (Category: " + category + ", ID: " + product.getId() + ")");
-                        } catch (Exception e) {
-                            android.util.Log.e("RawMaterialsSeeder", "Error deleting " + product.getName(), e);
-                        }
+                // One read of the current state instead of two lookups per material
+                java.util.Map<Long, ProductEntity> existingById = new java.util.HashMap<>();
+                java.util.Map<String, ProductEntity> existingByName = new java.util.HashMap<>();
+                for (ProductEntity product : productDao.getAll()) {
+                    existingById.put(product.getId(), product);
+                    if (product.getName() != null) {
+                        existingByName.put(product.getName(), product);
                     }
                 }
                 
-                android.util.Log.d("RawMaterialsSeeder", "Deleted " + deletedCount + " non-ingredient items");
-                
-                // Verify we have exactly 61 ingredients after cleaning
-                List<ProductEntity> afterClean = productDao.getAll();
-                int ingredientCount = 0;
-                for (ProductEntity p : afterClean) {
-                    String cat = p.getCategory();
-                    if ((cat != null && validCategories.contains(cat)) || p.getId() >= 10000) {
-                        ingredientCount++;
-                    }
-                }
-                android.util.Log.d("RawMaterialsSeeder", "Ingredients after clean: " + ingredientCount + " (target: 61)");
-                
-                // Always check and seed raw materials (even if marked as seeded, verify they exist)
-                // This ensures ingredients are always present even if they were deleted
-                android.util.Log.d("RawMaterialsSeeder", "Checking and seeding raw materials master list...");
-                List<ProductEntity> rawMaterials = createRawMaterialsList();
-                
+                List<ProductEntity> upserts = new ArrayList<>();
                 int insertedCount = 0;
-                int skippedCount = 0;
-                java.util.Set<String> insertedNames = new java.util.HashSet<>(); // Track inserted names to prevent duplicates
-                
                 for (ProductEntity material : rawMaterials) {
-                    try {
-                        // Validate cost is set
-                        if (material.getCost() == null || material.getCost().compareTo(BigDecimal.ZERO) <= 0) {
-                            android.util.Log.e("RawMaterialsSeeder", "Skipping " + material.getName() + " - invalid cost: " + material.getCost());
-                            continue;
-                        }
-                        
-                        // Check for duplicate name in current batch
-                        if (insertedNames.contains(material.getName())) {
-                            android.util.Log.w("RawMaterialsSeeder", "Duplicate in batch: " + material.getName() + " - skipping");
-                            skippedCount++;
-                            continue;
-                        }
-                        
-                        // Check if item already exists in database by name OR by ID
-                        ProductEntity existingByName = productDao.getByName(material.getName());
-                        ProductEntity existingById = productDao.getById(material.getId());
-                        
-                        if (existingByName == null && existingById == null) {
-                            // Item doesn't exist, insert it
-                            productDao.insert(material);
-                            insertedNames.add(material.getName());
-                            insertedCount++;
-                            android.util.Log.d("RawMaterialsSeeder", "Inserted: " + material.getName() + " | Cost: ₱" + material.getCost() + " | ID: " + material.getId());
-                        } else {
-                            // Item exists, but ensure it has the correct category and ID
-                            ProductEntity existing = existingById != null ? existingById : existingByName;
-                            if (existing != null) {
-                                // Update existing item to ensure it has correct category
-                                if (existing.getCategory() == null || !validCategories.contains(existing.getCategory())) {
-                                    existing.setCategory(material.getCategory());
-                                    productDao.update(existing);
-                                    android.util.Log.d("RawMaterialsSeeder", "Updated category for: " + existing.getName());
-                                }
-                            }
-                            android.util.Log.d("RawMaterialsSeeder", "Skipped (exists in DB): " + material.getName());
-                            skippedCount++;
-                        }
-                    } catch (Exception e) {
-                        android.util.Log.e("RawMaterialsSeeder", "Error inserting " + material.getName(), e);
+                    ProductEntity existing = existingById.get(material.getId());
+                    if (existing == null) {
+                        existing = existingByName.get(material.getName());
                     }
-                }
-                
-                // Mark as seeded after successful insertion
-                if (insertedCount > 0 || !alreadySeeded) {
-                    prefs.edit().putBoolean(KEY_RAW_MATERIALS_SEEDED, true).apply();
-                    android.util.Log.d("RawMaterialsSeeder", "Raw materials seeding complete. Inserted: " + insertedCount + ", Skipped: " + skippedCount);
-                } else {
-                    android.util.Log.d("RawMaterialsSeeder", "All raw materials already exist. Skipped: " + skippedCount);
-                }
-                
-                // Verify final count - should be exactly 61 ingredients
-                List<ProductEntity> finalProducts = productDao.getAll();
-                int finalIngredientCount = 0;
-                for (ProductEntity p : finalProducts) {
-                    String cat = p.getCategory();
-                    if ((cat != null && validCategories.contains(cat)) || p.getId() >= 10000) {
-                        finalIngredientCount++;
+                    
+                    if (existing == null) {
+                        upserts.add(material);
+                        insertedCount++;
+                    } else if (!material.getName().equals(existing.getName())
+                            || !material.getCategory().equals(existing.getCategory())) {
+                        // Seed owns name and category; stock and cost stay as the admin left them
+                        if (existing.getId() == material.getId()) {
+                            existing.setName(material.getName());
+                        }
+                        existing.setCategory(material.getCategory());
+                        upserts.add(existing);
                     }
                 }
-                android.util.Log.d("RawMaterialsSeeder", "Final ingredient count: " + finalIngredientCount + " (target: 61)");
-                if (finalIngredientCount != 61) {
-                    android.util.Log.w("RawMaterialsSeeder", "WARNING: Expected 61 ingredients, found " + finalIngredientCount);
-                }
                 
+                productDao.applySeedDiff(upserts, java.util.Collections.emptyList());
+                SeedState.markCurrent(context, SeedState.RAW_MATERIALS, contentHash);
+                android.util.Log.d("RawMaterialsSeeder", "Raw materials seeding complete. Inserted: " + insertedCount
+                        + ", updated: " + (upserts.size() - insertedCount)
+                        + " (" + (System.currentTimeMillis() - start) + " ms)");
             } catch (Exception e) {
-                android.util.Log.e("RawMaterialsSeeder", "Error during seeding/cleaning", e);
+                android.util.Log.e("RawMaterialsSeeder", "Error during seeding", e);
             }
-        }).start();
+        });
         
+        if (async) {
+            AppExecutors.get().diskWrite().execute(seedTask);
+        } else {
+            seedTask.run(); // Run synchronously
+        }
+    }
+    
+    /**
+     * Seed-owned fields of each material, in list order, for the content hash
+     */
+    private static List<String> canonicalRows(List<ProductEntity> materials) {
+        List<String> rows = new ArrayList<>(materials.size());
+        for (ProductEntity material : materials) {
+            rows.add(material.getId() + "|" + material.getName() + "|" + material.getCategory()
+                    + "|" + material.getSupplier() + "|" + material.getCost().toPlainString());
+        }
+        return rows;
     }
     
     /**
@@ -284,67 +237,56 @@ public class RawMaterialsSeeder {
         prefs.edit().putBoolean(KEY_RAW_MATERIALS_SEEDED, false).apply();
     }
     
+    /**
+     * Start-up variant of {@link #forceCleanDatabase(ProductDao)}: runs only when what
+     * the clean keeps (ingredient categories, menu seed ids) changed since it last ran,
+     * so a normal cold start doesn't read the whole product table.
+     */
+    public static void forceCleanDatabaseIfNeeded(android.content.Context context, ProductDao productDao) {
+        List<String> rows = new ArrayList<>(new java.util.TreeSet<>(INGREDIENT_CATEGORIES));
+        rows.add("menu=" + new java.util.TreeSet<>(MenuSeeder.seededIds()));
+        String fingerprint = SeedState.contentHash(rows);
+        if (SeedState.isCurrent(context, SeedState.CLEAN, fingerprint)) {
+            android.util.Log.d("RawMaterialsSeeder", "Clean is current, skipping");
+            return;
+        }
+        if (forceCleanDatabase(productDao)) {
+            SeedState.markCurrent(context, SeedState.CLEAN, fingerprint);
+        }
+    }
+
     /**
      * Force clean database to remove all non-ingredient items
      * This ensures Inventory only shows the 61 raw materials
+     * Seeded menu items are kept: MenuSeeder only rewrites them when the menu changes,
+     * and deleting them would cascade to the sale items that reference them.
      * Runs synchronously to ensure cleanup completes before UI loads
+     * @return false if the clean failed
      */
-    public static void forceCleanDatabase(ProductDao productDao) {
+    public static boolean forceCleanDatabase(ProductDao productDao) {
         try {
-            android.util.Log.d("RawMaterialsSeeder", "Force cleaning database to keep only 61 ingredients...");
             List<ProductEntity> allProducts = productDao.getAll();
-            android.util.Log.d("RawMaterialsSeeder", "Found " + allProducts.size() + " products before cleaning");
+            java.util.Set<Long> menuIds = MenuSeeder.seededIds();
             
-            // Define valid ingredient categories
-            java.util.Set<String> validCategories = new java.util.HashSet<>();
-            validCategories.add("POWDER");
-            validCategories.add("SYRUP");
-            validCategories.add("SHAKERS / TOPPINGS / JAMS");
-            validCategories.add("MILK");
-            validCategories.add("COFFEE BEANS");
-            
-            // Delete ALL products that are NOT ingredients
-            // This is aggressive - we want ONLY the 61 raw materials
-            int deletedCount = 0;
+            List<Long> toDelete = new ArrayList<>();
             for (ProductEntity product : allProducts) {
                 String category = product.getCategory();
                 // Keep items with ingredient categories OR ID >= 10000 (raw materials range)
-                // This ensures menu items (ID < 10000) are always deleted
-                boolean hasIngredientCategory = category != null && validCategories.contains(category);
+                boolean hasIngredientCategory = category != null && INGREDIENT_CATEGORIES.contains(category);
                 boolean isRawMaterialId = product.getId() >= 10000;
-                boolean isIngredient = hasIngredientCategory || isRawMaterialId;
-                
-                if (!isIngredient) {
-                    try {
-                        productDao.delete(product.getId());
-                        deletedCount++;
-                        android.util.Log.d("RawMaterialsSeeder", "Deleted non-ingredient: " + product.getName() + " (Category: " + category + ", ID: " + product.getId() + ")");
-                    } catch (Exception e) {
-                        android.util.Log.e("RawMaterialsSeeder", "Error deleting " + product.getName(), e);
-                    }
+                if (!hasIngredientCategory && !isRawMaterialId && !menuIds.contains(product.getId())) {
+                    toDelete.add(product.getId());
+                    android.util.Log.d("RawMaterialsSeeder", "Deleting non-ingredient: " + product.getName() + " (Category: " + category + ", ID: " + product.getId() + ")");
                 }
             }
             
-            // Verify final count
-            List<ProductEntity> afterClean = productDao.getAll();
-            int ingredientCount = 0;
-            for (ProductEntity p : afterClean) {
-                String cat = p.getCategory();
-                // Count items with ingredient category OR ID >= 10000
-                boolean hasIngredientCategory = cat != null && validCategories.contains(cat);
-                boolean isRawMaterialId = p.getId() >= 10000;
-                if (hasIngredientCategory || isRawMaterialId) {
-                    ingredientCount++;
-                }
-            }
-            
-            android.util.Log.d("RawMaterialsSeeder", "Force clean complete. Deleted: " + deletedCount + ", Remaining ingredients: " + ingredientCount + " (target: 61)");
-            if (ingredientCount != 61) {
-                android.util.Log.w("RawMaterialsSeeder", "WARNING: Expected 61 ingredients, found " + ingredientCount);
-            }
+            productDao.applySeedDiff(java.util.Collections.emptyList(), toDelete);
+            android.util.Log.d("RawMaterialsSeeder", "Force clean complete. Deleted: " + toDelete.size()
+                    + ", remaining products: " + (allProducts.size() - toDelete.size()));
+            return true;
         } catch (Exception e) {
             android.util.Log.e("RawMaterialsSeeder", "Error during force clean", e);
+            return false;
         }
     }
 }
-
@@ -1,7 +1,6 @@
 package com.loretacafe.pos.data.local;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.util.Log;
 
 import com.google.gson.Gson;
@@ -12,71 +11,160 @@ import com.loretacafe.pos.data.local.dao.ProductDao;
 import com.loretacafe.pos.data.local.dao.RecipeDao;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
 import com.loretacafe.pos.data.local.entity.RecipeEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.perf.Perf;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Seeds exact recipes for all menu items on first install
+ * Seeds exact recipes for all menu items
  * All quantities are pre-loaded exactly as specified
+ * The recipe set is built in memory and hashed; the database is only written
+ * (in one transaction) when the hash differs from the last applied one.
  */
 public class RecipeSeeder {
     
-    private static final String PREFS_NAME = "loreta_pos_prefs";
-    private static final String KEY_RECIPES_SEEDED = "recipes_seeded";
     private static final String TAG = "RecipeSeeder";
     
     /**
      * Seed all recipes if not already seeded
      */
     public static void seedIfNeeded(Context context, ProductDao productDao, RecipeDao recipeDao) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        boolean alreadySeeded = prefs.getBoolean(KEY_RECIPES_SEEDED, false);
-        
-        if (alreadySeeded) {
-            Log.d(TAG, "Recipes already seeded, skipping");
-            return;
-        }
-        
-        new Thread(() -> {
+        seedIfNeeded(context, productDao, recipeDao, true); // Default to async
+    }
+    
+    /**
+     * Seed all recipes if the recipe set changed since the last run
+     * @param async If true, runs in background thread. If false, runs synchronously.
+     */
+    public static void seedIfNeeded(Context context, ProductDao productDao, RecipeDao recipeDao, boolean async) {
+        Runnable seedTask = Perf.wrap("RecipeSeeder.seed", () -> {
             try {
-                Log.d(TAG, "Starting recipe seeding...");
+                long start = System.currentTimeMillis();
                 Gson gson = new Gson();
-                int seededCount = 0;
+                RecipeSet recipes = new RecipeSet();
                 
                 // Get all products to find menu items by name
                 List<ProductEntity> allProducts = productDao.getAll();
                 
                 // HOT COFFEE - REGULAR (≈12oz)
-                seededCount += seedHotCoffeeRegular(productDao, recipeDao, allProducts, gson);
+                seedHotCoffeeRegular(productDao, recipes, allProducts, gson);
                 
                 // HOT COFFEE - MEDIUM (≈16oz)
-                seededCount += seedHotCoffeeMedium(productDao, recipeDao, allProducts, gson);
+                seedHotCoffeeMedium(productDao, recipes, allProducts, gson);
                 
                 // ICED COFFEE (16oz / 22oz)
-                seededCount += seedIcedCoffee(productDao, recipeDao, allProducts, gson);
+                seedIcedCoffee(productDao, recipes, allProducts, gson);
                 
                 // FRAPPE COFFEE & NON-COFFEE (22oz)
-                seededCount += seedFrappe(productDao, recipeDao, allProducts, gson);
+                seedFrappe(productDao, recipes, allProducts, gson);
                 
                 // MILKTEA CLASSIC (22oz)
-                seededCount += seedMilkteaClassic(productDao, recipeDao, allProducts, gson);
+                seedMilkteaClassic(productDao, recipes, allProducts, gson);
 
                 // FRUIT TEA & LEMONADE (22oz)
-                seededCount += seedFruitTeaAndLemonade(productDao, recipeDao, allProducts, gson);
+                seedFruitTeaAndLemonade(productDao, recipes, allProducts, gson);
                 
                 // CHEESECAKE SERIES & LORETA'S SPECIAL (22oz)
-                seededCount += seedCheesecakeAndSpecials(productDao, recipeDao, allProducts, gson);
+                seedCheesecakeAndSpecials(productDao, recipes, allProducts, gson);
+                
+                // Ingredient IDs are part of the JSON, so a re-numbered raw material changes the hash too
+                String contentHash = SeedState.contentHash(recipes.canonicalRows());
+                if (SeedState.isCurrent(context, SeedState.RECIPES, contentHash)) {
+                    Log.d(TAG, "Recipes already seeded, skipping");
+                    return;
+                }
                 
-                if (seededCount > 0) {
-                    prefs.edit().putBoolean(KEY_RECIPES_SEEDED, true).apply();
-                    Log.d(TAG, "Recipe seeding complete. Seeded " + seededCount + " recipes");
+                // Only menu items whose stored recipes differ from the seed are rewritten
+                Map<Long, List<RecipeEntity>> existing = new HashMap<>();
+                for (RecipeEntity recipe : recipeDao.getAllRecipes()) {
+                    List<RecipeEntity> forProduct = existing.get(recipe.getProductId());
+                    if (forProduct == null) {
+                        forProduct = new ArrayList<>();
+                        existing.put(recipe.getProductId(), forProduct);
+                    }
+                    forProduct.add(recipe);
                 }
+                
+                List<Long> changedProductIds = new ArrayList<>();
+                List<RecipeEntity> changedRecipes = new ArrayList<>();
+                for (Map.Entry<Long, List<RecipeEntity>> entry : recipes.byProduct.entrySet()) {
+                    List<RecipeEntity> stored = existing.get(entry.getKey());
+                    if (!sameRecipes(entry.getValue(), stored != null ? stored : Collections.emptyList())) {
+                        changedProductIds.add(entry.getKey());
+                        changedRecipes.addAll(entry.getValue());
+                    }
+                }
+                
+                recipeDao.replaceForProducts(changedProductIds, changedRecipes);
+                SeedState.markCurrent(context, SeedState.RECIPES, contentHash);
+                Log.d(TAG, "Recipe seeding complete. Rewrote recipes for " + changedProductIds.size()
+                        + " of " + recipes.byProduct.size() + " menu items ("
+                        + (System.currentTimeMillis() - start) + " ms)");
             } catch (Exception e) {
                 Log.e(TAG, "Error seeding recipes", e);
             }
-        }).start();
+        });
+        
+        if (async) {
+            AppExecutors.get().diskWrite().execute(seedTask);
+        } else {
+            seedTask.run(); // Run synchronously
+        }
+    }
+    
+    private static boolean sameRecipes(List<RecipeEntity> seeded, List<RecipeEntity> stored) {
+        if (seeded.size() != stored.size()) return false;
+        for (int i = 0; i < seeded.size(); i++) {
+            RecipeEntity a = seeded.get(i);
+            RecipeEntity b = stored.get(i);
+            if (!a.getRecipeName().equals(b.getRecipeName()) || !a.getRecipeJson().equals(b.getRecipeJson())) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * In-memory stand-in for RecipeDao while the seed set is being built, so the
+     * "update existing recipe" steps below work without touching the database
+     */
+    private static final class RecipeSet {
+        final Map<Long, List<RecipeEntity>> byProduct = new LinkedHashMap<>();
+        
+        List<RecipeEntity> getByProductId(long productId) {
+            List<RecipeEntity> forProduct = byProduct.get(productId);
+            return forProduct != null ? forProduct : Collections.emptyList();
+        }
+        
+        void insert(RecipeEntity recipe) {
+            List<RecipeEntity> forProduct = byProduct.get(recipe.getProductId());
+            if (forProduct == null) {
+                forProduct = new ArrayList<>();
+                byProduct.put(recipe.getProductId(), forProduct);
+            }
+            forProduct.add(recipe);
+        }
+        
+        void update(RecipeEntity recipe) {
+            // Entities are mutated in place; nothing to write until the diff is applied
+        }
+        
+        List<String> canonicalRows() {
+            List<String> rows = new ArrayList<>();
+            for (List<RecipeEntity> forProduct : byProduct.values()) {
+                for (RecipeEntity recipe : forProduct) {
+                    rows.add(recipe.getProductId() + "|" + recipe.getRecipeName() + "|" + recipe.getRecipeJson());
+                }
+            }
+            return rows;
+        }
     }
     
     /**
@@ -132,7 +220,7 @@ public class RecipeSeeder {
     /**
      * Create and save a recipe
      */
-    private static int saveRecipe(ProductEntity menuItem, Recipe recipe, RecipeDao recipeDao, Gson gson) {
+    private static int saveRecipe(ProductEntity menuItem, Recipe recipe, RecipeSet recipes, Gson gson) {
         if (menuItem == null) {
             Log.w(TAG, "Menu item not found for recipe: " + recipe.getRecipeName());
             return 0;
@@ -146,7 +234,7 @@ public class RecipeSeeder {
             recipeEntity.setCreatedAt(OffsetDateTime.now());
             recipeEntity.setUpdatedAt(OffsetDateTime.now());
             
-            recipeDao.insert(recipeEntity);
+            recipes.insert(recipeEntity);
             Log.d(TAG, "Saved recipe for: " + menuItem.getName() + " (" + recipe.getRecipeName() + ")");
             return 1;
         } catch (Exception e) {
@@ -156,7 +244,7 @@ public class RecipeSeeder {
     }
     
     // ========== HOT COFFEE - REGULAR (≈12oz) ==========
-    private static int seedHotCoffeeRegular(ProductDao productDao, RecipeDao recipeDao, 
+    private static int seedHotCoffeeRegular(ProductDao productDao, RecipeSet recipes, 
                                            List<ProductEntity> allProducts, Gson gson) {
         int count = 0;
         
@@ -168,7 +256,7 @@ public class RecipeSeeder {
             ProductEntity espresso = findRawMaterialByName(allProducts, "Espresso");
             if (hotWater != null) recipe.getIngredients().add(createIngredient(hotWater.getId(), hotWater.getName(), 150.0, "ml", true, "Regular", false, null, 0));
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 30.0, "ml", true, "Regular", false, null, 0));
-            count += saveRecipe(black, recipe, recipeDao, gson);
+            count += saveRecipe(black, recipe, recipes, gson);
         }
         
         // Cafe Latte → Steamed Milk 150mL + Espresso 30mL + Fructose 10mL (optional)
@@ -181,7 +269,7 @@ public class RecipeSeeder {
             if (steamedMilk != null) recipe.getIngredients().add(createIngredient(steamedMilk.getId(), steamedMilk.getName(), 150.0, "ml", true, "Regular", false, null, 0));
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 30.0, "ml", true, "Regular", false, null, 0));
             if (fructose != null) recipe.getIngredients().add(createIngredient(fructose.getId(), fructose.getName(), 10.0, "ml", false, "Regular", false, null, 0));
-            count += saveRecipe(cafeLatte, recipe, recipeDao, gson);
+            count += saveRecipe(cafeLatte, recipe, recipes, gson);
         }
         
         // Caramel Macchiato → Steamed Milk 150mL + Caramel Syrup 10mL + Creamy Vanilla 7.5mL + Espresso 30mL + Froth + Caramel drizzle
@@ -196,7 +284,7 @@ public class RecipeSeeder {
             if (caramelSyrup != null) recipe.getIngredients().add(createIngredient(caramelSyrup.getId(), caramelSyrup.getName(), 10.0, "ml", true, "Regular", false, null, 0));
             if (creamyVanilla != null) recipe.getIngredients().add(createIngredient(creamyVanilla.getId(), creamyVanilla.getName(), 7.5, "ml", true, "Regular", false, null, 0));
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 30.0, "ml", true, "Regular", false, null, 0));
-            count += saveRecipe(caramelMacchiato, recipe, recipeDao, gson);
+            count += saveRecipe(caramelMacchiato, recipe, recipes, gson);
         }
         
         // Cafe Mocha → Choco Syrup 20mL + Steamed Milk 150mL + Espresso 30mL + Froth
@@ -209,7 +297,7 @@ public class RecipeSeeder {
             if (chocoSyrup != null) recipe.getIngredients().add(createIngredient(chocoSyrup.getId(), chocoSyrup.getName(), 20.0, "ml", true, "Regular", false, null, 0));
             if (steamedMilk != null) recipe.getIngredients().add(createIngredient(steamedMilk.getId(), steamedMilk.getName(), 150.0, "ml", true, "Regular", false, null, 0));
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 30.0, "ml", true, "Regular", false, null, 0));
-            count += saveRecipe(cafeMocha, recipe, recipeDao, gson);
+            count += saveRecipe(cafeMocha, recipe, recipes, gson);
         }
         
         // Spanish Latte → Condensed Milk 20mL + Steamed Milk 150mL + Espresso 30mL
@@ -222,7 +310,7 @@ public class RecipeSeeder {
             if (condensedMilk != null) recipe.getIngredients().add(createIngredient(condensedMilk.getId(), condensedMilk.getName(), 20.0, "ml", true, "Regular", false, null, 0));
             if (steamedMilk != null) recipe.getIngredients().add(createIngredient(steamedMilk.getId(), steamedMilk.getName(), 150.0, "ml", true, "Regular", false, null, 0));
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 30.0, "ml", true, "Regular", false, null, 0));
-            count += saveRecipe(spanishLatte, recipe, recipeDao, gson);
+            count += saveRecipe(spanishLatte, recipe, recipes, gson);
         }
         
         // Matcha Latte → Creamy Vanilla 15mL + Matcha 7.5g + Water 15mL + Steamed Milk 150mL
@@ -237,14 +325,14 @@ public class RecipeSeeder {
             if (matcha != null) recipe.getIngredients().add(createIngredient(matcha.getId(), matcha.getName(), 7.5, "g", true, "Regular", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 15.0, "ml", true, "Regular", false, null, 0));
             if (steamedMilk != null) recipe.getIngredients().add(createIngredient(steamedMilk.getId(), steamedMilk.getName(), 150.0, "ml", true, "Regular", false, null, 0));
-            count += saveRecipe(matchaLatte, recipe, recipeDao, gson);
+            count += saveRecipe(matchaLatte, recipe, recipes, gson);
         }
         
         return count;
     }
     
     // ========== HOT COFFEE - MEDIUM (≈16oz) ==========
-    private static int seedHotCoffeeMedium(ProductDao productDao, RecipeDao recipeDao, 
+    private static int seedHotCoffeeMedium(ProductDao productDao, RecipeSet recipes, 
                                           List<ProductEntity> allProducts, Gson gson) {
         int count = 0;
         
@@ -252,7 +340,7 @@ public class RecipeSeeder {
         ProductEntity black = findProductByName(allProducts, "Black");
         if (black != null) {
             // Check if recipe already exists, if so add Medium ingredients
-            List<RecipeEntity> existing = recipeDao.getByProductId(black.getId());
+            List<RecipeEntity> existing = recipes.getByProductId(black.getId());
             Recipe recipe;
             if (!existing.isEmpty()) {
                 recipe = gson.fromJson(existing.get(0).getRecipeJson(), Recipe.class);
@@ -264,7 +352,7 @@ public class RecipeSeeder {
                 RecipeEntity recipeEntity = existing.get(0);
                 recipeEntity.setRecipeJson(gson.toJson(recipe));
                 recipeEntity.setUpdatedAt(OffsetDateTime.now());
-                recipeDao.update(recipeEntity);
+                recipes.update(recipeEntity);
                 count++;
             }
         }
@@ -272,7 +360,7 @@ public class RecipeSeeder {
         // Cafe Latte → Steamed Milk 200mL + Espresso 45mL + Fructose 15mL (optional) - Update existing
         ProductEntity cafeLatte = findProductByName(allProducts, "Cafe Latte");
         if (cafeLatte != null) {
-            List<RecipeEntity> existing = recipeDao.getByProductId(cafeLatte.getId());
+            List<RecipeEntity> existing = recipes.getByProductId(cafeLatte.getId());
             Recipe recipe;
             if (!existing.isEmpty()) {
                 recipe = gson.fromJson(existing.get(0).getRecipeJson(), Recipe.class);
@@ -289,17 +377,17 @@ public class RecipeSeeder {
                 RecipeEntity recipeEntity = existing.get(0);
                 recipeEntity.setRecipeJson(gson.toJson(recipe));
                 recipeEntity.setUpdatedAt(OffsetDateTime.now());
-                recipeDao.update(recipeEntity);
+                recipes.update(recipeEntity);
                 count++;
             } else {
-                count += saveRecipe(cafeLatte, recipe, recipeDao, gson);
+                count += saveRecipe(cafeLatte, recipe, recipes, gson);
             }
         }
         
         // Caramel Macchiato → Steamed Milk 200mL + Caramel Syrup 20mL + Creamy Vanilla 15mL + Espresso 40mL + Froth + Caramel
         ProductEntity caramelMacchiato = findProductByName(allProducts, "Caramel Macchiato");
         if (caramelMacchiato != null) {
-            List<RecipeEntity> existing = recipeDao.getByProductId(caramelMacchiato.getId());
+            List<RecipeEntity> existing = recipes.getByProductId(caramelMacchiato.getId());
             Recipe recipe;
             if (!existing.isEmpty()) {
                 recipe = gson.fromJson(existing.get(0).getRecipeJson(), Recipe.class);
@@ -318,17 +406,17 @@ public class RecipeSeeder {
                 RecipeEntity recipeEntity = existing.get(0);
                 recipeEntity.setRecipeJson(gson.toJson(recipe));
                 recipeEntity.setUpdatedAt(OffsetDateTime.now());
-                recipeDao.update(recipeEntity);
+                recipes.update(recipeEntity);
                 count++;
             } else {
-                count += saveRecipe(caramelMacchiato, recipe, recipeDao, gson);
+                count += saveRecipe(caramelMacchiato, recipe, recipes, gson);
             }
         }
         
         // Cafe Mocha → Choco Syrup 30mL + Steamed Milk 200mL + Espresso 45mL + Froth
         ProductEntity cafeMocha = findProductByName(allProducts, "Cafe Mocha");
         if (cafeMocha != null) {
-            List<RecipeEntity> existing = recipeDao.getByProductId(cafeMocha.getId());
+            List<RecipeEntity> existing = recipes.getByProductId(cafeMocha.getId());
             Recipe recipe;
             if (!existing.isEmpty()) {
                 recipe = gson.fromJson(existing.get(0).getRecipeJson(), Recipe.class);
@@ -345,17 +433,17 @@ public class RecipeSeeder {
                 RecipeEntity recipeEntity = existing.get(0);
                 recipeEntity.setRecipeJson(gson.toJson(recipe));
                 recipeEntity.setUpdatedAt(OffsetDateTime.now());
-                recipeDao.update(recipeEntity);
+                recipes.update(recipeEntity);
                 count++;
             } else {
-                count += saveRecipe(cafeMocha, recipe, recipeDao, gson);
+                count += saveRecipe(cafeMocha, recipe, recipes, gson);
             }
         }
         
         // Spanish Latte → Condensed Milk 30mL + Steamed Milk 200mL + Espresso 45mL
         ProductEntity spanishLatte = findProductByName(allProducts, "Spanish Latte");
         if (spanishLatte != null) {
-            List<RecipeEntity> existing = recipeDao.getByProductId(spanishLatte.getId());
+            List<RecipeEntity> existing = recipes.getByProductId(spanishLatte.getId());
             Recipe recipe;
             if (!existing.isEmpty()) {
                 recipe = gson.fromJson(existing.get(0).getRecipeJson(), Recipe.class);
@@ -372,17 +460,17 @@ public class RecipeSeeder {
                 RecipeEntity recipeEntity = existing.get(0);
                 recipeEntity.setRecipeJson(gson.toJson(recipe));
                 recipeEntity.setUpdatedAt(OffsetDateTime.now());
-                recipeDao.update(recipeEntity);
+                recipes.update(recipeEntity);
                 count++;
             } else {
-                count += saveRecipe(spanishLatte, recipe, recipeDao, gson);
+                count += saveRecipe(spanishLatte, recipe, recipes, gson);
             }
         }
         
         // Matcha Latte → Creamy Vanilla 20mL + Matcha 7.5g + Water 20mL + Steamed Milk 200mL
         ProductEntity matchaLatte = findProductByName(allProducts, "Matcha Latte");
         if (matchaLatte != null) {
-            List<RecipeEntity> existing = recipeDao.getByProductId(matchaLatte.getId());
+            List<RecipeEntity> existing = recipes.getByProductId(matchaLatte.getId());
             Recipe recipe;
             if (!existing.isEmpty()) {
                 recipe = gson.fromJson(existing.get(0).getRecipeJson(), Recipe.class);
@@ -401,10 +489,10 @@ public class RecipeSeeder {
                 RecipeEntity recipeEntity = existing.get(0);
                 recipeEntity.setRecipeJson(gson.toJson(recipe));
                 recipeEntity.setUpdatedAt(OffsetDateTime.now());
-                recipeDao.update(recipeEntity);
+                recipes.update(recipeEntity);
                 count++;
             } else {
-                count += saveRecipe(matchaLatte, recipe, recipeDao, gson);
+                count += saveRecipe(matchaLatte, recipe, recipes, gson);
             }
         }
         
@@ -412,7 +500,7 @@ public class RecipeSeeder {
     }
     
     // ========== ICED COFFEE (16oz / 22oz) ==========
-    private static int seedIcedCoffee(ProductDao productDao, RecipeDao recipeDao, 
+    private static int seedIcedCoffee(ProductDao productDao, RecipeSet recipes, 
                                      List<ProductEntity> allProducts, Gson gson) {
         int count = 0;
         
@@ -424,7 +512,7 @@ public class RecipeSeeder {
             ProductEntity coldMilk = findRawMaterialByName(allProducts, "Milk");
             if (cappuccinoPowder != null) recipe.getIngredients().add(createIngredient(cappuccinoPowder.getId(), cappuccinoPowder.getName(), 30.0, "g", true, "All", false, null, 0));
             if (coldMilk != null) recipe.getIngredients().add(createIngredient(coldMilk.getId(), coldMilk.getName(), 200.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(cappuccino, recipe, recipeDao, gson);
+            count += saveRecipe(cappuccino, recipe, recipes, gson);
         }
         
         // Cafe Mocha → Chocolate Syrup 25mL + Cold Milk 200mL + Espresso 20mL + Choco walling
@@ -437,7 +525,7 @@ public class RecipeSeeder {
             if (chocoSyrup != null) recipe.getIngredients().add(createIngredient(chocoSyrup.getId(), chocoSyrup.getName(), 25.0, "ml", true, "All", false, null, 0));
             if (coldMilk != null) recipe.getIngredients().add(createIngredient(coldMilk.getId(), coldMilk.getName(), 200.0, "ml", true, "All", false, null, 0));
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 20.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(cafeMocha, recipe, recipeDao, gson);
+            count += saveRecipe(cafeMocha, recipe, recipes, gson);
         }
         
         // Caramel Macchiato → Creamy Vanilla 30mL + Caramel Syrup 5mL + Caramel Sauce walling + Cold Milk 200mL + Espresso 20mL
@@ -452,7 +540,7 @@ public class RecipeSeeder {
             if (caramelSyrup != null) recipe.getIngredients().add(createIngredient(caramelSyrup.getId(), caramelSyrup.getName(), 5.0, "ml", true, "All", false, null, 0));
             if (coldMilk != null) recipe.getIngredients().add(createIngredient(coldMilk.getId(), coldMilk.getName(), 200.0, "ml", true, "All", false, null, 0));
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 20.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(caramelMacchiato, recipe, recipeDao, gson);
+            count += saveRecipe(caramelMacchiato, recipe, recipes, gson);
         }
         
         // French Vanilla Latte → French Vanilla Syrup 30mL + Cold Milk 200mL + Espresso 20mL
@@ -465,7 +553,7 @@ public class RecipeSeeder {
             if (frenchVanillaSyrup != null) recipe.getIngredients().add(createIngredient(frenchVanillaSyrup.getId(), frenchVanillaSyrup.getName(), 30.0, "ml", true, "All", false, null, 0));
             if (coldMilk != null) recipe.getIngredients().add(createIngredient(coldMilk.getId(), coldMilk.getName(), 200.0, "ml", true, "All", false, null, 0));
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 20.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(frenchVanilla, recipe, recipeDao, gson);
+            count += saveRecipe(frenchVanilla, recipe, recipes, gson);
         }
         
         // Cafe Latte → Cold Milk 200mL + Fructose 10–15mL + Espresso 20mL
@@ -478,7 +566,7 @@ public class RecipeSeeder {
             if (coldMilk != null) recipe.getIngredients().add(createIngredient(coldMilk.getId(), coldMilk.getName(), 200.0, "ml", true, "All", false, null, 0));
             if (fructose != null) recipe.getIngredients().add(createIngredient(fructose.getId(), fructose.getName(), 12.5, "ml", false, "All", false, null, 0)); // Average of 10-15
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 20.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(cafeLatte, recipe, recipeDao, gson);
+            count += saveRecipe(cafeLatte, recipe, recipes, gson);
         }
         
         // Spanish Latte → Condensada 40mL + Cold Milk 200mL + Espresso 20mL
@@ -491,7 +579,7 @@ public class RecipeSeeder {
             if (condensada != null) recipe.getIngredients().add(createIngredient(condensada.getId(), condensada.getName(), 40.0, "ml", true, "All", false, null, 0));
             if (coldMilk != null) recipe.getIngredients().add(createIngredient(coldMilk.getId(), coldMilk.getName(), 200.0, "ml", true, "All", false, null, 0));
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 20.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(spanishLatte, recipe, recipeDao, gson);
+            count += saveRecipe(spanishLatte, recipe, recipes, gson);
         }
         
         // Dirty Matcha → Matcha 7.5g + Warm water (mix) + Cold Milk 200mL + Espresso 20mL + Creamy Vanilla 30mL
@@ -508,7 +596,7 @@ public class RecipeSeeder {
             if (coldMilk != null) recipe.getIngredients().add(createIngredient(coldMilk.getId(), coldMilk.getName(), 200.0, "ml", true, "All", false, null, 0));
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 20.0, "ml", true, "All", false, null, 0));
             if (creamyVanilla != null) recipe.getIngredients().add(createIngredient(creamyVanilla.getId(), creamyVanilla.getName(), 30.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(dirtyMatcha, recipe, recipeDao, gson);
+            count += saveRecipe(dirtyMatcha, recipe, recipes, gson);
         }
         
         // Americano → Espresso 30mL + Cold Water 200mL
@@ -519,7 +607,7 @@ public class RecipeSeeder {
             ProductEntity coldWater = findRawMaterialByName(allProducts, "Water");
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 30.0, "ml", true, "All", false, null, 0));
             if (coldWater != null) recipe.getIngredients().add(createIngredient(coldWater.getId(), coldWater.getName(), 200.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(americano, recipe, recipeDao, gson);
+            count += saveRecipe(americano, recipe, recipes, gson);
         }
         
         // Matcha Latte → Matcha 7.5g + Warm water (mix) + Cold Milk 200mL + Creamy Vanilla 30mL
@@ -534,7 +622,7 @@ public class RecipeSeeder {
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 20.0, "ml", true, "All", false, null, 0));
             if (coldMilk != null) recipe.getIngredients().add(createIngredient(coldMilk.getId(), coldMilk.getName(), 200.0, "ml", true, "All", false, null, 0));
             if (creamyVanilla != null) recipe.getIngredients().add(createIngredient(creamyVanilla.getId(), creamyVanilla.getName(), 30.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(matchaLatte, recipe, recipeDao, gson);
+            count += saveRecipe(matchaLatte, recipe, recipes, gson);
         }
         
         // Triple Chocolate Mocha → Double Dutch 10g + Rocky Road 20g + Chocolate 10g + Cold Milk 200mL + Espresso 20mL
@@ -551,14 +639,14 @@ public class RecipeSeeder {
             if (chocolate != null) recipe.getIngredients().add(createIngredient(chocolate.getId(), chocolate.getName(), 10.0, "g", true, "All", false, null, 0));
             if (coldMilk != null) recipe.getIngredients().add(createIngredient(coldMilk.getId(), coldMilk.getName(), 200.0, "ml", true, "All", false, null, 0));
             if (espresso != null) recipe.getIngredients().add(createIngredient(espresso.getId(), espresso.getName(), 20.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(tripleChocolate, recipe, recipeDao, gson);
+            count += saveRecipe(tripleChocolate, recipe, recipes, gson);
         }
         
         return count;
     }
     
     // ========== FRAPPE COFFEE & NON-COFFEE (22oz) ==========
-    private static int seedFrappe(ProductDao productDao, RecipeDao recipeDao, 
+    private static int seedFrappe(ProductDao productDao, RecipeSet recipes, 
                                  List<ProductEntity> allProducts, Gson gson) {
         int count = 0;
         
@@ -576,7 +664,7 @@ public class RecipeSeeder {
             if (chocolatePowder != null) recipe.getIngredients().add(createIngredient(chocolatePowder.getId(), chocolatePowder.getName(), 40.0, "g", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 80.0, "ml", true, "All", false, null, 0));
             if (chocChips != null) recipe.getIngredients().add(createIngredient(chocChips.getId(), chocChips.getName(), 30.0, "g", true, "All", false, null, 0));
-            count += saveRecipe(chocChip, recipe, recipeDao, gson);
+            count += saveRecipe(chocChip, recipe, recipes, gson);
         }
         
         // Cookies and Cream Frappe (22oz)
@@ -593,7 +681,7 @@ public class RecipeSeeder {
             if (cookiesPowder != null) recipe.getIngredients().add(createIngredient(cookiesPowder.getId(), cookiesPowder.getName(), 40.0, "g", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 80.0, "ml", true, "All", false, null, 0));
             if (crushedOreo != null) recipe.getIngredients().add(createIngredient(crushedOreo.getId(), crushedOreo.getName(), 30.0, "g", true, "All", false, null, 0));
-            count += saveRecipe(cookiesFrappe, recipe, recipeDao, gson);
+            count += saveRecipe(cookiesFrappe, recipe, recipes, gson);
         }
         
         // Caramel Frappe (22oz)
@@ -610,7 +698,7 @@ public class RecipeSeeder {
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 80.0, "ml", true, "All", false, null, 0));
             if (caramelSauce != null) recipe.getIngredients().add(createIngredient(caramelSauce.getId(), caramelSauce.getName(), 20.0, "ml", true, "All", false, null, 0));
             if (whippedCream != null) recipe.getIngredients().add(createIngredient(whippedCream.getId(), whippedCream.getName(), 15.0, "g", true, "All", false, null, 0)); // topping approx
-            count += saveRecipe(caramelFrappe, recipe, recipeDao, gson);
+            count += saveRecipe(caramelFrappe, recipe, recipes, gson);
         }
         
         // Black Forest Frappe (22oz)
@@ -625,7 +713,7 @@ public class RecipeSeeder {
             if (blackForestPowder != null) recipe.getIngredients().add(createIngredient(blackForestPowder.getId(), blackForestPowder.getName(), 40.0, "g", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 80.0, "ml", true, "All", false, null, 0));
             if (chocolateSauce != null) recipe.getIngredients().add(createIngredient(chocolateSauce.getId(), chocolateSauce.getName(), 20.0, "ml", true, "All", false, null, 0)); // walling & drizzle
-            count += saveRecipe(blackForestFrappe, recipe, recipeDao, gson);
+            count += saveRecipe(blackForestFrappe, recipe, recipes, gson);
         }
         
         // Double Dutch Frappe (22oz)
@@ -640,7 +728,7 @@ public class RecipeSeeder {
             if (doubleDutchPowder != null) recipe.getIngredients().add(createIngredient(doubleDutchPowder.getId(), doubleDutchPowder.getName(), 40.0, "g", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 80.0, "ml", true, "All", false, null, 0));
             if (chocolateSauce != null) recipe.getIngredients().add(createIngredient(chocolateSauce.getId(), chocolateSauce.getName(), 20.0, "ml", true, "All", false, null, 0)); // walling
-            count += saveRecipe(doubleDutchFrappe, recipe, recipeDao, gson);
+            count += saveRecipe(doubleDutchFrappe, recipe, recipes, gson);
         }
         
         // Vanilla Frappe (22oz)
@@ -653,7 +741,7 @@ public class RecipeSeeder {
             if (frappeBase != null) recipe.getIngredients().add(createIngredient(frappeBase.getId(), frappeBase.getName(), 90.0, "g", true, "All", false, null, 0));
             if (vanillaPowder != null) recipe.getIngredients().add(createIngredient(vanillaPowder.getId(), vanillaPowder.getName(), 40.0, "g", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 80.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(vanillaFrappe, recipe, recipeDao, gson);
+            count += saveRecipe(vanillaFrappe, recipe, recipes, gson);
         }
         
         // Strawberry Frappe (22oz)
@@ -670,7 +758,7 @@ public class RecipeSeeder {
             if (strawberryPowder != null) recipe.getIngredients().add(createIngredient(strawberryPowder.getId(), strawberryPowder.getName(), 40.0, "g", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 80.0, "ml", true, "All", false, null, 0));
             if (strawberryJam != null) recipe.getIngredients().add(createIngredient(strawberryJam.getId(), strawberryJam.getName(), 30.0, "g", true, "All", false, null, 0));
-            count += saveRecipe(strawberryFrappe, recipe, recipeDao, gson);
+            count += saveRecipe(strawberryFrappe, recipe, recipes, gson);
         }
         
         // Mango Graham Frappe (22oz)
@@ -689,14 +777,14 @@ public class RecipeSeeder {
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 80.0, "ml", true, "All", false, null, 0));
             if (mangoJam != null) recipe.getIngredients().add(createIngredient(mangoJam.getId(), mangoJam.getName(), 30.0, "g", true, "All", false, null, 0));
             if (graham != null) recipe.getIngredients().add(createIngredient(graham.getId(), graham.getName(), 30.0, "g", true, "All", false, null, 0));
-            count += saveRecipe(mangoGrahamFrappe, recipe, recipeDao, gson);
+            count += saveRecipe(mangoGrahamFrappe, recipe, recipes, gson);
         }
         
         return count;
     }
     
     // ========== MILKTEA CLASSIC (22oz) ==========
-    private static int seedMilkteaClassic(ProductDao productDao, RecipeDao recipeDao, 
+    private static int seedMilkteaClassic(ProductDao productDao, RecipeSet recipes, 
                                          List<ProductEntity> allProducts, Gson gson) {
         int count = 0;
         
@@ -805,14 +893,14 @@ public class RecipeSeeder {
                 ));
             }
             
-            count += saveRecipe(milktea, recipe, recipeDao, gson);
+            count += saveRecipe(milktea, recipe, recipes, gson);
         }
         
         return count;
     }
     
     // ========== FRUIT TEA & LEMONADE (22oz) ==========
-    private static int seedFruitTeaAndLemonade(ProductDao productDao, RecipeDao recipeDao,
+    private static int seedFruitTeaAndLemonade(ProductDao productDao, RecipeSet recipes,
                                                List<ProductEntity> allProducts, Gson gson) {
         int count = 0;
 
@@ -838,7 +926,7 @@ public class RecipeSeeder {
             if (fructose != null) recipe.getIngredients().add(createIngredient(fructose.getId(), fructose.getName(), 20.0, "ml", true, "All", false, null, 0));
             if (teaBase != null) recipe.getIngredients().add(createIngredient(teaBase.getId(), teaBase.getName(), 50.0, "ml", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 150.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(sunrise, recipe, recipeDao, gson);
+            count += saveRecipe(sunrise, recipe, recipes, gson);
         }
 
         // Paradise Fruit Tea
@@ -854,7 +942,7 @@ public class RecipeSeeder {
             if (fructose != null) recipe.getIngredients().add(createIngredient(fructose.getId(), fructose.getName(), 20.0, "ml", true, "All", false, null, 0));
             if (teaBase != null) recipe.getIngredients().add(createIngredient(teaBase.getId(), teaBase.getName(), 50.0, "ml", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 150.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(paradise, recipe, recipeDao, gson);
+            count += saveRecipe(paradise, recipe, recipes, gson);
         }
 
         // Berry Blossom Fruit Tea
@@ -868,7 +956,7 @@ public class RecipeSeeder {
             if (fructose != null) recipe.getIngredients().add(createIngredient(fructose.getId(), fructose.getName(), 20.0, "ml", true, "All", false, null, 0));
             if (teaBase != null) recipe.getIngredients().add(createIngredient(teaBase.getId(), teaBase.getName(), 50.0, "ml", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 150.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(berryBlossom, recipe, recipeDao, gson);
+            count += saveRecipe(berryBlossom, recipe, recipes, gson);
         }
 
         // Lychee Fruit Tea
@@ -880,7 +968,7 @@ public class RecipeSeeder {
             if (fructose != null) recipe.getIngredients().add(createIngredient(fructose.getId(), fructose.getName(), 10.0, "ml", true, "All", false, null, 0));
             if (teaBase != null) recipe.getIngredients().add(createIngredient(teaBase.getId(), teaBase.getName(), 50.0, "ml", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 150.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(lychee, recipe, recipeDao, gson);
+            count += saveRecipe(lychee, recipe, recipes, gson);
         }
 
         // Blue Lemonade
@@ -893,7 +981,7 @@ public class RecipeSeeder {
             if (blueberry != null) recipe.getIngredients().add(createIngredient(blueberry.getId(), blueberry.getName(), 10.0, "ml", true, "All", false, null, 0));
             if (fructose != null) recipe.getIngredients().add(createIngredient(fructose.getId(), fructose.getName(), 10.0, "ml", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 200.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(blueLemonade, recipe, recipeDao, gson);
+            count += saveRecipe(blueLemonade, recipe, recipes, gson);
         }
 
         // Strawberry Lemonade
@@ -906,7 +994,7 @@ public class RecipeSeeder {
             if (strawberry != null) recipe.getIngredients().add(createIngredient(strawberry.getId(), strawberry.getName(), 30.0, "ml", true, "All", false, null, 0));
             if (fructose != null) recipe.getIngredients().add(createIngredient(fructose.getId(), fructose.getName(), 10.0, "ml", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 200.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(strawberryLemonade, recipe, recipeDao, gson);
+            count += saveRecipe(strawberryLemonade, recipe, recipes, gson);
         }
 
         // Green Apple Lemonade
@@ -919,7 +1007,7 @@ public class RecipeSeeder {
             if (greenApple != null) recipe.getIngredients().add(createIngredient(greenApple.getId(), greenApple.getName(), 30.0, "ml", true, "All", false, null, 0));
             if (fructose != null) recipe.getIngredients().add(createIngredient(fructose.getId(), fructose.getName(), 10.0, "ml", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 200.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(greenAppleLemonade, recipe, recipeDao, gson);
+            count += saveRecipe(greenAppleLemonade, recipe, recipes, gson);
         }
 
         // Classic Lemonade
@@ -930,14 +1018,14 @@ public class RecipeSeeder {
             if (lemon != null) recipe.getIngredients().add(createIngredient(lemon.getId(), lemon.getName(), 40.0, "ml", true, "All", false, null, 0));
             if (fructose != null) recipe.getIngredients().add(createIngredient(fructose.getId(), fructose.getName(), 15.0, "ml", true, "All", false, null, 0));
             if (water != null) recipe.getIngredients().add(createIngredient(water.getId(), water.getName(), 200.0, "ml", true, "All", false, null, 0));
-            count += saveRecipe(classicLemonade, recipe, recipeDao, gson);
+            count += saveRecipe(classicLemonade, recipe, recipes, gson);
         }
 
         return count;
     }
     
     // ========== CHEESECAKE SERIES & LORETA'S SPECIAL (22oz) ==========
-    private static int seedCheesecakeAndSpecials(ProductDao productDao, RecipeDao recipeDao, 
+    private static int seedCheesecakeAndSpecials(ProductDao productDao, RecipeSet recipes, 
                                                  List<ProductEntity> allProducts, Gson gson) {
         int count = 0;
         
@@ -953,7 +1041,7 @@ public class RecipeSeeder {
             if (creamer != null) recipe.getIngredients().add(createIngredient(creamer.getId(), creamer.getName(), 30.0, "g", true, "All", false, null, 0));
             if (wintermelon != null) recipe.getIngredients().add(createIngredient(wintermelon.getId(), wintermelon.getName(), 30.0, "ml", true, "All", false, null, 0));
             if (creamCheese != null) recipe.getIngredients().add(createIngredient(creamCheese.getId(), creamCheese.getName(), 20.0, "g", true, "All", false, null, 0));
-            count += saveRecipe(wintermelonCheesecake, recipe, recipeDao, gson);
+            count += saveRecipe(wintermelonCheesecake, recipe, recipes, gson);
         }
         
         // Tiger Boba Milk → Similar base
@@ -972,7 +1060,7 @@ public class RecipeSeeder {
                 pearlsAddOn.addIngredient(createIngredient(pearls.getId(), pearls.getName(), 50.0, "g", true, "All", true, "Pearls", 0));
                 recipe.getAddOns().add(pearlsAddOn);
             }
-            count += saveRecipe(tigerBoba, recipe, recipeDao, gson);
+            count += saveRecipe(tigerBoba, recipe, recipes, gson);
         }
         
         return count;
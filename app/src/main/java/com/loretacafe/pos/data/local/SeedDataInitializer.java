@@ -4,10 +4,10 @@ import android.util.Log;
 
 import com.loretacafe.pos.data.local.dao.ProductDao;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.math.BigDecimal;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public final class SeedDataInitializer {
 
@@ -17,7 +17,7 @@ public final class SeedDataInitializer {
     }
 
     public static void seed(ProductDao productDao) {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ExecutorService executor = AppExecutors.get().diskWrite();
         executor.execute(() -> {
             try {
                 if (productDao.getById(-1) != null) {
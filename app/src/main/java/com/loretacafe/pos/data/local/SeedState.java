@@ -0,0 +1,110 @@
+package com.loretacafe.pos.data.local;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Remembers the content hash of the seed set each seeder has already applied, so
+ * start-up can skip seeding entirely when the database already holds the current
+ * seed data (e.g. because it was copied from the prepackaged asset), and only
+ * writes when the seed set itself changed.
+ */
+public final class SeedState {
+
+    // Same keys as the seeders' "seeded" flags, so resetting a flag (as the
+    // recovery paths in CreateOrderActivity/InventoryActivity do) forces a re-seed
+    public static final String RAW_MATERIALS = "raw_materials_seeded";
+    public static final String MENU = "menu_items_seeded";
+    public static final String RECIPES = "recipes_seeded";
+    /** The start-up clean of non-ingredient products; its fingerprint covers what it keeps. */
+    public static final String CLEAN = "non_ingredients_cleaned";
+
+    /** Non-Room table carried by the prepackaged asset; consumed and dropped on first open. */
+    static final String MANIFEST_TABLE = "seed_manifest";
+
+    private static final String TAG = "SeedState";
+    private static final String PREFS_NAME = "loreta_pos_prefs";
+    private static final String KEY_PREFIX = "seed_fingerprint_";
+
+    private SeedState() {
+    }
+
+    /**
+     * SHA-256 over a seeder's canonical rows (one string per row, in a stable order).
+     * Only seed-owned fields belong in a row; timestamps and stock counts do not.
+     */
+    public static String contentHash(List<String> rows) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String row : rows) {
+                digest.update(row.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Android runtime ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static boolean isCurrent(Context context, String seeder, String contentHash) {
+        SharedPreferences prefs = prefs(context);
+        return prefs.getBoolean(seeder, false)
+                && contentHash.equals(prefs.getString(KEY_PREFIX + seeder, null));
+    }
+
+    @Nullable
+    public static String getFingerprint(Context context, String seeder) {
+        return prefs(context).getString(KEY_PREFIX + seeder, null);
+    }
+
+    public static void markCurrent(Context context, String seeder, String fingerprint) {
+        prefs(context).edit()
+                .putBoolean(seeder, true)
+                .putString(KEY_PREFIX + seeder, fingerprint)
+                .apply();
+    }
+
+    public static void clear(Context context) {
+        prefs(context).edit()
+                .remove(KEY_PREFIX + RAW_MATERIALS)
+                .remove(KEY_PREFIX + MENU)
+                .remove(KEY_PREFIX + RECIPES)
+                .remove(KEY_PREFIX + CLEAN)
+                .apply();
+    }
+
+    /**
+     * Called once when Room copies the prepackaged database: adopt the content hashes
+     * it was generated with, then drop the manifest so the schema is Room's alone.
+     */
+    static void adoptPrepackagedManifest(Context context, SupportSQLiteDatabase db) {
+        try (Cursor cursor = db.query("SELECT seeder, fingerprint FROM " + MANIFEST_TABLE)) {
+            while (cursor.moveToNext()) {
+                markCurrent(context, cursor.getString(0), cursor.getString(1));
+                Log.d(TAG, "Prepackaged seed: " + cursor.getString(0) + " @ " + cursor.getString(1));
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Prepackaged database has no seed manifest; seeders will run", e);
+        }
+        db.execSQL("DROP TABLE IF EXISTS " + MANIFEST_TABLE);
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -7,31 +7,39 @@ import androidx.room.TypeConverter;
 import com.loretacafe.pos.data.local.entity.PendingSyncType;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
-
+import java.time.ZoneId;
+
+/**
+ * Timestamps are stored as epoch milliseconds and money as integer centavos:
+ * reading a row is a couple of long reads instead of parsing strings, and range
+ * queries and SUM() compare plain integers. Timestamps read back in the device's
+ * time zone.
+ */
 public class RoomConverters {
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final int CENTAVO_SCALE = 2;
 
     @TypeConverter
-    public static String fromOffsetDateTime(OffsetDateTime value) {
-        return value == null ? null : value.format(FORMATTER);
+    public static Long fromOffsetDateTime(OffsetDateTime value) {
+        return value == null ? null : value.toInstant().toEpochMilli();
     }
 
     @TypeConverter
-    public static OffsetDateTime toOffsetDateTime(String value) {
-        return TextUtils.isEmpty(value) ? null : OffsetDateTime.parse(value, FORMATTER);
+    public static OffsetDateTime toOffsetDateTime(Long value) {
+        return value == null ? null : OffsetDateTime.ofInstant(Instant.ofEpochMilli(value), ZoneId.systemDefault());
     }
 
     @TypeConverter
-    public static String fromBigDecimal(BigDecimal value) {
-        return value == null ? null : value.toPlainString();
+    public static Long fromBigDecimal(BigDecimal value) {
+        return value == null ? null : value.setScale(CENTAVO_SCALE, RoundingMode.HALF_UP).unscaledValue().longValue();
     }
 
     @TypeConverter
-    public static BigDecimal toBigDecimal(String value) {
-        return TextUtils.isEmpty(value) ? BigDecimal.ZERO : new BigDecimal(value);
+    public static BigDecimal toBigDecimal(Long value) {
+        return value == null ? BigDecimal.ZERO : BigDecimal.valueOf(value, CENTAVO_SCALE);
     }
 
     @TypeConverter
@@ -0,0 +1,33 @@
+package com.loretacafe.pos.data.local.converter;
+
+import androidx.room.TypeConverter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Unit costs (a raw material's cost per gram or mL, and product cost) are often
+ * fractions of a centavo, so unlike the money columns in {@link RoomConverters}
+ * they are stored as integer millionths of a peso. Applied per field with
+ * {@code @TypeConverters}, which takes precedence over the database-wide converters.
+ */
+public class UnitCostConverters {
+
+    public static final int UNIT_COST_SCALE = 6;
+    private static final int CENTAVO_SCALE = 2;
+
+    @TypeConverter
+    public static Long fromBigDecimal(BigDecimal value) {
+        return value == null ? null : value.setScale(UNIT_COST_SCALE, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    @TypeConverter
+    public static BigDecimal toBigDecimal(Long value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        // Drop the padding but keep centavos, so 60.5 reads back as 60.50 and 0.035 as 0.035
+        BigDecimal cost = BigDecimal.valueOf(value, UNIT_COST_SCALE).stripTrailingZeros();
+        return cost.scale() < CENTAVO_SCALE ? cost.setScale(CENTAVO_SCALE) : cost;
+    }
+}
@@ -0,0 +1,29 @@
+package com.loretacafe.pos.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import com.loretacafe.pos.data.local.entity.DraftOrderRecordEntity;
+
+import java.util.List;
+
+@Dao
+public interface DraftOrderDao {
+
+    @Insert
+    long insert(DraftOrderRecordEntity record);
+
+    @Query("SELECT * FROM draft_order_records ORDER BY record_id ASC")
+    List<DraftOrderRecordEntity> getAll();
+
+    @Query("SELECT * FROM draft_order_records WHERE draft_id = :draftId ORDER BY record_id ASC")
+    List<DraftOrderRecordEntity> getForDraft(String draftId);
+
+    @Query("DELETE FROM draft_order_records WHERE draft_id = :draftId")
+    void deleteDraft(String draftId);
+
+    /** Drop the records a snapshot has superseded. */
+    @Query("DELETE FROM draft_order_records WHERE draft_id = :draftId AND record_id < :recordId")
+    void deleteBefore(String draftId, long recordId);
+}
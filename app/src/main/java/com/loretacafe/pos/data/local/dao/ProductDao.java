@@ -5,7 +5,9 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.room.Upsert;
 
 import com.loretacafe.pos.data.local.entity.ProductEntity;
 
@@ -20,9 +22,17 @@ public interface ProductDao {
     @Query("SELECT * FROM products WHERE product_id >= 10000 OR category IN ('POWDER', 'SYRUP', 'SHAKERS / TOPPINGS / JAMS', 'MILK', 'COFFEE BEANS') ORDER BY name ASC")
     LiveData<List<ProductEntity>> observeAllRawMaterials();
 
+    // Menu rows only (raw materials live at 10000+); still re-emits on any products write,
+    // so observers compare content before doing work
+    @Query("SELECT * FROM products WHERE product_id < 10000 ORDER BY name ASC")
+    LiveData<List<ProductEntity>> observeMenuProducts();
+
     @Query("SELECT * FROM products ORDER BY name ASC")
     List<ProductEntity> getAll();
 
+    @Query("SELECT COUNT(*) FROM products")
+    int count();
+
     @Query("SELECT * FROM products WHERE product_id = :productId LIMIT 1")
     ProductEntity getById(long productId);
 
@@ -35,13 +45,51 @@ public interface ProductDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(ProductEntity product);
 
+    /**
+     * Insert-or-update without REPLACE's delete, so sale_items rows referencing
+     * the product are not cascaded away.
+     */
+    @Upsert
+    void upsertAll(List<ProductEntity> products);
+
+    @Query("SELECT product_id FROM products")
+    List<Long> getAllIds();
+
+    @Query("DELETE FROM products WHERE product_id IN (:productIds)")
+    void deleteByIds(List<Long> productIds);
+
     @Update
     void update(ProductEntity product);
 
+    @Query("SELECT image_resource_name FROM products WHERE product_id = :productId")
+    String getImageName(long productId);
+
+    /**
+     * Point a product at a new image without rewriting the rest of the row.
+     *
+     * @return the number of rows changed; 0 when the product no longer exists
+     */
+    @Query("UPDATE products SET image_resource_name = :imageName, updated_at = :updatedAt WHERE product_id = :productId")
+    int updateImage(long productId, String imageName, java.time.OffsetDateTime updatedAt);
+
     @Query("DELETE FROM products")
     void clear();
 
     @Query("DELETE FROM products WHERE product_id = :productId")
     void delete(long productId);
+
+    /**
+     * Apply a seeder's diff atomically: one transaction for the whole set
+     * instead of one implicit transaction per row.
+     */
+    @Transaction
+    default void applySeedDiff(List<ProductEntity> upserts, List<Long> deleteIds) {
+        if (!deleteIds.isEmpty()) {
+            deleteByIds(deleteIds);
+        }
+        if (!upserts.isEmpty()) {
+            upsertAll(upserts);
+        }
+    }
 }
 
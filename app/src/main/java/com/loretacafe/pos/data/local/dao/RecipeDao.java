@@ -5,6 +5,7 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
 import com.loretacafe.pos.data.local.entity.RecipeEntity;
@@ -37,5 +38,24 @@ public interface RecipeDao {
 
     @Query("SELECT * FROM recipes")
     List<RecipeEntity> getAllRecipes();
+
+    @Insert
+    void insertAll(List<RecipeEntity> recipes);
+
+    @Query("DELETE FROM recipes WHERE product_id IN (:productIds)")
+    void deleteByProductIds(List<Long> productIds);
+
+    /**
+     * Replace the recipes of the given menu items in one transaction.
+     */
+    @Transaction
+    default void replaceForProducts(List<Long> productIds, List<RecipeEntity> recipes) {
+        if (!productIds.isEmpty()) {
+            deleteByProductIds(productIds);
+        }
+        if (!recipes.isEmpty()) {
+            insertAll(recipes);
+        }
+    }
 }
 
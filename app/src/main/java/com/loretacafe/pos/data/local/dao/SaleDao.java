@@ -28,25 +28,28 @@ public interface SaleDao {
     List<SaleWithItems> getAllSalesWithItems();
 
     @Transaction
-    @Query("SELECT * FROM sales WHERE DATE(sale_date) = DATE('now', 'localtime') ORDER BY sale_date DESC")
+    @Query("SELECT * FROM sales WHERE DATE(sale_date / 1000, 'unixepoch', 'localtime') = DATE('now', 'localtime') ORDER BY sale_date DESC")
     List<SaleWithItems> getTodaySalesWithItems();
 
     @Transaction
-    @Query("SELECT * FROM sales WHERE strftime('%Y-%m', sale_date) = strftime('%Y-%m', 'now', 'localtime') ORDER BY sale_date DESC")
+    @Query("SELECT * FROM sales WHERE strftime('%Y-%m', sale_date / 1000, 'unixepoch', 'localtime') = strftime('%Y-%m', 'now', 'localtime') ORDER BY sale_date DESC")
     List<SaleWithItems> getCurrentMonthSalesWithItems();
 
-    @Query("SELECT COALESCE(SUM(total_amount), 0) FROM sales WHERE DATE(sale_date) = DATE('now', 'localtime')")
+    @Query("SELECT COALESCE(SUM(total_amount), 0) / 100.0 FROM sales WHERE DATE(sale_date / 1000, 'unixepoch', 'localtime') = DATE('now', 'localtime')")
     double getGrossDailySales();
 
-    @Query("SELECT COUNT(*) FROM sales WHERE DATE(sale_date) = DATE('now', 'localtime')")
+    @Query("SELECT COUNT(*) FROM sales WHERE DATE(sale_date / 1000, 'unixepoch', 'localtime') = DATE('now', 'localtime')")
     int getTotalOrdersToday();
 
-    @Query("SELECT COALESCE(SUM(total_amount), 0) FROM sales WHERE strftime('%Y-%m', sale_date) = strftime('%Y-%m', 'now', 'localtime')")
+    @Query("SELECT COALESCE(SUM(total_amount), 0) / 100.0 FROM sales WHERE strftime('%Y-%m', sale_date / 1000, 'unixepoch', 'localtime') = strftime('%Y-%m', 'now', 'localtime')")
     double getMonthlyRevenue();
 
     @Query("SELECT * FROM sales WHERE sale_id = :saleId LIMIT 1")
     SaleEntity getSaleById(long saleId);
 
+    @Query("SELECT * FROM sales WHERE order_number = :orderNumber LIMIT 1")
+    SaleEntity getSaleByOrderNumber(String orderNumber);
+
     @Query("SELECT * FROM sales WHERE sale_date >= :startDate AND sale_date < :endDate ORDER BY sale_date ASC")
     List<SaleEntity> getSalesByDateRange(OffsetDateTime startDate, OffsetDateTime endDate);
 
@@ -6,6 +6,7 @@ import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 
 import com.loretacafe.pos.data.local.entity.SaleItemEntity;
+import com.loretacafe.pos.data.local.model.ProductSalesCount;
 
 import java.util.List;
 
@@ -21,6 +22,16 @@ public interface SaleItemDao {
     @Query("SELECT * FROM sale_items WHERE sale_id = :saleId")
     List<SaleItemEntity> getItemsBySaleId(long saleId);
 
+    // Units sold per product over all time; used to rank search results
+    @Query("SELECT product_id, SUM(quantity) AS units_sold FROM sale_items GROUP BY product_id")
+    List<ProductSalesCount> getUnitsSoldByProduct();
+
+    // Units sold per product since a point in time (epoch millis); seeds the quick picks
+    @Query("SELECT si.product_id, SUM(si.quantity) AS units_sold FROM sale_items si "
+            + "INNER JOIN sales s ON s.sale_id = si.sale_id "
+            + "WHERE s.sale_date >= :sinceMillis GROUP BY si.product_id")
+    List<ProductSalesCount> getUnitsSoldByProductSince(long sinceMillis);
+
     @Query("DELETE FROM sale_items WHERE sale_id = :saleId")
     void deleteBySaleId(long saleId);
 
@@ -0,0 +1,87 @@
+package com.loretacafe.pos.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * One entry of the draft-order journal: a single cart change, appended as it
+ * happens and replayed in {@code record_id} order to rebuild unfinished orders
+ * after a restart. See {@link com.loretacafe.pos.draft.DraftOrderStore}.
+ */
+@Entity(
+        tableName = "draft_order_records",
+        indices = {@Index(value = "draft_id")}
+)
+public class DraftOrderRecordEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "record_id")
+    private long id;
+
+    @NonNull
+    @ColumnInfo(name = "draft_id")
+    private String draftId = "";
+
+    /** One of the {@code OP_*} constants in DraftRecords. */
+    private int op;
+
+    @ColumnInfo(name = "line_id")
+    private String lineId;
+
+    private String payload;
+
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    @NonNull
+    public String getDraftId() {
+        return draftId;
+    }
+
+    public void setDraftId(@NonNull String draftId) {
+        this.draftId = draftId;
+    }
+
+    public int getOp() {
+        return op;
+    }
+
+    public void setOp(int op) {
+        this.op = op;
+    }
+
+    public String getLineId() {
+        return lineId;
+    }
+
+    public void setLineId(String lineId) {
+        this.lineId = lineId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -5,6 +5,9 @@ import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
+import androidx.room.TypeConverters;
+
+import com.loretacafe.pos.data.local.converter.UnitCostConverters;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -32,6 +35,7 @@ public class IngredientEntity {
 
     @NonNull
     @ColumnInfo(name = "cost_per_unit")
+    @TypeConverters(UnitCostConverters.class)
     private BigDecimal costPerUnit; // Cost in PHP
 
     @NonNull
@@ -5,6 +5,9 @@ import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
+import androidx.room.TypeConverters;
+
+import com.loretacafe.pos.data.local.converter.UnitCostConverters;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -29,6 +32,7 @@ public class ProductEntity {
     private String supplier;
 
     @NonNull
+    @TypeConverters(UnitCostConverters.class)
     private BigDecimal cost;
 
     @NonNull
@@ -20,7 +20,9 @@ import java.time.OffsetDateTime;
                 )
         },
         indices = {
-                @Index(value = "cashier_id")
+                @Index(value = "cashier_id"),
+                // Date-range reports and "today" lists scan by sale_date
+                @Index(value = "sale_date")
         }
 )
 public class SaleEntity {
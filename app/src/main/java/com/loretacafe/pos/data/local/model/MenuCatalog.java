@@ -0,0 +1,216 @@
+package com.loretacafe.pos.data.local.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.loretacafe.pos.MenuItem;
+import com.loretacafe.pos.Size;
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of the menu (product rows with id &lt; 10000) with sizes
+ * already parsed, plus category buckets and an id → position index. One snapshot
+ * is shared by every screen that shows the menu; screens that need mutable
+ * {@link MenuItem}s (favorite and availability flags) get fresh copies from
+ * {@link #newMenuItems()}. Size objects are shared and must be treated as read-only.
+ */
+public final class MenuCatalog {
+
+    private static final Type SIZE_LIST_TYPE = new TypeToken<List<Size>>() {}.getType();
+
+    public static final MenuCatalog EMPTY = new MenuCatalog(Collections.emptyList(), 0);
+
+    private final List<Entry> entries;
+    private final Map<Long, Integer> indexById;
+    private final Map<String, List<Entry>> byCategory;
+    private final List<String> categories;
+    private final long fingerprint;
+
+    private MenuCatalog(List<Entry> entries, long fingerprint) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.fingerprint = fingerprint;
+
+        Map<Long, Integer> index = new HashMap<>(entries.size() * 2);
+        Map<String, List<Entry>> buckets = new TreeMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            index.put(entry.productId, i);
+            if (entry.category != null && !entry.category.isEmpty()) {
+                List<Entry> bucket = buckets.get(entry.category);
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    buckets.put(entry.category, bucket);
+                }
+                bucket.add(entry);
+            }
+        }
+        for (Map.Entry<String, List<Entry>> bucket : buckets.entrySet()) {
+            bucket.setValue(Collections.unmodifiableList(bucket.getValue()));
+        }
+        this.indexById = Collections.unmodifiableMap(index);
+        this.byCategory = Collections.unmodifiableMap(buckets);
+        this.categories = Collections.unmodifiableList(new ArrayList<>(buckets.keySet()));
+    }
+
+    /**
+     * Build a snapshot from menu rows. Parses every sizes_json once; rows with
+     * id &gt;= 10000 (raw materials) are ignored.
+     */
+    public static MenuCatalog build(@NonNull List<ProductEntity> products, long fingerprint) {
+        Gson gson = new Gson();
+        List<Entry> entries = new ArrayList<>(products.size());
+        for (ProductEntity product : products) {
+            if (product.getId() >= 10000) {
+                continue;
+            }
+            entries.add(new Entry(product, parseSizes(gson, product)));
+        }
+        return new MenuCatalog(entries, fingerprint);
+    }
+
+    /**
+     * Cheap content hash of the menu rows: everything a menu tile or the add-to-cart
+     * dialog shows. Raw-material rows are skipped, so their stock changes never
+     * produce a new snapshot.
+     */
+    public static long fingerprint(@NonNull List<ProductEntity> products) {
+        long hash = 1125899906842597L;
+        for (ProductEntity product : products) {
+            if (product.getId() >= 10000) {
+                continue;
+            }
+            hash = 31 * hash + product.getId();
+            hash = 31 * hash + hashOf(product.getName());
+            hash = 31 * hash + hashOf(product.getCategory());
+            hash = 31 * hash + (product.getPrice() != null ? product.getPrice().stripTrailingZeros().hashCode() : 0);
+            hash = 31 * hash + Double.hashCode(product.getQuantity());
+            hash = 31 * hash + hashOf(product.getImageResourceName());
+            hash = 31 * hash + hashOf(product.getSizesJson());
+            hash = 31 * hash + hashOf(product.getStatus());
+        }
+        return hash;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Position of the product in {@link #getEntries()}, or -1.
+     */
+    public int indexOf(long productId) {
+        Integer index = indexById.get(productId);
+        return index != null ? index : -1;
+    }
+
+    @Nullable
+    public Entry get(long productId) {
+        int index = indexOf(productId);
+        return index >= 0 ? entries.get(index) : null;
+    }
+
+    /**
+     * Categories in alphabetical order ("All" is not included).
+     */
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public List<Entry> getEntriesInCategory(String category) {
+        List<Entry> bucket = byCategory.get(category);
+        return bucket != null ? bucket : Collections.emptyList();
+    }
+
+    /**
+     * Parsed sizes of a product; empty when it has none.
+     */
+    public List<Size> getSizes(long productId) {
+        Entry entry = get(productId);
+        return entry != null ? entry.sizes : Collections.emptyList();
+    }
+
+    /**
+     * Fresh, mutable MenuItems in catalogue order.
+     */
+    public List<MenuItem> newMenuItems() {
+        List<MenuItem> items = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            items.add(entry.toMenuItem());
+        }
+        return items;
+    }
+
+    private static List<Size> parseSizes(Gson gson, ProductEntity product) {
+        String json = product.getSizesJson();
+        if (json == null || json.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            List<Size> sizes = gson.fromJson(json, SIZE_LIST_TYPE);
+            return sizes != null ? Collections.unmodifiableList(sizes) : Collections.emptyList();
+        } catch (Exception e) {
+            android.util.Log.e("MenuCatalog", "Error parsing sizes for " + product.getName(), e);
+            return Collections.emptyList();
+        }
+    }
+
+    private static int hashOf(@Nullable Object value) {
+        return value != null ? value.hashCode() : 0;
+    }
+
+    /**
+     * One menu product as shown to the cashier.
+     */
+    public static final class Entry {
+        public final long productId;
+        public final String name;
+        public final double price;
+        public final String category;
+        public final int availableQuantity;
+        public final String imageResourceName;
+        public final List<Size> sizes;
+
+        Entry(ProductEntity product, List<Size> sizes) {
+            this.productId = product.getId();
+            this.name = product.getName();
+            this.price = product.getPrice() != null ? product.getPrice().doubleValue() : 0.0;
+            this.category = product.getCategory();
+            // MenuItem counts whole units
+            this.availableQuantity = (int) product.getQuantity();
+            this.imageResourceName = product.getImageResourceName() != null ? product.getImageResourceName() : "";
+            this.sizes = sizes;
+        }
+
+        public MenuItem toMenuItem() {
+            MenuItem item = imageResourceName.isEmpty()
+                    ? new MenuItem(productId, name, price, category, availableQuantity)
+                    : new MenuItem(productId, name, price, category, availableQuantity, imageResourceName);
+            if (!sizes.isEmpty()) {
+                item.setSizes(sizes);
+            }
+            return item;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.loretacafe.pos.data.local.model;
+
+import androidx.room.ColumnInfo;
+
+public class ProductSalesCount {
+
+    @ColumnInfo(name = "product_id")
+    public long productId;
+
+    @ColumnInfo(name = "units_sold")
+    public long unitsSold;
+}
@@ -7,10 +7,14 @@ import android.net.NetworkInfo;
 import android.os.Build;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
+
 import com.loretacafe.pos.CartItem;
+import com.loretacafe.pos.QuickPicksManager;
 import com.loretacafe.pos.Recipe;
 import com.loretacafe.pos.RecipeIngredient;
 import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
 import com.loretacafe.pos.data.local.dao.IngredientDeductionDao;
 import com.loretacafe.pos.data.local.dao.PendingSyncDao;
 import com.loretacafe.pos.data.local.dao.RecipeDao;
@@ -26,6 +30,7 @@ import com.loretacafe.pos.data.local.entity.SaleItemEntity;
 import com.loretacafe.pos.data.local.entity.UserEntity;
 import com.loretacafe.pos.data.remote.dto.SaleItemRequestDto;
 import com.loretacafe.pos.data.remote.dto.SaleRequestDto;
+import com.loretacafe.pos.data.util.AppExecutors;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
@@ -33,6 +38,7 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for processing orders and managing inventory
@@ -50,111 +56,141 @@ public class OrderService {
         this.gson = new Gson();
     }
 
+    /**
+     * Queue the order on the shared {@link DatabaseWriter} so concurrent checkouts are
+     * group-committed. Completes on the writer thread with the order number. A failed order
+     * completes exceptionally and its partial rows are rolled back with the transaction.
+     * Committed orders are counted towards the order screen's quick picks.
+     */
+    public CompletableFuture<String> submitOrder(String customerName, List<CartItem> cartItems, String paymentMethod) {
+        return submitOrder(customerName, cartItems, paymentMethod, null);
+    }
+
+    /**
+     * As {@link #submitOrder(String, List, String)}, for an order rung up on a ticket: the
+     * ticket's draft records are deleted in the same transaction as the sale, so a crash
+     * after the commit can't bring the paid ticket back to be charged again.
+     *
+     * @param draftId the ticket id its draft is journalled under, or null for none
+     */
+    public CompletableFuture<String> submitOrder(String customerName, List<CartItem> cartItems,
+                                                 String paymentMethod, @Nullable String draftId) {
+        List<CartItem> items = new ArrayList<>(cartItems);
+        return DatabaseWriter.getInstance(context).submit(() -> {
+            String orderNumber = processOrder(customerName, items, paymentMethod);
+            if (draftId != null) {
+                database.draftOrderDao().deleteDraft(draftId);
+            }
+            return orderNumber;
+        }).thenApply(orderNumber -> {
+            QuickPicksManager.getInstance(context).recordSale(items);
+            return orderNumber;
+        });
+    }
+
     /**
      * Process a new order and save to database
      * @param customerName Customer name
      * @param cartItems List of cart items
      * @param paymentMethod "Cash" or "Card"
-     * @return Order number if successful, null otherwise
+     * @return Order number
+     * @throws RuntimeException if any write fails. Nothing is caught on the way out, so
+     *         run it inside a transaction (see {@link #submitOrder}) and a failed order
+     *         leaves no sale, items or stock deductions behind.
      */
     public String processOrder(String customerName, List<CartItem> cartItems, String paymentMethod) {
-        try {
-            // Calculate total
-            double totalAmount = 0.0;
-            for (CartItem item : cartItems) {
-                totalAmount += item.getTotalPrice();
-            }
+        // Calculate total
+        double totalAmount = 0.0;
+        for (CartItem item : cartItems) {
+            totalAmount += item.getTotalPrice();
+        }
 
-            // Generate order number
-            String orderNumber = generateOrderNumber();
-
-            // Ensure default user exists (for foreign key constraint)
-            ensureDefaultUserExists();
-
-            // Create sale entity
-            SaleEntity sale = new SaleEntity();
-            // Generate unique ID using timestamp + random component to avoid conflicts
-            long uniqueId = System.currentTimeMillis() * 1000 + (long)(Math.random() * 1000);
-            sale.setId(uniqueId);
-            sale.setCashierId(1); // Default cashier ID
-            sale.setSaleDate(OffsetDateTime.now());
-            sale.setTotalAmount(BigDecimal.valueOf(totalAmount));
-            sale.setCustomerName(customerName);
-            sale.setOrderNumber(orderNumber);
-            sale.setPaymentMethod(paymentMethod);
-
-            // Insert sale
-            long saleId = database.saleDao().insert(sale);
-            Log.d(TAG, "Sale inserted with ID: " + saleId + ", Order Number: " + orderNumber);
-            
-            // Use the ID we set (Room returns the same ID when manually set)
-            if (saleId != uniqueId) {
-                Log.w(TAG, "Warning: Insert returned different ID. Expected: " + uniqueId + ", Got: " + saleId);
-                saleId = uniqueId; // Use the ID we set
-            }
+        // Generate order number
+        String orderNumber = generateOrderNumber();
 
-            // Insert sale items and deduct ingredients
-            int itemCount = 0;
-            for (CartItem cartItem : cartItems) {
-                SaleItemEntity saleItem = new SaleItemEntity();
-                saleItem.setSaleId(saleId);
-                saleItem.setProductId(cartItem.getProductId());
-                saleItem.setQuantity(cartItem.getQuantity());
-                saleItem.setPrice(BigDecimal.valueOf(cartItem.getUnitPrice()));
-                saleItem.setSubtotal(BigDecimal.valueOf(cartItem.getTotalPrice()));
-                saleItem.setSize(cartItem.getSelectedSize());
-                saleItem.setProductName(cartItem.getProductName());
-                long itemId = database.saleItemDao().insert(saleItem);
-                itemCount++;
-                Log.d(TAG, "Sale item " + itemCount + " inserted with ID: " + itemId + " for sale ID: " + saleId);
-
-                // Update inventory (decrease product quantity) - OLD METHOD (for menu items)
-                // updateProductInventory(cartItem.getProductId(), cartItem.getQuantity());
-                
-                // NEW: Automatic ingredient deduction based on recipe (BOM system)
-                // Pass the saleItemId we just got from insert
-                deductIngredientsFromRecipe(cartItem, saleId, itemId);
-            }
+        // Ensure default user exists (for foreign key constraint)
+        ensureDefaultUserExists();
 
-            Log.d(TAG, "Order processed successfully: " + orderNumber + " with " + itemCount + " items, Sale ID: " + saleId);
-            
-            // Verify the sale was saved by querying it back
-            SaleEntity savedSale = database.saleDao().getSaleById(saleId);
-            if (savedSale != null) {
-                Log.d(TAG, "Verified: Sale found in database with order number: " + savedSale.getOrderNumber());
-            } else {
-                Log.e(TAG, "ERROR: Sale not found in database after insert! ID: " + saleId);
-            }
-            
-            // Queue for backend sync (works both online and offline)
-            // When online, it will sync immediately; when offline, it will sync when network returns
-            queueSaleForSync(savedSale, cartItems);
-            
-            return orderNumber;
-        } catch (Exception e) {
-            Log.e(TAG, "Error processing order", e);
-            return null;
+        // Create sale entity
+        SaleEntity sale = new SaleEntity();
+        // Generate unique ID using timestamp + random component to avoid conflicts
+        long uniqueId = System.currentTimeMillis() * 1000 + (long)(Math.random() * 1000);
+        // Orders in the same millisecond can still collide, and the insert would replace
+        // the earlier sale; we're in the write transaction, so probing is race-free
+        while (database.saleDao().getSaleById(uniqueId) != null) {
+            uniqueId++;
+        }
+        sale.setId(uniqueId);
+        sale.setCashierId(1); // Default cashier ID
+        sale.setSaleDate(OffsetDateTime.now());
+        sale.setTotalAmount(BigDecimal.valueOf(totalAmount));
+        sale.setCustomerName(customerName);
+        sale.setOrderNumber(orderNumber);
+        sale.setPaymentMethod(paymentMethod);
+
+        // Insert sale
+        long saleId = database.saleDao().insert(sale);
+        Log.d(TAG, "Sale inserted with ID: " + saleId + ", Order Number: " + orderNumber);
+        
+        // Use the ID we set (Room returns the same ID when manually set)
+        if (saleId != uniqueId) {
+            Log.w(TAG, "Warning: Insert returned different ID. Expected: " + uniqueId + ", Got: " + saleId);
+            saleId = uniqueId; // Use the ID we set
+        }
+
+        // Insert sale items and deduct ingredients
+        int itemCount = 0;
+        for (CartItem cartItem : cartItems) {
+            SaleItemEntity saleItem = new SaleItemEntity();
+            saleItem.setSaleId(saleId);
+            saleItem.setProductId(cartItem.getProductId());
+            saleItem.setQuantity(cartItem.getQuantity());
+            saleItem.setPrice(BigDecimal.valueOf(cartItem.getUnitPrice()));
+            saleItem.setSubtotal(BigDecimal.valueOf(cartItem.getTotalPrice()));
+            saleItem.setSize(cartItem.getSelectedSize());
+            saleItem.setProductName(cartItem.getProductName());
+            long itemId = database.saleItemDao().insert(saleItem);
+            itemCount++;
+            Log.d(TAG, "Sale item " + itemCount + " inserted with ID: " + itemId + " for sale ID: " + saleId);
+
+            // Update inventory (decrease product quantity) - OLD METHOD (for menu items)
+            // updateProductInventory(cartItem.getProductId(), cartItem.getQuantity());
+            
+            // NEW: Automatic ingredient deduction based on recipe (BOM system)
+            // Pass the saleItemId we just got from insert
+            deductIngredientsFromRecipe(cartItem, saleId, itemId);
+        }
+
+        Log.d(TAG, "Order processed successfully: " + orderNumber + " with " + itemCount + " items, Sale ID: " + saleId);
+        
+        // Verify the sale was saved by querying it back
+        SaleEntity savedSale = database.saleDao().getSaleById(saleId);
+        if (savedSale == null) {
+            throw new IllegalStateException("Sale not found in database after insert, ID: " + saleId);
         }
+        Log.d(TAG, "Verified: Sale found in database with order number: " + savedSale.getOrderNumber());
+        
+        // Queue for backend sync (works both online and offline)
+        // When online, it will sync immediately; when offline, it will sync when network returns
+        queueSaleForSync(savedSale, cartItems);
+        
+        return orderNumber;
     }
 
     /**
      * Update product inventory after order (OLD METHOD - for menu items without recipes)
      */
     private void updateProductInventory(long productId, int quantitySold) {
-        try {
-            ProductEntity product = database.productDao().getById(productId);
-            if (product != null) {
-                double newQuantity = product.getQuantity() - quantitySold;
-                if (newQuantity < 0) {
-                    newQuantity = 0;
-                }
-                product.setQuantity(newQuantity);
-                product.setStatus(calculateProductStatus(newQuantity));
-                product.setUpdatedAt(OffsetDateTime.now());
-                database.productDao().update(product);
+        ProductEntity product = database.productDao().getById(productId);
+        if (product != null) {
+            double newQuantity = product.getQuantity() - quantitySold;
+            if (newQuantity < 0) {
+                newQuantity = 0;
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error updating product inventory", e);
+            product.setQuantity(newQuantity);
+            product.setStatus(calculateProductStatus(newQuantity));
+            product.setUpdatedAt(OffsetDateTime.now());
+            database.productDao().update(product);
         }
     }
 
@@ -163,80 +199,75 @@ public class OrderService {
      * Deducts raw materials from inventory when a menu item is sold
      */
     private void deductIngredientsFromRecipe(CartItem cartItem, long saleId, long saleItemId) {
-        try {
-            RecipeDao recipeDao = database.recipeDao();
-            
-            // Get recipe for this menu item (productId)
-            List<RecipeEntity> recipes = recipeDao.getByProductId(cartItem.getProductId());
-            
-            if (recipes == null || recipes.isEmpty()) {
-                Log.d(TAG, "No recipe found for product ID: " + cartItem.getProductId() + ", skipping ingredient deduction");
-                // Fallback to old method if no recipe exists
-                updateProductInventory(cartItem.getProductId(), cartItem.getQuantity());
-                return;
-            }
-            
-            // Find recipe matching the selected size variant
-            String selectedSize = cartItem.getSelectedSize() != null ? cartItem.getSelectedSize() : "Regular";
-            RecipeEntity recipeEntity = null;
-            
-            // Normalize size names
-            String normalizedSize = selectedSize;
-            if ("Tall".equalsIgnoreCase(selectedSize) || "Small".equalsIgnoreCase(selectedSize)) {
-                normalizedSize = "Regular";
-            } else if ("Grande".equalsIgnoreCase(selectedSize) || "Medium".equalsIgnoreCase(selectedSize)) {
-                normalizedSize = "Medium";
-            } else if ("Venti".equalsIgnoreCase(selectedSize) || "Large".equalsIgnoreCase(selectedSize)) {
-                normalizedSize = "Large";
+        RecipeDao recipeDao = database.recipeDao();
+        
+        // Get recipe for this menu item (productId)
+        List<RecipeEntity> recipes = recipeDao.getByProductId(cartItem.getProductId());
+        
+        if (recipes == null || recipes.isEmpty()) {
+            Log.d(TAG, "No recipe found for product ID: " + cartItem.getProductId() + ", skipping ingredient deduction");
+            // Fallback to old method if no recipe exists
+            updateProductInventory(cartItem.getProductId(), cartItem.getQuantity());
+            return;
+        }
+        
+        // Find recipe matching the selected size variant
+        String selectedSize = cartItem.getSelectedSize() != null ? cartItem.getSelectedSize() : "Regular";
+        RecipeEntity recipeEntity = null;
+        
+        // Normalize size names
+        String normalizedSize = selectedSize;
+        if ("Tall".equalsIgnoreCase(selectedSize) || "Small".equalsIgnoreCase(selectedSize)) {
+            normalizedSize = "Regular";
+        } else if ("Grande".equalsIgnoreCase(selectedSize) || "Medium".equalsIgnoreCase(selectedSize)) {
+            normalizedSize = "Medium";
+        } else if ("Venti".equalsIgnoreCase(selectedSize) || "Large".equalsIgnoreCase(selectedSize)) {
+            normalizedSize = "Large";
+        }
+        
+        // First, try to find exact match by recipe name (size variant)
+        for (RecipeEntity r : recipes) {
+            if (normalizedSize.equalsIgnoreCase(r.getRecipeName())) {
+                recipeEntity = r;
+                break;
             }
-            
-            // First, try to find exact match by recipe name (size variant)
+        }
+        
+        // If not found, try "Default"
+        if (recipeEntity == null) {
             for (RecipeEntity r : recipes) {
-                if (normalizedSize.equalsIgnoreCase(r.getRecipeName())) {
+                if ("Default".equals(r.getRecipeName())) {
                     recipeEntity = r;
                     break;
                 }
             }
-            
-            // If not found, try "Default"
-            if (recipeEntity == null) {
-                for (RecipeEntity r : recipes) {
-                    if ("Default".equals(r.getRecipeName())) {
-                        recipeEntity = r;
-                        break;
-                    }
-                }
-            }
-            
-            // If still not found, use first available
-            if (recipeEntity == null) {
-                recipeEntity = recipes.get(0);
-            }
-            
-            // Parse recipe JSON
-            Recipe recipe = parseRecipeFromJson(recipeEntity.getRecipeJson());
-            if (recipe == null) {
-                Log.e(TAG, "Failed to parse recipe JSON for product ID: " + cartItem.getProductId());
-                return;
-            }
-            
-            // Calculate ingredients needed for this order (selectedSize already defined above)
-            List<String> selectedAddOns = cartItem.getSelectedAddOns() != null ? cartItem.getSelectedAddOns() : new ArrayList<>();
-            
-            // Get ingredients needed (rawMaterialId -> total quantity)
-            java.util.Map<Long, Double> ingredientsNeeded = recipe.calculateIngredientsNeeded(selectedSize, selectedAddOns);
-            
-            // Multiply by quantity ordered and deduct + record
-            for (java.util.Map.Entry<Long, Double> entry : ingredientsNeeded.entrySet()) {
-                double totalNeeded = entry.getValue() * cartItem.getQuantity();
-                deductRawMaterial(entry.getKey(), totalNeeded, saleId, saleItemId, cartItem, selectedSize, selectedAddOns);
-            }
-            
-            Log.d(TAG, "Deducted ingredients for " + cartItem.getQuantity() + "x " + cartItem.getProductName() + " (" + selectedSize + ")");
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Error deducting ingredients from recipe", e);
         }
+        
+        // If still not found, use first available
+        if (recipeEntity == null) {
+            recipeEntity = recipes.get(0);
+        }
+        
+        // Parse recipe JSON
+        Recipe recipe = parseRecipeFromJson(recipeEntity.getRecipeJson());
+        if (recipe == null) {
+            Log.e(TAG, "Failed to parse recipe JSON for product ID: " + cartItem.getProductId());
+            return;
+        }
+        
+        // Calculate ingredients needed for this order (selectedSize already defined above)
+        List<String> selectedAddOns = cartItem.getSelectedAddOns() != null ? cartItem.getSelectedAddOns() : new ArrayList<>();
+        
+        // Get ingredients needed (rawMaterialId -> total quantity)
+        java.util.Map<Long, Double> ingredientsNeeded = recipe.calculateIngredientsNeeded(selectedSize, selectedAddOns);
+        
+        // Multiply by quantity ordered and deduct + record
+        for (java.util.Map.Entry<Long, Double> entry : ingredientsNeeded.entrySet()) {
+            double totalNeeded = entry.getValue() * cartItem.getQuantity();
+            deductRawMaterial(entry.getKey(), totalNeeded, saleId, saleItemId, cartItem, selectedSize, selectedAddOns);
+        }
+        
+        Log.d(TAG, "Deducted ingredients for " + cartItem.getQuantity() + "x " + cartItem.getProductName() + " (" + selectedSize + ")");
     }
 
     /**
@@ -246,59 +277,54 @@ public class OrderService {
      */
     private void deductRawMaterial(long rawMaterialId, double quantity, long saleId, long saleItemId, 
                                    CartItem cartItem, String selectedSize, List<String> selectedAddOns) {
-        try {
-            ProductEntity rawMaterial = database.productDao().getById(rawMaterialId);
-            if (rawMaterial == null) {
-                Log.w(TAG, "Raw material not found: ID " + rawMaterialId);
-                return;
-            }
-            
-            // ProductEntity uses double for quantity to support fractional values
-            // This allows precise fractional deductions (7.5 mL, 2.5g, etc.)
-            double currentQty = rawMaterial.getQuantity();
-            double newQty = currentQty - quantity;
-            
-            // Store as double (no rounding) to maintain precision
-            rawMaterial.setQuantity(newQty);
-            
-            // Update status based on new quantity
-            String warningMessage = null;
-            if (newQty <= 0) {
-                rawMaterial.setStatus("OUT_OF_STOCK");
-                warningMessage = "⚠️ OUT OF STOCK: " + rawMaterial.getName() + " (was " + currentQty + ", deducted " + quantity + ")";
-                Log.w(TAG, warningMessage);
-            } else if (newQty <= 5) {
-                rawMaterial.setStatus("LOW_STOCK");
-                warningMessage = "⚠️ LOW STOCK: " + rawMaterial.getName() + " (remaining: " + newQty + ")";
-                Log.w(TAG, warningMessage);
-            } else {
-                rawMaterial.setStatus("IN_STOCK");
-            }
-            
-            rawMaterial.setUpdatedAt(OffsetDateTime.now());
-            database.productDao().update(rawMaterial);
-            
-            // Record deduction in audit trail
-            IngredientDeductionDao deductionDao = database.ingredientDeductionDao();
-            IngredientDeductionEntity deduction = new IngredientDeductionEntity();
-            deduction.setSaleId(saleId);
-            deduction.setSaleItemId(saleItemId);
-            deduction.setRawMaterialId(rawMaterialId);
-            deduction.setRawMaterialName(rawMaterial.getName());
-            deduction.setQuantityDeducted(quantity);
-            deduction.setUnit(getUnitFromRawMaterial(rawMaterial)); // Try to infer unit from name or use default
-            deduction.setMenuItemName(cartItem.getProductName());
-            deduction.setSizeVariant(selectedSize);
-            deduction.setAddOns(selectedAddOns != null && !selectedAddOns.isEmpty() ? 
-                String.join(", ", selectedAddOns) : null);
-            deduction.setDeductedAt(OffsetDateTime.now());
-            deductionDao.insert(deduction);
-            
-            Log.d(TAG, "Deducted " + quantity + " " + rawMaterial.getName() + " (remaining: " + newQty + ") for sale " + saleId);
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Error deducting raw material ID " + rawMaterialId, e);
+        ProductEntity rawMaterial = database.productDao().getById(rawMaterialId);
+        if (rawMaterial == null) {
+            Log.w(TAG, "Raw material not found: ID " + rawMaterialId);
+            return;
+        }
+        
+        // ProductEntity uses double for quantity to support fractional values
+        // This allows precise fractional deductions (7.5 mL, 2.5g, etc.)
+        double currentQty = rawMaterial.getQuantity();
+        double newQty = currentQty - quantity;
+        
+        // Store as double (no rounding) to maintain precision
+        rawMaterial.setQuantity(newQty);
+        
+        // Update status based on new quantity
+        String warningMessage = null;
+        if (newQty <= 0) {
+            rawMaterial.setStatus("OUT_OF_STOCK");
+            warningMessage = "⚠️ OUT OF STOCK: " + rawMaterial.getName() + " (was " + currentQty + ", deducted " + quantity + ")";
+            Log.w(TAG, warningMessage);
+        } else if (newQty <= 5) {
+            rawMaterial.setStatus("LOW_STOCK");
+            warningMessage = "⚠️ LOW STOCK: " + rawMaterial.getName() + " (remaining: " + newQty + ")";
+            Log.w(TAG, warningMessage);
+        } else {
+            rawMaterial.setStatus("IN_STOCK");
         }
+        
+        rawMaterial.setUpdatedAt(OffsetDateTime.now());
+        database.productDao().update(rawMaterial);
+        
+        // Record deduction in audit trail
+        IngredientDeductionDao deductionDao = database.ingredientDeductionDao();
+        IngredientDeductionEntity deduction = new IngredientDeductionEntity();
+        deduction.setSaleId(saleId);
+        deduction.setSaleItemId(saleItemId);
+        deduction.setRawMaterialId(rawMaterialId);
+        deduction.setRawMaterialName(rawMaterial.getName());
+        deduction.setQuantityDeducted(quantity);
+        deduction.setUnit(getUnitFromRawMaterial(rawMaterial)); // Try to infer unit from name or use default
+        deduction.setMenuItemName(cartItem.getProductName());
+        deduction.setSizeVariant(selectedSize);
+        deduction.setAddOns(selectedAddOns != null && !selectedAddOns.isEmpty() ? 
+            String.join(", ", selectedAddOns) : null);
+        deduction.setDeductedAt(OffsetDateTime.now());
+        deductionDao.insert(deduction);
+        
+        Log.d(TAG, "Deducted " + quantity + " " + rawMaterial.getName() + " (remaining: " + newQty + ") for sale " + saleId);
     }
 
     /**
@@ -464,32 +490,26 @@ public class OrderService {
      * Creates a default user with ID 1 if it doesn't exist
      */
     private void ensureDefaultUserExists() {
-        try {
-            UserDao userDao = database.userDao();
-            // Check if user with ID 1 exists
-            UserEntity defaultUser = userDao.getUserById(1);
-            
-            if (defaultUser == null) {
-                Log.d(TAG, "Default user with ID 1 not found, creating system user...");
-                // Create default system user
-                UserEntity systemUser = new UserEntity();
-                systemUser.setId(1);
-                systemUser.setName("System User");
-                systemUser.setEmail("system@loreta.com");
-                systemUser.setRole("SYSTEM");
-                systemUser.setPassword(""); // No password for system user
-                systemUser.setCreatedAt(OffsetDateTime.now());
-                systemUser.setUpdatedAt(OffsetDateTime.now());
-                
-                userDao.insert(systemUser);
-                Log.d(TAG, "Default system user created with ID: 1");
-            } else {
-                Log.d(TAG, "Default user with ID 1 already exists: " + defaultUser.getName());
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error ensuring default user exists", e);
-            // If user creation fails, we'll still try to insert the sale
-            // The foreign key constraint will fail if user doesn't exist
+        UserDao userDao = database.userDao();
+        // Check if user with ID 1 exists
+        UserEntity defaultUser = userDao.getUserById(1);
+        
+        if (defaultUser == null) {
+            Log.d(TAG, "Default user with ID 1 not found, creating system user...");
+            // Create default system user
+            UserEntity systemUser = new UserEntity();
+            systemUser.setId(1);
+            systemUser.setName("System User");
+            systemUser.setEmail("system@loreta.com");
+            systemUser.setRole("SYSTEM");
+            systemUser.setPassword(""); // No password for system user
+            systemUser.setCreatedAt(OffsetDateTime.now());
+            systemUser.setUpdatedAt(OffsetDateTime.now());
+            
+            userDao.insert(systemUser);
+            Log.d(TAG, "Default system user created with ID: 1");
+        } else {
+            Log.d(TAG, "Default user with ID 1 already exists: " + defaultUser.getName());
         }
     }
 
@@ -499,47 +519,42 @@ public class OrderService {
      * When offline: queues for sync when network returns
      */
     private void queueSaleForSync(SaleEntity sale, List<CartItem> cartItems) {
-        try {
-            // Get cashier ID from sale (defaults to 1 if not set)
-            long cashierId = sale.getCashierId() > 0 ? sale.getCashierId() : 1;
-            
-            // Convert cart items to SaleItemRequestDto list
-            List<SaleItemRequestDto> items = new ArrayList<>();
-            for (CartItem cartItem : cartItems) {
-                SaleItemRequestDto itemDto = new SaleItemRequestDto(
-                    cartItem.getProductId(),
-                    cartItem.getQuantity()
-                );
-                items.add(itemDto);
-            }
-            
-            // Create SaleRequestDto with required constructor parameters
-            SaleRequestDto requestDto = new SaleRequestDto(cashierId, items);
-            
-            // Save to pending sync queue (will sync when online)
-            PendingSyncDao pendingSyncDao = database.pendingSyncDao();
-            PendingSyncEntity pending = new PendingSyncEntity();
-            pending.setType(PendingSyncType.CREATE_SALE);
-            pending.setPayload(gson.toJson(requestDto));
-            pending.setCreatedAt(OffsetDateTime.now());
-            pending.setRetryCount(0);
-            pendingSyncDao.insert(pending);
-            
-            Log.d(TAG, "Sale queued for sync: " + sale.getOrderNumber());
-            
-            // Try to sync immediately if online (non-blocking)
-            if (isOnline()) {
-                new Thread(() -> {
-                    try {
-                        syncPendingSales();
-                    } catch (Exception e) {
-                        Log.d(TAG, "Background sync failed (will retry later): " + e.getMessage());
-                    }
-                }).start();
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error queueing sale for sync", e);
-            // Don't fail the order - it's already saved locally
+        // Get cashier ID from sale (defaults to 1 if not set)
+        long cashierId = sale.getCashierId() > 0 ? sale.getCashierId() : 1;
+        
+        // Convert cart items to SaleItemRequestDto list
+        List<SaleItemRequestDto> items = new ArrayList<>();
+        for (CartItem cartItem : cartItems) {
+            SaleItemRequestDto itemDto = new SaleItemRequestDto(
+                cartItem.getProductId(),
+                cartItem.getQuantity()
+            );
+            items.add(itemDto);
+        }
+        
+        // Create SaleRequestDto with required constructor parameters
+        SaleRequestDto requestDto = new SaleRequestDto(cashierId, items);
+        
+        // Save to pending sync queue (will sync when online)
+        PendingSyncDao pendingSyncDao = database.pendingSyncDao();
+        PendingSyncEntity pending = new PendingSyncEntity();
+        pending.setType(PendingSyncType.CREATE_SALE);
+        pending.setPayload(gson.toJson(requestDto));
+        pending.setCreatedAt(OffsetDateTime.now());
+        pending.setRetryCount(0);
+        pendingSyncDao.insert(pending);
+        
+        Log.d(TAG, "Sale queued for sync: " + sale.getOrderNumber());
+        
+        // Try to sync immediately if online (non-blocking)
+        if (isOnline()) {
+            AppExecutors.get().network().execute(() -> {
+                try {
+                    syncPendingSales();
+                } catch (Exception e) {
+                    Log.d(TAG, "Background sync failed (will retry later): " + e.getMessage());
+                }
+            });
         }
     }
 
@@ -547,6 +562,10 @@ public class OrderService {
      * Check if device is online
      */
     private boolean isOnline() {
+        // Known-dead backend: don't bother trying to sync until the circuit half-opens
+        if (com.loretacafe.pos.data.remote.ApiClient.getCircuitBreaker().isOpen()) {
+            return false;
+        }
         try {
             ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
             if (cm == null) return false;
@@ -6,74 +6,93 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.loretacafe.pos.data.session.SessionManager;
 
+import java.io.File;
 import java.util.concurrent.TimeUnit;
 
-import com.loretacafe.pos.BuildConfig;
-
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 public class ApiClient {
 
+    private static final String HTTP_CACHE_DIR = "http_cache";
+    private static final long HTTP_CACHE_SIZE = 10L * 1024 * 1024; // 10 MB
+    private static final String INVENTORY_PATH = "/api/inventory";
+
+    // Backend lives on the shop LAN: a healthy server accepts within a few seconds,
+    // so anything slower is treated as down rather than waited on
+    private static final int CONNECT_TIMEOUT_SECONDS = 5;
+    private static final int READ_WRITE_TIMEOUT_SECONDS = 20;
+    private static final int CALL_TIMEOUT_SECONDS = 30;
+
+    private static final int CIRCUIT_FAILURE_THRESHOLD = 3;
+    private static final long CIRCUIT_OPEN_DURATION_MS = 30_000;
+
+    private static final CircuitBreaker circuitBreaker =
+            new CircuitBreaker(CIRCUIT_FAILURE_THRESHOLD, CIRCUIT_OPEN_DURATION_MS);
+
+    // One client for the whole app: connection pool, dispatcher and disk cache
+    // survive Retrofit rebuilds (e.g. when discovery finds a new backend URL)
+    private static volatile OkHttpClient okHttpClient;
     private static volatile Retrofit retrofit;
 
     public static Retrofit getRetrofit(Context context) {
-        // Always create a new SessionManager instance to get the latest token
-        // (SessionManager uses SharedPreferences, so it's always up-to-date)
-        SessionManager sessionManager = new SessionManager(context.getApplicationContext());
-        
         if (retrofit == null) {
             synchronized (ApiClient.class) {
                 if (retrofit == null) {
-                    retrofit = buildRetrofit(sessionManager);
+                    retrofit = buildRetrofit(context.getApplicationContext());
                 }
             }
         }
-        // Note: AuthInterceptor gets SessionManager at creation time, but since SessionManager
-        // uses SharedPreferences, it always reads the latest token value
         return retrofit;
     }
-    
+
     /**
-     * Clear the Retrofit instance to force rebuild with new token
-     * Call this after login to ensure new token is used
+     * Shared OkHttp client. The AuthInterceptor reads the token from SessionManager
+     * on every request, so login/logout never requires rebuilding it.
+     */
+    public static OkHttpClient getOkHttpClient(Context context) {
+        if (okHttpClient == null) {
+            synchronized (ApiClient.class) {
+                if (okHttpClient == null) {
+                    okHttpClient = buildOkHttpClient(context.getApplicationContext());
+                }
+            }
+        }
+        return okHttpClient;
+    }
+
+    /**
+     * Backend health shared by all Retrofit services. Offline-first screens can
+     * observe it or check isOpen() to skip network work entirely.
+     */
+    public static CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Clear the Retrofit instance so the next call picks up a new base URL.
+     * The shared OkHttp client (and its pooled connections) is kept.
      */
     public static void clearInstance() {
         synchronized (ApiClient.class) {
             retrofit = null;
+            // A new base URL deserves a fresh chance
+            circuitBreaker.reset();
             android.util.Log.d("ApiClient", "Retrofit instance cleared");
         }
     }
 
-    private static Retrofit buildRetrofit(SessionManager sessionManager) {
-        Context context = sessionManager.getContext();
+    private static Retrofit buildRetrofit(Context context) {
         String baseUrl = ApiConfig.getBaseUrl(context);
         android.util.Log.d("ApiClient", "Building Retrofit with base URL: " + baseUrl);
-        
-        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-        // Disable HTTP logging to prevent timeout errors from appearing in logs
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.NONE);
-
-        OkHttpClient okHttpClient = new OkHttpClient.Builder()
-                // Increased timeouts for better reliability on slow/unstable networks
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .callTimeout(60, TimeUnit.SECONDS)
-                .addInterceptor(new AuthInterceptor(sessionManager))
-                .addInterceptor(loggingInterceptor)
-                .addInterceptor(chain -> {
-                    // Silently handle network failures for offline mode
-                    try {
-                        return chain.proceed(chain.request());
-                    } catch (java.net.SocketTimeoutException | java.net.ConnectException e) {
-                        // Fail silently for offline mode
-                        throw e;
-                    }
-                })
-                .build();
 
         Gson gson = new GsonBuilder()
                 .setDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX")
@@ -82,11 +101,64 @@ public class ApiClient {
         Retrofit retrofit = new Retrofit.Builder()
                 .baseUrl(baseUrl)
                 .addConverterFactory(GsonConverterFactory.create(gson))
-                .client(okHttpClient)
+                .client(getOkHttpClient(context))
                 .build();
-        
+
         android.util.Log.d("ApiClient", "Retrofit built successfully");
         return retrofit;
     }
-}
 
+    private static OkHttpClient buildOkHttpClient(Context context) {
+        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
+        // Disable HTTP logging to prevent timeout errors from appearing in logs
+        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.NONE);
+
+        // All calls go to the single backend host, so the per-host limit is what matters
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(16);
+        dispatcher.setMaxRequestsPerHost(6);
+
+        // Gzip: OkHttp adds "Accept-Encoding: gzip" and decompresses transparently as long
+        // as no interceptor sets that header itself. HTTP/2 is negotiated via ALPN on HTTPS
+        // (the default protocol list); local HTTP backends stay on HTTP/1.1 keep-alive.
+        return new OkHttpClient.Builder()
+                // Defaults; individual endpoints can override with @ApiTimeout
+                .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(READ_WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .writeTimeout(READ_WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .callTimeout(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .cache(new Cache(new File(context.getCacheDir(), HTTP_CACHE_DIR), HTTP_CACHE_SIZE))
+                .eventListenerFactory(CallTimingEventListener.FACTORY)
+                // Circuit breaker first so an open circuit never reaches the network
+                .addInterceptor(new CircuitBreakerInterceptor(circuitBreaker))
+                .addInterceptor(new TimeoutInterceptor())
+                .addInterceptor(new AuthInterceptor(new SessionManager(context)))
+                .addInterceptor(loggingInterceptor)
+                .addNetworkInterceptor(new InventoryCacheInterceptor())
+                .build();
+    }
+
+    /**
+     * Makes GET api/inventory cacheable on disk even when the backend sends no
+     * Cache-Control. The entry is always revalidated (max-age=0), so a backend that
+     * sends ETag/Last-Modified answers with a body-less 304 instead of the full list.
+     */
+    private static final class InventoryCacheInterceptor implements Interceptor {
+        @Override
+        public Response intercept(Chain chain) throws java.io.IOException {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+            if ("GET".equals(request.method())
+                    && INVENTORY_PATH.equals(request.url().encodedPath())
+                    && response.header("Cache-Control") == null) {
+                return response.newBuilder()
+                        .removeHeader("Pragma")
+                        .header("Cache-Control", "private, max-age=0")
+                        .build();
+            }
+            return response;
+        }
+    }
+}
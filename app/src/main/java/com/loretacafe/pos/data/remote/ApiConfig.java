@@ -5,8 +5,7 @@ import android.content.SharedPreferences;
 import android.util.Log;
 import com.loretacafe.pos.BuildConfig;
 import com.loretacafe.pos.util.BackendDiscovery;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public final class ApiConfig {
     private static final String TAG = "ApiConfig";
@@ -15,8 +14,8 @@ public final class ApiConfig {
     private static final String KEY_LAST_DISCOVERY = "last_discovery_time";
     private static final long DISCOVERY_CACHE_DURATION = 3600000; // 1 hour
     
-    private static String cachedUrl = null;
-    private static boolean isDiscovering = false;
+    private static volatile String cachedUrl = null;
+    private static final AtomicBoolean isDiscovering = new AtomicBoolean(false);
     
     private ApiConfig() {}
     
@@ -31,13 +30,12 @@ public final class ApiConfig {
      * Get base URL with automatic discovery (with context for network scanning)
      */
     public static String getBaseUrl(Context context) {
-        // Try cached URL first
-        if (context != null) {
-            String cached = getCachedUrl(context);
-            if (cached != null && BackendDiscovery.isBackendAvailable(cached)) {
-                Log.d(TAG, "Using cached backend URL: " + cached);
-                return cached;
-            }
+        // Try cached URL first. It is trusted without a network round trip while
+        // within its TTL; startDiscovery() re-verifies it in the background.
+        String cached = context != null ? getCachedUrl(context) : cachedUrl;
+        if (cached != null) {
+            Log.d(TAG, "Using cached backend URL: " + cached);
+            return cached;
         }
         
         // Fallback to build config
@@ -56,26 +54,33 @@ public final class ApiConfig {
     }
     
     /**
-     * Start automatic backend discovery in background
+     * Start automatic backend discovery in background.
+     * The last known good URL is verified first, so on a known network this
+     * completes after a single health check instead of a subnet scan.
      */
     public static void startDiscovery(Context context) {
-        if (isDiscovering || context == null) return;
+        if (context == null || !isDiscovering.compareAndSet(false, true)) return;
         
-        isDiscovering = true;
-        BackendDiscovery.discoverBackend(context)
+        Context appContext = context.getApplicationContext();
+        String lastKnown = getLastKnownUrl(appContext);
+        BackendDiscovery.discoverBackend(appContext, lastKnown)
             .thenAccept(discoveredUrl -> {
-                isDiscovering = false;
+                isDiscovering.set(false);
                 if (discoveredUrl != null) {
                     Log.i(TAG, "Backend discovered: " + discoveredUrl);
-                    cacheUrl(context, discoveredUrl);
-                    // Clear Retrofit instance to use new URL
-                    ApiClient.clearInstance();
+                    // Compare against the URL a Retrofit build would use right now
+                    boolean changed = !discoveredUrl.equals(getBaseUrl(appContext));
+                    cacheUrl(appContext, discoveredUrl);
+                    if (changed) {
+                        // Clear Retrofit instance to use new URL
+                        ApiClient.clearInstance();
+                    }
                 } else {
                     Log.w(TAG, "Backend discovery failed, using default");
                 }
             })
             .exceptionally(throwable -> {
-                isDiscovering = false;
+                isDiscovering.set(false);
                 Log.e(TAG, "Discovery error", throwable);
                 return null;
             });
@@ -99,6 +104,15 @@ public final class ApiConfig {
         return null;
     }
     
+    /**
+     * Last URL that answered, regardless of TTL. Used only as a discovery hint.
+     */
+    private static String getLastKnownUrl(Context context) {
+        if (cachedUrl != null) return cachedUrl;
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        return prefs.getString(KEY_CACHED_URL, null);
+    }
+    
     /**
      * Cache discovered backend URL
      */
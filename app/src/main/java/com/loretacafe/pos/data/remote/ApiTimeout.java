@@ -0,0 +1,23 @@
+package com.loretacafe.pos.data.remote;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Per-endpoint timeout override for Retrofit service methods.
+ * Values of 0 keep the shared client's default.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ApiTimeout {
+
+    int connectMs() default 0;
+
+    int readMs() default 0;
+
+    int writeMs() default 0;
+}
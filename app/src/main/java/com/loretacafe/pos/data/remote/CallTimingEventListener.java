@@ -0,0 +1,127 @@
+package com.loretacafe.pos.data.remote;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+/**
+ * Records DNS, connect, TLS and time-to-first-byte for a single call and logs
+ * them when the call ends. A fresh instance is created per call by {@link #FACTORY}.
+ * Phases that did not happen (pooled connection, plain HTTP) are reported as -1.
+ */
+public class CallTimingEventListener extends EventListener {
+
+    private static final String TAG = "CallTiming";
+    private static final AtomicLong NEXT_CALL_ID = new AtomicLong(1);
+
+    public static final EventListener.Factory FACTORY = call -> new CallTimingEventListener(
+            NEXT_CALL_ID.getAndIncrement(), call.request().method() + " " + call.request().url().encodedPath());
+
+    private final long callId;
+    private final String label;
+
+    private long callStartNanos;
+    private long dnsStartNanos;
+    private long connectStartNanos;
+    private long secureConnectStartNanos;
+
+    private long dnsMs = -1;
+    private long connectMs = -1;
+    private long tlsMs = -1;
+    private long ttfbMs = -1;
+    private boolean reusedConnection = true;
+    private boolean cacheHit;
+
+    CallTimingEventListener(long callId, String label) {
+        this.callId = callId;
+        this.label = label;
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        callStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+        dnsStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+        dnsMs = elapsedMs(dnsStartNanos);
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+        connectStartNanos = System.nanoTime();
+        reusedConnection = false;
+    }
+
+    @Override
+    public void secureConnectStart(@NonNull Call call) {
+        secureConnectStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(@NonNull Call call, @Nullable Handshake handshake) {
+        tlsMs = elapsedMs(secureConnectStartNanos);
+    }
+
+    @Override
+    public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                           @NonNull Proxy proxy, @Nullable Protocol protocol) {
+        connectMs = elapsedMs(connectStartNanos);
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull Call call) {
+        if (ttfbMs < 0) {
+            ttfbMs = elapsedMs(callStartNanos);
+        }
+    }
+
+    @Override
+    public void cacheHit(@NonNull Call call, @NonNull Response cachedResponse) {
+        cacheHit = true;
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        log("ok", null);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        log("failed", ioe);
+    }
+
+    private void log(String outcome, @Nullable IOException error) {
+        Log.d(TAG, "#" + callId + " " + label + " " + outcome
+                + " total=" + elapsedMs(callStartNanos) + "ms"
+                + " dns=" + dnsMs + "ms"
+                + " connect=" + connectMs + "ms"
+                + " tls=" + tlsMs + "ms"
+                + " ttfb=" + ttfbMs + "ms"
+                + (cacheHit ? " (cache)" : reusedConnection ? " (pooled)" : "")
+                + (error != null ? " error=" + error.getMessage() : ""));
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+}
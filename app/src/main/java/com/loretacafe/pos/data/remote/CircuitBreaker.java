@@ -0,0 +1,124 @@
+package com.loretacafe.pos.data.remote;
+
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+/**
+ * Tracks backend health across all Retrofit calls.
+ * CLOSED: calls go through. OPEN: calls fail immediately with CircuitOpenException
+ * so offline-first screens fall back to local data without waiting on timeouts.
+ * HALF_OPEN: after the cool-down a single probe call is let through; its outcome
+ * closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final String TAG = "CircuitBreaker";
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final MutableLiveData<State> stateLiveData = new MutableLiveData<>(State.CLOSED);
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean probeInFlight = false;
+
+    public CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    /**
+     * @return true if the call may proceed; false to fail fast
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+                probeInFlight = true;
+                return true;
+            case HALF_OPEN:
+            default:
+                // Only one probe at a time; everyone else keeps failing fast
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            openedAt = System.currentTimeMillis();
+            if (state != State.OPEN) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * The call ended without saying anything about the backend (canceled, or a
+     * bug further down the chain). Releases the probe slot so the next call can
+     * probe instead; the state and failure count are left as they are.
+     */
+    public synchronized void onAbandoned() {
+        probeInFlight = false;
+    }
+
+    /**
+     * Close the circuit, e.g. when the device joins a new network or a new backend is discovered.
+     */
+    public synchronized void reset() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    /**
+     * True while calls are being short-circuited (cool-down not yet elapsed).
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAt < openDurationMs;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public LiveData<State> observeState() {
+        return stateLiveData;
+    }
+
+    private void transitionTo(State newState) {
+        Log.i(TAG, "Backend circuit " + state + " -> " + newState
+                + " (consecutive failures: " + consecutiveFailures + ")");
+        state = newState;
+        stateLiveData.postValue(newState);
+    }
+}
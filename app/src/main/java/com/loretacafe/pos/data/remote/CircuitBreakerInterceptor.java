@@ -0,0 +1,57 @@
+package com.loretacafe.pos.data.remote;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Applies the CircuitBreaker to every call. Transport failures and gateway
+ * errors count against the backend; any other HTTP response (including 4xx)
+ * proves it is reachable.
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakerInterceptor(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (!circuitBreaker.allowRequest()) {
+            throw new CircuitOpenException();
+        }
+
+        // Every call that was let through settles exactly once, or a HALF_OPEN
+        // probe would hold the probe slot forever
+        boolean settled = false;
+        try {
+            Response response;
+            try {
+                response = chain.proceed(chain.request());
+            } catch (IOException e) {
+                if (!chain.call().isCanceled()) {
+                    circuitBreaker.onFailure();
+                    settled = true;
+                }
+                throw e;
+            }
+
+            int code = response.code();
+            if (code == 502 || code == 503 || code == 504) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            settled = true;
+            return response;
+        } finally {
+            if (!settled) {
+                // Canceled, or an unchecked exception: no verdict on the backend
+                circuitBreaker.onAbandoned();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.loretacafe.pos.data.remote;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of performing a network call while the backend circuit is open.
+ */
+public class CircuitOpenException extends IOException {
+
+    public CircuitOpenException() {
+        super("Backend unavailable (circuit open) - using offline mode");
+    }
+}
@@ -0,0 +1,68 @@
+package com.loretacafe.pos.data.remote;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Persists HTTP cache validators (ETag / Last-Modified) per resource so
+ * conditional GETs survive process restarts, together with a marker that the
+ * last full download of the resource was stored completely. Validators are
+ * only worth sending while that marker is set: rows seeded or left behind by
+ * a broken download are not what the validators describe.
+ */
+public class HttpValidatorStore {
+
+    private static final String PREF_NAME = "http_validators";
+    private static final String SUFFIX_ETAG = ".etag";
+    private static final String SUFFIX_LAST_MODIFIED = ".last_modified";
+    private static final String SUFFIX_SYNCED = ".synced";
+
+    private final SharedPreferences preferences;
+
+    public HttpValidatorStore(Context context) {
+        this.preferences = context.getApplicationContext()
+                .getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Nullable
+    public String getEtag(String resource) {
+        return preferences.getString(resource + SUFFIX_ETAG, null);
+    }
+
+    @Nullable
+    public String getLastModified(String resource) {
+        return preferences.getString(resource + SUFFIX_LAST_MODIFIED, null);
+    }
+
+    /** True once a full download of the resource has been stored, until the next clear. */
+    public boolean hasCompletedSync(String resource) {
+        return preferences.getBoolean(resource + SUFFIX_SYNCED, false);
+    }
+
+    /**
+     * Record a completed full sync of the resource along with its validators.
+     * Call only after every row of the response is stored.
+     */
+    public void save(String resource, @Nullable String etag, @Nullable String lastModified) {
+        preferences.edit()
+                .putString(resource + SUFFIX_ETAG, etag)
+                .putString(resource + SUFFIX_LAST_MODIFIED, lastModified)
+                .putBoolean(resource + SUFFIX_SYNCED, true)
+                .apply();
+    }
+
+    public void clear(String resource) {
+        preferences.edit()
+                .remove(resource + SUFFIX_ETAG)
+                .remove(resource + SUFFIX_LAST_MODIFIED)
+                .remove(resource + SUFFIX_SYNCED)
+                .apply();
+    }
+
+    /** Forget every resource, e.g. when the tables they describe were recreated. */
+    public void clearAll() {
+        preferences.edit().clear().apply();
+    }
+}
@@ -0,0 +1,37 @@
+package com.loretacafe.pos.data.remote;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * Applies {@link ApiTimeout} annotations found on the invoked Retrofit method.
+ */
+public class TimeoutInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Invocation invocation = chain.request().tag(Invocation.class);
+        ApiTimeout timeout = invocation != null
+                ? invocation.method().getAnnotation(ApiTimeout.class)
+                : null;
+        if (timeout == null) {
+            return chain.proceed(chain.request());
+        }
+
+        Chain configured = chain;
+        if (timeout.connectMs() > 0) {
+            configured = configured.withConnectTimeout(timeout.connectMs(), TimeUnit.MILLISECONDS);
+        }
+        if (timeout.readMs() > 0) {
+            configured = configured.withReadTimeout(timeout.readMs(), TimeUnit.MILLISECONDS);
+        }
+        if (timeout.writeMs() > 0) {
+            configured = configured.withWriteTimeout(timeout.writeMs(), TimeUnit.MILLISECONDS);
+        }
+        return configured.proceed(configured.request());
+    }
+}
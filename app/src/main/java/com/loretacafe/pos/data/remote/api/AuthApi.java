@@ -1,5 +1,6 @@
 package com.loretacafe.pos.data.remote.api;
 
+import com.loretacafe.pos.data.remote.ApiTimeout;
 import com.loretacafe.pos.data.remote.dto.AuthResponseDto;
 import com.loretacafe.pos.data.remote.dto.ForgotPasswordRequestDto;
 import com.loretacafe.pos.data.remote.dto.LoginRequestDto;
@@ -15,6 +16,8 @@ public interface AuthApi {
     @POST("api/auth/register")
     Call<AuthResponseDto> register(@Body RegisterRequestDto body);
 
+    // Login falls back to Firebase/local auth, so don't keep the cashier waiting
+    @ApiTimeout(connectMs = 3000, readMs = 10000)
     @POST("api/auth/login")
     Call<AuthResponseDto> login(@Body LoginRequestDto body);
 
@@ -6,19 +6,31 @@ import com.loretacafe.pos.data.remote.dto.StockAdjustmentRequestDto;
 
 import java.util.List;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
 import retrofit2.http.Path;
+import retrofit2.http.Streaming;
 
 public interface InventoryApi {
 
     @GET("api/inventory")
     Call<List<ProductResponseDto>> getProducts();
 
+    /**
+     * Conditional, streamed variant: null validators are omitted, a match returns 304
+     * with no body. The raw body is read incrementally by the caller.
+     */
+    @Streaming
+    @GET("api/inventory")
+    Call<ResponseBody> streamProducts(@Header("If-None-Match") String etag,
+                                      @Header("If-Modified-Since") String lastModified);
+
     @POST("api/inventory")
     Call<ProductResponseDto> createProduct(@Body ProductPayloadDto body);
 
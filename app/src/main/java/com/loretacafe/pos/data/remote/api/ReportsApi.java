@@ -1,5 +1,6 @@
 package com.loretacafe.pos.data.remote.api;
 
+import com.loretacafe.pos.data.remote.ApiTimeout;
 import com.loretacafe.pos.data.remote.dto.ApiResponseDto;
 import com.loretacafe.pos.data.remote.dto.SalesReportEmailRequestDto;
 import com.loretacafe.pos.data.remote.dto.SalesReportRequestDto;
@@ -14,6 +15,8 @@ public interface ReportsApi {
     @POST("api/reports/sales")
     Call<SalesSummaryDto> generateSalesReport(@Body SalesReportRequestDto body);
     
+    // The backend sends the email synchronously before answering
+    @ApiTimeout(readMs = 28000)
     @POST("api/send-sales-report")
     Call<ApiResponseDto> sendSalesReportEmail(@Body SalesReportEmailRequestDto request);
 }
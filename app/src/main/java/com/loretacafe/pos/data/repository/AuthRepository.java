@@ -7,6 +7,7 @@ import com.loretacafe.pos.data.local.dao.UserDao;
 import com.loretacafe.pos.data.local.entity.UserEntity;
 import com.loretacafe.pos.data.mapper.DataMappers;
 import com.google.gson.Gson;
+import com.loretacafe.pos.data.remote.CircuitOpenException;
 import com.loretacafe.pos.data.remote.api.AuthApi;
 import com.loretacafe.pos.data.remote.dto.AuthResponseDto;
 import com.loretacafe.pos.data.remote.dto.ForgotPasswordRequestDto;
@@ -62,6 +63,9 @@ public class AuthRepository {
                     android.util.Log.e("AuthRepository", "Login failed - Status: " + response.code() + ", Error: " + errorMsg);
                     liveData.postValue(ApiResult.error(errorMsg));
                 }
+            } catch (CircuitOpenException e) {
+                android.util.Log.w("AuthRepository", "Login skipped: backend circuit open");
+                liveData.postValue(ApiResult.error(e.getMessage()));
             } catch (java.net.SocketTimeoutException e) {
                 android.util.Log.e("AuthRepository", "Login timeout: " + e.getMessage(), e);
                 liveData.postValue(ApiResult.error("Connection timeout. Please check your internet connection and ensure the server is running."));
@@ -121,6 +125,9 @@ public class AuthRepository {
                 } else {
                     liveData.postValue(ApiResult.error(extractError(response)));
                 }
+            } catch (CircuitOpenException e) {
+                android.util.Log.w("AuthRepository", "Forgot password skipped: backend circuit open");
+                liveData.postValue(ApiResult.error(e.getMessage()));
             } catch (java.net.SocketTimeoutException e) {
                 android.util.Log.e("AuthRepository", "Forgot password timeout: " + e.getMessage(), e);
                 liveData.postValue(ApiResult.error("Connection timeout. Please check your internet connection and ensure the server is running."));
@@ -159,6 +166,9 @@ public class AuthRepository {
                 } else {
                     liveData.postValue(ApiResult.error(extractError(response)));
                 }
+            } catch (CircuitOpenException e) {
+                android.util.Log.w("AuthRepository", "Reset password skipped: backend circuit open");
+                liveData.postValue(ApiResult.error(e.getMessage()));
             } catch (java.net.SocketTimeoutException e) {
                 android.util.Log.e("AuthRepository", "Reset password timeout: " + e.getMessage(), e);
                 liveData.postValue(ApiResult.error("Connection timeout. Please check your internet connection and ensure the server is running."));
@@ -3,31 +3,57 @@ package com.loretacafe.pos.data.repository;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.google.gson.Gson;
+import com.loretacafe.pos.data.local.DatabaseWriter;
 import com.loretacafe.pos.data.local.dao.ProductDao;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
 import com.loretacafe.pos.data.mapper.DataMappers;
+import com.loretacafe.pos.data.remote.HttpValidatorStore;
 import com.loretacafe.pos.data.remote.api.InventoryApi;
 import com.loretacafe.pos.data.remote.dto.ProductPayloadDto;
 import com.loretacafe.pos.data.remote.dto.ProductResponseDto;
 import com.loretacafe.pos.data.remote.dto.StockAdjustmentRequestDto;
 import com.loretacafe.pos.data.util.ApiResult;
+import com.loretacafe.pos.data.util.JsonArrayStreamer;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
+import okhttp3.ResponseBody;
 import retrofit2.Response;
 
+/**
+ * Products: the local catalogue plus the backend calls that change it. Every local
+ * write is queued on the {@link DatabaseWriter}, so it never races a checkout's
+ * stock deductions; network calls run on {@link AppExecutors#network()}.
+ */
 public class InventoryRepository {
 
+    private static final String CATALOGUE_RESOURCE = "api/inventory";
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final int STREAM_CHUNK_SIZE = 200;
+
     private final InventoryApi inventoryApi;
     private final ProductDao productDao;
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final DatabaseWriter writer;
+    private final HttpValidatorStore validatorStore;
+    private final Gson gson;
+    private final ExecutorService executorService = AppExecutors.get().network();
 
-    public InventoryRepository(InventoryApi inventoryApi, ProductDao productDao) {
+    public InventoryRepository(InventoryApi inventoryApi, ProductDao productDao, DatabaseWriter writer,
+                               HttpValidatorStore validatorStore, Gson gson) {
         this.inventoryApi = inventoryApi;
         this.productDao = productDao;
+        this.writer = writer;
+        this.validatorStore = validatorStore;
+        this.gson = gson;
     }
 
     public LiveData<List<ProductEntity>> observeProducts() {
@@ -40,23 +66,60 @@ public class InventoryRepository {
 
         executorService.execute(() -> {
             try {
-                Response<List<ProductResponseDto>> response = inventoryApi.getProducts().execute();
-                if (response.isSuccessful()) {
-                    List<ProductResponseDto> body = response.body();
-                    // If backend returns a non-empty list, sync it to local DB.
+                // Only revalidate when the last full download was stored completely; a row
+                // count alone says nothing, since the seeders fill the table on first launch.
+                // An emptied table must refetch either way
+                boolean haveLocalCopy = validatorStore.hasCompletedSync(CATALOGUE_RESOURCE)
+                        && productDao.count() > 0;
+                String etag = haveLocalCopy ? validatorStore.getEtag(CATALOGUE_RESOURCE) : null;
+                String lastModified = haveLocalCopy ? validatorStore.getLastModified(CATALOGUE_RESOURCE) : null;
+
+                Response<ResponseBody> response =
+                        inventoryApi.streamProducts(etag, lastModified).execute();
+                if (response.code() == HTTP_NOT_MODIFIED) {
+                    // Catalogue unchanged: nothing to parse, nothing to write
+                    android.util.Log.d("InventoryRepository", "Catalogue not modified (304)");
+                    result.postValue(ApiResult.success(null));
+                } else if (response.isSuccessful() && response.body() != null) {
+                    // Parse element by element and upsert in fixed-size chunks, so heap use
+                    // does not grow with catalogue size (only the id set used for pruning does).
+                    // Chunks are applied as they arrive, on purpose: if the stream breaks
+                    // half-way, the rows written so far are the backend's current ones, nothing
+                    // is pruned and the sync marker stays cleared, so the next refresh refetches
+                    // in full. Staging the whole catalogue would hold it in memory or keep a write
+                    // transaction open for the length of the download.
+                    validatorStore.clear(CATALOGUE_RESOURCE);
+                    Set<Long> receivedIds = new HashSet<>();
+                    int count = JsonArrayStreamer.<ProductResponseDto, ProductEntity>stream(
+                            response.body(),
+                            gson,
+                            ProductResponseDto.class,
+                            STREAM_CHUNK_SIZE,
+                            DataMappers::toEntity,
+                            chunk -> {
+                                // Wait for each chunk, so the stream is only read as fast as it is stored
+                                writer.execute(() -> productDao.upsertAll(chunk)).join();
+                                for (ProductEntity entity : chunk) {
+                                    receivedIds.add(entity.getId());
+                                }
+                            });
+                    // If backend returns a non-empty list, it replaces the local catalogue.
                     // If it's null or empty, keep existing local products so
                     // Create Order and Inventory still work offline and with
                     // locally-seeded menu items.
-                    if (body != null && !body.isEmpty()) {
-                        List<ProductEntity> entities = DataMappers.toProductEntities(body);
-                        productDao.clear();
-                        productDao.insertAll(entities);
+                    if (count > 0) {
+                        writer.execute(() -> pruneProductsNotIn(receivedIds)).join();
+                        // Mark the sync complete only once the rows the validators describe are stored
+                        validatorStore.save(CATALOGUE_RESOURCE,
+                                response.headers().get("ETag"),
+                                response.headers().get("Last-Modified"));
                     }
+                    android.util.Log.d("InventoryRepository", "Streamed " + count + " products");
                     result.postValue(ApiResult.success(null));
                 } else {
                     result.postValue(ApiResult.error(extractError(response)));
                 }
-            } catch (IOException e) {
+            } catch (IOException | CompletionException e) {
                 result.postValue(ApiResult.error(e.getMessage()));
             }
         });
@@ -64,6 +127,26 @@ public class InventoryRepository {
         return result;
     }
 
+    /**
+     * Delete local rows the backend no longer lists, in chunks that stay under
+     * SQLite's bound-variable limit. Runs on the writer.
+     */
+    private void pruneProductsNotIn(Set<Long> keepIds) {
+        List<Long> stale = new ArrayList<>();
+        for (Long id : productDao.getAllIds()) {
+            if (!keepIds.contains(id)) {
+                stale.add(id);
+            }
+            if (stale.size() == STREAM_CHUNK_SIZE) {
+                productDao.deleteByIds(stale);
+                stale = new ArrayList<>();
+            }
+        }
+        if (!stale.isEmpty()) {
+            productDao.deleteByIds(stale);
+        }
+    }
+
     public LiveData<ApiResult<ProductEntity>> createProduct(ProductPayloadDto payload) {
         MutableLiveData<ApiResult<ProductEntity>> liveData = new MutableLiveData<>(ApiResult.loading());
 
@@ -72,8 +155,7 @@ public class InventoryRepository {
                 Response<ProductResponseDto> response = inventoryApi.createProduct(payload).execute();
                 if (response.isSuccessful() && response.body() != null) {
                     ProductEntity entity = DataMappers.toEntity(response.body());
-                    productDao.insert(entity);
-                    liveData.postValue(ApiResult.success(entity));
+                    postWhenStored(liveData, writer.execute(() -> productDao.insert(entity)), entity);
                 } else {
                     liveData.postValue(ApiResult.error(extractError(response)));
                 }
@@ -93,8 +175,7 @@ public class InventoryRepository {
                 Response<ProductResponseDto> response = inventoryApi.updateProduct(id, payload).execute();
                 if (response.isSuccessful() && response.body() != null) {
                     ProductEntity entity = DataMappers.toEntity(response.body());
-                    productDao.insert(entity);
-                    liveData.postValue(ApiResult.success(entity));
+                    postWhenStored(liveData, writer.execute(() -> productDao.insert(entity)), entity);
                 } else {
                     liveData.postValue(ApiResult.error(extractError(response)));
                 }
@@ -113,8 +194,7 @@ public class InventoryRepository {
             try {
                 Response<Void> response = inventoryApi.deleteProduct(id).execute();
                 if (response.isSuccessful()) {
-                    productDao.delete(id);
-                    liveData.postValue(ApiResult.success(null));
+                    postWhenStored(liveData, writer.execute(() -> productDao.delete(id)), null);
                 } else {
                     liveData.postValue(ApiResult.error(extractError(response)));
                 }
@@ -136,12 +216,14 @@ public class InventoryRepository {
                 ).execute();
 
                 if (response.isSuccessful()) {
-                    ProductEntity entity = productDao.getById(productId);
-                    if (entity != null) {
-                        entity.setQuantity(entity.getQuantity() + quantityChange);
-                        productDao.update(entity);
-                    }
-                    liveData.postValue(ApiResult.success(null));
+                    CompletableFuture<Void> stored = writer.execute(() -> {
+                        ProductEntity entity = productDao.getById(productId);
+                        if (entity != null) {
+                            entity.setQuantity(entity.getQuantity() + quantityChange);
+                            productDao.update(entity);
+                        }
+                    });
+                    postWhenStored(liveData, stored, null);
                 } else {
                     liveData.postValue(ApiResult.error(extractError(response)));
                 }
@@ -167,8 +249,8 @@ public class InventoryRepository {
                                                                       String status) {
         MutableLiveData<ApiResult<ProductEntity>> liveData = new MutableLiveData<>(ApiResult.loading());
 
-        executorService.execute(() -> {
-            // First, update locally immediately
+        // First, update locally: read and write in one writer task, so nothing lands in between
+        writer.submit(() -> {
             ProductEntity entity = productDao.getById(id);
             if (entity != null) {
                 entity.setName(name);
@@ -180,40 +262,57 @@ public class InventoryRepository {
                 entity.setStatus(status);
                 entity.setUpdatedAt(java.time.OffsetDateTime.now());
                 productDao.update(entity);
-                
-                // CRITICAL: Room LiveData will automatically trigger observers
-                // This ensures RealTimeAvailabilityManager immediately recalculates availability
-                // Works 100% offline - no internet required
-                android.util.Log.d("InventoryRepository", "Updated product locally: " + entity.getName() + 
-                    " (quantity: " + quantity + ") - Room LiveData will trigger availability recalculation");
-                
-                // Post success immediately for UI update
-                liveData.postValue(ApiResult.success(entity));
-            } else {
+            }
+            return entity;
+        }).whenComplete((entity, error) -> {
+            if (error != null) {
+                liveData.postValue(ApiResult.error(error.getMessage()));
+                return;
+            }
+            if (entity == null) {
                 liveData.postValue(ApiResult.error("Product not found"));
                 return;
             }
+            // CRITICAL: Room LiveData will automatically trigger observers
+            // This ensures RealTimeAvailabilityManager immediately recalculates availability
+            // Works 100% offline - no internet required
+            android.util.Log.d("InventoryRepository", "Updated product locally: " + entity.getName() +
+                " (quantity: " + quantity + ") - Room LiveData will trigger availability recalculation");
+
+            // Post success immediately for UI update
+            liveData.postValue(ApiResult.success(entity));
 
             // Then, sync with backend in the background (non-blocking)
-            try {
-                // Cast double to int for backend DTO (backend expects int)
-                ProductPayloadDto payload = new ProductPayloadDto(name, category, supplier, cost, price, (int) quantity);
-                Response<ProductResponseDto> response = inventoryApi.updateProduct(id, payload).execute();
-                if (response.isSuccessful() && response.body() != null) {
-                    ProductEntity updatedEntity = DataMappers.toEntity(response.body());
-                    productDao.insert(updatedEntity); // Update with backend response
-                    // Don't post again - already posted success above
+            executorService.execute(() -> {
+                try {
+                    // Cast double to int for backend DTO (backend expects int)
+                    ProductPayloadDto payload = new ProductPayloadDto(name, category, supplier, cost, price, (int) quantity);
+                    Response<ProductResponseDto> response = inventoryApi.updateProduct(id, payload).execute();
+                    if (response.isSuccessful() && response.body() != null) {
+                        ProductEntity updatedEntity = DataMappers.toEntity(response.body());
+                        writer.execute(() -> productDao.insert(updatedEntity)); // Update with backend response
+                        // Don't post again - already posted success above
+                    }
+                    // If backend fails, local update is already done, so we don't show error
+                } catch (IOException e) {
+                    // Silently fail - local update is already done
+                    android.util.Log.w("InventoryRepository", "Backend sync failed, but local update succeeded", e);
                 }
-                // If backend fails, local update is already done, so we don't show error
-            } catch (IOException e) {
-                // Silently fail - local update is already done
-                android.util.Log.w("InventoryRepository", "Backend sync failed, but local update succeeded", e);
-            }
+            });
         });
 
         return liveData;
     }
 
+    /**
+     * Post success once the local write has committed, or its error if it failed.
+     */
+    private static <T> void postWhenStored(MutableLiveData<ApiResult<T>> liveData,
+                                           CompletableFuture<?> stored, T value) {
+        stored.whenComplete((ignored, error) -> liveData.postValue(
+                error == null ? ApiResult.success(value) : ApiResult.error(error.getMessage())));
+    }
+
     private String extractError(Response<?> response) {
         if (response == null) {
             return "Unknown error";
@@ -0,0 +1,88 @@
+package com.loretacafe.pos.data.repository;
+
+import android.os.SystemClock;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.loretacafe.pos.data.local.dao.ProductDao;
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.local.model.MenuCatalog;
+import com.loretacafe.pos.data.util.AppExecutors;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the one {@link MenuCatalog} shared by the order and menu screens.
+ * Room re-emits the menu query on every products write (stock deductions
+ * included); each emission is fingerprinted off the main thread and the
+ * catalogue is only rebuilt, and observers only notified, when something a
+ * menu tile shows has actually changed.
+ */
+public class MenuCatalogRepository {
+
+    private static final String TAG = "MenuCatalogRepository";
+
+    private final MediatorLiveData<MenuCatalog> catalog = new MediatorLiveData<>();
+    private final Executor executor;
+    private final AtomicLong emissions = new AtomicLong();
+    private volatile MenuCatalog current;
+
+    public MenuCatalogRepository(ProductDao productDao) {
+        this(productDao.observeMenuProducts(), AppExecutors.get().diskRead());
+    }
+
+    /**
+     * Tests feed the menu rows themselves and fingerprint on a thread of their choosing.
+     */
+    @VisibleForTesting
+    MenuCatalogRepository(LiveData<List<ProductEntity>> source, Executor executor) {
+        this.executor = executor;
+        catalog.addSource(source, this::onProducts);
+    }
+
+    /**
+     * The current catalogue, re-emitted only when menu content changes.
+     * May start with {@link MenuCatalog#EMPTY} before seeding has run.
+     */
+    public LiveData<MenuCatalog> observe() {
+        return catalog;
+    }
+
+    /**
+     * Latest built catalogue, or null before the first one is ready.
+     */
+    public MenuCatalog getCurrent() {
+        return current;
+    }
+
+    private void onProducts(List<ProductEntity> products) {
+        if (products == null) {
+            return;
+        }
+        long emission = emissions.incrementAndGet();
+        executor.execute(() -> {
+            long fingerprint = MenuCatalog.fingerprint(products);
+            MenuCatalog previous = current;
+            if (previous != null && previous.getFingerprint() == fingerprint) {
+                return;
+            }
+            long start = SystemClock.elapsedRealtime();
+            MenuCatalog built = products.isEmpty() ? MenuCatalog.EMPTY : MenuCatalog.build(products, fingerprint);
+            synchronized (this) {
+                // A newer emission was queued while we built; let it win
+                if (emission != emissions.get()) {
+                    return;
+                }
+                current = built;
+            }
+            android.util.Log.d(TAG, "📋 Menu catalogue rebuilt: " + built.size() + " items, "
+                    + built.getCategories().size() + " categories in "
+                    + (SystemClock.elapsedRealtime() - start) + "ms");
+            catalog.postValue(built);
+        });
+    }
+}
@@ -12,12 +12,12 @@ import com.loretacafe.pos.data.remote.dto.SalesReportRequestDto;
 import com.loretacafe.pos.data.remote.dto.SalesSummaryDto;
 import com.loretacafe.pos.data.session.SessionManager;
 import com.loretacafe.pos.data.util.ApiResult;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import retrofit2.Response;
 
@@ -26,7 +26,7 @@ public class ReportRepository {
     private final ReportsApi reportsApi;
     private final ReportDao reportDao;
     private final SessionManager sessionManager;
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final ExecutorService executorService = AppExecutors.get().network();
 
     public ReportRepository(ReportsApi reportsApi, ReportDao reportDao, SessionManager sessionManager) {
         this.reportsApi = reportsApi;
@@ -15,18 +15,19 @@ import com.loretacafe.pos.data.local.entity.SaleEntity;
 import com.loretacafe.pos.data.local.entity.SaleItemEntity;
 import com.loretacafe.pos.data.local.model.SaleWithItems;
 import com.loretacafe.pos.data.mapper.DataMappers;
+import com.loretacafe.pos.data.remote.ApiClient;
 import com.loretacafe.pos.data.remote.api.SalesApi;
 import com.loretacafe.pos.data.remote.dto.SaleRequestDto;
 import com.loretacafe.pos.data.remote.dto.SaleResponseDto;
 import com.loretacafe.pos.data.remote.dto.SaleResponseItemDto;
 import com.loretacafe.pos.data.util.ApiResult;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import retrofit2.Response;
 
@@ -38,7 +39,7 @@ public class SalesRepository {
     private final ProductDao productDao;
     private final PendingSyncDao pendingSyncDao;
     private final Gson gson;
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final ExecutorService executorService = AppExecutors.get().network();
 
     public SalesRepository(SalesApi salesApi,
                            SaleDao saleDao,
@@ -62,7 +63,8 @@ public class SalesRepository {
         MutableLiveData<ApiResult<SaleResponseDto>> liveData = new MutableLiveData<>(ApiResult.loading());
 
         executorService.execute(() -> {
-            if (isOnline) {
+            // Skip straight to the offline queue while the backend circuit is open
+            if (isOnline && !ApiClient.getCircuitBreaker().isOpen()) {
                 try {
                     Response<SaleResponseDto> response = salesApi.createSale(requestDto).execute();
                     if (response.isSuccessful() && response.body() != null) {
@@ -9,11 +9,11 @@ import com.loretacafe.pos.data.local.entity.PendingSyncType;
 import com.loretacafe.pos.data.remote.api.InventoryApi;
 import com.loretacafe.pos.data.remote.api.SalesApi;
 import com.loretacafe.pos.data.remote.dto.SaleRequestDto;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import retrofit2.Response;
 
@@ -26,7 +26,7 @@ public class SyncRepository {
     private final SalesApi salesApi;
     private final InventoryApi inventoryApi;
     private final Gson gson;
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final ExecutorService executorService = AppExecutors.get().network();
 
     public SyncRepository(PendingSyncDao pendingSyncDao,
                           SalesApi salesApi,
@@ -1,25 +1,117 @@
 package com.loretacafe.pos.data.util;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import android.os.Handler;
+import android.os.Looper;
 
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Process-wide thread pools. All background work goes through one of these
+ * instead of {@code new Thread()}, so thread count stays bounded and every pool
+ * reports its queue depth and latency.
+ *
+ * <ul>
+ *   <li>{@link #diskWrite()} – the single thread that performs database mutations;
+ *   hot write paths queue on {@link com.loretacafe.pos.data.local.DatabaseWriter},
+ *   which runs here and group-commits them</li>
+ *   <li>{@link #diskRead()} – small pool for queries (WAL lets them run beside the writer)</li>
+ *   <li>{@link #network()} – HTTP, Firebase and e-mail calls</li>
+ *   <li>{@link #printer()} – Bluetooth printer I/O, one job at a time</li>
+ *   <li>{@link #compute()} – short CPU-bound jobs such as list diffs; never blocks on I/O</li>
+ *   <li>{@link #mainThread()} – posts to the UI thread</li>
+ * </ul>
+ *
+ * Screens that load data should use {@link #tasksFor(LifecycleOwner)} so the work is
+ * cancelled when the screen is destroyed. Writes are never tied to a lifecycle.
+ */
 public final class AppExecutors {
 
-    private final ExecutorService ioExecutor;
+    private static final int NETWORK_THREADS = 4;
+    private static final int COMPUTE_THREADS = 2;
+
+    private static volatile AppExecutors instance;
 
-    private AppExecutors(int poolSize) {
-        this.ioExecutor = Executors.newFixedThreadPool(poolSize);
+    private final MeteredExecutor diskWrite;
+    private final MeteredExecutor diskRead;
+    private final MeteredExecutor network;
+    private final MeteredExecutor printer;
+    private final MeteredExecutor compute;
+    private final Executor mainThread;
+
+    private AppExecutors(int readThreads) {
+        this.diskWrite = new MeteredExecutor("db-write", 1);
+        this.diskRead = new MeteredExecutor("db-read", readThreads);
+        this.network = new MeteredExecutor("network", NETWORK_THREADS);
+        this.printer = new MeteredExecutor("printer", 1);
+        this.compute = new MeteredExecutor("compute", COMPUTE_THREADS);
+        this.mainThread = new MainThreadExecutor();
     }
 
-    public static AppExecutors createDefault() {
-        int cores = Runtime.getRuntime().availableProcessors();
-        // Ensure at least two threads so disk + network work can overlap
-        int poolSize = Math.max(2, cores);
-        return new AppExecutors(poolSize);
+    public static AppExecutors get() {
+        if (instance == null) {
+            synchronized (AppExecutors.class) {
+                if (instance == null) {
+                    int cores = Runtime.getRuntime().availableProcessors();
+                    // Ensure at least two readers, but no more than SQLite's connection pool can serve
+                    instance = new AppExecutors(Math.max(2, Math.min(4, cores)));
+                }
+            }
+        }
+        return instance;
     }
 
-    public ExecutorService io() {
-        return ioExecutor;
+    public MeteredExecutor diskWrite() {
+        return diskWrite;
+    }
+
+    public MeteredExecutor diskRead() {
+        return diskRead;
+    }
+
+    public MeteredExecutor network() {
+        return network;
+    }
+
+    public MeteredExecutor printer() {
+        return printer;
     }
-}
 
+    public MeteredExecutor compute() {
+        return compute;
+    }
+
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    /**
+     * Work scoped to a screen: pending and running tasks are cancelled on ON_DESTROY.
+     */
+    public LifecycleTasks tasksFor(@NonNull LifecycleOwner owner) {
+        return new LifecycleTasks(this, owner);
+    }
+
+    public List<MeteredExecutor.Stats> stats() {
+        List<MeteredExecutor.Stats> stats = new ArrayList<>(5);
+        stats.add(diskWrite.stats());
+        stats.add(diskRead.stats());
+        stats.add(network.stats());
+        stats.add(printer.stats());
+        stats.add(compute.stats());
+        return stats;
+    }
+
+    private static final class MainThreadExecutor implements Executor {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            handler.post(command);
+        }
+    }
+}
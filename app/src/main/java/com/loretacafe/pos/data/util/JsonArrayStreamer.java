@@ -0,0 +1,76 @@
+package com.loretacafe.pos.data.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+
+/**
+ * Reads a top-level JSON array element by element and hands the mapped results
+ * to a sink in fixed-size chunks, so peak heap is bounded by the chunk size
+ * rather than by the payload size.
+ */
+public final class JsonArrayStreamer {
+
+    public interface ElementMapper<D, E> {
+        E map(D dto);
+    }
+
+    public interface ChunkSink<E> {
+        void accept(List<E> chunk);
+    }
+
+    private JsonArrayStreamer() {
+    }
+
+    /**
+     * @return number of elements read; an empty body or JSON null counts as 0
+     */
+    public static <D, E> int stream(ResponseBody body,
+                                    Gson gson,
+                                    Class<D> dtoType,
+                                    int chunkSize,
+                                    ElementMapper<D, E> mapper,
+                                    ChunkSink<E> sink) throws IOException {
+        TypeAdapter<D> adapter = gson.getAdapter(dtoType);
+        int total = 0;
+        if (body.contentLength() == 0) {
+            body.close();
+            return 0;
+        }
+        try (ResponseBody closeable = body; JsonReader reader = gson.newJsonReader(closeable.charStream())) {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return 0;
+            }
+
+            List<E> chunk = new ArrayList<>(chunkSize);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                D dto = adapter.read(reader);
+                if (dto != null) {
+                    chunk.add(mapper.map(dto));
+                    total++;
+                }
+                if (chunk.size() == chunkSize) {
+                    sink.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            reader.endArray();
+            if (!chunk.isEmpty()) {
+                sink.accept(chunk);
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("Malformed JSON array", e);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,90 @@
+package com.loretacafe.pos.data.util;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Background work owned by one screen. Everything submitted here is cancelled
+ * (and interrupted if running) when the owner is destroyed, so a closed screen
+ * stops loading data it will never show. Use it for reads and network lookups;
+ * writes go straight to {@link AppExecutors#diskWrite()} and always complete.
+ */
+public final class LifecycleTasks implements LifecycleEventObserver {
+
+    private final AppExecutors executors;
+    private final Set<Future<?>> pending = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+    private volatile boolean destroyed;
+
+    LifecycleTasks(AppExecutors executors, LifecycleOwner owner) {
+        this.executors = executors;
+        owner.getLifecycle().addObserver(this);
+    }
+
+    public Future<?> read(@NonNull Runnable task) {
+        return submit(executors.diskRead(), task);
+    }
+
+    public Future<?> network(@NonNull Runnable task) {
+        return submit(executors.network(), task);
+    }
+
+    public Future<?> printer(@NonNull Runnable task) {
+        return submit(executors.printer(), task);
+    }
+
+    /**
+     * Post to the UI thread unless the owner has been destroyed in the meantime.
+     */
+    public void main(@NonNull Runnable task) {
+        executors.mainThread().execute(() -> {
+            if (!destroyed) {
+                task.run();
+            }
+        });
+    }
+
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    private Future<?> submit(ExecutorService executor, Runnable task) {
+        if (destroyed) {
+            android.util.Log.d("LifecycleTasks", "Owner destroyed, dropping task");
+            return java.util.concurrent.CompletableFuture.completedFuture(null);
+        }
+        Future<?> future = executor.submit(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // submit() would otherwise keep the failure inside the Future
+                android.util.Log.e("LifecycleTasks", "Background task failed", e);
+                throw e;
+            }
+        });
+        pending.add(future);
+        return future;
+    }
+
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            destroyed = true;
+            source.getLifecycle().removeObserver(this);
+            synchronized (pending) {
+                for (Future<?> future : pending) {
+                    future.cancel(true);
+                }
+                pending.clear();
+            }
+        }
+    }
+}
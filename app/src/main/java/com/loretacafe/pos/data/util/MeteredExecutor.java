@@ -0,0 +1,138 @@
+package com.loretacafe.pos.data.util;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size named pool that records how long tasks wait in the queue and how
+ * long they run. A task that waited longer than {@link #SLOW_WAIT_MS} is logged,
+ * which is the first sign that a pool is saturated.
+ */
+public class MeteredExecutor extends ThreadPoolExecutor {
+
+    private static final String TAG = "AppExecutors";
+    private static final long SLOW_WAIT_MS = 250;
+
+    private final String name;
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    MeteredExecutor(String name, int threads) {
+        super(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory(name));
+        this.name = name;
+        // Idle pools give their threads back instead of pinning them for the app's lifetime
+        allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        super.execute(new TimedTask(command, System.nanoTime()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Stats stats() {
+        long done = completed.get();
+        return new Stats(
+                name,
+                getQueue().size(),
+                getActiveCount(),
+                done,
+                done == 0 ? 0 : totalWaitNanos.get() / done / 1_000_000L,
+                maxWaitNanos.get() / 1_000_000L,
+                done == 0 ? 0 : totalRunNanos.get() / done / 1_000_000L
+        );
+    }
+
+    private void record(long waitNanos, long runNanos) {
+        completed.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        totalRunNanos.addAndGet(runNanos);
+        long max;
+        while (waitNanos > (max = maxWaitNanos.get()) && !maxWaitNanos.compareAndSet(max, waitNanos)) {
+            // retry
+        }
+        if (waitNanos / 1_000_000L > SLOW_WAIT_MS) {
+            Log.w(TAG, name + ": task waited " + waitNanos / 1_000_000L + " ms (queue depth "
+                    + getQueue().size() + ")");
+        }
+    }
+
+    private final class TimedTask implements Runnable {
+        private final Runnable delegate;
+        private final long enqueuedAt;
+
+        TimedTask(Runnable delegate, long enqueuedAt) {
+            this.delegate = delegate;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            try {
+                delegate.run();
+            } finally {
+                record(start - enqueuedAt, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static final class NamedThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Point-in-time view of a pool; latencies are in milliseconds.
+     */
+    public static final class Stats {
+        public final String name;
+        public final int queueDepth;
+        public final int active;
+        public final long completed;
+        public final long avgWaitMs;
+        public final long maxWaitMs;
+        public final long avgRunMs;
+
+        Stats(String name, int queueDepth, int active, long completed,
+              long avgWaitMs, long maxWaitMs, long avgRunMs) {
+            this.name = name;
+            this.queueDepth = queueDepth;
+            this.active = active;
+            this.completed = completed;
+            this.avgWaitMs = avgWaitMs;
+            this.maxWaitMs = maxWaitMs;
+            this.avgRunMs = avgRunMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return name + "{queue=" + queueDepth + ", active=" + active + ", done=" + completed
+                    + ", wait avg/max=" + avgWaitMs + "/" + maxWaitMs + "ms, run avg=" + avgRunMs + "ms}";
+        }
+    }
+}
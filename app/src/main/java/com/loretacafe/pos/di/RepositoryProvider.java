@@ -1,117 +1,193 @@
 package com.loretacafe.pos.di;
 
 import android.content.Context;
+import android.os.SystemClock;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
 import com.loretacafe.pos.data.remote.ApiClient;
+import com.loretacafe.pos.data.remote.HttpValidatorStore;
 import com.loretacafe.pos.data.remote.api.AuthApi;
 import com.loretacafe.pos.data.remote.api.InventoryApi;
 import com.loretacafe.pos.data.remote.api.ReportsApi;
 import com.loretacafe.pos.data.remote.api.SalesApi;
 import com.loretacafe.pos.data.repository.AuthRepository;
 import com.loretacafe.pos.data.repository.InventoryRepository;
+import com.loretacafe.pos.data.repository.MenuCatalogRepository;
 import com.loretacafe.pos.data.repository.ReportRepository;
 import com.loretacafe.pos.data.repository.SalesRepository;
 import com.loretacafe.pos.data.repository.SyncRepository;
 import com.loretacafe.pos.data.session.SessionManager;
 import com.loretacafe.pos.data.util.AppExecutors;
 
-import retrofit2.Retrofit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
+/**
+ * Builds repositories and their dependencies on first use. Constructing the
+ * provider itself does no work, so screens that only touch the local database
+ * never pay for Retrofit, Gson or API services. Every getter is thread-safe.
+ */
 public class RepositoryProvider {
 
+    private static final String TAG = "RepositoryProvider";
+
     private final Context applicationContext;
-    private final AppDatabase database;
-    private final SessionManager sessionManager;
-    private final Retrofit retrofit;
-    private final Gson gson;
-    private final AppExecutors executors;
-
-    private AuthRepository authRepository;
-    private InventoryRepository inventoryRepository;
-    private SalesRepository salesRepository;
-    private ReportRepository reportRepository;
-    private SyncRepository syncRepository;
+    private final Map<String, Long> constructionMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private final Lazy<SessionManager> sessionManager;
+    private final Lazy<AppDatabase> database;
+    private final Lazy<Gson> gson;
+
+    private final Lazy<AuthApi> authApi;
+    private final Lazy<InventoryApi> inventoryApi;
+    private final Lazy<SalesApi> salesApi;
+    private final Lazy<ReportsApi> reportsApi;
+
+    private final Lazy<AuthRepository> authRepository;
+    private final Lazy<InventoryRepository> inventoryRepository;
+    private final Lazy<SalesRepository> salesRepository;
+    private final Lazy<ReportRepository> reportRepository;
+    private final Lazy<SyncRepository> syncRepository;
+    private final Lazy<MenuCatalogRepository> menuCatalogRepository;
 
     public RepositoryProvider(Context context) {
         this.applicationContext = context.getApplicationContext();
-        this.sessionManager = new SessionManager(applicationContext);
-        this.database = AppDatabase.getInstance(applicationContext);
-        this.retrofit = ApiClient.getRetrofit(applicationContext);
-        this.gson = new GsonBuilder()
+
+        sessionManager = lazy("SessionManager", () -> new SessionManager(applicationContext));
+        database = lazy("AppDatabase", () -> AppDatabase.getInstance(applicationContext));
+        gson = lazy("Gson", () -> new GsonBuilder()
                 .setDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX")
-                .create();
-        this.executors = AppExecutors.createDefault();
+                .create());
+
+        // Services are created from the current Retrofit, so one built after discovery
+        // changed the base URL picks the new URL up
+        authApi = lazy("AuthApi", () -> retrofit().create(AuthApi.class));
+        inventoryApi = lazy("InventoryApi", () -> retrofit().create(InventoryApi.class));
+        salesApi = lazy("SalesApi", () -> retrofit().create(SalesApi.class));
+        reportsApi = lazy("ReportsApi", () -> retrofit().create(ReportsApi.class));
+
+        authRepository = lazy("AuthRepository", () -> new AuthRepository(
+                authApi.get(),
+                database.get().userDao(),
+                sessionManager.get(),
+                AppExecutors.get().network(),
+                gson.get()
+        ));
+        inventoryRepository = lazy("InventoryRepository", () -> new InventoryRepository(
+                inventoryApi.get(),
+                database.get().productDao(),
+                DatabaseWriter.getInstance(applicationContext),
+                new HttpValidatorStore(applicationContext),
+                gson.get()
+        ));
+        salesRepository = lazy("SalesRepository", () -> new SalesRepository(
+                salesApi.get(),
+                database.get().saleDao(),
+                database.get().saleItemDao(),
+                database.get().productDao(),
+                database.get().pendingSyncDao(),
+                gson.get()
+        ));
+        reportRepository = lazy("ReportRepository", () -> new ReportRepository(
+                reportsApi.get(),
+                database.get().reportDao(),
+                sessionManager.get()
+        ));
+        syncRepository = lazy("SyncRepository", () -> new SyncRepository(
+                database.get().pendingSyncDao(),
+                salesApi.get(),
+                inventoryApi.get(),
+                gson.get()
+        ));
+        menuCatalogRepository = lazy("MenuCatalogRepository", () -> new MenuCatalogRepository(
+                database.get().productDao()
+        ));
     }
 
     public SessionManager getSessionManager() {
-        return sessionManager;
+        return sessionManager.get();
     }
 
     public AuthRepository getAuthRepository() {
-        if (authRepository == null) {
-            authRepository = new AuthRepository(
-                    retrofit.create(AuthApi.class),
-                    database.userDao(),
-                    sessionManager,
-                    executors.io(),
-                    gson
-            );
-        }
-        return authRepository;
+        return authRepository.get();
     }
 
     public InventoryRepository getInventoryRepository() {
-        if (inventoryRepository == null) {
-            inventoryRepository = new InventoryRepository(
-                    retrofit.create(InventoryApi.class),
-                    database.productDao()
-            );
-        }
-        return inventoryRepository;
+        return inventoryRepository.get();
     }
 
     public SalesRepository getSalesRepository() {
-        if (salesRepository == null) {
-            salesRepository = new SalesRepository(
-                    retrofit.create(SalesApi.class),
-                    database.saleDao(),
-                    database.saleItemDao(),
-                    database.productDao(),
-                    database.pendingSyncDao(),
-                    gson
-            );
-        }
-        return salesRepository;
+        return salesRepository.get();
     }
 
     public ReportRepository getReportRepository() {
-        if (reportRepository == null) {
-            reportRepository = new ReportRepository(
-                    retrofit.create(ReportsApi.class),
-                    database.reportDao(),
-                    sessionManager
-            );
-        }
-        return reportRepository;
+        return reportRepository.get();
     }
 
     public SyncRepository getSyncRepository() {
-        if (syncRepository == null) {
-            syncRepository = new SyncRepository(
-                    database.pendingSyncDao(),
-                    retrofit.create(SalesApi.class),
-                    retrofit.create(InventoryApi.class),
-                    gson
-            );
-        }
-        return syncRepository;
+        return syncRepository.get();
+    }
+
+    public MenuCatalogRepository getMenuCatalogRepository() {
+        return menuCatalogRepository.get();
     }
 
     public AppDatabase getDatabase() {
-        return database;
+        return database.get();
     }
-}
 
+    /**
+     * How long each dependency took to build, in construction order. Nested
+     * dependencies are included in their parent's time.
+     */
+    public Map<String, Long> getConstructionTimings() {
+        synchronized (constructionMillis) {
+            return new LinkedHashMap<>(constructionMillis);
+        }
+    }
+
+    private retrofit2.Retrofit retrofit() {
+        return ApiClient.getRetrofit(applicationContext);
+    }
+
+    private <T> Lazy<T> lazy(String name, Supplier<T> factory) {
+        return new Lazy<>(name, factory);
+    }
+
+    private final class Lazy<T> {
+        private final String name;
+        private Supplier<T> factory;
+        private volatile T value;
+
+        Lazy(String name, Supplier<T> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        long start = SystemClock.elapsedRealtime();
+                        result = factory.get();
+                        long elapsed = SystemClock.elapsedRealtime() - start;
+                        value = result;
+                        // Let the factory (and everything it captured) be collected
+                        factory = null;
+                        constructionMillis.put(name, elapsed);
+                        android.util.Log.d(TAG, "⏱️ Built " + name + " in " + elapsed + "ms on "
+                                + Thread.currentThread().getName());
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.loretacafe.pos.draft;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.loretacafe.pos.CartItem;
+import com.loretacafe.pos.CartManager;
+import com.loretacafe.pos.Ticket;
+import com.loretacafe.pos.TicketManager;
+import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
+import com.loretacafe.pos.data.local.dao.DraftOrderDao;
+import com.loretacafe.pos.data.local.entity.DraftOrderRecordEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Crash-safe drafts of the open tickets.
+ *
+ * <p>Each ticket's cart changes are appended to a journal table as small
+ * records (see {@link DraftRecords}) under the ticket's id, through the
+ * {@link DatabaseWriter}, so a tap only queues a write and a burst of taps
+ * shares one commit. After {@link #COMPACT_AFTER} records a draft is folded
+ * into a single snapshot record. Closing a ticket, which includes checking it
+ * out, or emptying its cart deletes the draft.
+ *
+ * <p>On launch, {@link #recover()} replays the journal and reopens every
+ * draft as a ticket. The one that was active becomes active again, unless the
+ * cashier has already started a new order by then.
+ */
+public final class DraftOrderStore implements TicketManager.Listener {
+
+    private static final String TAG = "DraftOrderStore";
+
+    /** Records per draft before they are folded into a snapshot. */
+    static final int COMPACT_AFTER = 64;
+
+    private static volatile DraftOrderStore instance;
+
+    private final DatabaseWriter writer;
+    private final DraftOrderDao dao;
+    private final TicketManager ticketManager;
+
+    // Records written per draft since its last snapshot; a draft without an entry has no records
+    private final Map<String, Integer> recordCounts = new HashMap<>();
+
+    // Main thread only
+    private final Set<String> closedBeforeRecovery = new HashSet<>();
+    private boolean recovered;
+
+    private DraftOrderStore(Context context) {
+        this(AppDatabase.getInstance(context).draftOrderDao(), DatabaseWriter.getInstance(context),
+                TicketManager.getInstance());
+    }
+
+    /**
+     * Use {@link #getInstance(Context)}; tests pass their own journal, writer and tickets.
+     */
+    @VisibleForTesting
+    DraftOrderStore(DraftOrderDao dao, DatabaseWriter writer, TicketManager ticketManager) {
+        this.dao = dao;
+        this.writer = writer;
+        this.ticketManager = ticketManager;
+        ticketManager.setListener(this);
+    }
+
+    /**
+     * Cheap; the first call starts journaling the tickets. Call it early
+     * (Application.onCreate) so no change goes unrecorded.
+     */
+    @MainThread
+    public static DraftOrderStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (DraftOrderStore.class) {
+                if (instance == null) {
+                    instance = new DraftOrderStore(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Read the journal and reopen the drafts as tickets. Runs once; the tickets
+     * are opened on the main thread.
+     */
+    @WorkerThread
+    public void recover() {
+        List<DraftOrderRecordEntity> records;
+        try {
+            records = dao.getAll();
+        } catch (Exception e) {
+            Log.e(TAG, "Error reading draft orders", e);
+            return;
+        }
+        Map<String, DraftRecords.Draft> drafts = DraftRecords.replay(records);
+        Map<String, Integer> counts = new HashMap<>();
+        for (DraftOrderRecordEntity record : records) {
+            Integer count = counts.get(record.getDraftId());
+            counts.put(record.getDraftId(), count != null ? count + 1 : 1);
+        }
+        Log.d(TAG, "Replayed " + records.size() + " records into " + drafts.size() + " draft(s)");
+        AppExecutors.get().mainThread().execute(() -> applyRecovered(drafts, counts));
+    }
+
+    @MainThread
+    private void applyRecovered(Map<String, DraftRecords.Draft> drafts, Map<String, Integer> counts) {
+        if (recovered) {
+            return;
+        }
+        recovered = true;
+        synchronized (recordCounts) {
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                if (!recordCounts.containsKey(entry.getKey())) {
+                    recordCounts.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        // The ticket that was last made active; one never switched to counts by its last change
+        DraftRecords.Draft latest = null;
+        for (DraftRecords.Draft draft : drafts.values()) {
+            if (!draft.lines.isEmpty() && (latest == null
+                    || draft.activatedAt > latest.activatedAt
+                    || (draft.activatedAt == latest.activatedAt && draft.updatedAt >= latest.updatedAt))) {
+                latest = draft;
+            }
+        }
+        int restored = 0;
+        for (DraftRecords.Draft draft : drafts.values()) {
+            if (closedBeforeRecovery.contains(draft.id)) {
+                continue; // Checked out or discarded before the journal was read
+            }
+            if (draft.lines.isEmpty()) {
+                // Nothing worth keeping, e.g. every line was removed one by one
+                discardRecords(draft.id);
+                continue;
+            }
+            // Reopening journals a snapshot of the same draft, which also compacts it
+            ticketManager.restore(draft.id, draft.label, draft.openedAt,
+                    new ArrayList<>(draft.lines.values()), draft == latest);
+            restored++;
+        }
+        closedBeforeRecovery.clear();
+        Log.d(TAG, "Reopened " + restored + " ticket(s)");
+    }
+
+    // TicketManager.Listener - main thread
+
+    @Override
+    public void onTicketOpened(Ticket ticket) {
+        ticket.getCart().setChangeListener(new Journal(ticket));
+    }
+
+    @Override
+    public void onTicketLabelled(Ticket ticket) {
+        String label = ticket.getLabel();
+        append(ticket.getId(), DraftRecords.OP_LABEL, null, () -> label);
+    }
+
+    @Override
+    public void onTicketActivated(Ticket ticket) {
+        // An empty ticket has nothing to restore, so no need to remember it was active
+        if (!ticket.getCart().getSnapshot().isEmpty()) {
+            append(ticket.getId(), DraftRecords.OP_ACTIVATE, null, () -> null);
+        }
+    }
+
+    @Override
+    public void onTicketClosed(Ticket ticket) {
+        ticket.getCart().setChangeListener(null);
+        if (!recovered) {
+            closedBeforeRecovery.add(ticket.getId());
+        }
+        discardRecords(ticket.getId());
+    }
+
+    /**
+     * Journals one ticket's cart. Called under the cart's lock, so only queues writes.
+     */
+    private final class Journal implements CartManager.ChangeListener {
+        private final Ticket ticket;
+
+        Journal(Ticket ticket) {
+            this.ticket = ticket;
+        }
+
+        @Override
+        public void onLinePut(CartItem line) {
+            append(ticket.getId(), DraftRecords.OP_PUT, line.getId(), () -> DraftRecords.encodeLine(line));
+        }
+
+        @Override
+        public void onQuantityChanged(String lineId, int quantity) {
+            append(ticket.getId(), DraftRecords.OP_QUANTITY, lineId, () -> String.valueOf(quantity));
+        }
+
+        @Override
+        public void onLineRemoved(String lineId) {
+            append(ticket.getId(), DraftRecords.OP_REMOVE, lineId, () -> null);
+        }
+
+        @Override
+        public void onCartReplaced(List<CartItem> lines) {
+            String draftId = ticket.getId();
+            if (lines.isEmpty()) {
+                discardRecords(draftId);
+                return;
+            }
+            synchronized (recordCounts) {
+                recordCounts.put(draftId, 1);
+            }
+            queue(() -> {
+                writeSnapshot(draftId, lines, ticket.getLabel(), 0);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Queue one record; the payload is encoded on the writer thread.
+     */
+    private void append(String draftId, int op, @Nullable String lineId, Callable<String> payload) {
+        boolean compact;
+        synchronized (recordCounts) {
+            Integer count = recordCounts.get(draftId);
+            int next = count != null ? count + 1 : 1;
+            compact = next >= COMPACT_AFTER;
+            recordCounts.put(draftId, compact ? 1 : next);
+        }
+        queue(() -> dao.insert(DraftRecords.record(draftId, op, lineId, payload.call())));
+        if (compact) {
+            queue(() -> {
+                compact(draftId);
+                return null;
+            });
+        }
+    }
+
+    /** Fold a draft's records into one snapshot. Runs on the writer thread. */
+    private void compact(String draftId) throws Exception {
+        List<DraftOrderRecordEntity> records = dao.getForDraft(draftId);
+        DraftRecords.Draft draft = DraftRecords.replay(records).get(draftId);
+        if (draft == null) {
+            return;
+        }
+        writeSnapshot(draftId, new ArrayList<>(draft.lines.values()), draft.label, draft.activatedAt);
+        Log.d(TAG, "Compacted " + records.size() + " records of draft " + draftId);
+    }
+
+    /**
+     * Replace a draft's records with a snapshot of its lines. The label and the
+     * time it was last made active go with the older records, so they are
+     * written again after the snapshot. Runs on the writer thread.
+     */
+    private void writeSnapshot(String draftId, List<CartItem> lines, @Nullable String label,
+                               long activatedAt) throws Exception {
+        long snapshotId = dao.insert(DraftRecords.record(draftId, DraftRecords.OP_SNAPSHOT, null,
+                DraftRecords.encodeLines(lines)));
+        if (label != null) {
+            dao.insert(DraftRecords.record(draftId, DraftRecords.OP_LABEL, null, label));
+        }
+        if (activatedAt > 0) {
+            DraftOrderRecordEntity activated = DraftRecords.record(draftId, DraftRecords.OP_ACTIVATE, null, null);
+            activated.setCreatedAt(activatedAt);
+            dao.insert(activated);
+        }
+        dao.deleteBefore(draftId, snapshotId);
+    }
+
+    private void discardRecords(String draftId) {
+        synchronized (recordCounts) {
+            // Before recovery the journal may still hold records this run hasn't counted
+            if (recordCounts.remove(draftId) == null && recovered) {
+                return; // Nothing written for it
+            }
+        }
+        queue(() -> {
+            dao.deleteDraft(draftId);
+            return null;
+        });
+    }
+
+    private void queue(Callable<?> write) {
+        writer.submit(write).exceptionally(error -> {
+            Log.e(TAG, "Draft journal write failed", error);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package com.loretacafe.pos.draft;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.loretacafe.pos.CartItem;
+import com.loretacafe.pos.data.local.entity.DraftOrderRecordEntity;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Record format of the draft-order journal, and replay of a record sequence
+ * back into drafts. Lines are stored as short-keyed JSON; a quantity change
+ * only stores the new number.
+ */
+final class DraftRecords {
+
+    private static final String TAG = "DraftRecords";
+
+    /** payload: the line */
+    static final int OP_PUT = 1;
+    /** line_id, payload: the new quantity */
+    static final int OP_QUANTITY = 2;
+    /** line_id */
+    static final int OP_REMOVE = 3;
+    /** payload: every line of the draft; supersedes all earlier records */
+    static final int OP_SNAPSHOT = 4;
+    /** payload: the ticket's label, or none to clear it */
+    static final int OP_LABEL = 5;
+    /** the ticket became the active one */
+    static final int OP_ACTIVATE = 6;
+
+    private DraftRecords() {
+    }
+
+    /**
+     * A draft as rebuilt from its records. The id is its ticket's id.
+     */
+    static final class Draft {
+        final String id;
+        final LinkedHashMap<String, CartItem> lines = new LinkedHashMap<>();
+        String label;
+        long openedAt;
+        long activatedAt;
+        long updatedAt;
+
+        Draft(String id) {
+            this.id = id;
+        }
+    }
+
+    static DraftOrderRecordEntity record(String draftId, int op, String lineId, String payload) {
+        DraftOrderRecordEntity record = new DraftOrderRecordEntity();
+        record.setDraftId(draftId);
+        record.setOp(op);
+        record.setLineId(lineId);
+        record.setPayload(payload);
+        record.setCreatedAt(System.currentTimeMillis());
+        return record;
+    }
+
+    /**
+     * Replay records (oldest first) into drafts, in order of first appearance.
+     * A record that can't be read is skipped rather than losing the whole draft.
+     */
+    static Map<String, Draft> replay(@NonNull List<DraftOrderRecordEntity> records) {
+        Map<String, Draft> drafts = new LinkedHashMap<>();
+        for (DraftOrderRecordEntity record : records) {
+            Draft draft = drafts.get(record.getDraftId());
+            if (draft == null) {
+                draft = new Draft(record.getDraftId());
+                draft.openedAt = record.getCreatedAt();
+                drafts.put(draft.id, draft);
+            }
+            draft.updatedAt = record.getCreatedAt();
+            try {
+                apply(draft, record);
+            } catch (JSONException | RuntimeException e) {
+                Log.w(TAG, "Skipping unreadable draft record " + record.getId(), e);
+            }
+        }
+        return drafts;
+    }
+
+    private static void apply(Draft draft, DraftOrderRecordEntity record) throws JSONException {
+        switch (record.getOp()) {
+            case OP_PUT: {
+                CartItem line = decodeLine(new JSONObject(record.getPayload()));
+                // An existing id keeps its position, like an in-place edit in the cart
+                draft.lines.put(line.getId(), line);
+                break;
+            }
+            case OP_QUANTITY: {
+                CartItem current = draft.lines.get(record.getLineId());
+                if (current != null) {
+                    CartItem updated = new CartItem(current);
+                    updated.setQuantity(Integer.parseInt(record.getPayload()));
+                    draft.lines.put(updated.getId(), updated);
+                }
+                break;
+            }
+            case OP_REMOVE:
+                draft.lines.remove(record.getLineId());
+                break;
+            case OP_SNAPSHOT: {
+                draft.lines.clear();
+                JSONArray array = new JSONArray(record.getPayload());
+                for (int i = 0; i < array.length(); i++) {
+                    CartItem line = decodeLine(array.getJSONObject(i));
+                    draft.lines.put(line.getId(), line);
+                }
+                break;
+            }
+            case OP_LABEL:
+                draft.label = record.getPayload();
+                break;
+            case OP_ACTIVATE:
+                draft.activatedAt = record.getCreatedAt();
+                break;
+            default:
+                Log.w(TAG, "Unknown draft record op " + record.getOp());
+        }
+    }
+
+    static String encodeLine(CartItem line) throws JSONException {
+        return lineToJson(line).toString();
+    }
+
+    static String encodeLines(List<CartItem> lines) throws JSONException {
+        JSONArray array = new JSONArray();
+        for (CartItem line : lines) {
+            array.put(lineToJson(line));
+        }
+        return array.toString();
+    }
+
+    private static JSONObject lineToJson(CartItem line) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("id", line.getId());
+        json.put("p", line.getProductId());
+        json.put("n", line.getProductName());
+        json.put("c", line.getCategory());
+        json.put("s", line.getSelectedSize());
+        json.put("q", line.getQuantity());
+        json.put("u", line.getUnitPrice());
+        if (line.getSelectedAddOns() != null && !line.getSelectedAddOns().isEmpty()) {
+            json.put("a", new JSONArray(line.getSelectedAddOns()));
+        }
+        return json;
+    }
+
+    private static CartItem decodeLine(JSONObject json) throws JSONException {
+        List<String> addOns = new ArrayList<>();
+        JSONArray array = json.optJSONArray("a");
+        if (array != null) {
+            for (int i = 0; i < array.length(); i++) {
+                addOns.add(array.getString(i));
+            }
+        }
+        return new CartItem(
+                json.getString("id"),
+                json.getLong("p"),
+                json.optString("n", null),
+                json.optString("c", null),
+                json.optString("s", null),
+                json.getInt("q"),
+                json.getDouble("u"),
+                addOns);
+    }
+}
@@ -0,0 +1,248 @@
+package com.loretacafe.pos.image;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.request.RequestOptions;
+import com.loretacafe.pos.R;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The one way menu images reach the screen.
+ *
+ * A product's image name is either a drawable name from the built-in menu or
+ * the absolute path of an uploaded photo, already shrunk to {@link #STORED_TILE_PX}
+ * by {@link #storeUploadedImage}. Both are decoded by Glide at tile size and
+ * cached in memory and on disk, so scrolling never decodes a full-size bitmap.
+ * Drawable-name lookups are cached too; {@code getIdentifier} is a slow
+ * reflective call.
+ */
+public final class MenuImages {
+
+    private static final String TAG = "MenuImages";
+
+    /** Largest tile edge on screen (item_menu's image is 65x80dp). */
+    public static final int TILE_SIZE_DP = 80;
+    /** Longest edge of stored uploads: 80dp at xxxhdpi. */
+    public static final int STORED_TILE_PX = 320;
+
+    private static final String UPLOAD_DIR = "menu_images";
+    private static final int JPEG_QUALITY = 85;
+
+    /** Drawable name → resource id; 0 marks a name with no drawable. */
+    private static final Map<String, Integer> drawableIds = new ConcurrentHashMap<>();
+    private static volatile RequestOptions tileOptions;
+
+    private MenuImages() {
+    }
+
+    /**
+     * Show a menu tile image, or the placeholder when there is none. Safe on
+     * recycled views: any earlier request for {@code view} is replaced.
+     */
+    public static void loadTile(@NonNull ImageView view, @Nullable String imageName) {
+        Context context = view.getContext();
+        Object model = resolve(context, imageName);
+        RequestManager glide = Glide.with(view);
+        if (model == null) {
+            glide.clear(view);
+            view.setImageResource(R.drawable.ic_image_placeholder);
+            return;
+        }
+        glide.load(model).apply(tileOptions(context)).into(view);
+    }
+
+    /**
+     * Decode a tile into the memory cache ahead of it scrolling into view. Uses
+     * the same size and options as {@link #loadTile}, so the bind is a cache hit.
+     */
+    public static void preloadTile(@NonNull RequestManager glide, @NonNull Context context, @Nullable String imageName) {
+        Object model = resolve(context, imageName);
+        if (model != null) {
+            glide.load(model).apply(tileOptions(context)).preload();
+        }
+    }
+
+    /**
+     * Show a picked or captured photo before it is saved, decoded at the view's size.
+     */
+    public static void loadPreview(@NonNull ImageView view, @NonNull Uri uri) {
+        Glide.with(view)
+                .load(uri)
+                .diskCacheStrategy(DiskCacheStrategy.NONE)
+                .placeholder(R.drawable.ic_image_placeholder)
+                .error(R.drawable.ic_image_placeholder)
+                .into(view);
+    }
+
+    /**
+     * Cached {@code getIdentifier} for drawables; 0 when there is no such drawable.
+     */
+    public static int drawableId(@NonNull Context context, @Nullable String name) {
+        if (name == null || name.isEmpty()) {
+            return 0;
+        }
+        Integer cached = drawableIds.get(name);
+        if (cached == null) {
+            cached = context.getResources().getIdentifier(name, "drawable", context.getPackageName());
+            drawableIds.put(name, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Shrink an uploaded photo to tile size once and keep it in app storage.
+     * Each upload gets a new file name, so caches keyed by path never serve an
+     * old photo. Earlier uploads stay until {@link #deleteReplacedUploads} runs
+     * once the product points at the new file.
+     *
+     * @return the absolute path to store as the product's image name, or null on failure
+     */
+    @WorkerThread
+    @Nullable
+    public static String storeUploadedImage(@NonNull Context context, @NonNull Uri source, long productId) {
+        try {
+            Bitmap tile = decodeScaled(context, source, STORED_TILE_PX);
+            if (tile == null) {
+                android.util.Log.w(TAG, "Could not decode uploaded image " + source);
+                return null;
+            }
+            File dir = new File(context.getFilesDir(), UPLOAD_DIR);
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                android.util.Log.e(TAG, "Could not create " + dir);
+                return null;
+            }
+            String dimensions = tile.getWidth() + "x" + tile.getHeight();
+            File target = new File(dir, uploadPrefix(productId) + System.currentTimeMillis() + ".jpg");
+            try (OutputStream out = new FileOutputStream(target)) {
+                tile.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+            } finally {
+                tile.recycle();
+            }
+            android.util.Log.d(TAG, "📷 Stored " + dimensions + " tile for product " + productId
+                    + " (" + target.length() / 1024 + " KB)");
+            return target.getAbsolutePath();
+        } catch (IOException | SecurityException e) {
+            android.util.Log.e(TAG, "Error storing uploaded image", e);
+            return null;
+        }
+    }
+
+    /**
+     * Delete a product's uploads other than {@code keepPath}: the photo it just
+     * replaced and any left behind by an earlier failed save. Pass null to
+     * delete them all. Drawable names are never touched.
+     */
+    @WorkerThread
+    public static void deleteReplacedUploads(@NonNull Context context, long productId, @Nullable String keepPath) {
+        File dir = new File(context.getFilesDir(), UPLOAD_DIR);
+        String prefix = uploadPrefix(productId);
+        File[] replaced = dir.listFiles((d, name) -> name.startsWith(prefix)
+                && (keepPath == null || !new File(d, name).getAbsolutePath().equals(keepPath)));
+        if (replaced == null) {
+            return;
+        }
+        for (File old : replaced) {
+            if (!old.delete()) {
+                android.util.Log.w(TAG, "Could not delete replaced upload " + old);
+            }
+        }
+    }
+
+    private static String uploadPrefix(long productId) {
+        return "product_" + productId + "_";
+    }
+
+    @Nullable
+    private static Object resolve(Context context, @Nullable String imageName) {
+        if (imageName == null || imageName.isEmpty()) {
+            return null;
+        }
+        if (imageName.startsWith("/")) {
+            return new File(imageName);
+        }
+        int id = drawableId(context, imageName);
+        return id != 0 ? id : null;
+    }
+
+    private static RequestOptions tileOptions(Context context) {
+        RequestOptions options = tileOptions;
+        if (options == null) {
+            int sizePx = Math.round(TILE_SIZE_DP * context.getResources().getDisplayMetrics().density);
+            options = new RequestOptions()
+                    .override(sizePx, sizePx)
+                    .fitCenter()
+                    .dontAnimate()
+                    // Keep the downsampled tile on disk, not the source
+                    .diskCacheStrategy(DiskCacheStrategy.RESOURCE)
+                    .placeholder(R.drawable.ic_image_placeholder)
+                    .error(R.drawable.ic_image_placeholder);
+            tileOptions = options;
+        }
+        return options;
+    }
+
+    /**
+     * Decode with the largest power-of-two subsampling that keeps the longest
+     * edge at or above {@code maxEdgePx}, then scale down to exactly that.
+     */
+    @Nullable
+    private static Bitmap decodeScaled(Context context, Uri source, int maxEdgePx) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = context.getContentResolver().openInputStream(source)) {
+            if (in == null) {
+                return null;
+            }
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        int longest = Math.max(bounds.outWidth, bounds.outHeight);
+        if (longest <= 0) {
+            return null;
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = 1;
+        while (longest / (options.inSampleSize * 2) >= maxEdgePx) {
+            options.inSampleSize *= 2;
+        }
+        Bitmap sampled;
+        try (InputStream in = context.getContentResolver().openInputStream(source)) {
+            if (in == null) {
+                return null;
+            }
+            sampled = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (sampled == null) {
+            return null;
+        }
+        int sampledLongest = Math.max(sampled.getWidth(), sampled.getHeight());
+        if (sampledLongest <= maxEdgePx) {
+            return sampled;
+        }
+        float scale = (float) maxEdgePx / sampledLongest;
+        Bitmap scaled = Bitmap.createScaledBitmap(sampled,
+                Math.max(1, Math.round(sampled.getWidth() * scale)),
+                Math.max(1, Math.round(sampled.getHeight() * scale)), true);
+        if (scaled != sampled) {
+            sampled.recycle();
+        }
+        return scaled;
+    }
+}
@@ -0,0 +1,74 @@
+package com.loretacafe.pos.image;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+
+/**
+ * Warms the image cache for the tiles just beyond the visible range, in the
+ * direction of the scroll, so they bind from memory. Works with any
+ * LinearLayoutManager (GridLayoutManager included).
+ */
+public final class TilePreloader extends RecyclerView.OnScrollListener {
+
+    /** Image name of the item at an adapter position. */
+    public interface ImageNames {
+        @Nullable
+        String imageNameAt(int position);
+    }
+
+    private final ImageNames imageNames;
+    private final int ahead;
+    private final RequestManager glide;
+    private final Context context;
+    private int preloadedFrom = -1;
+    private int preloadedTo = -1;
+
+    private TilePreloader(RecyclerView recyclerView, ImageNames imageNames, int ahead) {
+        this.imageNames = imageNames;
+        this.ahead = ahead;
+        this.glide = Glide.with(recyclerView);
+        this.context = recyclerView.getContext();
+    }
+
+    /**
+     * @param ahead how many items past the visible range to preload; about two rows
+     */
+    public static TilePreloader attach(@NonNull RecyclerView recyclerView, @NonNull ImageNames imageNames, int ahead) {
+        TilePreloader preloader = new TilePreloader(recyclerView, imageNames, ahead);
+        recyclerView.addOnScrollListener(preloader);
+        return preloader;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager) || recyclerView.getAdapter() == null) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) {
+            return;
+        }
+        int count = recyclerView.getAdapter().getItemCount();
+        boolean forward = dy > 0 || (dy == 0 && dx >= 0);
+        int from = forward ? last + 1 : Math.max(0, first - ahead);
+        int to = forward ? Math.min(count - 1, last + ahead) : first - 1;
+        for (int position = from; position <= to; position++) {
+            // Already requested on an earlier scroll callback
+            if (position >= preloadedFrom && position <= preloadedTo) {
+                continue;
+            }
+            MenuImages.preloadTile(glide, context, imageNames.imageNameAt(position));
+        }
+        preloadedFrom = from;
+        preloadedTo = to;
+    }
+}
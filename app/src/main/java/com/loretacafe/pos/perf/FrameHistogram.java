@@ -0,0 +1,119 @@
+package com.loretacafe.pos.perf;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Locale;
+
+/**
+ * Frame-duration histogram for a RecyclerView, sampled only while it scrolls.
+ * Each frame's duration is the gap between consecutive Choreographer callbacks,
+ * so a dropped frame shows up as a 33 ms (or longer) sample. When a scroll
+ * settles, that gesture's histogram and the running total are written to the
+ * {@link Perf} log.
+ */
+public final class FrameHistogram extends RecyclerView.OnScrollListener implements Choreographer.FrameCallback {
+
+    /** Upper bounds (exclusive, ms) of every bucket but the last. */
+    private static final long[] BUCKET_BOUNDS_MS = {8, 12, 17, 25, 34, 50, 100};
+    private static final long JANK_THRESHOLD_MS = 17;
+
+    private final String name;
+    private final RecyclerView recyclerView;
+    private final long[] gesture = new long[BUCKET_BOUNDS_MS.length + 1];
+    private final long[] total = new long[BUCKET_BOUNDS_MS.length + 1];
+    private long lastFrameNanos;
+    private boolean sampling;
+
+    private FrameHistogram(String name, RecyclerView recyclerView) {
+        this.name = name;
+        this.recyclerView = recyclerView;
+    }
+
+    /**
+     * Start recording frame durations for {@code recyclerView} under {@code name}.
+     * Must be called on the main thread.
+     */
+    public static FrameHistogram attach(@NonNull RecyclerView recyclerView, @NonNull String name) {
+        FrameHistogram histogram = new FrameHistogram(name, recyclerView);
+        recyclerView.addOnScrollListener(histogram);
+        return histogram;
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView view, int newState) {
+        if (newState != RecyclerView.SCROLL_STATE_IDLE && !sampling) {
+            sampling = true;
+            lastFrameNanos = 0;
+            Choreographer.getInstance().postFrameCallback(this);
+        } else if (newState == RecyclerView.SCROLL_STATE_IDLE && sampling) {
+            stopSampling();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!sampling) {
+            return;
+        }
+        if (!recyclerView.isAttachedToWindow()) {
+            // Screen went away mid-scroll; no idle callback will come
+            stopSampling();
+            return;
+        }
+        if (lastFrameNanos != 0) {
+            int bucket = bucketFor((frameTimeNanos - lastFrameNanos) / 1_000_000L);
+            gesture[bucket]++;
+            total[bucket]++;
+        }
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void stopSampling() {
+        sampling = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+        if (count(gesture) > 0) {
+            Perf.record("frames[" + name + "] scroll " + format(gesture) + " | total " + format(total));
+        }
+        java.util.Arrays.fill(gesture, 0);
+    }
+
+    private static int bucketFor(long durationMs) {
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            if (durationMs < BUCKET_BOUNDS_MS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_MS.length;
+    }
+
+    private static long count(long[] buckets) {
+        long sum = 0;
+        for (long bucket : buckets) {
+            sum += bucket;
+        }
+        return sum;
+    }
+
+    private static String format(long[] buckets) {
+        long frames = count(buckets);
+        long janky = 0;
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < buckets.length; i++) {
+            long lower = i == 0 ? 0 : BUCKET_BOUNDS_MS[i - 1];
+            if (lower >= JANK_THRESHOLD_MS) {
+                janky += buckets[i];
+            }
+            if (buckets[i] == 0) {
+                continue;
+            }
+            out.append(i < BUCKET_BOUNDS_MS.length ? "<" + BUCKET_BOUNDS_MS[i] : ">=" + lower)
+                    .append(':').append(buckets[i]).append(' ');
+        }
+        return String.format(Locale.US, "n=%d janky=%d (%.1f%%) ", frames, janky,
+                frames == 0 ? 0.0 : janky * 100.0 / frames) + out.toString().trim();
+    }
+}
@@ -0,0 +1,212 @@
+package com.loretacafe.pos.perf;
+
+import android.app.Activity;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Start-up and frame-time instrumentation. Finished spans and frame histograms
+ * are written to an in-memory ring buffer (never to disk) which
+ * {@link PerfDebugDialog} can dump; spans started with {@link #start(String)}
+ * also show up as systrace sections.
+ *
+ * <pre>
+ * try (Span span = Perf.start("MenuSeeder.seed")) {
+ *     ...
+ * }
+ * </pre>
+ */
+public final class Perf {
+
+    private static final String TAG = "Perf";
+    private static final int LOG_CAPACITY = 500;
+    private static final int SPAN_CAPACITY = 200;
+
+    private static final RingBufferLog log = new RingBufferLog(LOG_CAPACITY);
+    private static final ArrayDeque<Span> finishedSpans = new ArrayDeque<>(SPAN_CAPACITY);
+    private static final ThreadLocal<Span> current = new ThreadLocal<>();
+    private static final AtomicLong nextId = new AtomicLong(1);
+
+    private Perf() {
+    }
+
+    /**
+     * Start a span under whatever span is current on this thread.
+     */
+    public static Span start(@NonNull String name) {
+        Span parent = current.get();
+        Span span = new Span(nextId.getAndIncrement(), parent, name, parent, true, true);
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * Start a root span that may end on another thread (e.g. a first-frame span
+     * started in onCreate and ended in a draw callback). It never becomes current.
+     */
+    public static Span startRoot(@NonNull String name) {
+        return new Span(nextId.getAndIncrement(), null, name, null, false, false);
+    }
+
+    static Span startChild(Span parent, String name) {
+        Span previous = current.get();
+        // Not a trace section: children are often started by a pipeline that traces itself
+        Span span = new Span(nextId.getAndIncrement(), parent, name, previous, true, false);
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * Wrap a task so every run is recorded as a span.
+     */
+    public static Runnable wrap(@NonNull String name, @NonNull Runnable task) {
+        return () -> {
+            try (Span ignored = start(name)) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * Record the time from now until the activity's first frame has been drawn.
+     * Call at the top of onCreate.
+     */
+    public static void traceFirstFrame(@NonNull Activity activity) {
+        Span span = startRoot(activity.getClass().getSimpleName() + ".firstFrame");
+        View decor = activity.getWindow().getDecorView();
+        decor.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            private boolean drawn;
+
+            @Override
+            public void onDraw() {
+                if (drawn) {
+                    return;
+                }
+                drawn = true;
+                // onDraw runs before the frame is handed to the display; end on the next loop
+                // turn. Listeners can't be removed from inside onDraw either.
+                decor.post(() -> {
+                    span.end();
+                    decor.getViewTreeObserver().removeOnDrawListener(this);
+                });
+            }
+        });
+    }
+
+    /**
+     * Append a free-form line (e.g. a frame histogram) to the ring buffer.
+     */
+    public static void record(@NonNull String line) {
+        log.add(formatTimestamp(SystemClock.elapsedRealtime()) + " " + line);
+        Log.d(TAG, line);
+    }
+
+    static void onSpanEnded(Span span, boolean restoreCurrent) {
+        if (restoreCurrent && current.get() == span) {
+            Span previous = span.getPreviousCurrent();
+            if (previous != null) {
+                current.set(previous);
+            } else {
+                current.remove();
+            }
+        }
+        synchronized (finishedSpans) {
+            if (finishedSpans.size() == SPAN_CAPACITY) {
+                finishedSpans.removeFirst();
+            }
+            finishedSpans.addLast(span);
+        }
+        String line = String.format(Locale.US, "span #%d parent=#%d %s %dms thread=%s",
+                span.id, span.parentId, span.name, span.getDurationMs(), span.threadName);
+        log.add(formatTimestamp(span.startMs) + " " + line);
+        Log.d(TAG, line);
+    }
+
+    /**
+     * Most recent finished spans, oldest first.
+     */
+    public static List<Span> getFinishedSpans() {
+        synchronized (finishedSpans) {
+            return new ArrayList<>(finishedSpans);
+        }
+    }
+
+    public static List<String> getLogLines() {
+        return log.snapshot();
+    }
+
+    /**
+     * Finished spans as an indented tree followed by the raw log, for the debug dump.
+     */
+    public static String dump() {
+        List<Span> spans = getFinishedSpans();
+        Map<Long, List<Span>> children = new HashMap<>();
+        Map<Long, Span> byId = new HashMap<>();
+        for (Span span : spans) {
+            byId.put(span.id, span);
+        }
+        List<Span> roots = new ArrayList<>();
+        for (Span span : spans) {
+            // A parent that is still open (or already evicted) is shown as a root
+            if (span.parentId != 0 && byId.containsKey(span.parentId)) {
+                List<Span> siblings = children.get(span.parentId);
+                if (siblings == null) {
+                    siblings = new ArrayList<>();
+                    children.put(span.parentId, siblings);
+                }
+                siblings.add(span);
+            } else {
+                roots.add(span);
+            }
+        }
+        StringBuilder out = new StringBuilder("== Spans (ms since process start) ==\n");
+        for (Span root : roots) {
+            appendTree(out, root, children, 0);
+        }
+        out.append("\n== Log (").append(log.getWrittenCount()).append(" lines written) ==\n");
+        for (String line : log.snapshot()) {
+            out.append(line).append('\n');
+        }
+        return out.toString();
+    }
+
+    public static void clear() {
+        synchronized (finishedSpans) {
+            finishedSpans.clear();
+        }
+        log.clear();
+    }
+
+    private static void appendTree(StringBuilder out, Span span, Map<Long, List<Span>> children, int depth) {
+        for (int i = 0; i < depth; i++) {
+            out.append("  ");
+        }
+        out.append(formatTimestamp(span.startMs)).append(' ')
+                .append(span.name).append(' ')
+                .append(span.getDurationMs()).append("ms [")
+                .append(span.threadName).append("]\n");
+        List<Span> kids = children.get(span.id);
+        if (kids != null) {
+            for (Span kid : kids) {
+                appendTree(out, kid, children, depth + 1);
+            }
+        }
+    }
+
+    private static String formatTimestamp(long elapsedRealtimeMs) {
+        return "+" + (elapsedRealtimeMs - Process.getStartElapsedRealtime());
+    }
+}
@@ -0,0 +1,50 @@
+package com.loretacafe.pos.perf;
+
+import android.content.ClipData;
+import android.content.ClipboardManager;
+import android.content.Context;
+import android.graphics.Typeface;
+import android.widget.ScrollView;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AlertDialog;
+
+/**
+ * Debug-only dump of the {@link Perf} ring buffer: span tree plus log lines,
+ * with a copy-to-clipboard button for pasting into a bug report.
+ */
+public final class PerfDebugDialog {
+
+    private PerfDebugDialog() {
+    }
+
+    public static void show(Context context) {
+        String dump = Perf.dump();
+
+        int padding = (int) (16 * context.getResources().getDisplayMetrics().density);
+        TextView text = new TextView(context);
+        text.setTypeface(Typeface.MONOSPACE);
+        text.setTextSize(11);
+        text.setTextIsSelectable(true);
+        text.setPadding(padding, padding, padding, padding);
+        text.setText(dump);
+
+        ScrollView scroll = new ScrollView(context);
+        scroll.addView(text);
+
+        new AlertDialog.Builder(context)
+                .setTitle("Performance log")
+                .setView(scroll)
+                .setPositiveButton("Copy", (dialog, which) -> {
+                    ClipboardManager clipboard = (ClipboardManager) context.getSystemService(Context.CLIPBOARD_SERVICE);
+                    if (clipboard != null) {
+                        clipboard.setPrimaryClip(ClipData.newPlainText("perf", dump));
+                        Toast.makeText(context, "Performance log copied", Toast.LENGTH_SHORT).show();
+                    }
+                })
+                .setNeutralButton("Clear", (dialog, which) -> Perf.clear())
+                .setNegativeButton("Close", null)
+                .show();
+    }
+}
@@ -0,0 +1,54 @@
+package com.loretacafe.pos.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity in-memory log. Once full, each new line overwrites the oldest,
+ * so recording never allocates beyond the initial array and never blocks on I/O.
+ */
+public final class RingBufferLog {
+
+    private final String[] lines;
+    private int next;
+    private long written;
+
+    public RingBufferLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.lines = new String[capacity];
+    }
+
+    public synchronized void add(String line) {
+        lines[next] = line;
+        next = (next + 1) % lines.length;
+        written++;
+    }
+
+    /**
+     * Lines oldest first.
+     */
+    public synchronized List<String> snapshot() {
+        int size = (int) Math.min(written, lines.length);
+        List<String> result = new ArrayList<>(size);
+        int start = written > lines.length ? next : 0;
+        for (int i = 0; i < size; i++) {
+            result.add(lines[(start + i) % lines.length]);
+        }
+        return result;
+    }
+
+    /**
+     * Total lines ever written, including those that have been overwritten.
+     */
+    public synchronized long getWrittenCount() {
+        return written;
+    }
+
+    public synchronized void clear() {
+        java.util.Arrays.fill(lines, null);
+        next = 0;
+        written = 0;
+    }
+}
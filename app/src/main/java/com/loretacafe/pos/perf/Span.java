@@ -0,0 +1,103 @@
+package com.loretacafe.pos.perf;
+
+import android.os.SystemClock;
+import android.os.Trace;
+
+import androidx.annotation.Nullable;
+
+/**
+ * One timed operation. Spans form a tree: a span started with {@link Perf#start(String)}
+ * or {@link #child(String)} becomes the parent of spans started later on that thread
+ * until it ends. {@link #child(String)} is also how work that hops to another thread
+ * stays attached to its parent.
+ *
+ * <p>Ending a span is idempotent, so it is safe to end in a finally block
+ * that may run after an early explicit end.
+ */
+public final class Span implements AutoCloseable {
+
+    private static final int MAX_TRACE_NAME = 127;
+
+    final long id;
+    final long parentId;
+    final String name;
+    final long startMs;
+    final String threadName;
+    private final long threadId;
+    private final boolean traced;
+    private final boolean scoped;
+    @Nullable
+    private final Span previousCurrent;
+    private volatile long durationMs = -1;
+
+    Span(long id, @Nullable Span parent, String name, @Nullable Span previousCurrent,
+         boolean scoped, boolean traced) {
+        this.id = id;
+        this.parentId = parent != null ? parent.id : 0;
+        this.name = name;
+        this.startMs = SystemClock.elapsedRealtime();
+        Thread thread = Thread.currentThread();
+        this.threadName = thread.getName();
+        this.threadId = thread.getId();
+        this.previousCurrent = previousCurrent;
+        this.scoped = scoped;
+        this.traced = traced;
+        if (traced) {
+            Trace.beginSection(name.length() > MAX_TRACE_NAME ? name.substring(0, MAX_TRACE_NAME) : name);
+        }
+    }
+
+    /**
+     * Start a span under this one on the calling thread.
+     */
+    public Span child(String name) {
+        return Perf.startChild(this, name);
+    }
+
+    public void end() {
+        synchronized (this) {
+            if (durationMs >= 0) {
+                return;
+            }
+            durationMs = SystemClock.elapsedRealtime() - startMs;
+        }
+        boolean sameThread = Thread.currentThread().getId() == threadId;
+        // Trace sections must be closed on the thread that opened them
+        if (traced && sameThread) {
+            Trace.endSection();
+        }
+        Perf.onSpanEnded(this, scoped && sameThread);
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Id of the parent span, or 0 for a root.
+     */
+    public long getParentId() {
+        return parentId;
+    }
+
+    /**
+     * Milliseconds, or -1 while the span is still open.
+     */
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    @Nullable
+    Span getPreviousCurrent() {
+        return previousCurrent;
+    }
+}
@@ -0,0 +1,135 @@
+package com.loretacafe.pos.search;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.loretacafe.pos.data.util.AppExecutors;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Runs search-box queries against a {@link SearchIndex} on the compute pool.
+ * Keystrokes are debounced, results of superseded queries are dropped, and
+ * nothing is delivered after the owner is destroyed. Call from the main thread;
+ * results arrive there too.
+ */
+public final class DebouncedSearch<T> implements LifecycleEventObserver {
+
+    private static final String TAG = "DebouncedSearch";
+    public static final long DEFAULT_DELAY_MS = 150;
+
+    public interface Callback<T> {
+        /**
+         * @param results matches best first, or null when the query is blank
+         *                (show the unfiltered list)
+         */
+        void onResults(@Nullable List<T> results);
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final long delayMs;
+    private final Callback<T> callback;
+    private final Runnable runQuery = this::runQuery;
+    private volatile SearchIndex<T> index = SearchIndex.empty();
+    private String query = "";
+    private int generation;
+    private int indexBuilds;
+    private boolean destroyed;
+
+    public DebouncedSearch(@NonNull LifecycleOwner owner, @NonNull Callback<T> callback) {
+        this(owner, DEFAULT_DELAY_MS, callback);
+    }
+
+    public DebouncedSearch(@NonNull LifecycleOwner owner, long delayMs, @NonNull Callback<T> callback) {
+        this.delayMs = delayMs;
+        this.callback = callback;
+        owner.getLifecycle().addObserver(this);
+    }
+
+    /**
+     * Swap in a freshly built index and re-run the current query against it.
+     */
+    public void setIndex(@NonNull SearchIndex<T> index) {
+        this.index = index;
+        if (!query.isEmpty()) {
+            handler.removeCallbacks(runQuery);
+            handler.post(runQuery);
+        }
+    }
+
+    /**
+     * Build a new index on {@code executor} and install it unless a newer build
+     * was requested meanwhile. Use the disk-read pool when the factory queries
+     * the database, the compute pool otherwise.
+     */
+    public void rebuildIndex(@NonNull Executor executor, @NonNull Supplier<SearchIndex<T>> factory) {
+        final int build = ++indexBuilds;
+        executor.execute(() -> {
+            SearchIndex<T> built;
+            try {
+                built = factory.get();
+            } catch (RuntimeException e) {
+                android.util.Log.e(TAG, "Failed to build search index", e);
+                return;
+            }
+            handler.post(() -> {
+                if (!destroyed && build == indexBuilds) {
+                    setIndex(built);
+                }
+            });
+        });
+    }
+
+    /**
+     * Search for {@code text} once typing pauses. Clearing the box answers at once.
+     */
+    public void setQuery(@Nullable String text) {
+        query = text != null ? text.trim() : "";
+        handler.removeCallbacks(runQuery);
+        if (query.isEmpty()) {
+            // Invalidate anything still running for the old text
+            generation++;
+            callback.onResults(null);
+        } else {
+            handler.postDelayed(runQuery, delayMs);
+        }
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    private void runQuery() {
+        if (destroyed) {
+            return;
+        }
+        final int requested = ++generation;
+        final String text = query;
+        final SearchIndex<T> snapshot = index;
+        AppExecutors.get().compute().execute(() -> {
+            List<T> results = snapshot.search(text);
+            handler.post(() -> {
+                if (!destroyed && requested == generation) {
+                    callback.onResults(results);
+                }
+            });
+        });
+    }
+
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            destroyed = true;
+            handler.removeCallbacks(runQuery);
+            source.getLifecycle().removeObserver(this);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.loretacafe.pos.search;
+
+import androidx.annotation.NonNull;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable prefix index over a fixed set of items. Every searchable field is
+ * normalized (lower case, accents stripped) and split into tokens, and each
+ * token is inserted into a trie whose nodes list the items below them.
+ *
+ * <p>A query matches an item when every query token is a prefix of one of the
+ * item's tokens, allowing one typo (insert, delete or substitute) for query
+ * tokens of {@link #FUZZY_MIN_LENGTH} or more characters. Results rank exact
+ * prefix hits above typo hits, then by weight (e.g. units sold), then by
+ * insertion order.
+ *
+ * <p>Build once per data change, off the main thread; queries are thread-safe.
+ */
+public final class SearchIndex<T> {
+
+    /** Shorter query tokens only match exactly; "la" with one typo matches nearly everything. */
+    public static final int FUZZY_MIN_LENGTH = 3;
+
+    private static final int MAX_EDITS = 1;
+
+    private final List<T> items;
+    private final long[] weights;
+    private final Node root;
+
+    private SearchIndex(List<T> items, long[] weights, Node root) {
+        this.items = items;
+        this.weights = weights;
+        this.root = root;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public static <T> SearchIndex<T> empty() {
+        return new SearchIndex<>(Collections.emptyList(), new long[0], new Node());
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Items matching every token of {@code query}, best first. A blank query
+     * returns every item in insertion order.
+     */
+    public List<T> search(@NonNull String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>(items);
+        }
+
+        int count = items.size();
+        // Per item: all tokens matched so far (AND), and how many needed a typo
+        BitSet matched = null;
+        int[] typos = new int[count];
+        for (String token : tokens) {
+            BitSet exact = new BitSet(count);
+            BitSet fuzzy = new BitSet(count);
+            Node node = find(token);
+            if (node != null) {
+                exact.or(node.items);
+            }
+            if (token.length() >= FUZZY_MIN_LENGTH) {
+                collectFuzzy(token, fuzzy);
+                fuzzy.andNot(exact);
+            }
+            BitSet any = (BitSet) exact.clone();
+            any.or(fuzzy);
+            if (matched == null) {
+                matched = any;
+            } else {
+                matched.and(any);
+            }
+            if (matched.isEmpty()) {
+                return new ArrayList<>();
+            }
+            for (int i = fuzzy.nextSetBit(0); i >= 0; i = fuzzy.nextSetBit(i + 1)) {
+                typos[i]++;
+            }
+        }
+
+        List<Integer> hits = new ArrayList<>(matched.cardinality());
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            hits.add(i);
+        }
+        Collections.sort(hits, (a, b) -> {
+            if (typos[a] != typos[b]) {
+                return Integer.compare(typos[a], typos[b]);
+            }
+            if (weights[a] != weights[b]) {
+                return Long.compare(weights[b], weights[a]);
+            }
+            return Integer.compare(a, b);
+        });
+
+        List<T> results = new ArrayList<>(hits.size());
+        for (int index : hits) {
+            results.add(items.get(index));
+        }
+        return results;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Walk the trie with one Levenshtein row per node. Once the whole query has been
+     * consumed within the edit budget, everything below that node is a typo-tolerant
+     * prefix match.
+     */
+    private void collectFuzzy(String token, BitSet out) {
+        int[] row = new int[token.length() + 1];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = i;
+        }
+        for (int c = 0; c < root.keys.length; c++) {
+            walk(root.children[c], root.keys[c], token, row, out);
+        }
+    }
+
+    private void walk(Node node, char letter, String token, int[] previous, BitSet out) {
+        int columns = token.length() + 1;
+        int[] row = new int[columns];
+        row[0] = previous[0] + 1;
+        int best = row[0];
+        for (int i = 1; i < columns; i++) {
+            int substitute = previous[i - 1] + (token.charAt(i - 1) == letter ? 0 : 1);
+            row[i] = Math.min(substitute, Math.min(row[i - 1] + 1, previous[i] + 1));
+            best = Math.min(best, row[i]);
+        }
+        if (row[columns - 1] <= MAX_EDITS) {
+            out.or(node.items);
+            return;
+        }
+        if (best > MAX_EDITS) {
+            return;
+        }
+        for (int c = 0; c < node.keys.length; c++) {
+            walk(node.children[c], node.keys[c], token, row, out);
+        }
+    }
+
+    /**
+     * Lower-cased, accent-free alphanumeric tokens ("Café Latte (Iced)" → cafe, latte, iced).
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    public static final class Builder<T> {
+        private final List<T> items = new ArrayList<>();
+        private long[] weights = new long[16];
+        private final Node root = new Node();
+
+        private Builder() {
+        }
+
+        /**
+         * Add an item searchable by any of {@code fields}; higher {@code weight} ranks first.
+         */
+        public Builder<T> add(@NonNull T item, long weight, String... fields) {
+            int index = items.size();
+            items.add(item);
+            if (index == weights.length) {
+                weights = Arrays.copyOf(weights, index * 2);
+            }
+            weights[index] = weight;
+            for (String field : fields) {
+                for (String token : tokenize(field)) {
+                    Node node = root;
+                    for (int i = 0; i < token.length(); i++) {
+                        node = node.childOrCreate(token.charAt(i));
+                        node.items.set(index);
+                    }
+                }
+            }
+            return this;
+        }
+
+        /**
+         * The builder must not be used afterwards; the index shares its trie.
+         */
+        public SearchIndex<T> build() {
+            return new SearchIndex<>(Collections.unmodifiableList(new ArrayList<>(items)),
+                    Arrays.copyOf(weights, items.size()), root);
+        }
+    }
+
+    /**
+     * Trie node. Children are kept as parallel sorted arrays: the alphabet is small
+     * and a few hundred items produce only a few thousand nodes.
+     */
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        final BitSet items = new BitSet();
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node node = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = node;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.loretacafe.pos.search;
+
+import androidx.annotation.WorkerThread;
+
+import com.loretacafe.pos.MenuItem;
+import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.local.model.ProductSalesCount;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The search indexes the app builds: menu tiles ranked by units sold, and
+ * inventory products.
+ */
+public final class SearchIndexes {
+
+    private SearchIndexes() {
+    }
+
+    /**
+     * Menu items searchable by name and category, best sellers first.
+     * Reads sales totals, so call it on the disk-read pool.
+     */
+    @WorkerThread
+    public static SearchIndex<MenuItem> forMenu(AppDatabase database, List<MenuItem> items) {
+        Map<Long, Long> unitsSold = new HashMap<>();
+        try {
+            for (ProductSalesCount count : database.saleItemDao().getUnitsSoldByProduct()) {
+                unitsSold.put(count.productId, count.unitsSold);
+            }
+        } catch (Exception e) {
+            // Ranking is a nicety; search still works in menu order
+            android.util.Log.w("SearchIndexes", "Could not load sales counts for ranking", e);
+        }
+
+        SearchIndex.Builder<MenuItem> builder = SearchIndex.builder();
+        for (MenuItem item : items) {
+            Long sold = unitsSold.get(item.getProductId());
+            builder.add(item, sold != null ? sold : 0, item.getName(), item.category());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Inventory products searchable by name, category and supplier, in list order.
+     */
+    public static SearchIndex<ProductEntity> forProducts(List<ProductEntity> products) {
+        SearchIndex.Builder<ProductEntity> builder = SearchIndex.builder();
+        for (ProductEntity product : products) {
+            builder.add(product, 0, product.getName(), product.getCategory(), product.getSupplier());
+        }
+        return builder.build();
+    }
+}
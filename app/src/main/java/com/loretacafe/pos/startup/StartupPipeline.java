@@ -0,0 +1,139 @@
+package com.loretacafe.pos.startup;
+
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.loretacafe.pos.data.util.AppExecutors;
+import com.loretacafe.pos.perf.Perf;
+import com.loretacafe.pos.perf.Span;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs app start-up work as named stages off the main thread.
+ * A stage starts once all of its dependencies have finished (successfully or not,
+ * so one failing seeder never blocks the rest of start-up). Stage futures always
+ * complete normally, even when the work throws an Error, so readiness is always
+ * posted and the login screen never waits forever. Deferred stages are
+ * held back until the main thread first goes idle, i.e. after the first frame.
+ * Every stage is wrapped in a systrace section and logs its duration and its
+ * offset from process start.
+ */
+public class StartupPipeline {
+
+    private static final String TAG = "StartupPipeline";
+
+    // Stages are mostly database work; dependencies, not the pool, order them
+    private final Executor executor = AppExecutors.get().diskRead();
+    private final Map<String, CompletableFuture<Void>> stages = new LinkedHashMap<>();
+    private final CompletableFuture<Void> firstIdle = new CompletableFuture<>();
+    private final MutableLiveData<Boolean> ready = new MutableLiveData<>(false);
+    // Parent of every stage span; ends when the last stage (deferred ones included) is done
+    private final Span span = Perf.startRoot("startup");
+
+    /**
+     * Add a stage that starts as soon as its dependencies are done.
+     */
+    public StartupPipeline stage(String name, Runnable work, String... dependsOn) {
+        return add(name, work, false, dependsOn);
+    }
+
+    /**
+     * Add a stage that additionally waits for the main thread's first idle moment.
+     */
+    public StartupPipeline deferredStage(String name, Runnable work, String... dependsOn) {
+        return add(name, work, true, dependsOn);
+    }
+
+    /**
+     * Stages whose completion flips {@link #observeReady()} to true.
+     */
+    public void readyWhen(String... stageNames) {
+        dependencies(stageNames).whenComplete((ignored, error) -> {
+            logTiming("ready", 0);
+            ready.postValue(true);
+        });
+    }
+
+    /**
+     * Arm deferred stages. Must be called on the main thread (from Application.onCreate).
+     */
+    public synchronized void start() {
+        CompletableFuture.allOf(stages.values().toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, error) -> span.end());
+        Looper.myQueue().addIdleHandler(() -> {
+            firstIdle.complete(null);
+            return false;
+        });
+    }
+
+    public LiveData<Boolean> observeReady() {
+        return ready;
+    }
+
+    public boolean isReady() {
+        return Boolean.TRUE.equals(ready.getValue());
+    }
+
+    private synchronized StartupPipeline add(String name, Runnable work, boolean deferred, String... dependsOn) {
+        if (stages.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup stage: " + name);
+        }
+        CompletableFuture<Void> gate = dependencies(dependsOn);
+        if (deferred) {
+            gate = CompletableFuture.allOf(gate, firstIdle);
+        }
+        CompletableFuture<Void> stage = gate
+                .thenRunAsync(() -> runStage(name, work), executor)
+                .handle((ignored, error) -> {
+                    if (error != null) {
+                        // Only Errors (or a rejected task) get here; runStage logs Exceptions
+                        Log.e(TAG, "Startup stage aborted: " + name, error);
+                    }
+                    return null;
+                });
+        stages.put(name, stage);
+        return this;
+    }
+
+    private synchronized CompletableFuture<Void> dependencies(String... names) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            CompletableFuture<Void> dependency = stages.get(names[i]);
+            if (dependency == null) {
+                throw new IllegalArgumentException("Unknown startup stage: " + names[i]);
+            }
+            futures[i] = dependency;
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    private void runStage(String name, Runnable work) {
+        long start = SystemClock.elapsedRealtime();
+        Trace.beginSection("startup:" + name);
+        Span stageSpan = span.child("stage:" + name);
+        try {
+            work.run();
+        } catch (Exception e) {
+            Log.e(TAG, "Startup stage failed: " + name, e);
+        } finally {
+            stageSpan.end();
+            Trace.endSection();
+            logTiming(name, SystemClock.elapsedRealtime() - start);
+        }
+    }
+
+    private static void logTiming(String name, long durationMs) {
+        long sinceProcessStart = SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+        Log.i(TAG, "stage=" + name + " duration=" + durationMs + "ms sinceProcessStart=" + sinceProcessStart + "ms");
+    }
+}
@@ -0,0 +1,255 @@
+package com.loretacafe.pos.ui.transactions;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.loretacafe.pos.Transaction;
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.local.entity.SaleEntity;
+import com.loretacafe.pos.data.local.entity.SaleItemEntity;
+import com.loretacafe.pos.data.local.model.SaleWithItems;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Maps sales to transaction rows, remembering each row by sale id. Room hands
+ * over fresh entity objects on every emission, so a row is reused when its sale
+ * and items still hold the same values and only new or edited sales are mapped
+ * again; one new sale costs one mapping. Rows whose item names came from the
+ * product table are also redone when the products change, and everything is
+ * redone when the day rolls over (the "Today"/"Yesterday" section moves).
+ *
+ * <p>Returned rows are shared between emissions and must not be modified.
+ * Not thread-safe; {@link TransactionsViewModel} calls it from one task at a time.
+ */
+final class TransactionMapper {
+
+    private final DateTimeFormatter dateFormatter =
+            DateTimeFormatter.ofPattern("MMM dd", Locale.getDefault());
+    private final DateTimeFormatter timeFormatter =
+            DateTimeFormatter.ofPattern("hh:mm a", Locale.getDefault());
+
+    private final Map<Long, Row> rows = new HashMap<>();
+    // Many sales share a day; its label and section are formatted once
+    private final Map<LocalDate, String> dateLabels = new HashMap<>();
+    private final Map<LocalDate, String> sections = new HashMap<>();
+    private LocalDate mappedOn;
+    private List<ProductEntity> mappedProducts;
+    private Map<Long, ProductEntity> productMap = new HashMap<>();
+
+    private final Supplier<LocalDate> today;
+
+    private int reused;
+    private int mapped;
+
+    private static final class Row {
+        final SaleWithItems source;
+        final Transaction transaction;
+        final boolean usesProductNames;
+        final List<ProductEntity> products;
+
+        Row(SaleWithItems source, Transaction transaction, boolean usesProductNames, List<ProductEntity> products) {
+            this.source = source;
+            this.transaction = transaction;
+            this.usesProductNames = usesProductNames;
+            this.products = products;
+        }
+    }
+
+    TransactionMapper() {
+        this(LocalDate::now);
+    }
+
+    /**
+     * Tests pass their own calendar to roll the day over.
+     */
+    @VisibleForTesting
+    TransactionMapper(Supplier<LocalDate> today) {
+        this.today = today;
+    }
+
+    /**
+     * Rows for {@code sales}, newest first.
+     */
+    List<Transaction> map(List<SaleWithItems> sales, List<ProductEntity> products) {
+        LocalDate today = this.today.get();
+        if (!today.equals(mappedOn)) {
+            rows.clear();
+            sections.clear();
+            mappedOn = today;
+        }
+        if (products != mappedProducts) {
+            productMap = new HashMap<>();
+            for (ProductEntity product : products) {
+                productMap.put(product.getId(), product);
+            }
+            mappedProducts = products;
+        }
+        reused = 0;
+        mapped = 0;
+
+        List<SaleWithItems> sortedSales = new ArrayList<>(sales);
+        sortedSales.sort((a, b) -> {
+            OffsetDateTime dateA = a.sale != null && a.sale.getSaleDate() != null
+                    ? a.sale.getSaleDate()
+                    : OffsetDateTime.MIN;
+            OffsetDateTime dateB = b.sale != null && b.sale.getSaleDate() != null
+                    ? b.sale.getSaleDate()
+                    : OffsetDateTime.MIN;
+            return dateB.compareTo(dateA);
+        });
+
+        List<Transaction> result = new ArrayList<>(sortedSales.size());
+        for (SaleWithItems saleWithItems : sortedSales) {
+            if (saleWithItems == null || saleWithItems.sale == null) {
+                continue;
+            }
+            long saleId = saleWithItems.sale.getId();
+            Row row = rows.get(saleId);
+            if (row != null && sameContent(row.source, saleWithItems)
+                    && (!row.usesProductNames || row.products == products)) {
+                reused++;
+            } else {
+                row = mapRow(saleWithItems, products);
+                rows.put(saleId, row);
+                mapped++;
+            }
+            result.add(row.transaction);
+        }
+        return result;
+    }
+
+    /**
+     * Forget rows for sales that no longer exist.
+     */
+    void retain(Set<Long> saleIds) {
+        Iterator<Long> iterator = rows.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (!saleIds.contains(iterator.next())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /** Rows reused by the last {@link #map} call. */
+    int reusedCount() {
+        return reused;
+    }
+
+    /** Rows mapped anew by the last {@link #map} call. */
+    int mappedCount() {
+        return mapped;
+    }
+
+    private Row mapRow(SaleWithItems saleWithItems, List<ProductEntity> products) {
+        SaleEntity sale = saleWithItems.sale;
+
+        OffsetDateTime saleDate = sale.getSaleDate() != null
+                ? sale.getSaleDate()
+                : OffsetDateTime.now();
+        LocalDateTime localDateTime = saleDate.toLocalDateTime();
+        LocalDate localDate = localDateTime.toLocalDate();
+
+        Transaction transaction = new Transaction();
+        // Use order number from sale, or generate from ID
+        String orderNumber = sale.getOrderNumber();
+        if (orderNumber == null || orderNumber.isEmpty()) {
+            orderNumber = String.format(Locale.getDefault(), "#%06d", sale.getId());
+        }
+        transaction.setOrderId(orderNumber);
+        // Use customer name from sale, or default
+        String customerName = sale.getCustomerName();
+        if (customerName == null || customerName.isEmpty()) {
+            customerName = "Walk-in Customer";
+        }
+        transaction.setCustomerName(customerName);
+        transaction.setDate(dateLabels.computeIfAbsent(localDate, dateFormatter::format));
+        transaction.setTime(timeFormatter.format(localDateTime));
+        transaction.setSection(sections.computeIfAbsent(localDate, this::buildSection));
+        double total = sale.getTotalAmount() != null ? sale.getTotalAmount().doubleValue() : 0;
+        transaction.setTotalAmount(total);
+        // Use payment method from sale, or default to Cash
+        String paymentMethod = sale.getPaymentMethod();
+        if (paymentMethod == null || paymentMethod.isEmpty()) {
+            paymentMethod = "Cash";
+        }
+        transaction.setPaymentMethod(paymentMethod);
+
+        boolean usesProductNames = false;
+        List<Transaction.OrderItem> orderItems = new ArrayList<>();
+        if (saleWithItems.items != null) {
+            for (SaleItemEntity saleItem : saleWithItems.items) {
+                // Use product name from sale item if available, otherwise from product entity
+                String name = saleItem.getProductName();
+                if (name == null || name.isEmpty()) {
+                    usesProductNames = true;
+                    ProductEntity product = productMap.get(saleItem.getProductId());
+                    name = product != null ? product.getName()
+                            : "Product #" + saleItem.getProductId();
+                }
+                double price = saleItem.getPrice() != null
+                        ? saleItem.getPrice().doubleValue()
+                        : 0;
+                orderItems.add(new Transaction.OrderItem(name, saleItem.getQuantity(), price));
+            }
+        }
+        transaction.setItems(orderItems);
+
+        return new Row(saleWithItems, transaction, usesProductNames, products);
+    }
+
+    private String buildSection(LocalDate saleDate) {
+        long diff = ChronoUnit.DAYS.between(saleDate, mappedOn);
+        if (diff == 0) {
+            return "Today";
+        } else if (diff == 1) {
+            return "Yesterday";
+        } else {
+            return saleDate.getMonth().name().substring(0, 3) + " Month";
+        }
+    }
+
+    private static boolean sameContent(SaleWithItems a, SaleWithItems b) {
+        SaleEntity saleA = a.sale;
+        SaleEntity saleB = b.sale;
+        if (!Objects.equals(saleA.getSaleDate(), saleB.getSaleDate())
+                || !Objects.equals(saleA.getTotalAmount(), saleB.getTotalAmount())
+                || !Objects.equals(saleA.getCustomerName(), saleB.getCustomerName())
+                || !Objects.equals(saleA.getOrderNumber(), saleB.getOrderNumber())
+                || !Objects.equals(saleA.getPaymentMethod(), saleB.getPaymentMethod())) {
+            return false;
+        }
+        List<SaleItemEntity> itemsA = a.items;
+        List<SaleItemEntity> itemsB = b.items;
+        if (itemsA == null || itemsB == null) {
+            return itemsA == itemsB;
+        }
+        if (itemsA.size() != itemsB.size()) {
+            return false;
+        }
+        for (int i = 0; i < itemsA.size(); i++) {
+            SaleItemEntity itemA = itemsA.get(i);
+            SaleItemEntity itemB = itemsB.get(i);
+            if (itemA.getId() != itemB.getId()
+                    || itemA.getProductId() != itemB.getProductId()
+                    || itemA.getQuantity() != itemB.getQuantity()
+                    || !Objects.equals(itemA.getPrice(), itemB.getPrice())
+                    || !Objects.equals(itemA.getProductName(), itemB.getProductName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
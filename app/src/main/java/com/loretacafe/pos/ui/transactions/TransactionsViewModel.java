@@ -11,21 +11,19 @@ import com.loretacafe.pos.PosApp;
 import com.loretacafe.pos.Transaction;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
 import com.loretacafe.pos.data.local.entity.SaleItemEntity;
-import com.loretacafe.pos.data.local.entity.SaleEntity;
 import com.loretacafe.pos.data.local.model.SaleWithItems;
 import com.loretacafe.pos.data.repository.InventoryRepository;
 import com.loretacafe.pos.data.repository.SalesRepository;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class TransactionsViewModel extends AndroidViewModel {
 
@@ -48,10 +46,10 @@ public class TransactionsViewModel extends AndroidViewModel {
     private List<SaleWithItems> currentSales = new ArrayList<>();
     private List<ProductEntity> currentProducts = new ArrayList<>();
 
-    private final DateTimeFormatter dateFormatter =
-            DateTimeFormatter.ofPattern("MMM dd", Locale.getDefault());
-    private final DateTimeFormatter timeFormatter =
-            DateTimeFormatter.ofPattern("hh:mm a", Locale.getDefault());
+    // Rows are mapped on the compute pool; only the latest request is published
+    private final TransactionMapper mapper = new TransactionMapper();
+    private volatile int mappingGeneration;
+    private boolean cleared;
 
     public TransactionsViewModel(@NonNull Application application) {
         super(application);
@@ -74,6 +72,11 @@ public class TransactionsViewModel extends AndroidViewModel {
         });
     }
 
+    @Override
+    protected void onCleared() {
+        cleared = true;
+    }
+
     public LiveData<List<Transaction>> getTransactions() {
         return transactions;
     }
@@ -130,9 +133,7 @@ public class TransactionsViewModel extends AndroidViewModel {
     private void updateState() {
         // Filter sales first, then map to transactions
         List<SaleWithItems> filteredSales = filterSales(currentSales);
-        List<Transaction> mapped = mapTransactions(filteredSales, currentProducts);
-        android.util.Log.d("TransactionsViewModel", "updateState: Filtered " + currentSales.size() + " sales to " + filteredSales.size() + ", mapped to " + mapped.size() + " transactions");
-        transactions.setValue(mapped);
+        mapTransactionsInBackground(currentSales, filteredSales, currentProducts);
         totalRevenue.setValue(calculateTotalRevenue(currentSales));
         todayProfit.setValue(calculateTodayProfit(currentSales, currentProducts));
         grossDailySales.setValue(calculateGrossDailySales(currentSales));
@@ -141,88 +142,37 @@ public class TransactionsViewModel extends AndroidViewModel {
         stockStatus.setValue(buildStockStatus(currentProducts));
     }
 
-    private List<Transaction> mapTransactions(List<SaleWithItems> sales,
-                                              List<ProductEntity> products) {
-        Map<Long, ProductEntity> productMap = new HashMap<>();
-        for (ProductEntity product : products) {
-            productMap.put(product.getId(), product);
-        }
-
-        List<SaleWithItems> sortedSales = new ArrayList<>(sales);
-        sortedSales.sort((a, b) -> {
-            OffsetDateTime dateA = a.sale != null && a.sale.getSaleDate() != null
-                    ? a.sale.getSaleDate()
-                    : OffsetDateTime.MIN;
-            OffsetDateTime dateB = b.sale != null && b.sale.getSaleDate() != null
-                    ? b.sale.getSaleDate()
-                    : OffsetDateTime.MIN;
-            return dateB.compareTo(dateA);
-        });
-
-        List<Transaction> mapped = new ArrayList<>();
-        for (SaleWithItems saleWithItems : sortedSales) {
-            if (saleWithItems == null || saleWithItems.sale == null) {
-                continue;
-            }
-            SaleEntity sale = saleWithItems.sale;
-
-            OffsetDateTime saleDate = sale.getSaleDate() != null
-                    ? sale.getSaleDate()
-                    : OffsetDateTime.now();
-            LocalDateTime localDateTime = saleDate.toLocalDateTime();
-            LocalDate localDate = localDateTime.toLocalDate();
-
-            Transaction transaction = new Transaction();
-            // Use order number from sale, or generate from ID
-            String orderNumber = sale.getOrderNumber();
-            if (orderNumber == null || orderNumber.isEmpty()) {
-                orderNumber = String.format(Locale.getDefault(), "#%06d", sale.getId());
-            }
-            transaction.setOrderId(orderNumber);
-            // Use customer name from sale, or default
-            String customerName = sale.getCustomerName();
-            if (customerName == null || customerName.isEmpty()) {
-                customerName = "Walk-in Customer";
-            }
-            transaction.setCustomerName(customerName);
-            transaction.setDate(dateFormatter.format(localDateTime));
-            transaction.setTime(timeFormatter.format(localDateTime));
-            transaction.setSection(buildSection(localDate));
-            double total = sale.getTotalAmount() != null ? sale.getTotalAmount().doubleValue() : 0;
-            transaction.setTotalAmount(total);
-            // Use payment method from sale, or default to Cash
-            String paymentMethod = sale.getPaymentMethod();
-            if (paymentMethod == null || paymentMethod.isEmpty()) {
-                paymentMethod = "Cash";
-            }
-            transaction.setPaymentMethod(paymentMethod);
-
-            List<Transaction.OrderItem> orderItems = new ArrayList<>();
-            if (saleWithItems.items != null) {
-                for (SaleItemEntity saleItem : saleWithItems.items) {
-                    ProductEntity product = productMap.get(saleItem.getProductId());
-                    // Use product name from sale item if available, otherwise from product entity
-                    String name = saleItem.getProductName();
-                    if (name == null || name.isEmpty()) {
-                        name = product != null ? product.getName()
-                                : "Product #" + saleItem.getProductId();
+    /**
+     * Map {@code filteredSales} to rows off the main thread. Rows for sales that
+     * haven't changed since the last emission are reused (see {@link TransactionMapper}).
+     */
+    private void mapTransactionsInBackground(List<SaleWithItems> allSales,
+                                             List<SaleWithItems> filteredSales,
+                                             List<ProductEntity> products) {
+        final int generation = ++mappingGeneration;
+        AppExecutors.get().compute().execute(() -> {
+            List<Transaction> mapped;
+            synchronized (mapper) {
+                if (generation != mappingGeneration) {
+                    return; // Superseded before it started
+                }
+                mapped = mapper.map(filteredSales, products);
+                Set<Long> saleIds = new HashSet<>();
+                for (SaleWithItems saleWithItems : allSales) {
+                    if (saleWithItems != null && saleWithItems.sale != null) {
+                        saleIds.add(saleWithItems.sale.getId());
                     }
-                    double price = saleItem.getPrice() != null
-                            ? saleItem.getPrice().doubleValue()
-                            : 0;
-                    Transaction.OrderItem orderItem = new Transaction.OrderItem(
-                            name,
-                            saleItem.getQuantity(),
-                            price
-                    );
-                    orderItems.add(orderItem);
                 }
+                mapper.retain(saleIds);
+                android.util.Log.d("TransactionsViewModel", "updateState: Filtered " + allSales.size() + " sales to " + filteredSales.size()
+                        + ", mapped " + mapper.mappedCount() + " and reused " + mapper.reusedCount() + " transactions");
             }
-            transaction.setItems(orderItems);
-
-            mapped.add(transaction);
-        }
-        return mapped;
+            AppExecutors.get().mainThread().execute(() -> {
+                if (!cleared && generation == mappingGeneration) {
+                    transactions.setValue(mapped);
+                }
+            });
+        });
     }
 
     private double calculateTotalRevenue(List<SaleWithItems> sales) {
@@ -434,18 +384,6 @@ public class TransactionsViewModel extends AndroidViewModel {
         return total;
     }
 
-    private String buildSection(LocalDate saleDate) {
-        LocalDate today = LocalDate.now();
-        long diff = ChronoUnit.DAYS.between(saleDate, today);
-        if (diff == 0) {
-            return "Today";
-        } else if (diff == 1) {
-            return "Yesterday";
-        } else {
-            return saleDate.getMonth().name().substring(0, 3) + " Month";
-        }
-    }
-
     /**
      * Filter sales based on current filter type
      * This is more efficient than filtering after mapping to transactions
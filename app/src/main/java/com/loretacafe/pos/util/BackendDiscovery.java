@@ -5,61 +5,85 @@ import android.net.ConnectivityManager;
 import android.net.Network;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
+
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 
 public class BackendDiscovery {
     private static final String TAG = "BackendDiscovery";
     private static final int BACKEND_PORT = 8080;
-    private static final int CONNECTION_TIMEOUT = 500; // milliseconds
-    private static final int MAX_CONCURRENT_SCANS = 50;
+    private static final long SCAN_DEADLINE_MS = 400; // whole /24 must answer within this window
+    private static final int HINT_TIMEOUT_MS = 300; // connect/read timeout for the cached hint
+    
+    // Host suffixes the backend usually lives on (gateway, DHCP reservations used by the shop)
+    private static final int[] PRIORITY_HOSTS = {14, 13, 100, 101, 1, 254};
     
-    private static ExecutorService executorService = Executors.newFixedThreadPool(MAX_CONCURRENT_SCANS);
+    // Common home network ranges, used only when the device IP cannot be determined
+    private static final String[] COMMON_PREFIXES = {
+        "192.168.1", "192.168.0", "192.168.100",
+        "10.0.0", "10.0.2",
+        "172.16.0", "172.20.10"
+    };
+    
+    // Discovery is I/O multiplexed on a single selector, so one thread is enough
+    private static final ExecutorService executorService = Executors.newSingleThreadExecutor();
     
     /**
      * Automatically discover backend server on the current network
      * Scans common IP ranges and finds the server
      */
     public static CompletableFuture<String> discoverBackend(Context context) {
+        return discoverBackend(context, null);
+    }
+    
+    /**
+     * Discover the backend, trying the last known good URL first.
+     * Only when the hint does not answer is the subnet scanned.
+     */
+    public static CompletableFuture<String> discoverBackend(Context context, @Nullable String hintUrl) {
         CompletableFuture<String> future = new CompletableFuture<>();
         
         executorService.execute(() -> {
+            long start = System.currentTimeMillis();
             try {
-                // Get device's network IP
-                String deviceIP = getDeviceIP(context);
-                if (deviceIP == null) {
-                    Log.w(TAG, "Could not determine device IP");
-                    future.complete(null);
+                // Cheapest path: the endpoint that worked last time
+                if (hintUrl != null && isBackendAvailable(hintUrl, HINT_TIMEOUT_MS)) {
+                    Log.i(TAG, "Cached backend still reachable: " + hintUrl
+                            + " (" + (System.currentTimeMillis() - start) + " ms)");
+                    future.complete(hintUrl);
                     return;
                 }
                 
-                Log.d(TAG, "Device IP: " + deviceIP);
-                
-                // Extract network prefix (e.g., 192.168.1 from 192.168.1.100)
-                String networkPrefix = extractNetworkPrefix(deviceIP);
-                Log.d(TAG, "Network prefix: " + networkPrefix);
+                // Get device's network IP
+                String deviceIP = getDeviceIP(context);
+                String networkPrefix = deviceIP != null ? extractNetworkPrefix(deviceIP) : null;
+                Log.d(TAG, "Device IP: " + deviceIP + ", network prefix: " + networkPrefix);
                 
                 // Generate IPs to scan
-                List<String> ipsToScan = generateIPsToScan(networkPrefix);
+                List<String> ipsToScan = generateIPsToScan(networkPrefix, hintUrl);
                 Log.d(TAG, "Scanning " + ipsToScan.size() + " IPs...");
                 
-                // Scan IPs concurrently
+                // Probe every candidate at once and verify the hosts that accept
                 String foundServer = scanIPs(ipsToScan);
                 
                 if (foundServer != null) {
-                    Log.i(TAG, "Backend server found at: " + foundServer);
+                    Log.i(TAG, "Backend server found at: " + foundServer
+                            + " (" + (System.currentTimeMillis() - start) + " ms)");
                     future.complete(foundServer);
                 } else {
                     Log.w(TAG, "Backend server not found on network");
@@ -129,15 +153,39 @@ public class BackendDiscovery {
     }
     
     /**
-     * Generate list of IPs to scan based on network prefix
+     * Extract the host from a base URL (e.g., "192.168.1.14" from "http://192.168.1.14:8080/")
+     */
+    @Nullable
+    private static String extractHost(@Nullable String baseUrl) {
+        if (baseUrl == null) return null;
+        try {
+            return new java.net.URL(baseUrl).getHost();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Generate list of IPs to scan based on network prefix.
+     * Order matters only for verification: the hint and priority hosts are
+     * verified first when several hosts accept the connection.
      */
-    private static List<String> generateIPsToScan(String networkPrefix) {
-        List<String> ips = new ArrayList<>();
+    private static List<String> generateIPsToScan(String networkPrefix, @Nullable String hintUrl) {
+        Set<String> ips = new LinkedHashSet<>();
+        
+        String hintHost = extractHost(hintUrl);
+        if (hintHost != null) {
+            ips.add(hintHost);
+        }
         
         if (networkPrefix == null) {
             // Fallback: scan common ranges
             scanCommonRanges(ips);
-            return ips;
+            return new ArrayList<>(ips);
+        }
+        
+        for (int host : PRIORITY_HOSTS) {
+            ips.add(networkPrefix + "." + host);
         }
         
         // Scan current subnet (1-254)
@@ -145,95 +193,102 @@ public class BackendDiscovery {
             ips.add(networkPrefix + "." + i);
         }
         
-        // Also scan common gateway IPs first (priority)
-        ips.add(0, networkPrefix + ".1");
-        ips.add(1, networkPrefix + ".254");
-        ips.add(2, networkPrefix + ".100");
-        ips.add(3, networkPrefix + ".101");
-        ips.add(4, networkPrefix + ".14");
-        ips.add(5, networkPrefix + ".13");
-        
-        return ips;
+        return new ArrayList<>(ips);
     }
     
     /**
      * Scan common network ranges if we can't determine device network
      */
-    private static void scanCommonRanges(List<String> ips) {
-        // Common home network ranges
-        String[] commonPrefixes = {
-            "192.168.1", "192.168.0", "192.168.100",
-            "10.0.0", "10.0.2",
-            "172.16.0", "172.20.10"
-        };
-        
-        for (String prefix : commonPrefixes) {
+    private static void scanCommonRanges(Set<String> ips) {
+        for (String prefix : COMMON_PREFIXES) {
             // Scan gateway and common server IPs
-            ips.add(prefix + ".1");
-            ips.add(prefix + ".100");
-            ips.add(prefix + ".101");
-            ips.add(prefix + ".14");
-            ips.add(prefix + ".13");
+            for (int host : PRIORITY_HOSTS) {
+                ips.add(prefix + "." + host);
+            }
         }
     }
     
     /**
-     * Scan multiple IPs concurrently to find backend server
+     * Probe all IPs concurrently with non-blocking connects on one selector,
+     * then verify the hosts that accepted (in scan order) over HTTP.
      */
     private static String scanIPs(List<String> ips) {
-        List<Future<String>> futures = new ArrayList<>();
+        List<String> accepted = probePort(ips, SCAN_DEADLINE_MS);
+        Log.d(TAG, accepted.size() + " host(s) accepted on port " + BACKEND_PORT);
         
-        // Submit all scan tasks
         for (String ip : ips) {
-            Future<String> future = executorService.submit(() -> checkServer(ip));
-            futures.add(future);
-        }
-        
-        // Wait for first successful result
-        for (Future<String> future : futures) {
-            try {
-                String result = future.get(2, TimeUnit.SECONDS);
-                if (result != null) {
-                    // Cancel remaining tasks
-                    for (Future<String> f : futures) {
-                        if (!f.isDone()) {
-                            f.cancel(true);
-                        }
-                    }
-                    return result;
-                }
-            } catch (Exception e) {
-                // Continue to next IP
+            if (!accepted.contains(ip)) continue;
+            String baseUrl = "http://" + ip + ":" + BACKEND_PORT;
+            if (verifyBackendEndpoint(baseUrl)) {
+                Log.d(TAG, "Verified backend at: " + baseUrl);
+                return baseUrl + "/";
             }
         }
-        
         return null;
     }
     
     /**
-     * Check if server is running at given IP
+     * Start a non-blocking connect to every IP and collect the ones that complete
+     * before the deadline. All channels are closed before returning.
      */
-    private static String checkServer(String ip) {
-        try {
-            // Try to connect to the port
-            Socket socket = new Socket();
-            socket.connect(new InetSocketAddress(ip, BACKEND_PORT), CONNECTION_TIMEOUT);
-            socket.close();
+    private static List<String> probePort(List<String> ips, long deadlineMs) {
+        List<String> accepted = new ArrayList<>();
+        List<SocketChannel> channels = new ArrayList<>(ips.size());
+        
+        try (Selector selector = Selector.open()) {
+            for (String ip : ips) {
+                SocketChannel channel = null;
+                try {
+                    channel = SocketChannel.open();
+                    channel.configureBlocking(false);
+                    channels.add(channel);
+                    if (channel.connect(new InetSocketAddress(ip, BACKEND_PORT))) {
+                        accepted.add(ip);
+                    } else {
+                        channel.register(selector, SelectionKey.OP_CONNECT, ip);
+                    }
+                } catch (IOException e) {
+                    // Unroutable or refused immediately
+                    if (channel != null) closeQuietly(channel);
+                }
+            }
             
-            // Verify it's actually the backend by checking HTTP endpoint
-            String baseUrl = "http://" + ip + ":" + BACKEND_PORT;
-            if (verifyBackendEndpoint(baseUrl)) {
-                Log.d(TAG, "Verified backend at: " + baseUrl);
-                return baseUrl + "/";
+            long deadline = System.currentTimeMillis() + deadlineMs;
+            while (!selector.keys().isEmpty()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) break;
+                if (selector.select(remaining) == 0) continue;
+                
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    SocketChannel channel = (SocketChannel) key.channel();
+                    try {
+                        if (channel.finishConnect()) {
+                            accepted.add((String) key.attachment());
+                        }
+                    } catch (IOException e) {
+                        // Connection refused - nothing listening on this host
+                    }
+                    key.cancel();
+                }
             }
-        } catch (SocketTimeoutException e) {
-            // Timeout - server not available
         } catch (IOException e) {
-            // Connection refused or other error
-        } catch (Exception e) {
-            Log.d(TAG, "Error checking " + ip + ": " + e.getMessage());
+            Log.e(TAG, "Selector scan failed", e);
+        } finally {
+            for (SocketChannel channel : channels) {
+                closeQuietly(channel);
+            }
+        }
+        return accepted;
+    }
+    
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
         }
-        return null;
     }
     
     /**
@@ -261,12 +316,19 @@ public class BackendDiscovery {
      * Quick check if a specific IP is the backend (for cached IPs)
      */
     public static boolean isBackendAvailable(String baseUrl) {
+        return isBackendAvailable(baseUrl, 2000);
+    }
+    
+    /**
+     * Quick check if a specific IP is the backend, with a caller-chosen timeout
+     */
+    public static boolean isBackendAvailable(String baseUrl, int timeoutMs) {
         try {
             String url = baseUrl.endsWith("/") ? baseUrl + "api/health" : baseUrl + "/api/health";
             java.net.HttpURLConnection conn = (java.net.HttpURLConnection) 
                 new java.net.URL(url).openConnection();
-            conn.setConnectTimeout(2000);
-            conn.setReadTimeout(2000);
+            conn.setConnectTimeout(timeoutMs);
+            conn.setReadTimeout(timeoutMs);
             conn.setRequestMethod("GET");
             int code = conn.getResponseCode();
             conn.disconnect();
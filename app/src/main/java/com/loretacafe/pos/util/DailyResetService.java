@@ -8,6 +8,7 @@ import android.content.Intent;
 import android.util.Log;
 
 import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.util.Calendar;
 
@@ -35,7 +36,7 @@ public class DailyResetService extends BroadcastReceiver {
         Log.d(TAG, "Daily reset triggered at 3:00 AM");
         
         // Perform daily reset operations
-        new Thread(() -> {
+        AppExecutors.get().diskWrite().execute(() -> {
             try {
                 AppDatabase database = AppDatabase.getInstance(context);
                 
@@ -55,7 +56,7 @@ public class DailyResetService extends BroadcastReceiver {
             } catch (Exception e) {
                 Log.e(TAG, "Error during daily reset", e);
             }
-        }).start();
+        });
     }
 
     /**
@@ -13,10 +13,12 @@ import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
 import com.loretacafe.pos.data.local.dao.ProductDao;
 import com.loretacafe.pos.data.local.dao.RecipeDao;
 import com.loretacafe.pos.data.local.entity.ProductEntity;
 import com.loretacafe.pos.data.local.entity.RecipeEntity;
+import com.loretacafe.pos.data.util.AppExecutors;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -207,21 +209,21 @@ public class RealTimeAvailabilityManager {
     }
     
     /**
-     * Update local database with stock from Firestore
+     * Update local database with stock from Firestore. Queued on the DatabaseWriter
+     * like every other mutation, so it cannot land in the middle of a checkout.
      */
     private void updateLocalDatabase(Long rawMaterialId, double stock) {
-        new Thread(() -> {
-            try {
-                ProductEntity product = productDao.getById(rawMaterialId);
-                if (product != null) {
-                    product.setQuantity(stock);
-                    productDao.update(product);
-                    Log.d(TAG, "Updated local stock for " + product.getName() + ": " + stock);
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "Error updating local database", e);
+        DatabaseWriter.getInstance(context).execute(() -> {
+            ProductEntity product = productDao.getById(rawMaterialId);
+            if (product != null) {
+                product.setQuantity(stock);
+                productDao.update(product);
+                Log.d(TAG, "Updated local stock for " + product.getName() + ": " + stock);
             }
-        }).start();
+        }).exceptionally(error -> {
+            Log.e(TAG, "Error updating local database", error);
+            return null;
+        });
     }
     
     /**
@@ -229,7 +231,7 @@ public class RealTimeAvailabilityManager {
      * This allows efficient updates when a specific raw material changes
      */
     private void buildRawMaterialToMenuItemsMapping() {
-        new Thread(() -> {
+        AppExecutors.get().diskRead().execute(() -> {
             try {
                 List<RecipeEntity> allRecipes = recipeDao.getAllRecipes();
                 for (RecipeEntity recipeEntity : allRecipes) {
@@ -273,14 +275,14 @@ public class RealTimeAvailabilityManager {
             } catch (Exception e) {
                 Log.e(TAG, "Error building raw material mapping", e);
             }
-        }).start();
+        });
     }
     
     /**
      * Recalculate availability for menu items that use the changed raw materials
      */
     private void recalculateAvailabilityForRawMaterials(Set<Long> changedRawMaterials) {
-        new Thread(() -> {
+        AppExecutors.get().diskRead().execute(() -> {
             try {
                 // Find all menu items affected by these raw material changes
                 Set<Long> affectedMenuItems = new HashSet<>();
@@ -322,14 +324,14 @@ public class RealTimeAvailabilityManager {
             } catch (Exception e) {
                 Log.e(TAG, "Error recalculating availability", e);
             }
-        }).start();
+        });
     }
     
     /**
      * Check availability from local database (offline mode)
      */
     private void checkAvailabilityFromLocalDatabase() {
-        new Thread(() -> {
+        AppExecutors.get().diskRead().execute(() -> {
             try {
                 // Get all menu items (ID < 10000)
                 List<ProductEntity> allProducts = productDao.getAll();
@@ -367,7 +369,7 @@ public class RealTimeAvailabilityManager {
             } catch (Exception e) {
                 Log.e(TAG, "Error checking availability from local database", e);
             }
-        }).start();
+        });
     }
     
     /**
@@ -397,7 +399,7 @@ public class RealTimeAvailabilityManager {
      * Useful when coming back online or after bulk updates
      */
     public void recalculateAllAvailability() {
-        new Thread(() -> {
+        AppExecutors.get().diskRead().execute(() -> {
             try {
                 List<ProductEntity> allProducts = productDao.getAll();
                 Set<Long> allRawMaterials = new HashSet<>();
@@ -413,7 +415,7 @@ public class RealTimeAvailabilityManager {
             } catch (Exception e) {
                 Log.e(TAG, "Error recalculating all availability", e);
             }
-        }).start();
+        });
     }
     
     /**
@@ -0,0 +1,211 @@
+package com.loretacafe.pos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Identical lines merge, the running totals match a recount after every kind
+ * of change, and units are tracked per product across sizes.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class CartManagerTest {
+
+    private CartManager cart;
+
+    @Before
+    public void setUp() {
+        cart = new CartManager();
+    }
+
+    @Test
+    public void identicalLinesMerge() {
+        CartItem first = cart.addItem(line(1, "Grande", 120, 1, "Pearls", "Cheese Foam"));
+        // Same product, size, price and add-ons (in another order)
+        CartItem merged = cart.addItem(line(1, "Grande", 120, 2, "Cheese Foam", "Pearls"));
+
+        assertEquals(first.getId(), merged.getId());
+        assertEquals(3, merged.getQuantity());
+        assertEquals(1, cart.getCartCount());
+        assertTotalsMatchLines();
+    }
+
+    @Test
+    public void anyDifferenceInTheMergeKeyKeepsLinesApart() {
+        cart.addItem(line(1, "Grande", 120, 1));
+        cart.addItem(line(1, "Venti", 120, 1));
+        cart.addItem(line(1, "Grande", 125, 1));
+        cart.addItem(line(1, "Grande", 120, 1, "Pearls"));
+        cart.addItem(line(2, "Grande", 120, 1));
+
+        assertEquals(5, cart.getCartCount());
+        assertTotalsMatchLines();
+    }
+
+    @Test
+    public void totalsFollowEveryChange() {
+        CartItem latte = cart.addItem(line(1, "Grande", 120.50, 2));
+        CartItem mocha = cart.addItem(line(2, "Grande", 99.99, 1));
+        assertTotalsMatchLines();
+
+        cart.setQuantity(latte.getId(), 5);
+        assertTotalsMatchLines();
+
+        CartItem edited = new CartItem(mocha);
+        edited.setUnitPrice(89.75);
+        cart.updateItem(edited);
+        assertTotalsMatchLines();
+
+        cart.removeItem(latte.getId());
+        assertTotalsMatchLines();
+        assertEquals(89.75, cart.getCartTotal(), 0.0);
+
+        cart.clearCart();
+        assertTrue(cart.getSnapshot().isEmpty());
+        assertEquals(0.0, cart.getCartTotal(), 0.0);
+        assertEquals(0, cart.getSnapshot().getItemCount());
+    }
+
+    @Test
+    public void manySmallPricesDoNotDrift() {
+        for (int i = 0; i < 1000; i++) {
+            cart.addItem(line(i + 1, "Regular", 0.10, 1));
+        }
+        // Summing 0.10 a thousand times in doubles gives 99.9999999999986
+        assertEquals(100.0, cart.getCartTotal(), 0.0);
+    }
+
+    @Test
+    public void editThatMatchesAnotherLineMergesIntoIt() {
+        CartItem grande = cart.addItem(line(1, "Grande", 120, 1));
+        CartItem venti = cart.addItem(line(1, "Venti", 120, 2));
+
+        CartItem edited = new CartItem(venti);
+        edited.setSelectedSize("Grande");
+        cart.updateItem(edited);
+
+        assertEquals(1, cart.getCartCount());
+        assertNull(cart.getItem(venti.getId()));
+        assertEquals(3, cart.getItem(grande.getId()).getQuantity());
+        assertTotalsMatchLines();
+    }
+
+    @Test
+    public void unitsAreCountedPerProductAcrossSizes() {
+        CartItem grande = cart.addItem(line(1, "Grande", 120, 2));
+        cart.addItem(line(1, "Venti", 140, 3));
+        cart.addItem(line(2, "Grande", 99, 4));
+        assertEquals(5, cart.getUnits(1));
+        assertEquals(4, cart.getUnits(2));
+        assertEquals(0, cart.getUnits(3));
+
+        cart.setQuantity(grande.getId(), 0);
+        assertEquals(3, cart.getUnits(1));
+
+        cart.setCartItems(Arrays.asList(line(2, "Grande", 99, 1), line(2, "Grande", 99, 1)));
+        assertEquals(0, cart.getUnits(1));
+        assertEquals(2, cart.getUnits(2));
+        assertEquals(1, cart.getCartCount());
+    }
+
+    @Test
+    public void snapshotsAreImmutableAndVersioned() {
+        CartManager.Snapshot before = cart.getSnapshot();
+        cart.addItem(line(1, "Grande", 120, 1));
+        CartManager.Snapshot after = cart.getSnapshot();
+
+        assertTrue(before.isEmpty());
+        assertEquals(1, after.getLineCount());
+        assertNotEquals(before.getVersion(), after.getVersion());
+        // The caller's item is copied, so changing it afterwards leaves the cart alone
+        CartItem mine = line(2, "Grande", 120, 1);
+        cart.addItem(mine);
+        mine.setQuantity(50);
+        assertEquals(2, cart.getSnapshot().getItemCount());
+    }
+
+    @Test
+    public void handedOutLinesAreReadOnly() {
+        CartItem stored = cart.addItem(line(1, "Grande", 120, 1, "Pearls"));
+
+        assertThrows(IllegalStateException.class, () -> stored.setQuantity(9));
+        assertThrows(IllegalStateException.class, () -> cart.getItem(stored.getId()).setUnitPrice(1));
+        assertThrows(IllegalStateException.class,
+                () -> cart.getSnapshot().getItems().get(0).setSelectedSize("Venti"));
+        assertThrows(UnsupportedOperationException.class, () -> stored.getSelectedAddOns().add("Cheese Foam"));
+
+        // Edits go through a copy, which keeps the index and totals in step
+        CartItem edited = new CartItem(stored);
+        edited.setQuantity(4);
+        cart.updateItem(edited);
+        assertEquals(4, cart.getItem(stored.getId()).getQuantity());
+        assertEquals(4, cart.getUnits(1));
+        assertTotalsMatchLines();
+    }
+
+    @Test
+    public void listenerSeesMergesAsQuantityChanges() {
+        List<String> events = new ArrayList<>();
+        cart.setChangeListener(new CartManager.ChangeListener() {
+            @Override
+            public void onLinePut(CartItem line) {
+                events.add("put " + line.getQuantity());
+            }
+
+            @Override
+            public void onQuantityChanged(String lineId, int quantity) {
+                events.add("quantity " + quantity);
+            }
+
+            @Override
+            public void onLineRemoved(String lineId) {
+                events.add("removed");
+            }
+
+            @Override
+            public void onCartReplaced(List<CartItem> lines) {
+                events.add("replaced " + lines.size());
+            }
+        });
+
+        CartItem latte = cart.addItem(line(1, "Grande", 120, 1));
+        cart.addItem(line(1, "Grande", 120, 2));
+        cart.setQuantity(latte.getId(), 0);
+        cart.clearCart(); // Already empty, so no event
+
+        assertEquals(Arrays.asList("put 1", "quantity 3", "removed"), events);
+    }
+
+    /** The running totals equal a recount of the lines. */
+    private void assertTotalsMatchLines() {
+        CartManager.Snapshot snapshot = cart.getSnapshot();
+        long centavos = 0;
+        int units = 0;
+        for (CartItem item : snapshot.getItems()) {
+            centavos += Math.round(item.getTotalPrice() * 100);
+            units += item.getQuantity();
+        }
+        assertEquals(centavos / 100.0, snapshot.getTotal(), 0.0);
+        assertEquals(units, snapshot.getItemCount());
+        assertEquals(snapshot.getItems().size(), cart.getCartCount());
+    }
+
+    private static CartItem line(long productId, String size, double unitPrice, int quantity, String... addOns) {
+        CartItem item = new CartItem(productId, "Product " + productId, "Coffee", size, quantity, unitPrice);
+        item.setSelectedAddOns(new ArrayList<>(Arrays.asList(addOns)));
+        return item;
+    }
+}
@@ -0,0 +1,194 @@
+package com.loretacafe.pos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.core.widget.NestedScrollView;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.loretacafe.pos.perf.FrameHistogram;
+import com.loretacafe.pos.perf.Perf;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Before/after benchmark of the menu grid's main-thread frame work during a
+ * fling: the old layout (a wrap_content grid inside a NestedScrollView, which
+ * binds every tile up front) against the recycling grid MenuTilePool sets up.
+ * Each frame is a scroll step plus a measure/layout pass; its duration, rounded
+ * up to whole 60 Hz vsyncs, is fed to the screens' {@link FrameHistogram}, so
+ * the output uses the same buckets as the "frames[menu]" lines in the Perf log.
+ * Drawing and background pre-inflation are not included, and host timings are
+ * for comparing runs on one machine, not a device figure. Not part of the
+ * unit-test run:
+ *
+ *   ./gradlew :app:benchmarkUnitTest
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class MenuGridBenchmark {
+
+    private static final int SPAN_COUNT = 3;
+    // The seeded menu six times over, so the grid is several screens tall
+    private static final int COPIES = 6;
+    private static final int WIDTH_PX = 1080;
+    private static final int HEIGHT_PX = 1920;
+    private static final int FLING_FRAMES = 240;
+    private static final int SCROLL_PER_FRAME_PX = 40;
+    private static final long VSYNC_NANOS = 16_666_667L;
+
+    @Test
+    public void flingBenchmark() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        Context themed = new ContextThemeWrapper(activity, R.style.Theme_Loretacafepos);
+        // Warm up class loading and resource parsing so neither run pays for it
+        run(activity, themed, true, "warm-up");
+
+        Result before = run(activity, themed, true, "grid-nested");
+        Result after = run(activity, themed, false, "grid-recycled");
+
+        assertEquals("the nested grid binds every tile", before.tiles, before.boundTiles);
+        assertTrue("the recycling grid binds only what is on screen", after.boundTiles < after.tiles);
+        System.out.println(before);
+        System.out.println(after);
+    }
+
+    private static Result run(Activity activity, Context themed, boolean nested, String name) {
+        FrameLayout root = new FrameLayout(themed);
+        RecyclerView grid = new RecyclerView(themed);
+        grid.setLayoutManager(new GridLayoutManager(themed, SPAN_COUNT));
+        MenuAdapter adapter = new MenuAdapter(menu(), (item, position) -> { });
+        adapter.setRecipeAvailability(false);
+        View scroller;
+        if (nested) {
+            NestedScrollView scrollView = new NestedScrollView(themed);
+            grid.setNestedScrollingEnabled(false);
+            scrollView.addView(grid, new ViewGroup.LayoutParams(
+                    ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+            root.addView(scrollView, new ViewGroup.LayoutParams(
+                    ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+            grid.setAdapter(adapter);
+            scroller = scrollView;
+        } else {
+            root.addView(grid, new ViewGroup.LayoutParams(
+                    ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+            grid.setAdapter(adapter);
+            MenuTilePool.install(grid, adapter, SPAN_COUNT);
+            scroller = grid;
+        }
+        // Attached so the histogram samples; the looper is never idled, so only
+        // the passes below lay the screen out
+        activity.setContentView(root);
+
+        long start = System.nanoTime();
+        layoutPass(root);
+        long firstLayoutNanos = System.nanoTime() - start;
+        int boundTiles = grid.getChildCount();
+
+        FrameHistogram histogram = FrameHistogram.attach(grid, name);
+        histogram.onScrollStateChanged(grid, RecyclerView.SCROLL_STATE_SETTLING);
+        long vsync = TimeUnit.SECONDS.toNanos(1);
+        histogram.doFrame(vsync);
+        long busiestNanos = 0;
+        long totalNanos = 0;
+        for (int frame = 0; frame < FLING_FRAMES; frame++) {
+            long frameStart = System.nanoTime();
+            scroller.scrollBy(0, SCROLL_PER_FRAME_PX);
+            layoutPass(root);
+            long work = System.nanoTime() - frameStart;
+            busiestNanos = Math.max(busiestNanos, work);
+            totalNanos += work;
+            // A frame whose work overruns the vsync shows up one vsync later
+            vsync += Math.max(1, (work + VSYNC_NANOS - 1) / VSYNC_NANOS) * VSYNC_NANOS;
+            histogram.doFrame(vsync);
+        }
+        histogram.onScrollStateChanged(grid, RecyclerView.SCROLL_STATE_IDLE);
+
+        return new Result(name, adapter.getItemCount(), boundTiles, firstLayoutNanos,
+                totalNanos, busiestNanos, lastFramesLine(name));
+    }
+
+    private static void layoutPass(View root) {
+        root.measure(View.MeasureSpec.makeMeasureSpec(WIDTH_PX, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT_PX, View.MeasureSpec.EXACTLY));
+        root.layout(0, 0, WIDTH_PX, HEIGHT_PX);
+    }
+
+    private static String lastFramesLine(String name) {
+        List<String> lines = Perf.getLogLines();
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            if (lines.get(i).contains("frames[" + name + "]")) {
+                return lines.get(i);
+            }
+        }
+        return "frames[" + name + "] not recorded";
+    }
+
+    private static List<MenuItem> menu() {
+        String[][] seeded = {
+                {"Wintermelon", "78", "milktea_wintermelon"}, {"Okinawa", "78", "milktea_okinawa"},
+                {"Taro", "78", "milktea_taro"}, {"Ube", "78", "milktea_ube"},
+                {"Cookies & Cream", "78", "milktea_cookiesandcream"}, {"Chocolate", "78", "milktea_chocolate"},
+                {"Choc Chip", "98", "frappe_chocchip"}, {"Caramel", "98", "frappe_caramel"},
+                {"Black Forest", "98", "frappe_black_forest"}, {"Vanilla", "98", "frappe_vanilla"},
+                {"Sunrise", "68", "fruittea_sunrise"}, {"Lemonade", "68", "ic_image_placeholder"},
+        };
+        List<MenuItem> items = new ArrayList<>();
+        long id = 1;
+        for (int copy = 0; copy < COPIES; copy++) {
+            for (String[] row : seeded) {
+                // Some tiles carry a low-stock badge, as on a real shift
+                int quantity = id % 5 == 0 ? 4 : 50;
+                items.add(new MenuItem(id++, row[0], Double.parseDouble(row[1]), "MENU", quantity, row[2]));
+            }
+        }
+        return items;
+    }
+
+    private static final class Result {
+        final String name;
+        final int tiles;
+        final int boundTiles;
+        final long firstLayoutNanos;
+        final long flingNanos;
+        final long busiestFrameNanos;
+        final String histogram;
+
+        Result(String name, int tiles, int boundTiles, long firstLayoutNanos, long flingNanos,
+               long busiestFrameNanos, String histogram) {
+            this.name = name;
+            this.tiles = tiles;
+            this.boundTiles = boundTiles;
+            this.firstLayoutNanos = firstLayoutNanos;
+            this.flingNanos = flingNanos;
+            this.busiestFrameNanos = busiestFrameNanos;
+            this.histogram = histogram;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: first layout %.1f ms binding %d of %d tiles; %d-frame fling %.1f ms of work,"
+                            + " busiest frame %.2f ms%n  %s",
+                    name, firstLayoutNanos / 1e6, boundTiles, tiles, FLING_FRAMES, flingNanos / 1e6,
+                    busiestFrameNanos / 1e6, histogram);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.loretacafe.pos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A new list of menu tiles, diffed off the main thread, rebinds only the
+ * tiles that changed, and only the part of each tile that changed.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class MenuItemDiffCallbackTest {
+
+    private final List<String> updates = new ArrayList<>();
+    private AsyncListDiffer<MenuItem> differ;
+
+    @Before
+    public void setUp() throws Exception {
+        differ = new AsyncListDiffer<>(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                updates.add("inserted " + position + "+" + count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                updates.add("removed " + position + "+" + count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                updates.add("moved " + fromPosition + ">" + toPosition);
+            }
+
+            @Override
+            public void onChanged(int position, int count, @Nullable Object payload) {
+                updates.add("changed " + position + "+" + count + " " + payload);
+            }
+        }, MenuItemDiffCallback.config());
+        submit(menu());
+        updates.clear();
+    }
+
+    @Test
+    public void availabilityChangeIsAPayloadForThatTileOnly() throws Exception {
+        List<MenuItem> next = menu();
+        next.get(1).applyAvailability(false, false, "Out of Taro powder");
+
+        submit(next);
+
+        assertEquals(Collections.singletonList("changed 1+1 " + MenuItemDiffCallback.PAYLOAD_AVAILABILITY), updates);
+    }
+
+    @Test
+    public void favoriteChangeIsAPayloadForThatTileOnly() throws Exception {
+        List<MenuItem> next = menu();
+        next.get(2).setFavorite(true);
+
+        submit(next);
+
+        assertEquals(Collections.singletonList("changed 2+1 " + MenuItemDiffCallback.PAYLOAD_FAVORITE), updates);
+    }
+
+    @Test
+    public void priceChangeRebindsTheWholeTile() throws Exception {
+        List<MenuItem> next = menu();
+        next.get(0).setPrice(80);
+
+        submit(next);
+
+        assertEquals(Collections.singletonList("changed 0+1 null"), updates);
+    }
+
+    @Test
+    public void equalItemsFromANewCatalogueChangeNothing() throws Exception {
+        submit(menu());
+
+        assertTrue(updates.isEmpty());
+    }
+
+    /** Fresh, available instances every call, as a new menu catalogue hands out. */
+    private static List<MenuItem> menu() {
+        List<MenuItem> items = new ArrayList<>(Arrays.asList(
+                new MenuItem(1, "Wintermelon", 78, "MILKTEA CLASSIC", 20),
+                new MenuItem(3, "Taro", 78, "MILKTEA CLASSIC", 20),
+                new MenuItem(12, "Choc Chip", 98, "FRAPPE / COFFEE FRAPPE", 20)));
+        for (MenuItem item : items) {
+            item.applyAvailability(true, false, null);
+        }
+        return items;
+    }
+
+    /** Diff on the compute pool, then run the main looper until the result is applied. */
+    private void submit(List<MenuItem> items) throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        differ.submitList(items, committed::countDown);
+        // Robolectric's SystemClock is frozen, so wait on wall time
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (committed.getCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        assertEquals("diff not applied", 0, committed.getCount());
+    }
+}
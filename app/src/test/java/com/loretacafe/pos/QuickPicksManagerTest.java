@@ -0,0 +1,129 @@
+package com.loretacafe.pos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Quick picks rank by exponentially decayed sales, favorites break ties and
+ * fill empty slots, and the counters survive a restart.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class QuickPicksManagerTest {
+
+    private static final MenuItem LATTE = new MenuItem(1, "Spanish Latte", 120, "Coffee", 10);
+    private static final MenuItem MOCHA = new MenuItem(2, "Mocha", 130, "Coffee", 10);
+    private static final MenuItem MATCHA = new MenuItem(3, "Matcha Latte", 140, "Non-Coffee", 10);
+    private static final MenuItem TEA = new MenuItem(4, "Iced Tea", 80, "Non-Coffee", 10);
+    private static final List<MenuItem> MENU = Arrays.asList(LATTE, MOCHA, MATCHA, TEA);
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        QuickPicksManager.resetInstance();
+        FavoritesManager.getInstance(context).clearAllFavorites();
+    }
+
+    @After
+    public void tearDown() {
+        QuickPicksManager.resetInstance();
+        FavoritesManager.getInstance(context).clearAllFavorites();
+    }
+
+    @Test
+    public void ranksByUnitsSold() {
+        QuickPicksManager picks = QuickPicksManager.getInstance(context);
+        picks.recordSale(Arrays.asList(line(MOCHA, 1), line(LATTE, 3)));
+        picks.recordSale(Collections.singletonList(line(MOCHA, 1)));
+
+        assertEquals(Arrays.asList(LATTE, MOCHA), picks.getQuickPicks(MENU, 8));
+    }
+
+    @Test
+    public void olderSalesCountHalfAfterAHalfLife() {
+        // Latte sold 10 a half-life ago; Mocha's 6 today outweigh its decayed 5
+        storeScores("1:10.000", System.currentTimeMillis() - QuickPicksManager.HALF_LIFE_MS);
+        QuickPicksManager picks = QuickPicksManager.getInstance(context);
+        assertEquals(Collections.singletonList(LATTE), picks.getQuickPicks(MENU, 8));
+
+        picks.recordSale(Collections.singletonList(line(MOCHA, 6)));
+
+        assertEquals(Arrays.asList(MOCHA, LATTE), picks.getQuickPicks(MENU, 8));
+    }
+
+    @Test
+    public void fadedCountersAreDropped() {
+        // Twenty half-lives shrink 10 units to about 0.00001, below the cut-off
+        storeScores("1:10.000", System.currentTimeMillis() - 20 * QuickPicksManager.HALF_LIFE_MS);
+        QuickPicksManager picks = QuickPicksManager.getInstance(context);
+
+        picks.recordSale(Collections.singletonList(line(MOCHA, 1)));
+
+        assertEquals(Collections.singletonList(MOCHA), picks.getQuickPicks(MENU, 8));
+        assertTrue(prefs().getString("scores", "").startsWith("2:"));
+    }
+
+    @Test
+    public void favoritesBreakTiesAndFillRemainingSlots() {
+        FavoritesManager.getInstance(context).addFavorite(MOCHA.getName());
+        FavoritesManager.getInstance(context).addFavorite(TEA.getName());
+        QuickPicksManager picks = QuickPicksManager.getInstance(context);
+        picks.recordSale(Arrays.asList(line(LATTE, 2), line(MOCHA, 2)));
+
+        assertEquals(Arrays.asList(MOCHA, LATTE, TEA), picks.getQuickPicks(MENU, 8));
+        assertEquals(Arrays.asList(MOCHA, LATTE), picks.getQuickPicks(MENU, 2));
+    }
+
+    @Test
+    public void countersSurviveARestart() {
+        QuickPicksManager.getInstance(context).recordSale(
+                Arrays.asList(line(MATCHA, 4), line(TEA, 1)));
+
+        QuickPicksManager.resetInstance();
+
+        assertEquals(Arrays.asList(MATCHA, TEA), QuickPicksManager.getInstance(context).getQuickPicks(MENU, 8));
+    }
+
+    @Test
+    public void ignoresLinesWithoutAProductOrQuantity() {
+        QuickPicksManager picks = QuickPicksManager.getInstance(context);
+        picks.recordSale(Arrays.asList(
+                new CartItem(0, "Custom", "Coffee", "Regular", 3, 100),
+                line(LATTE, 0),
+                null));
+
+        assertTrue(picks.getQuickPicks(MENU, 8).isEmpty());
+    }
+
+    private void storeScores(String encoded, long referenceTime) {
+        prefs().edit()
+                .putString("scores", encoded)
+                .putLong("reference_time", referenceTime)
+                .commit();
+    }
+
+    private android.content.SharedPreferences prefs() {
+        return context.getSharedPreferences("quick_picks_prefs", Context.MODE_PRIVATE);
+    }
+
+    private static CartItem line(MenuItem item, int quantity) {
+        return new CartItem(item.getProductId(), item.getName(), item.category(), "Regular", quantity, 120);
+    }
+}
@@ -0,0 +1,172 @@
+package com.loretacafe.pos.data.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Upgrades a version 6 database through every migration to the current schema
+ * and checks the data survives: rows kept, quantities fractional, ISO-8601
+ * timestamps turned into epoch millis and decimal strings into centavos, and
+ * unit costs keeping their sub-centavo digits. Each step is validated against the schema exported in app/schemas.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class DatabaseMigrationsTest {
+
+    private static final String DB_NAME = "migration-test.db";
+
+    private static final String CREATED = "2025-10-01T08:00:00+08:00";
+    private static final String SOLD = "2025-10-01T09:30:15.250+08:00";
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(), AppDatabase.class);
+
+    @Test
+    public void migrate6To12KeepsData() throws Exception {
+        SupportSQLiteDatabase db = helper.createDatabase(DB_NAME, 6);
+        db.execSQL("INSERT INTO users (user_id, name, email, role, password, created_at, updated_at, is_active) "
+                + "VALUES (1, 'Ana', 'ana@loreta.cafe', 'CASHIER', 'x', '" + CREATED + "', NULL, 1)");
+        db.execSQL("INSERT INTO products (product_id, name, category, supplier, cost, price, quantity, status, "
+                + "created_at, updated_at) VALUES (101, 'Spanish Latte', 'Coffee', 'Loreta', '60.5', '120', 12, "
+                + "'IN_STOCK', '" + CREATED + "', NULL)");
+        db.execSQL("INSERT INTO sales (sale_id, cashier_id, sale_date, total_amount, customer_name, order_number, "
+                + "payment_method) VALUES (7, 1, '" + SOLD + "', '245.75', 'Ben', 'A-0007', 'CASH')");
+        db.execSQL("INSERT INTO sale_items (sale_item_id, sale_id, product_id, quantity, price, subtotal, size, "
+                + "product_name) VALUES (1, 7, 101, 2, '120.00', NULL, 'Grande', 'Spanish Latte')");
+        db.execSQL("INSERT INTO shifts (id, user_id, user_name, clock_in_time, created_at) "
+                + "VALUES (1, 1, 'Ana', '" + CREATED + "', 'not a date')");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(DB_NAME, 8, true, DatabaseMigrations.MIGRATION_6_8);
+        try (Cursor cursor = db.query("SELECT quantity, typeof(quantity) FROM products WHERE product_id = 101")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(12.0, cursor.getDouble(0), 0.0);
+            assertEquals("real", cursor.getString(1));
+        }
+        db.close();
+
+        helper.runMigrationsAndValidate(DB_NAME, 9, true, DatabaseMigrations.MIGRATION_8_9).close();
+
+        db = helper.runMigrationsAndValidate(DB_NAME, 10, true, DatabaseMigrations.MIGRATION_9_10);
+        long created = OffsetDateTime.parse(CREATED).toInstant().toEpochMilli();
+        try (Cursor cursor = db.query("SELECT cost, price, created_at, updated_at FROM products WHERE product_id = 101")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(6050, cursor.getLong(0));
+            assertEquals(12000, cursor.getLong(1));
+            assertEquals(created, cursor.getLong(2));
+            assertTrue(cursor.isNull(3));
+        }
+        try (Cursor cursor = db.query("SELECT sale_date, total_amount, customer_name FROM sales WHERE sale_id = 7")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(OffsetDateTime.parse(SOLD).toInstant().toEpochMilli(), cursor.getLong(0));
+            assertEquals(24575, cursor.getLong(1));
+            assertEquals("Ben", cursor.getString(2));
+        }
+        try (Cursor cursor = db.query("SELECT price, subtotal FROM sale_items WHERE sale_item_id = 1")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(12000, cursor.getLong(0));
+            assertEquals(0, cursor.getLong(1)); // Null amounts become zero
+        }
+        try (Cursor cursor = db.query("SELECT clock_in_time, created_at FROM shifts WHERE id = 1")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(created, cursor.getLong(0));
+            // An unparseable NOT NULL timestamp falls back to the migration time
+            assertTrue(cursor.getLong(1) > created);
+        }
+        db.close();
+
+        db = helper.runMigrationsAndValidate(DB_NAME, 11, true, DatabaseMigrations.MIGRATION_10_11);
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM draft_order_records")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(0, cursor.getInt(0));
+        }
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM sale_items")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(1, cursor.getInt(0));
+        }
+        db.close();
+
+        db = helper.runMigrationsAndValidate(DB_NAME, 12, true, DatabaseMigrations.MIGRATION_11_12);
+        try (Cursor cursor = db.query("SELECT cost, price FROM products WHERE product_id = 101")) {
+            assertTrue(cursor.moveToFirst());
+            // Unit costs are rescaled to millionths of a peso; amounts stay in centavos
+            assertEquals(60_500_000, cursor.getLong(0));
+            assertEquals(12000, cursor.getLong(1));
+        }
+        db.close();
+
+        // Room accepts the migrated file as the current schema and reads it back
+        Context context = ApplicationProvider.getApplicationContext();
+        AppDatabase database = Room.databaseBuilder(context, AppDatabase.class, DB_NAME)
+                .addMigrations(DatabaseMigrations.ALL)
+                .allowMainThreadQueries()
+                .build();
+        try {
+            ProductEntity product = database.productDao().getById(101);
+            assertNotNull(product);
+            assertEquals(0, new BigDecimal("60.50").compareTo(product.getCost()));
+            assertEquals(0, new BigDecimal("120").compareTo(product.getPrice()));
+            assertEquals(12.0, product.getQuantity(), 0.0);
+            assertEquals(created, product.getCreatedAt().toInstant().toEpochMilli());
+            assertTrue(database.draftOrderDao().getAll().isEmpty());
+        } finally {
+            database.close();
+        }
+    }
+
+    @Test
+    public void migrate9To12KeepsSubCentavoCosts() throws Exception {
+        SupportSQLiteDatabase db = helper.createDatabase(DB_NAME, 9);
+        db.execSQL("INSERT INTO products (product_id, name, category, supplier, cost, price, quantity, status) "
+                + "VALUES (10001, 'Espresso Beans', 'Coffee', 'Loreta', '0.035', '0', 1000, 'IN_STOCK')");
+        db.execSQL("INSERT INTO ingredients (ingredient_id, name, quantity, unit, cost_per_unit, status, "
+                + "low_stock_threshold) VALUES (1, 'Milk', 5000, 'mL', '0.0125', 'In Stock', 500)");
+        db.close();
+
+        // Room takes the single 9 → 12 step, which never rounds unit costs to the centavo
+        db = helper.runMigrationsAndValidate(DB_NAME, 12, true, DatabaseMigrations.MIGRATION_9_12);
+        try (Cursor cursor = db.query("SELECT cost FROM products WHERE product_id = 10001")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(35_000, cursor.getLong(0));
+        }
+        try (Cursor cursor = db.query("SELECT cost_per_unit FROM ingredients WHERE ingredient_id = 1")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(12_500, cursor.getLong(0));
+        }
+        db.close();
+
+        Context context = ApplicationProvider.getApplicationContext();
+        AppDatabase database = Room.databaseBuilder(context, AppDatabase.class, DB_NAME)
+                .addMigrations(DatabaseMigrations.ALL)
+                .allowMainThreadQueries()
+                .build();
+        try {
+            ProductEntity beans = database.productDao().getById(10001);
+            assertEquals(0, new BigDecimal("0.035").compareTo(beans.getCost()));
+        } finally {
+            database.close();
+        }
+    }
+}
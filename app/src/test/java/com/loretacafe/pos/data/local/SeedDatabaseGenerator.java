@@ -0,0 +1,76 @@
+package com.loretacafe.pos.data.local;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Build-time generator for the prepackaged database asset (not a regular test).
+ * Runs the real seeders against a fresh Room database and copies the result to
+ * the path in the seedDb.output system property. The generateSeedDatabase Gradle
+ * task sets it and feeds the file into the release assets:
+ *
+ *   ./gradlew :app:generateSeedDatabase
+ *
+ * Skipped in ordinary test runs, where the property is not set.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SeedDatabaseGenerator {
+
+    private static final String WORK_DB_NAME = "seed-build.db";
+
+    @Test
+    public void generate() throws Exception {
+        String output = System.getProperty("seedDb.output");
+        Assume.assumeTrue("seedDb.output not set", output != null);
+
+        Context context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(WORK_DB_NAME);
+        AppDatabase database = Room.databaseBuilder(context, AppDatabase.class, WORK_DB_NAME)
+                .allowMainThreadQueries()
+                .build();
+
+        // Same order as the start-up pipeline in PosApp
+        RawMaterialsSeeder.forceCleanDatabase(database.productDao());
+        RawMaterialsSeeder.seedIfNeeded(context, database.productDao(), false);
+        MenuSeeder.seedIfNeeded(context, database.productDao(), false);
+        RecipeSeeder.seedIfNeeded(context, database.productDao(), database.recipeDao(), false);
+
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        db.execSQL("CREATE TABLE " + SeedState.MANIFEST_TABLE
+                + " (seeder TEXT PRIMARY KEY NOT NULL, fingerprint TEXT NOT NULL)");
+        for (String seeder : new String[]{SeedState.RAW_MATERIALS, SeedState.MENU, SeedState.RECIPES}) {
+            ContentValues values = new ContentValues();
+            values.put("seeder", seeder);
+            // Content hashes recorded by the seeders above
+            values.put("fingerprint", SeedState.getFingerprint(context, seeder));
+            db.insert(SeedState.MANIFEST_TABLE, SQLiteDatabase.CONFLICT_REPLACE, values);
+        }
+        // Fold the WAL into the main file so the single .db file is complete
+        db.query("PRAGMA wal_checkpoint(TRUNCATE)").close();
+        database.close();
+
+        File target = new File(output);
+        File parent = target.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + parent);
+        }
+        Files.copy(context.getDatabasePath(WORK_DB_NAME).toPath(), target.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+}
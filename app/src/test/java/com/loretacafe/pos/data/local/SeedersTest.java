@@ -0,0 +1,194 @@
+package com.loretacafe.pos.data.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.loretacafe.pos.data.local.dao.ProductDao;
+import com.loretacafe.pos.data.local.dao.RecipeDao;
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.local.entity.RecipeEntity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The seeders write everything on the first run, nothing while their content
+ * hash is current, and otherwise only the rows that differ: changed items keep
+ * the stock the shop maintains, and items dropped from the seed set go.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SeedersTest {
+
+    private static final int MENU_ITEMS = 34;
+    private static final int RAW_MATERIALS = 61;
+    private static final OffsetDateTime LAST_YEAR = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private Context context;
+    private AppDatabase database;
+    private ProductDao productDao;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        SeedState.clear(context);
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        productDao = database.productDao();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void firstSeedWritesEverySeedRow() {
+        MenuSeeder.seedIfNeeded(context, productDao, false);
+        RawMaterialsSeeder.seedIfNeeded(context, productDao, false);
+
+        assertEquals(MENU_ITEMS + RAW_MATERIALS, productDao.count());
+        assertEquals("Wintermelon", productDao.getById(1).getName());
+        assertEquals("POWDER", productDao.getById(10000).getCategory());
+        assertNotNull(SeedState.getFingerprint(context, SeedState.MENU));
+        assertNotNull(SeedState.getFingerprint(context, SeedState.RAW_MATERIALS));
+    }
+
+    @Test
+    public void matchingHashSkipsTheDatabase() {
+        MenuSeeder.seedIfNeeded(context, productDao, false);
+        // Drift the seeder would repair if it looked at the table
+        productDao.deleteByIds(Collections.singletonList(2L));
+        ProductEntity renamed = productDao.getById(1);
+        renamed.setName("Renamed by hand");
+        productDao.upsertAll(Collections.singletonList(renamed));
+
+        MenuSeeder.seedIfNeeded(context, productDao, false);
+
+        assertEquals(MENU_ITEMS - 1, productDao.count());
+        assertEquals("Renamed by hand", productDao.getById(1).getName());
+    }
+
+    @Test
+    public void changedMenuItemIsRewrittenKeepingStock() {
+        MenuSeeder.seedIfNeeded(context, productDao, false);
+        ProductEntity changed = productDao.getById(1);
+        changed.setPrice(new BigDecimal("70.00"));
+        changed.setQuantity(7);
+        changed.setStatus("LOW_STOCK");
+        ProductEntity untouched = productDao.getById(2);
+        untouched.setUpdatedAt(LAST_YEAR);
+        productDao.upsertAll(Arrays.asList(changed, untouched));
+        // Same as shipping a new menu: the stored hash no longer matches the seed set
+        SeedState.markCurrent(context, SeedState.MENU, "previous-menu");
+
+        MenuSeeder.seedIfNeeded(context, productDao, false);
+
+        ProductEntity reseeded = productDao.getById(1);
+        assertEquals(0, new BigDecimal("78").compareTo(reseeded.getPrice()));
+        assertEquals(7, reseeded.getQuantity(), 0.0);
+        assertEquals("LOW_STOCK", reseeded.getStatus());
+        // Rows that already match are not written at all
+        assertEquals(LAST_YEAR.toInstant(), productDao.getById(2).getUpdatedAt().toInstant());
+        assertNotEquals("previous-menu", SeedState.getFingerprint(context, SeedState.MENU));
+    }
+
+    @Test
+    public void menuItemDroppedFromTheSeedSetIsDeleted() {
+        MenuSeeder.seedIfNeeded(context, productDao, false);
+        RawMaterialsSeeder.seedIfNeeded(context, productDao, false);
+        productDao.upsertAll(Collections.singletonList(product(500, "Discontinued", "FRUIT TEA")));
+        SeedState.markCurrent(context, SeedState.MENU, "previous-menu");
+
+        MenuSeeder.seedIfNeeded(context, productDao, false);
+
+        assertNull(productDao.getById(500));
+        // Raw materials are outside the menu's id range and stay
+        assertEquals(MENU_ITEMS + RAW_MATERIALS, productDao.count());
+    }
+
+    @Test
+    public void changedRawMaterialKeepsStockAndCost() {
+        RawMaterialsSeeder.seedIfNeeded(context, productDao, false);
+        ProductEntity material = productDao.getById(10000);
+        material.setCategory("OLD CATEGORY");
+        material.setQuantity(3);
+        material.setCost(new BigDecimal("1999.50"));
+        productDao.upsertAll(Collections.singletonList(material));
+        SeedState.markCurrent(context, SeedState.RAW_MATERIALS, "previous-list");
+
+        RawMaterialsSeeder.seedIfNeeded(context, productDao, false);
+
+        ProductEntity reseeded = productDao.getById(10000);
+        assertEquals("POWDER", reseeded.getCategory());
+        assertEquals(3, reseeded.getQuantity(), 0.0);
+        assertEquals(0, new BigDecimal("1999.50").compareTo(reseeded.getCost()));
+        assertEquals(RAW_MATERIALS, productDao.count());
+    }
+
+    @Test
+    public void applySeedDiffDeletesThenUpserts() {
+        productDao.upsertAll(Arrays.asList(product(1, "Old Latte", "COFFEE"), product(2, "Mocha", "COFFEE")));
+
+        productDao.applySeedDiff(
+                Arrays.asList(product(1, "Latte", "COFFEE"), product(3, "Matcha", "TEA")),
+                Collections.singletonList(2L));
+
+        assertEquals("Latte", productDao.getById(1).getName());
+        assertNull(productDao.getById(2));
+        assertEquals("Matcha", productDao.getById(3).getName());
+        assertEquals(2, productDao.count());
+    }
+
+    @Test
+    public void replaceForProductsLeavesOtherRecipesAlone() {
+        RecipeDao recipeDao = database.recipeDao();
+        recipeDao.insertAll(Arrays.asList(recipe(1, "Default"), recipe(1, "Iced"), recipe(2, "Default")));
+
+        recipeDao.replaceForProducts(Collections.singletonList(1L), Collections.singletonList(recipe(1, "Hot")));
+
+        List<RecipeEntity> first = recipeDao.getByProductId(1);
+        assertEquals(1, first.size());
+        assertEquals("Hot", first.get(0).getRecipeName());
+        assertEquals(1, recipeDao.getByProductId(2).size());
+    }
+
+    private static ProductEntity product(long id, String name, String category) {
+        ProductEntity product = new ProductEntity();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setSupplier("Default");
+        product.setCost(BigDecimal.TEN);
+        product.setPrice(BigDecimal.TEN);
+        product.setStatus("IN_STOCK");
+        return product;
+    }
+
+    private static RecipeEntity recipe(long productId, String name) {
+        RecipeEntity recipe = new RecipeEntity();
+        recipe.setProductId(productId);
+        recipe.setRecipeName(name);
+        recipe.setRecipeJson("[]");
+        return recipe;
+    }
+}
@@ -0,0 +1,113 @@
+package com.loretacafe.pos.data.local;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Before/after benchmark of small checkout-sized transactions with and without
+ * the pragma profile. Host timings depend on the disk under the build directory;
+ * the printed numbers are for comparing runs on one machine, not a device figure.
+ * Not part of the unit-test run:
+ *
+ *   ./gradlew :app:benchmarkUnitTest
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class StorageProfileBenchmark {
+
+    private static final int COMMITS = 300;
+
+    // Room refuses DAO calls on the main thread, which is the test thread here
+    private final ExecutorService io = Executors.newSingleThreadExecutor();
+    private final Context context = ApplicationProvider.getApplicationContext();
+    private AppDatabase baseline;
+    private AppDatabase tuned;
+
+    @After
+    public void tearDown() {
+        io.shutdown();
+        if (baseline != null) {
+            baseline.close();
+        }
+        if (tuned != null) {
+            tuned.close();
+        }
+    }
+
+    @Test
+    public void commitBenchmark() throws Exception {
+        baseline = open("baseline.db", false);
+        tuned = open("tuned.db", true);
+
+        long beforeMs = onIo(() -> timeCommits(baseline));
+        long afterMs = onIo(() -> timeCommits(tuned));
+
+        assertEquals(COMMITS, (long) onIo(() -> (long) tuned.productDao().getAll().size()));
+        System.out.println(String.format(Locale.US,
+                "%d single-row commits in WAL: framework defaults %d ms, pragma profile %d ms",
+                COMMITS, beforeMs, afterMs));
+    }
+
+    private AppDatabase open(String name, boolean withProfile) {
+        context.deleteDatabase(name);
+        RoomDatabase.Builder<AppDatabase> builder = Room.databaseBuilder(context, AppDatabase.class, name)
+                .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING);
+        if (withProfile) {
+            builder.addCallback(new RoomDatabase.Callback() {
+                @Override
+                public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                    AppDatabase.applyPragmaProfile(db);
+                }
+            });
+        }
+        return builder.build();
+    }
+
+    private static long timeCommits(AppDatabase database) {
+        long start = System.nanoTime();
+        for (int i = 1; i <= COMMITS; i++) {
+            // One transaction per row, like one checkout
+            database.productDao().insert(product(i));
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private <T> T onIo(Callable<T> task) throws Exception {
+        return io.submit(task).get(60, TimeUnit.SECONDS);
+    }
+
+    private static ProductEntity product(long id) {
+        ProductEntity product = new ProductEntity();
+        product.setId(id);
+        product.setName("Item " + id);
+        product.setCategory("Coffee");
+        product.setSupplier("Loreta");
+        product.setCost(BigDecimal.ZERO);
+        product.setPrice(BigDecimal.valueOf(120));
+        product.setQuantity(10);
+        product.setStatus("IN_STOCK");
+        return product;
+    }
+}
@@ -0,0 +1,86 @@
+package com.loretacafe.pos.data.local;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pragma profile reaches the connection that commits. The before/after
+ * commit timings are in StorageProfileBenchmark.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class StorageProfileTest {
+
+    private static final int SYNCHRONOUS_NORMAL = 1;
+    private static final int TEMP_STORE_MEMORY = 2;
+
+    // Room refuses DAO calls on the main thread, which is the test thread here
+    private final ExecutorService io = Executors.newSingleThreadExecutor();
+    private final Context context = ApplicationProvider.getApplicationContext();
+    private AppDatabase tuned;
+
+    @After
+    public void tearDown() {
+        io.shutdown();
+        if (tuned != null) {
+            tuned.close();
+        }
+    }
+
+    @Test
+    public void profileAppliesToTheWriterConnection() throws Exception {
+        tuned = open("tuned.db");
+
+        // Transactions always run on the primary connection, which onOpen configured
+        long synchronous = onIo(() -> tuned.runInTransaction(() -> pragma(tuned, "synchronous")));
+        assertEquals(SYNCHRONOUS_NORMAL, synchronous);
+        assertEquals(2000, (long) onIo(() -> tuned.runInTransaction(() -> pragma(tuned, "wal_autocheckpoint"))));
+        // Negative cache sizes are in KiB
+        assertEquals(-AppDatabase.PAGE_CACHE_KIB,
+                (long) onIo(() -> tuned.runInTransaction(() -> pragma(tuned, "cache_size"))));
+        assertEquals(TEMP_STORE_MEMORY, (long) onIo(() -> tuned.runInTransaction(() -> pragma(tuned, "temp_store"))));
+    }
+
+    private AppDatabase open(String name) {
+        context.deleteDatabase(name);
+        return Room.databaseBuilder(context, AppDatabase.class, name)
+                .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                .addCallback(new RoomDatabase.Callback() {
+                    @Override
+                    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                        AppDatabase.applyPragmaProfile(db);
+                    }
+                })
+                .build();
+    }
+
+    private static long pragma(AppDatabase database, String name) {
+        try (Cursor cursor = database.query("PRAGMA " + name, null)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+
+    private <T> T onIo(Callable<T> task) throws Exception {
+        return io.submit(task).get(60, TimeUnit.SECONDS);
+    }
+}
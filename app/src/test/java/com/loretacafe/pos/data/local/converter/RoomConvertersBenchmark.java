@@ -0,0 +1,77 @@
+package com.loretacafe.pos.data.local.converter;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row materialization microbenchmark for the integer encodings against the
+ * ISO-string / decimal-string encoding they replaced. It is a warmed-up loop
+ * rather than JMH, so read the printed figures as a host comparison only.
+ * Not part of the unit-test run:
+ *
+ *   ./gradlew :app:benchmarkUnitTest
+ */
+public class RoomConvertersBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void rowMaterializationBenchmark() {
+        // One sales row: a timestamp and two amounts, in both encodings
+        String[] isoDates = new String[ROWS];
+        String[] totals = new String[ROWS];
+        String[] prices = new String[ROWS];
+        long[] epochMillis = new long[ROWS];
+        long[] totalCentavos = new long[ROWS];
+        long[] priceCentavos = new long[ROWS];
+        OffsetDateTime base = OffsetDateTime.of(2025, 10, 1, 8, 0, 0, 0, ZoneOffset.ofHours(8));
+        for (int i = 0; i < ROWS; i++) {
+            OffsetDateTime date = base.plusSeconds(i * 37L);
+            BigDecimal total = BigDecimal.valueOf(12_000 + i, 2);
+            isoDates[i] = date.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+            totals[i] = total.toPlainString();
+            prices[i] = "120.00";
+            epochMillis[i] = RoomConverters.fromOffsetDateTime(date);
+            totalCentavos[i] = RoomConverters.fromBigDecimal(total);
+            priceCentavos[i] = 12_000;
+        }
+
+        long stringsNanos = Long.MAX_VALUE;
+        long integersNanos = Long.MAX_VALUE;
+        long sink = 0;
+        // Best of several rounds; the first rounds double as JIT warm-up
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                OffsetDateTime date = OffsetDateTime.parse(isoDates[i], DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+                BigDecimal total = new BigDecimal(totals[i]);
+                BigDecimal price = new BigDecimal(prices[i]);
+                sink += date.getSecond() + total.scale() + price.scale();
+            }
+            stringsNanos = Math.min(stringsNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                OffsetDateTime date = RoomConverters.toOffsetDateTime(epochMillis[i]);
+                BigDecimal total = RoomConverters.toBigDecimal(totalCentavos[i]);
+                BigDecimal price = RoomConverters.toBigDecimal(priceCentavos[i]);
+                sink += date.getSecond() + total.scale() + price.scale();
+            }
+            integersNanos = Math.min(integersNanos, System.nanoTime() - start);
+        }
+
+        System.out.println(String.format(Locale.US,
+                "%d rows: strings %d ms (%d ns/row), integers %d ms (%d ns/row) [%d]",
+                ROWS,
+                TimeUnit.NANOSECONDS.toMillis(stringsNanos), stringsNanos / ROWS,
+                TimeUnit.NANOSECONDS.toMillis(integersNanos), integersNanos / ROWS,
+                sink));
+    }
+}
@@ -0,0 +1,48 @@
+package com.loretacafe.pos.data.local.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Round trips for the integer encodings. RoomConvertersBenchmark times them
+ * against the string encodings they replaced.
+ */
+public class RoomConvertersTest {
+
+    @Test
+    public void timestampsRoundTripAsTheSameInstant() {
+        OffsetDateTime sold = OffsetDateTime.of(2025, 10, 1, 9, 30, 15, 250_000_000, ZoneOffset.ofHours(8));
+
+        Long millis = RoomConverters.fromOffsetDateTime(sold);
+        OffsetDateTime read = RoomConverters.toOffsetDateTime(millis);
+
+        assertEquals(sold.toInstant(), read.toInstant());
+        assertNull(RoomConverters.fromOffsetDateTime(null));
+        assertNull(RoomConverters.toOffsetDateTime(null));
+    }
+
+    @Test
+    public void moneyIsStoredAsRoundedCentavos() {
+        assertEquals(Long.valueOf(24575), RoomConverters.fromBigDecimal(new BigDecimal("245.75")));
+        assertEquals(Long.valueOf(6051), RoomConverters.fromBigDecimal(new BigDecimal("60.505")));
+        assertEquals(Long.valueOf(12000), RoomConverters.fromBigDecimal(BigDecimal.valueOf(120)));
+        assertEquals(0, new BigDecimal("245.75").compareTo(RoomConverters.toBigDecimal(24575L)));
+        // A missing amount reads as zero, as it did with the string encoding
+        assertEquals(BigDecimal.ZERO, RoomConverters.toBigDecimal(null));
+    }
+
+    @Test
+    public void unitCostsKeepSubCentavoDigits() {
+        assertEquals(Long.valueOf(35_000), UnitCostConverters.fromBigDecimal(new BigDecimal("0.035")));
+        assertEquals("0.035", UnitCostConverters.toBigDecimal(35_000L).toPlainString());
+        // Whole-centavo costs read back the way money columns do
+        assertEquals("60.50", UnitCostConverters.toBigDecimal(60_500_000L).toPlainString());
+        assertEquals(BigDecimal.ZERO, UnitCostConverters.toBigDecimal(null));
+    }
+}
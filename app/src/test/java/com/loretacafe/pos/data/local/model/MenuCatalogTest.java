@@ -0,0 +1,81 @@
+package com.loretacafe.pos.data.local.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The fingerprint moves with anything a menu tile shows and ignores raw
+ * materials, which share the products table but never appear on the menu.
+ */
+public class MenuCatalogTest {
+
+    @Test
+    public void rawMaterialRowsDoNotMoveTheFingerprint() {
+        List<ProductEntity> withStock = menu();
+        withStock.add(product(10000, "Milk Tea Creamer | 1 kg", "POWDER", "195", 12));
+        List<ProductEntity> afterDeduction = menu();
+        afterDeduction.add(product(10000, "Milk Tea Creamer | 1 kg", "POWDER", "195", 11));
+
+        assertEquals(MenuCatalog.fingerprint(menu()), MenuCatalog.fingerprint(withStock));
+        assertEquals(MenuCatalog.fingerprint(withStock), MenuCatalog.fingerprint(afterDeduction));
+    }
+
+    @Test
+    public void tileChangesMoveTheFingerprint() {
+        long before = MenuCatalog.fingerprint(menu());
+
+        List<ProductEntity> repriced = menu();
+        repriced.get(0).setPrice(new BigDecimal("80.00"));
+        List<ProductEntity> soldOut = menu();
+        soldOut.get(1).setStatus("OUT_OF_STOCK");
+        List<ProductEntity> renamed = menu();
+        renamed.get(1).setName("Taro Milk Tea");
+
+        assertNotEquals(before, MenuCatalog.fingerprint(repriced));
+        assertNotEquals(before, MenuCatalog.fingerprint(soldOut));
+        assertNotEquals(before, MenuCatalog.fingerprint(renamed));
+        // Same price written with another scale is the same tile
+        List<ProductEntity> rescaled = menu();
+        rescaled.get(0).setPrice(new BigDecimal("78"));
+        assertEquals(before, MenuCatalog.fingerprint(rescaled));
+    }
+
+    @Test
+    public void buildKeepsMenuRowsOnly() {
+        List<ProductEntity> products = menu();
+        products.add(product(10000, "Milk Tea Creamer | 1 kg", "POWDER", "195", 12));
+
+        MenuCatalog catalog = MenuCatalog.build(products, MenuCatalog.fingerprint(products));
+
+        assertEquals(2, catalog.size());
+        assertEquals(-1, catalog.indexOf(10000));
+        assertEquals(Arrays.asList("FRAPPE", "MILKTEA CLASSIC"), catalog.getCategories());
+        assertEquals("Taro", catalog.getEntriesInCategory("MILKTEA CLASSIC").get(0).name);
+    }
+
+    private static List<ProductEntity> menu() {
+        return new ArrayList<>(Arrays.asList(
+                product(1, "Choc Chip", "FRAPPE", "78.00", 20),
+                product(2, "Taro", "MILKTEA CLASSIC", "78.00", 20)));
+    }
+
+    private static ProductEntity product(long id, String name, String category, String price, double quantity) {
+        ProductEntity product = new ProductEntity();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        product.setQuantity(quantity);
+        product.setStatus("IN_STOCK");
+        return product;
+    }
+}
@@ -0,0 +1,160 @@
+package com.loretacafe.pos.data.local.service;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.google.gson.Gson;
+import com.loretacafe.pos.CartItem;
+import com.loretacafe.pos.Recipe;
+import com.loretacafe.pos.RecipeIngredient;
+import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.local.entity.RecipeEntity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rush hour: several tills check out at once. Prints host timings for one
+ * transaction per order against the writer's group commit; both must store
+ * every order and deduct stock for each. Not part of the unit-test run:
+ *
+ *   ./gradlew :app:benchmarkUnitTest
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class OrderServiceBenchmark {
+
+    private static final long LATTE_ID = 2001;
+    private static final long BEANS_ID = 1001;
+    private static final double BEANS_STOCK = 100_000;
+    private static final double BEANS_PER_CUP = 18;
+    private static final int TILLS = 6;
+    private static final int ORDERS_PER_TILL = 40;
+
+    private Context context;
+    private AppDatabase database;
+    private OrderService orderService;
+
+    @Before
+    public void setUp() throws Exception {
+        context = ApplicationProvider.getApplicationContext();
+        AppDatabase.forceResetInstance();
+        DatabaseWriter.resetInstance();
+        database = AppDatabase.getInstance(context);
+        orderService = new OrderService(context);
+
+        Recipe recipe = new Recipe(LATTE_ID, "Default");
+        recipe.getIngredients().add(new RecipeIngredient(BEANS_ID, "Espresso Beans", BEANS_PER_CUP, "g"));
+        RecipeEntity recipeEntity = new RecipeEntity();
+        recipeEntity.setProductId(LATTE_ID);
+        recipeEntity.setRecipeName("Default");
+        recipeEntity.setRecipeJson(new Gson().toJson(recipe));
+        // Room refuses DAO calls on the main thread, which is the test thread here
+        DatabaseWriter.getInstance(context).submit(() -> {
+            database.productDao().insert(product(BEANS_ID, "Espresso Beans", "Raw Materials", BEANS_STOCK));
+            database.productDao().insert(product(LATTE_ID, "Spanish Latte", "Coffee", 0));
+            return database.recipeDao().insert(recipeEntity);
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void tearDown() {
+        AppDatabase.forceResetInstance();
+        DatabaseWriter.resetInstance();
+    }
+
+    @Test
+    public void rushHourBenchmark() throws Exception {
+        int orders = TILLS * ORDERS_PER_TILL;
+
+        // Before: each till commits its own order
+        ExecutorService pool = Executors.newFixedThreadPool(TILLS);
+        long start = System.nanoTime();
+        List<Future<?>> perOrder = new ArrayList<>();
+        for (int till = 0; till < TILLS; till++) {
+            perOrder.add(pool.submit(() -> {
+                for (int i = 0; i < ORDERS_PER_TILL; i++) {
+                    database.runInTransaction(() -> orderService.processOrder("Walk-in", latte(), "Cash"));
+                }
+            }));
+        }
+        for (Future<?> future : perOrder) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long perOrderMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(orders, count("sales"));
+
+        // After: the same load queued on the writer
+        start = System.nanoTime();
+        List<Future<List<CompletableFuture<String>>>> submitted = new ArrayList<>();
+        for (int till = 0; till < TILLS; till++) {
+            submitted.add(pool.submit(() -> {
+                List<CompletableFuture<String>> futures = new ArrayList<>();
+                for (int i = 0; i < ORDERS_PER_TILL; i++) {
+                    futures.add(orderService.submitOrder("Walk-in", latte(), "Cash"));
+                }
+                return futures;
+            }));
+        }
+        for (Future<List<CompletableFuture<String>>> till : submitted) {
+            for (CompletableFuture<String> order : till.get(60, TimeUnit.SECONDS)) {
+                order.get(60, TimeUnit.SECONDS);
+            }
+        }
+        long groupedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        pool.shutdown();
+
+        assertEquals(2 * orders, count("sales"));
+        assertEquals(2 * orders, count("ingredient_deductions"));
+        String writerStats = DatabaseWriter.getInstance(context).stats();
+        System.out.println(String.format(Locale.US,
+                "Rush hour, %d orders from %d tills: one transaction each %d ms, group commit %d ms (%s)",
+                orders, TILLS, perOrderMs, groupedMs, writerStats));
+    }
+
+    private static List<CartItem> latte() {
+        return Collections.singletonList(new CartItem(LATTE_ID, "Spanish Latte", "Coffee", "Regular", 1, 120));
+    }
+
+    private static ProductEntity product(long id, String name, String category, double quantity) {
+        ProductEntity product = new ProductEntity();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setSupplier("Loreta");
+        product.setCost(BigDecimal.ZERO);
+        product.setPrice(BigDecimal.valueOf(120));
+        product.setQuantity(quantity);
+        product.setStatus("IN_STOCK");
+        return product;
+    }
+
+    private int count(String table) {
+        try (Cursor cursor = database.getOpenHelper().getReadableDatabase()
+                .query("SELECT COUNT(*) FROM " + table)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+}
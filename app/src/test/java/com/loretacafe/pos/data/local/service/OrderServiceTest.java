@@ -0,0 +1,186 @@
+package com.loretacafe.pos.data.local.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.google.gson.Gson;
+import com.loretacafe.pos.CartItem;
+import com.loretacafe.pos.Recipe;
+import com.loretacafe.pos.RecipeIngredient;
+import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
+import com.loretacafe.pos.data.local.entity.DraftOrderRecordEntity;
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.local.entity.RecipeEntity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout writes: an order is all or nothing, and paying a ticket removes its
+ * draft in the same transaction. The rush-hour timings are in OrderServiceBenchmark.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class OrderServiceTest {
+
+    private static final long LATTE_ID = 2001;
+    private static final long BEANS_ID = 1001;
+    private static final double BEANS_STOCK = 100_000;
+    private static final double BEANS_PER_CUP = 18;
+
+    // Room refuses DAO calls on the main thread, which is the test thread here
+    private final ExecutorService io = Executors.newSingleThreadExecutor();
+    private Context context;
+    private AppDatabase database;
+    private OrderService orderService;
+
+    @Before
+    public void setUp() throws Exception {
+        context = ApplicationProvider.getApplicationContext();
+        AppDatabase.forceResetInstance();
+        DatabaseWriter.resetInstance();
+        database = AppDatabase.getInstance(context);
+        orderService = new OrderService(context);
+
+        Recipe recipe = new Recipe(LATTE_ID, "Default");
+        recipe.getIngredients().add(new RecipeIngredient(BEANS_ID, "Espresso Beans", BEANS_PER_CUP, "g"));
+        RecipeEntity recipeEntity = new RecipeEntity();
+        recipeEntity.setProductId(LATTE_ID);
+        recipeEntity.setRecipeName("Default");
+        recipeEntity.setRecipeJson(new Gson().toJson(recipe));
+        onIo(() -> {
+            database.productDao().insert(product(BEANS_ID, "Espresso Beans", "Raw Materials", BEANS_STOCK));
+            database.productDao().insert(product(LATTE_ID, "Spanish Latte", "Coffee", 0));
+            return database.recipeDao().insert(recipeEntity);
+        });
+    }
+
+    @After
+    public void tearDown() {
+        io.shutdown();
+        AppDatabase.forceResetInstance();
+        DatabaseWriter.resetInstance();
+    }
+
+    @Test
+    public void committedOrderDeductsStock() throws Exception {
+        orderService.submitOrder("Ana", latte(2), "Cash").join();
+
+        assertEquals(1, count("sales"));
+        assertEquals(1, count("sale_items"));
+        assertEquals(1, count("ingredient_deductions"));
+        assertEquals(BEANS_STOCK - 2 * BEANS_PER_CUP,
+                beansInStock(), 1e-9);
+    }
+
+    @Test
+    public void failedDeductionRollsBackTheWholeOrder() throws Exception {
+        // Stands in for any failure while recording the deduction, e.g. a full disk
+        database.getOpenHelper().getWritableDatabase().execSQL(
+                "CREATE TRIGGER fail_deduction BEFORE INSERT ON ingredient_deductions "
+                        + "BEGIN SELECT RAISE(ABORT, 'deduction failed'); END");
+
+        try {
+            orderService.submitOrder("Ana", latte(1), "Cash").join();
+            fail("Order should have failed");
+        } catch (CompletionException expected) {
+            // The caller sees the failure
+        }
+
+        assertEquals(0, count("sales"));
+        assertEquals(0, count("sale_items"));
+        assertEquals(0, count("pending_sync"));
+        assertEquals(BEANS_STOCK, beansInStock(), 0.0);
+    }
+
+    @Test
+    public void paidTicketDraftIsDeletedWithTheSale() throws Exception {
+        onIo(() -> database.draftOrderDao().insert(draftRecord("ticket-1")));
+        onIo(() -> database.draftOrderDao().insert(draftRecord("ticket-2")));
+
+        orderService.submitOrder("Ana", latte(1), "Cash", "ticket-1").join();
+
+        assertEquals(1, count("sales"));
+        assertEquals(0, onIo(() -> database.draftOrderDao().getForDraft("ticket-1")).size());
+        assertEquals(1, onIo(() -> database.draftOrderDao().getForDraft("ticket-2")).size());
+    }
+
+    @Test
+    public void failedOrderKeepsTheTicketDraft() throws Exception {
+        onIo(() -> database.draftOrderDao().insert(draftRecord("ticket-1")));
+        database.getOpenHelper().getWritableDatabase().execSQL(
+                "CREATE TRIGGER fail_deduction BEFORE INSERT ON ingredient_deductions "
+                        + "BEGIN SELECT RAISE(ABORT, 'deduction failed'); END");
+
+        try {
+            orderService.submitOrder("Ana", latte(1), "Cash", "ticket-1").join();
+            fail("Order should have failed");
+        } catch (CompletionException expected) {
+            // The ticket stays open to be charged again
+        }
+
+        assertEquals(1, onIo(() -> database.draftOrderDao().getForDraft("ticket-1")).size());
+    }
+
+    private static List<CartItem> latte(int quantity) {
+        return Collections.singletonList(new CartItem(LATTE_ID, "Spanish Latte", "Coffee", "Regular", quantity, 120));
+    }
+
+    private static ProductEntity product(long id, String name, String category, double quantity) {
+        ProductEntity product = new ProductEntity();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setSupplier("Loreta");
+        product.setCost(BigDecimal.ZERO);
+        product.setPrice(BigDecimal.valueOf(120));
+        product.setQuantity(quantity);
+        product.setStatus("IN_STOCK");
+        return product;
+    }
+
+    private static DraftOrderRecordEntity draftRecord(String draftId) {
+        DraftOrderRecordEntity record = new DraftOrderRecordEntity();
+        record.setDraftId(draftId);
+        record.setOp(1);
+        record.setLineId("line-1");
+        record.setPayload("{}");
+        record.setCreatedAt(System.currentTimeMillis());
+        return record;
+    }
+
+    private double beansInStock() throws Exception {
+        return onIo(() -> database.productDao().getById(BEANS_ID).getQuantity());
+    }
+
+    private <T> T onIo(Callable<T> task) throws Exception {
+        return io.submit(task).get(10, TimeUnit.SECONDS);
+    }
+
+    private int count(String table) {
+        try (Cursor cursor = database.getOpenHelper().getReadableDatabase()
+                .query("SELECT COUNT(*) FROM " + table)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+}
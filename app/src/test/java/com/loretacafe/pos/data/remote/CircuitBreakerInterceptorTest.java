@@ -0,0 +1,81 @@
+package com.loretacafe.pos.data.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+/**
+ * A HALF_OPEN probe must settle however the call ends, or the breaker fails
+ * fast forever.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class CircuitBreakerInterceptorTest {
+
+    private CircuitBreaker breaker;
+
+    @Before
+    public void openThenHalfOpen() {
+        // Threshold 1 and no cool-down: one failure opens, the next call probes
+        breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void canceledProbeReleasesTheProbeSlot() {
+        execute(chain -> {
+            chain.call().cancel();
+            throw new IOException("Canceled");
+        });
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue("next call should be allowed to probe", breaker.allowRequest());
+        assertFalse("only one probe at a time", breaker.allowRequest());
+    }
+
+    @Test
+    public void uncheckedExceptionReleasesTheProbeSlot() {
+        execute(chain -> {
+            throw new IllegalStateException("bug further down the chain");
+        });
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void failedProbeReopens() {
+        execute(chain -> {
+            throw new IOException("connection refused");
+        });
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void execute(Interceptor downstream) {
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new CircuitBreakerInterceptor(breaker))
+                .addInterceptor(downstream)
+                .build();
+        try {
+            client.newCall(new Request.Builder().url("http://localhost/api/products").build()).execute();
+            fail("call should not succeed");
+        } catch (IOException | RuntimeException expected) {
+            // The outcome is checked on the breaker
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.loretacafe.pos.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.remote.HttpValidatorStore;
+import com.loretacafe.pos.data.remote.api.InventoryApi;
+import com.loretacafe.pos.data.util.ApiResult;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * The catalogue refresh replays the ETag/Last-Modified of the last full
+ * response only while that response is known to be stored in full, and a 304
+ * leaves the stored catalogue untouched.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class InventoryRepositoryConditionalGetTest {
+
+    private static final String ETAG = "\"catalogue-v1\"";
+    private static final String LAST_MODIFIED = "Wed, 01 Oct 2025 08:00:00 GMT";
+    private static final String CATALOGUE = "["
+            + "{\"id\":101,\"name\":\"Whole Milk\",\"category\":\"Dairy\",\"supplier\":\"Local\","
+            + "\"cost\":60.00,\"price\":0,\"quantity\":12,\"status\":\"IN_STOCK\"},"
+            + "{\"id\":102,\"name\":\"Espresso Beans\",\"category\":\"Coffee\",\"supplier\":\"Roaster\","
+            + "\"cost\":450.00,\"price\":0,\"quantity\":4,\"status\":\"LOW_STOCK\"}"
+            + "]";
+
+    private MockWebServer server;
+    private AppDatabase database;
+    private HttpValidatorStore validatorStore;
+    private InventoryRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = ApplicationProvider.getApplicationContext();
+        server = new MockWebServer();
+        server.start();
+
+        Gson gson = new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX").create();
+        InventoryApi api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .build()
+                .create(InventoryApi.class);
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        validatorStore = new HttpValidatorStore(context);
+        validatorStore.clear("api/inventory");
+        // Writes run on the calling (network) thread
+        DatabaseWriter writer = new DatabaseWriter(database, Runnable::run);
+        repository = new InventoryRepository(api, database.productDao(), writer, validatorStore, gson);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        database.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void fullResponseThenNotModified() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("ETag", ETAG)
+                .setHeader("Last-Modified", LAST_MODIFIED)
+                .setBody(CATALOGUE));
+
+        assertEquals(ApiResult.Status.SUCCESS, await(repository.refreshProducts()).getStatus());
+        RecordedRequest first = server.takeRequest();
+        assertNull("nothing stored yet, so nothing to revalidate", first.getHeader("If-None-Match"));
+        assertNull(first.getHeader("If-Modified-Since"));
+        assertEquals(2, database.productDao().count());
+        assertEquals(ETAG, validatorStore.getEtag("api/inventory"));
+        assertEquals(LAST_MODIFIED, validatorStore.getLastModified("api/inventory"));
+
+        // A local edit that a re-download would overwrite shows the 304 wrote nothing
+        database.productDao().deleteByIds(java.util.Collections.singletonList(102L));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        assertEquals(ApiResult.Status.SUCCESS, await(repository.refreshProducts()).getStatus());
+        RecordedRequest second = server.takeRequest();
+        assertEquals(ETAG, second.getHeader("If-None-Match"));
+        assertEquals(LAST_MODIFIED, second.getHeader("If-Modified-Since"));
+        assertEquals(1, database.productDao().count());
+        assertEquals(ETAG, validatorStore.getEtag("api/inventory"));
+    }
+
+    @Test
+    public void emptyTableRefetchesInsteadOfRevalidating() throws Exception {
+        // Validators from an earlier install, but no rows they could describe
+        validatorStore.save("api/inventory", ETAG, LAST_MODIFIED);
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(CATALOGUE));
+
+        assertEquals(ApiResult.Status.SUCCESS, await(repository.refreshProducts()).getStatus());
+        RecordedRequest request = server.takeRequest();
+        assertNull(request.getHeader("If-None-Match"));
+        assertNull(request.getHeader("If-Modified-Since"));
+        assertEquals(2, database.productDao().count());
+    }
+
+    @Test
+    public void seededRowsAreNotACompletedSync() throws Exception {
+        // Seeded products plus validators written before the sync marker existed
+        database.productDao().upsertAll(java.util.Collections.singletonList(seededProduct()));
+        ApplicationProvider.getApplicationContext()
+                .getSharedPreferences("http_validators", Context.MODE_PRIVATE)
+                .edit()
+                .putString("api/inventory.etag", ETAG)
+                .putString("api/inventory.last_modified", LAST_MODIFIED)
+                .commit();
+        server.enqueue(new MockResponse().setResponseCode(200).setHeader("ETag", ETAG).setBody(CATALOGUE));
+
+        await(repository.refreshProducts());
+        RecordedRequest request = server.takeRequest();
+        assertNull(request.getHeader("If-None-Match"));
+        assertNull(request.getHeader("If-Modified-Since"));
+        assertTrue(validatorStore.hasCompletedSync("api/inventory"));
+    }
+
+    @Test
+    public void brokenStreamClearsTheSyncMarker() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200).setHeader("ETag", ETAG).setBody(CATALOGUE));
+        await(repository.refreshProducts());
+        server.takeRequest();
+        assertTrue(validatorStore.hasCompletedSync("api/inventory"));
+
+        // The catalogue changed, but the download breaks after the first product
+        String truncated = CATALOGUE.substring(0, CATALOGUE.indexOf("},") + 2);
+        server.enqueue(new MockResponse().setResponseCode(200).setHeader("ETag", "\"catalogue-v2\"")
+                .setBody(truncated));
+        assertEquals(ApiResult.Status.ERROR, await(repository.refreshProducts()).getStatus());
+        server.takeRequest();
+        assertFalse(validatorStore.hasCompletedSync("api/inventory"));
+
+        // The rows are a mix of both versions, so the next refresh must not revalidate
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(CATALOGUE));
+        await(repository.refreshProducts());
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void serverErrorKeepsValidators() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("ETag", ETAG)
+                .setBody(CATALOGUE));
+        await(repository.refreshProducts());
+        server.takeRequest();
+
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("{\"message\":\"down\"}"));
+        assertEquals(ApiResult.Status.ERROR, await(repository.refreshProducts()).getStatus());
+        assertEquals(ETAG, validatorStore.getEtag("api/inventory"));
+        assertEquals(2, database.productDao().count());
+    }
+
+    private static ProductEntity seededProduct() {
+        ProductEntity product = new ProductEntity();
+        product.setId(101L);
+        product.setName("Whole Milk");
+        product.setCategory("Dairy");
+        product.setSupplier("Seed");
+        product.setCost(java.math.BigDecimal.ZERO);
+        product.setPrice(java.math.BigDecimal.ZERO);
+        product.setQuantity(5);
+        product.setStatus("IN_STOCK");
+        return product;
+    }
+
+    /** Run the main looper until the repository posts a final result. */
+    private static <T> ApiResult<T> await(LiveData<ApiResult<T>> liveData) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            shadowOf(Looper.getMainLooper()).idle();
+            ApiResult<T> result = liveData.getValue();
+            if (result != null && result.getStatus() != ApiResult.Status.LOADING) {
+                return result;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("refresh did not finish");
+    }
+}
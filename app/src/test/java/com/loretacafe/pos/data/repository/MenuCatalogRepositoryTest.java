@@ -0,0 +1,90 @@
+package com.loretacafe.pos.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import androidx.lifecycle.MutableLiveData;
+
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.local.model.MenuCatalog;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Room re-emits the menu query on every products write; only an emission
+ * whose menu content differs builds and publishes a new catalogue.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class MenuCatalogRepositoryTest {
+
+    private MutableLiveData<List<ProductEntity>> menuRows;
+    private MenuCatalogRepository repository;
+    private List<MenuCatalog> published;
+
+    @Before
+    public void setUp() {
+        menuRows = new MutableLiveData<>();
+        // Fingerprint and build on the calling thread; the result is still posted
+        repository = new MenuCatalogRepository(menuRows, Runnable::run);
+        published = new ArrayList<>();
+        repository.observe().observeForever(published::add);
+    }
+
+    @Test
+    public void rawMaterialWriteKeepsTheCatalogue() {
+        emit(menu("78.00"));
+        MenuCatalog first = repository.getCurrent();
+
+        // A stock deduction on a raw material re-runs the query: fresh, equal rows
+        emit(menu("78.00"));
+
+        assertEquals(1, published.size());
+        assertSame(first, repository.getCurrent());
+    }
+
+    @Test
+    public void menuChangePublishesANewCatalogue() {
+        emit(menu("78.00"));
+        MenuCatalog first = repository.getCurrent();
+
+        emit(menu("80.00"));
+
+        assertEquals(2, published.size());
+        assertNotSame(first, repository.getCurrent());
+        assertEquals(80.0, repository.getCurrent().get(1).price, 0.0);
+    }
+
+    private void emit(List<ProductEntity> rows) {
+        menuRows.setValue(rows);
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private static List<ProductEntity> menu(String lattePrice) {
+        return Arrays.asList(product(1, "Latte", lattePrice), product(2, "Mocha", "98.00"));
+    }
+
+    private static ProductEntity product(long id, String name, String price) {
+        ProductEntity product = new ProductEntity();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory("COFFEE");
+        product.setPrice(new BigDecimal(price));
+        product.setQuantity(20);
+        product.setStatus("IN_STOCK");
+        return product;
+    }
+}
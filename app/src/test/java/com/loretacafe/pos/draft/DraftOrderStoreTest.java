@@ -0,0 +1,142 @@
+package com.loretacafe.pos.draft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.loretacafe.pos.CartItem;
+import com.loretacafe.pos.CartManager;
+import com.loretacafe.pos.Ticket;
+import com.loretacafe.pos.TicketManager;
+import com.loretacafe.pos.data.local.AppDatabase;
+import com.loretacafe.pos.data.local.DatabaseWriter;
+import com.loretacafe.pos.data.local.dao.DraftOrderDao;
+import com.loretacafe.pos.data.local.entity.DraftOrderRecordEntity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+/**
+ * Cart changes reach the journal, long drafts are folded into a snapshot, and
+ * a restart reopens the ticket from the journal even when the last records
+ * were cut short by the crash.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class DraftOrderStoreTest {
+
+    private AppDatabase database;
+    private DraftOrderDao dao;
+    private DraftOrderStore store;
+
+    @Before
+    public void setUp() {
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        dao = database.draftOrderDao();
+    }
+
+    @After
+    public void tearDown() {
+        TicketManager.resetInstance();
+        database.close();
+    }
+
+    @Test
+    public void cartChangesAreJournaled() {
+        TicketManager tickets = launch();
+        Ticket ticket = tickets.getActiveTicket();
+        CartItem latte = ticket.getCart().addItem(line(1));
+        CartItem mocha = ticket.getCart().addItem(line(2));
+        ticket.getCart().setQuantity(latte.getId(), 3);
+        ticket.getCart().removeItem(mocha.getId());
+        tickets.rename(ticket.getId(), "Table 4");
+
+        DraftRecords.Draft draft = DraftRecords.replay(dao.getForDraft(ticket.getId())).get(ticket.getId());
+
+        assertEquals(1, draft.lines.size());
+        assertEquals(3, draft.lines.get(latte.getId()).getQuantity());
+        assertEquals("Table 4", draft.label);
+    }
+
+    @Test
+    public void longDraftIsCompactedIntoASnapshot() {
+        TicketManager tickets = launch();
+        Ticket ticket = tickets.getActiveTicket();
+        CartItem latte = ticket.getCart().addItem(line(1));
+        tickets.rename(ticket.getId(), "Table 4");
+        int lastQuantity = 0;
+        for (int i = 0; i < DraftOrderStore.COMPACT_AFTER + 5; i++) {
+            lastQuantity = i + 2;
+            ticket.getCart().setQuantity(latte.getId(), lastQuantity);
+        }
+
+        List<DraftOrderRecordEntity> records = dao.getForDraft(ticket.getId());
+
+        assertTrue(records.size() < DraftOrderStore.COMPACT_AFTER);
+        assertEquals(DraftRecords.OP_SNAPSHOT, records.get(0).getOp());
+        DraftRecords.Draft draft = DraftRecords.replay(records).get(ticket.getId());
+        assertEquals(lastQuantity, draft.lines.get(latte.getId()).getQuantity());
+        // The label was journaled before the snapshot and is carried over
+        assertEquals("Table 4", draft.label);
+    }
+
+    @Test
+    public void restartReopensTheTicketPastATornRecord() {
+        TicketManager tickets = launch();
+        Ticket ticket = tickets.getActiveTicket();
+        CartManager cart = ticket.getCart();
+        CartItem latte = cart.addItem(line(1));
+        CartItem mocha = cart.addItem(line(2));
+        tickets.rename(ticket.getId(), "Table 4");
+        for (int i = 0; i < DraftOrderStore.COMPACT_AFTER; i++) {
+            cart.setQuantity(latte.getId(), i + 2);
+        }
+        // After the snapshot: one more change, then records cut short by the crash
+        cart.setQuantity(mocha.getId(), 5);
+        dao.insert(DraftRecords.record(ticket.getId(), DraftRecords.OP_PUT, "torn",
+                "{\"id\":\"torn\",\"p\":3,\"n\":\"Ta"));
+        dao.insert(DraftRecords.record(ticket.getId(), DraftRecords.OP_QUANTITY, latte.getId(), ""));
+        int latteQuantity = cart.getItem(latte.getId()).getQuantity();
+
+        // Process death: the tickets in memory are gone, the journal is not
+        TicketManager restarted = launch();
+        store.recover();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Ticket reopened = restarted.getTicket(ticket.getId());
+        assertNotNull(reopened);
+        assertEquals("Table 4", reopened.getLabel());
+        assertEquals(latteQuantity, reopened.getCart().getItem(latte.getId()).getQuantity());
+        assertEquals(5, reopened.getCart().getItem(mocha.getId()).getQuantity());
+        assertNull(reopened.getCart().getItem("torn"));
+        assertEquals(reopened, restarted.getActiveTicket());
+    }
+
+    /** Fresh tickets journaled into the shared database, as on a cold start. */
+    private TicketManager launch() {
+        TicketManager.resetInstance();
+        TicketManager tickets = TicketManager.getInstance();
+        // Writes run on the calling (main) thread
+        store = new DraftOrderStore(dao, new DatabaseWriter(database, Runnable::run), tickets);
+        return tickets;
+    }
+
+    private static CartItem line(long productId) {
+        return new CartItem(productId, "Product " + productId, "Coffee", "Grande", 1, 100);
+    }
+}
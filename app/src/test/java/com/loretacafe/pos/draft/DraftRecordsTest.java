@@ -0,0 +1,103 @@
+package com.loretacafe.pos.draft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.loretacafe.pos.CartItem;
+import com.loretacafe.pos.data.local.entity.DraftOrderRecordEntity;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replay rebuilds a draft from its records in order, a snapshot supersedes
+ * everything before it, and a record that can't be read costs only itself.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class DraftRecordsTest {
+
+    private static final String DRAFT = "ticket-1";
+
+    @Test
+    public void replayAppliesRecordsInOrder() throws Exception {
+        CartItem latte = line("latte", 1, 1);
+        CartItem mocha = line("mocha", 2, 1);
+        List<DraftOrderRecordEntity> records = Arrays.asList(
+                put(latte),
+                put(mocha),
+                DraftRecords.record(DRAFT, DraftRecords.OP_QUANTITY, "latte", "4"),
+                DraftRecords.record(DRAFT, DraftRecords.OP_REMOVE, "mocha", null),
+                DraftRecords.record(DRAFT, DraftRecords.OP_LABEL, null, "Table 4"));
+
+        DraftRecords.Draft draft = DraftRecords.replay(records).get(DRAFT);
+
+        assertEquals(Collections.singletonList("latte"), new ArrayList<>(draft.lines.keySet()));
+        assertEquals(4, draft.lines.get("latte").getQuantity());
+        assertEquals("Table 4", draft.label);
+    }
+
+    @Test
+    public void snapshotSupersedesEarlierRecords() throws Exception {
+        List<DraftOrderRecordEntity> records = Arrays.asList(
+                put(line("latte", 1, 3)),
+                DraftRecords.record(DRAFT, DraftRecords.OP_SNAPSHOT, null,
+                        DraftRecords.encodeLines(Collections.singletonList(line("mocha", 2, 1)))),
+                DraftRecords.record(DRAFT, DraftRecords.OP_QUANTITY, "mocha", "2"));
+
+        DraftRecords.Draft draft = DraftRecords.replay(records).get(DRAFT);
+
+        assertNull(draft.lines.get("latte"));
+        assertEquals(2, draft.lines.get("mocha").getQuantity());
+    }
+
+    @Test
+    public void unreadableRecordIsSkipped() throws Exception {
+        List<DraftOrderRecordEntity> records = Arrays.asList(
+                DraftRecords.record(DRAFT, DraftRecords.OP_SNAPSHOT, null,
+                        DraftRecords.encodeLines(Collections.singletonList(line("latte", 1, 2)))),
+                // Payloads cut short by the crash
+                DraftRecords.record(DRAFT, DraftRecords.OP_PUT, "torn", "{\"id\":\"torn\",\"p\":3,\"n\":\"Ta"),
+                DraftRecords.record(DRAFT, DraftRecords.OP_QUANTITY, "latte", ""),
+                put(line("mocha", 2, 1)));
+
+        Map<String, DraftRecords.Draft> drafts = DraftRecords.replay(records);
+        DraftRecords.Draft draft = drafts.get(DRAFT);
+
+        assertEquals(1, drafts.size());
+        assertEquals(Arrays.asList("latte", "mocha"), new ArrayList<>(draft.lines.keySet()));
+        assertEquals(2, draft.lines.get("latte").getQuantity());
+    }
+
+    @Test
+    public void linesRoundTripThroughTheirEncoding() throws Exception {
+        CartItem line = new CartItem("latte", 1, "Latte", "Coffee", "Grande", 2, 120.5,
+                Arrays.asList("Pearls", "Cheese Foam"));
+
+        CartItem read = DraftRecords.replay(Collections.singletonList(put(line))).get(DRAFT).lines.get("latte");
+
+        assertEquals(line.getProductId(), read.getProductId());
+        assertEquals("Latte", read.getProductName());
+        assertEquals("Grande", read.getSelectedSize());
+        assertEquals(2, read.getQuantity());
+        assertEquals(120.5, read.getUnitPrice(), 0.0);
+        assertEquals(Arrays.asList("Pearls", "Cheese Foam"), read.getSelectedAddOns());
+    }
+
+    private static DraftOrderRecordEntity put(CartItem line) throws Exception {
+        return DraftRecords.record(DRAFT, DraftRecords.OP_PUT, line.getId(), DraftRecords.encodeLine(line));
+    }
+
+    private static CartItem line(String id, long productId, int quantity) {
+        return new CartItem(id, productId, "Product " + productId, "Coffee", "Grande", quantity, 100,
+                Collections.emptyList());
+    }
+}
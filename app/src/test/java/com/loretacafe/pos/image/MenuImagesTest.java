@@ -0,0 +1,121 @@
+package com.loretacafe.pos.image;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Resources;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.loretacafe.pos.R;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Drawable-name lookups are cached, misses included, and replacing an upload
+ * deletes only that product's other files.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class MenuImagesTest {
+
+    private Context context;
+    private File uploads;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        uploads = new File(context.getFilesDir(), "menu_images");
+        assertTrue(uploads.isDirectory() || uploads.mkdirs());
+    }
+
+    @Test
+    public void drawableIdResolvesNames() {
+        assertEquals(R.drawable.ic_image_placeholder, MenuImages.drawableId(context, "ic_image_placeholder"));
+        assertEquals(0, MenuImages.drawableId(context, "no_such_drawable"));
+        assertEquals(0, MenuImages.drawableId(context, ""));
+        assertEquals(0, MenuImages.drawableId(context, null));
+    }
+
+    @Test
+    public void drawableIdLooksEachNameUpOnce() {
+        CountingContext counting = new CountingContext(context);
+
+        int id = MenuImages.drawableId(counting, "ic_image_placeholder");
+        int missing = MenuImages.drawableId(counting, "cache_test_missing_drawable");
+        int lookups = counting.resourceLookups;
+        assertEquals(id, MenuImages.drawableId(counting, "ic_image_placeholder"));
+        assertEquals(missing, MenuImages.drawableId(counting, "cache_test_missing_drawable"));
+
+        // Both the hit and the miss came from the cache the second time
+        assertEquals(lookups, counting.resourceLookups);
+        assertEquals(0, missing);
+    }
+
+    @Test
+    public void replacingAnUploadDeletesTheProductsOtherFiles() throws IOException {
+        File replaced = upload("product_5_1000.jpg");
+        File leftOver = upload("product_5_900.jpg");
+        File current = upload("product_5_2000.jpg");
+        // Same digits, different product
+        File otherProduct = upload("product_50_1000.jpg");
+
+        MenuImages.deleteReplacedUploads(context, 5, current.getAbsolutePath());
+
+        assertFalse(replaced.exists());
+        assertFalse(leftOver.exists());
+        assertTrue(current.exists());
+        assertTrue(otherProduct.exists());
+    }
+
+    @Test
+    public void withoutAPathToKeepEveryUploadOfTheProductGoes() throws IOException {
+        File photo = upload("product_7_1000.jpg");
+        File otherProduct = upload("product_8_1000.jpg");
+
+        MenuImages.deleteReplacedUploads(context, 7, null);
+
+        assertFalse(photo.exists());
+        assertTrue(otherProduct.exists());
+    }
+
+    @Test
+    public void productUsingADrawableKeepsNoUploads() throws IOException {
+        File photo = upload("product_9_1000.jpg");
+
+        MenuImages.deleteReplacedUploads(context, 9, "ic_image_placeholder");
+
+        assertFalse(photo.exists());
+    }
+
+    private File upload(String name) throws IOException {
+        File file = new File(uploads, name);
+        assertTrue(file.createNewFile());
+        return file;
+    }
+
+    /** Counts resource lookups, which {@code drawableId} only makes on a cache miss. */
+    private static final class CountingContext extends ContextWrapper {
+        int resourceLookups;
+
+        CountingContext(Context base) {
+            super(base);
+        }
+
+        @Override
+        public Resources getResources() {
+            resourceLookups++;
+            return super.getResources();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.loretacafe.pos.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Spans nest under the span current on their thread, {@link Span#child(String)}
+ * carries the parent to another thread, and the dump shows the tree.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PerfTest {
+
+    @Before
+    public void setUp() {
+        Perf.clear();
+    }
+
+    @Test
+    public void spansNestOnTheirThread() {
+        Span root = Perf.start("root");
+        Span first = Perf.start("first");
+        Span grandchild = Perf.start("grandchild");
+        grandchild.end();
+        first.end();
+        // first is over, so root is current again
+        Span second = Perf.start("second");
+        second.end();
+        root.end();
+
+        assertEquals(0, root.getParentId());
+        assertEquals(root.getId(), first.getParentId());
+        assertEquals(first.getId(), grandchild.getParentId());
+        assertEquals(root.getId(), second.getParentId());
+
+        // Nothing is current any more
+        Span next = Perf.start("next");
+        next.end();
+        assertEquals(0, next.getParentId());
+    }
+
+    @Test
+    public void childCarriesParentToAnotherThread() throws Exception {
+        Span root = Perf.startRoot("startup");
+        Span[] stage = new Span[1];
+        Span[] nested = new Span[1];
+        Thread worker = new Thread(() -> {
+            try (Span span = root.child("stage")) {
+                stage[0] = span;
+                try (Span inner = Perf.start("inner")) {
+                    nested[0] = inner;
+                }
+            }
+        }, "worker");
+        worker.start();
+        worker.join();
+        root.end();
+
+        assertEquals(root.getId(), stage[0].getParentId());
+        assertEquals(stage[0].getId(), nested[0].getParentId());
+        // A root span never becomes current on the thread that started it
+        Span unrelated = Perf.start("unrelated");
+        unrelated.end();
+        assertEquals(0, unrelated.getParentId());
+    }
+
+    @Test
+    public void endIsIdempotent() {
+        Span span = Perf.start("once");
+        span.end();
+        long duration = span.getDurationMs();
+        span.close();
+
+        assertTrue(duration >= 0);
+        assertEquals(duration, span.getDurationMs());
+        assertEquals(1, Perf.getFinishedSpans().size());
+    }
+
+    @Test
+    public void dumpIndentsChildrenUnderTheirParent() {
+        try (Span root = Perf.start("root")) {
+            try (Span ignored = Perf.start("child")) {
+                Perf.start("grandchild").end();
+            }
+        }
+        Perf.start("sibling").end();
+
+        List<String> lines = Arrays.asList(Perf.dump().split("\n"));
+        int root = indexOfSpan(lines, "root");
+        int child = indexOfSpan(lines, "child");
+        int grandchild = indexOfSpan(lines, "grandchild");
+        assertTrue(root < child && child < grandchild);
+        assertEquals(0, indent(lines.get(root)));
+        assertEquals(2, indent(lines.get(child)));
+        assertEquals(4, indent(lines.get(grandchild)));
+        assertEquals(0, indent(lines.get(indexOfSpan(lines, "sibling"))));
+    }
+
+    @Test
+    public void spanWithOpenParentIsShownAsRoot() {
+        Span open = Perf.start("open");
+        Perf.start("done").end();
+
+        List<String> lines = Arrays.asList(Perf.dump().split("\n"));
+        assertEquals(0, indent(lines.get(indexOfSpan(lines, "done"))));
+        assertEquals(-1, indexOfSpan(lines, "open"));
+        open.end();
+    }
+
+    private static int indexOfSpan(List<String> lines, String name) {
+        for (int i = 0; i < lines.size(); i++) {
+            // Tree lines read "<indent>+<ms> <name> <duration>ms [<thread>]"
+            String[] parts = lines.get(i).trim().split(" ");
+            if (parts.length >= 2 && parts[0].startsWith("+") && parts[1].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indent(String line) {
+        int spaces = 0;
+        while (spaces < line.length() && line.charAt(spaces) == ' ') {
+            spaces++;
+        }
+        return spaces;
+    }
+}
@@ -0,0 +1,92 @@
+package com.loretacafe.pos.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Prefix matching over the trie, the one-typo budget and result ranking.
+ */
+public class SearchIndexTest {
+
+    private static SearchIndex<String> menu() {
+        return SearchIndex.<String>builder()
+                .add("Spanish Latte", 5, "Spanish Latte", "Coffee")
+                .add("Café Latte", 20, "Café Latte (Iced)", "Coffee")
+                .add("Matcha Latte", 1, "Matcha Latte", "Non-Coffee")
+                .add("Americano", 0, "Americano", "Coffee")
+                .build();
+    }
+
+    @Test
+    public void tokenizeLowercasesAndStripsAccentsAndPunctuation() {
+        assertEquals(Arrays.asList("cafe", "latte", "iced"), SearchIndex.tokenize("Café Latte (Iced)"));
+        assertEquals(Collections.emptyList(), SearchIndex.tokenize("  - "));
+        assertEquals(Collections.emptyList(), SearchIndex.tokenize(null));
+    }
+
+    @Test
+    public void blankQueryReturnsEverythingInInsertionOrder() {
+        assertEquals(Arrays.asList("Spanish Latte", "Café Latte", "Matcha Latte", "Americano"),
+                menu().search(" "));
+    }
+
+    @Test
+    public void everyQueryTokenMustPrefixSomeItemToken() {
+        assertEquals(Collections.singletonList("Spanish Latte"), menu().search("spa lat"));
+        assertEquals(Collections.singletonList("Café Latte"), menu().search("cafe ice"));
+        // Accents in the query are ignored too
+        assertEquals(Collections.singletonList("Café Latte"), menu().search("CAFÉ"));
+        assertTrue(menu().search("spanish americano").isEmpty());
+    }
+
+    @Test
+    public void oneTypoIsForgivenOnLongerTokens() {
+        // Substitution, deletion and insertion, each one edit away from a prefix
+        assertEquals(Collections.singletonList("Americano"), menu().search("amerixano"));
+        assertEquals(Collections.singletonList("Americano"), menu().search("amricano"));
+        assertEquals(Collections.singletonList("Americano"), menu().search("ameriscano"));
+        // Two edits is too many
+        assertTrue(menu().search("amrixano").isEmpty());
+    }
+
+    @Test
+    public void shortTokensOnlyMatchExactly() {
+        // "mt" is one edit from "ma", but two-letter tokens get no typo budget
+        assertTrue(menu().search("mt").isEmpty());
+        assertEquals(Collections.singletonList("Matcha Latte"), menu().search("ma"));
+    }
+
+    @Test
+    public void exactHitsRankAboveTyposThenByWeight() {
+        // "latte" hits three items exactly; heavier first
+        assertEquals(Arrays.asList("Café Latte", "Spanish Latte", "Matcha Latte"), menu().search("latte"));
+
+        SearchIndex<String> index = SearchIndex.<String>builder()
+                .add("Mocha", 100, "Mocha")
+                .add("Macha", 0, "Macha")
+                .build();
+        // "macha" is exact for Macha and one typo for the heavier Mocha
+        assertEquals(Arrays.asList("Macha", "Mocha"), index.search("macha"));
+    }
+
+    @Test
+    public void equalWeightsKeepInsertionOrder() {
+        SearchIndex<String> index = SearchIndex.<String>builder()
+                .add("Iced Tea", 3, "Iced Tea")
+                .add("Iced Mocha", 3, "Iced Mocha")
+                .build();
+        assertEquals(Arrays.asList("Iced Tea", "Iced Mocha"), index.search("iced"));
+    }
+
+    @Test
+    public void emptyIndexFindsNothing() {
+        SearchIndex<String> index = SearchIndex.empty();
+        assertEquals(0, index.size());
+        assertTrue(index.search("latte").isEmpty());
+    }
+}
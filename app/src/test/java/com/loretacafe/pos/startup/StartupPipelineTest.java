@@ -0,0 +1,82 @@
+package com.loretacafe.pos.startup;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A stage that fails, even with an Error, neither blocks its dependents nor
+ * keeps the pipeline from reporting ready.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class StartupPipelineTest {
+
+    @Test
+    public void readyIsPostedWhenAStageThrowsAnError() throws Exception {
+        CountDownLatch dependentRan = new CountDownLatch(1);
+        StartupPipeline pipeline = new StartupPipeline()
+                .stage("broken", () -> {
+                    throw new ExceptionInInitializerError("static init failed");
+                })
+                .stage("after", dependentRan::countDown, "broken");
+        pipeline.readyWhen("broken", "after");
+        pipeline.start();
+
+        assertTrue(dependentRan.await(5, TimeUnit.SECONDS));
+        assertTrue(awaitReady(pipeline));
+    }
+
+    @Test
+    public void readyIsPostedWhenAStageThrowsAnException() throws Exception {
+        StartupPipeline pipeline = new StartupPipeline()
+                .stage("broken", () -> {
+                    throw new IllegalStateException("seed failed");
+                });
+        pipeline.readyWhen("broken");
+        pipeline.start();
+
+        assertTrue(awaitReady(pipeline));
+    }
+
+    @Test
+    public void notReadyUntilTheNamedStagesFinish() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StartupPipeline pipeline = new StartupPipeline()
+                .stage("slow", () -> {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        pipeline.readyWhen("slow");
+        pipeline.start();
+
+        shadowOf(Looper.getMainLooper()).idle();
+        assertFalse(pipeline.isReady());
+        release.countDown();
+        assertTrue(awaitReady(pipeline));
+    }
+
+    /** Ready is posted to the main looper, which only runs when the test idles it. */
+    private static boolean awaitReady(StartupPipeline pipeline) throws InterruptedException {
+        // Robolectric's SystemClock is frozen, so wait on wall time
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!pipeline.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        return pipeline.isReady();
+    }
+}
@@ -0,0 +1,133 @@
+package com.loretacafe.pos.ui.transactions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.loretacafe.pos.Transaction;
+import com.loretacafe.pos.data.local.entity.ProductEntity;
+import com.loretacafe.pos.data.local.entity.SaleEntity;
+import com.loretacafe.pos.data.local.entity.SaleItemEntity;
+import com.loretacafe.pos.data.local.model.SaleWithItems;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Each emission maps only what changed: a new sale, rows that name their
+ * items from the products that changed, or everything once the day rolls over.
+ */
+public class TransactionMapperTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 10, 6);
+    private static final int SALES = 20;
+
+    private LocalDate today;
+    private TransactionMapper mapper;
+
+    @Before
+    public void setUp() {
+        today = MONDAY;
+        mapper = new TransactionMapper(() -> today);
+    }
+
+    @Test
+    public void newSaleIsTheOnlyRowMapped() {
+        List<ProductEntity> products = products("Latte");
+        List<Transaction> first = mapper.map(sales(SALES), products);
+        assertEquals(SALES, mapper.mappedCount());
+
+        // Room hands over fresh objects with the same values, plus one new sale
+        List<SaleWithItems> next = sales(SALES);
+        next.add(sale(SALES + 1, "Mocha"));
+        List<Transaction> second = mapper.map(next, products);
+
+        assertEquals(1, mapper.mappedCount());
+        assertEquals(SALES, mapper.reusedCount());
+        assertEquals(SALES + 1, second.size());
+        // Newest first, and the old rows are the very same objects
+        assertEquals("#000021", second.get(0).getOrderId());
+        assertSame(first.get(0), second.get(1));
+    }
+
+    @Test
+    public void productChangeRemapsOnlyRowsNamedFromProducts() {
+        // Sale 1's item has no stored name, so its row shows the product's
+        mapper.map(sales(SALES, 1), products("Latte"));
+
+        List<Transaction> rows = mapper.map(sales(SALES, 1), products("Caffe Latte"));
+
+        assertEquals(1, mapper.mappedCount());
+        assertEquals(SALES - 1, mapper.reusedCount());
+        Transaction renamed = rows.get(rows.size() - 1);
+        assertEquals("Caffe Latte", renamed.getItems().get(0).getItemName());
+    }
+
+    @Test
+    public void dayRolloverRemapsEverything() {
+        List<Transaction> monday = mapper.map(sales(SALES), products("Latte"));
+        assertEquals("Today", monday.get(0).getSection());
+
+        today = MONDAY.plusDays(1);
+        List<Transaction> tuesday = mapper.map(sales(SALES), products("Latte"));
+
+        assertEquals(SALES, mapper.mappedCount());
+        assertEquals(0, mapper.reusedCount());
+        for (Transaction row : tuesday) {
+            assertEquals("Yesterday", row.getSection());
+        }
+    }
+
+    /** Sales 1..count, all rung up on Monday; the first {@code unnamed} items carry no name. */
+    private static List<SaleWithItems> sales(int count, int unnamed) {
+        List<SaleWithItems> sales = sales(count);
+        for (int i = 0; i < unnamed; i++) {
+            sales.get(i).items.get(0).setProductName(null);
+        }
+        return sales;
+    }
+
+    private static List<SaleWithItems> sales(int count) {
+        List<SaleWithItems> sales = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            sales.add(sale(id, "Latte"));
+        }
+        return sales;
+    }
+
+    private static SaleWithItems sale(long id, String itemName) {
+        SaleEntity sale = new SaleEntity();
+        sale.setId(id);
+        sale.setOrderNumber(String.format("#%06d", id));
+        sale.setSaleDate(OffsetDateTime.of(MONDAY.atTime(8, 0).plusMinutes(id), ZoneOffset.ofHours(8)));
+        sale.setTotalAmount(new BigDecimal("120.00"));
+        sale.setPaymentMethod("Cash");
+
+        SaleItemEntity item = new SaleItemEntity();
+        item.setId(id * 10);
+        item.setSaleId(id);
+        item.setProductId(1);
+        item.setQuantity(1);
+        item.setPrice(new BigDecimal("120.00"));
+        item.setProductName(itemName);
+
+        SaleWithItems saleWithItems = new SaleWithItems();
+        saleWithItems.sale = sale;
+        saleWithItems.items = new ArrayList<>(Collections.singletonList(item));
+        return saleWithItems;
+    }
+
+    private static List<ProductEntity> products(String name) {
+        ProductEntity product = new ProductEntity();
+        product.setId(1);
+        product.setName(name);
+        return Collections.singletonList(product);
+    }
+}